@@ -58,6 +58,24 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Headless world generation stats, e.g. ./gradlew worldGenBatch --args="--seeds 1000 --json gen.json"
+tasks.register<JavaExec>("worldGenBatch") {
+    group = "verification"
+    description = "Generates many worlds without a window and reports timing and failure stats."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("ohio.pugnetgames.chad.WorldGenBatch")
+    workingDir = rootDir
+}
+
+// Seeds with given maze properties, e.g. ./gradlew findSeeds --args="--min-bedrooms 6 --count 5"
+tasks.register<JavaExec>("findSeeds") {
+    group = "verification"
+    description = "Scans seeds (layout only) and prints the ones matching the given filters."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("ohio.pugnetgames.chad.SeedFinder")
+    workingDir = rootDir
+}
+
 // 💥 THE FIX: Configure the JAR task to create an Uber JAR (Fat JAR) 💥
 tasks.jar {
     // 1. Set the Main-Class
@@ -0,0 +1,271 @@
+package ohio.pugnetgames.chad;
+
+import ohio.pugnetgames.chad.core.Difficulty;
+import ohio.pugnetgames.chad.game.GenerationOptions;
+import ohio.pugnetgames.chad.game.KeyManager;
+import ohio.pugnetgames.chad.game.Room;
+import ohio.pugnetgames.chad.game.Tunnel;
+import ohio.pugnetgames.chad.game.WorldLayout;
+import ohio.pugnetgames.chad.game.WorldLoader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Finds seeds whose maze has certain properties (a long walk to the exit,
+ * a number of bedrooms, keys far apart, ...), for events and benchmarks.
+ *
+ * Only WorldLoader's layout phase runs for each seed (no geometry, no nav
+ * grid), and seeds are split across the common fork/join pool, so a 50-room
+ * maze takes a few microseconds per core. Seeds are scanned in blocks and
+ * matches come back in seed order, so the same search always gives the same
+ * answer no matter how many cores ran it.
+ *
+ * To run (from the project root, after a build):
+ *   java -cp build/classes/java/main ohio.pugnetgames.chad.SeedFinder [options]
+ *
+ * Options:
+ *   --seeds N              how many seeds to scan at most (default 1000000)
+ *   --start S              first seed; seeds are S, S+1, ... (default 1)
+ *   --difficulty D         EASY, HARD or MEGA (default EASY)
+ *   --layout L             RANDOM_GROWTH or SLOT_GRID (default RANDOM_GROWTH)
+ *   --count N              stop after this many matches (default 10)
+ *   --min-exit-distance F  walking distance from the start room to the exit
+ *   --min-bedrooms N       (also --min-courtyards, --min-padded-cells)
+ *   --key-spacing F        every two key rooms at least this far apart
+ */
+public class SeedFinder {
+
+    private static final int BLOCK_SIZE = 16384; // Seeds per block; the search can stop after any block
+    private static final int LEAF_SIZE = 256;    // Seeds one fork/join task handles without splitting
+
+    /** One seed's (winnable) layout, plus the numbers filters usually look at. */
+    public static class Candidate {
+        public final long seed;
+        public final WorldLayout layout;
+        /** Rooms KeyManager will put keys in for this seed. */
+        public final List<Room> keyRooms;
+        /** Tunnels walked through from the start room to the exit (the escape tunnel counts). */
+        public final int exitDepth;
+        /**
+         * Walking distance from the start room's center to the end of the
+         * escape tunnel, along the tunnels the maze was grown through (slot
+         * grid loops can make the real walk shorter).
+         */
+        public final float exitDistance;
+
+        Candidate(long seed, WorldLayout layout, List<Room> keyRooms) {
+            this.seed = seed;
+            this.layout = layout;
+            this.keyRooms = keyRooms;
+
+            // Each room hangs off the room it was dug from, so walk the rooms in order.
+            // That's the first tunnel into a room; loop tunnels come after the tree.
+            int roomCount = layout.rooms.size();
+            Tunnel[] entrance = new Tunnel[roomCount];
+            for (Tunnel tunnel : layout.tunnels) {
+                if (entrance[tunnel.toRoom.index] == null) {
+                    entrance[tunnel.toRoom.index] = tunnel;
+                }
+            }
+            int[] depth = new int[roomCount];
+            float[] distance = new float[roomCount];
+            for (Room room : layout.rooms) {
+                Tunnel in = entrance[room.index];
+                if (in == null) continue; // Start room
+                depth[room.index] = depth[in.fromRoom.index] + 1;
+                distance[room.index] = distance[in.fromRoom.index] + centerDistance(in.fromRoom, room);
+            }
+
+            Tunnel escape = layout.escapeTunnel;
+            Room exitRoom = escape.fromRoom;
+            float exitX = (escape.minX + escape.maxX) / 2.0f;
+            float exitZ = (escape.minZ + escape.maxZ) / 2.0f;
+            switch (escape.direction) {
+                case NORTH: exitZ = escape.maxZ; break;
+                case SOUTH: exitZ = escape.minZ; break;
+                case EAST:  exitX = escape.maxX; break;
+                case WEST:  exitX = escape.minX; break;
+            }
+            this.exitDepth = depth[exitRoom.index] + 1;
+            this.exitDistance = distance[exitRoom.index]
+                    + Math.abs(exitX - exitRoom.getCenterX()) + Math.abs(exitZ - exitRoom.getCenterZ());
+        }
+
+        /** Number of rooms of the given type. */
+        public int count(Room.RoomType type) {
+            int count = 0;
+            for (Room room : layout.rooms) {
+                if (room.getType() == type) count++;
+            }
+            return count;
+        }
+
+        /** Smallest distance between the centers of two key rooms (infinite with fewer than two keys). */
+        public float minKeySpacing() {
+            float min = Float.POSITIVE_INFINITY;
+            for (int i = 0; i < keyRooms.size(); i++) {
+                for (int j = i + 1; j < keyRooms.size(); j++) {
+                    min = Math.min(min, centerDistance(keyRooms.get(i), keyRooms.get(j)));
+                }
+            }
+            return min;
+        }
+
+        // Tunnels are straight, so rooms are lined up on one axis and this is the walk between them
+        private static float centerDistance(Room a, Room b) {
+            return Math.abs(a.getCenterX() - b.getCenterX()) + Math.abs(a.getCenterZ() - b.getCenterZ());
+        }
+    }
+
+    // --- Common filters ---
+
+    public static Predicate<Candidate> minExitDistance(float distance) {
+        return c -> c.exitDistance >= distance;
+    }
+
+    public static Predicate<Candidate> minRooms(Room.RoomType type, int count) {
+        return c -> c.count(type) >= count;
+    }
+
+    public static Predicate<Candidate> keySpacing(float minSpacing) {
+        return c -> c.minKeySpacing() >= minSpacing;
+    }
+
+    // --- Search ---
+
+    /**
+     * Scans seeds startSeed, startSeed + 1, ... and returns the first ones
+     * whose layout passes the filter, in seed order. Seeds whose layout isn't
+     * winnable are never returned.
+     *
+     * @param seedCount  How many seeds to scan at most.
+     * @param maxResults Stop once this many seeds have matched.
+     * @param options    Only the room count and layout settings matter; logging is always off.
+     * @param keyCount   Keys per maze, so filters can look at the key rooms.
+     */
+    public static List<Long> find(long startSeed, long seedCount, int maxResults, GenerationOptions options,
+                                  int keyCount, Predicate<Candidate> filter) {
+        GenerationOptions quiet = GenerationOptions.defaults();
+        quiet.roomCount = options.roomCount;
+        quiet.layoutAlgorithm = options.layoutAlgorithm;
+        quiet.loopChance = options.loopChance;
+        quiet.verboseLogging = false;
+
+        List<Long> matches = new ArrayList<>();
+        for (long offset = 0; offset < seedCount && matches.size() < maxResults; offset += BLOCK_SIZE) {
+            long blockSize = Math.min(BLOCK_SIZE, seedCount - offset);
+            matches.addAll(ForkJoinPool.commonPool().invoke(
+                    new SeedRangeTask(startSeed + offset, blockSize, quiet, keyCount, filter)));
+        }
+        return matches.size() > maxResults ? new ArrayList<>(matches.subList(0, maxResults)) : matches;
+    }
+
+    /** Checks one range of seeds, splitting it in half until it is small. */
+    private static class SeedRangeTask extends RecursiveTask<List<Long>> {
+        private static final long serialVersionUID = 1L;
+
+        private final long firstSeed;
+        private final long count;
+        private final GenerationOptions options;
+        private final int keyCount;
+        private final Predicate<Candidate> filter;
+
+        SeedRangeTask(long firstSeed, long count, GenerationOptions options, int keyCount, Predicate<Candidate> filter) {
+            this.firstSeed = firstSeed;
+            this.count = count;
+            this.options = options;
+            this.keyCount = keyCount;
+            this.filter = filter;
+        }
+
+        @Override
+        protected List<Long> compute() {
+            if (count > LEAF_SIZE) {
+                long half = count / 2;
+                SeedRangeTask left = new SeedRangeTask(firstSeed, half, options, keyCount, filter);
+                SeedRangeTask right = new SeedRangeTask(firstSeed + half, count - half, options, keyCount, filter);
+                left.fork();
+                List<Long> rightMatches = right.compute();
+                List<Long> matches = left.join();
+                matches.addAll(rightMatches);
+                return matches;
+            }
+
+            List<Long> matches = new ArrayList<>();
+            WorldLoader loader = new WorldLoader(); // Not thread-safe, so one per task
+            for (long seed = firstSeed; seed < firstSeed + count; seed++) {
+                WorldLayout layout = loader.generateLayout(seed, options);
+                if (!layout.isWinnable()) continue;
+                List<Room> keyRooms = KeyManager.chooseKeyRooms(layout.rooms, keyCount, new Random(seed));
+                if (filter.test(new Candidate(seed, layout, keyRooms))) {
+                    matches.add(seed);
+                }
+            }
+            return matches;
+        }
+    }
+
+    // --- Command line ---
+
+    public static void main(String[] args) {
+        long seeds = 1_000_000;
+        long startSeed = 1;
+        Difficulty difficulty = Difficulty.EASY;
+        GenerationOptions.LayoutAlgorithm layout = GenerationOptions.LayoutAlgorithm.RANDOM_GROWTH;
+        int maxResults = 10;
+        Predicate<Candidate> filter = c -> true;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--seeds": seeds = Long.parseLong(value); i++; break;
+                case "--start": startSeed = Long.parseLong(value); i++; break;
+                case "--difficulty": difficulty = Difficulty.valueOf(value.toUpperCase(Locale.ROOT)); i++; break;
+                case "--layout": layout = GenerationOptions.LayoutAlgorithm.valueOf(value.toUpperCase(Locale.ROOT)); i++; break;
+                case "--count": maxResults = Integer.parseInt(value); i++; break;
+                case "--min-exit-distance": filter = filter.and(minExitDistance(Float.parseFloat(value))); i++; break;
+                case "--min-bedrooms": filter = filter.and(minRooms(Room.RoomType.BEDROOM, Integer.parseInt(value))); i++; break;
+                case "--min-courtyards": filter = filter.and(minRooms(Room.RoomType.COURTYARD, Integer.parseInt(value))); i++; break;
+                case "--min-padded-cells": filter = filter.and(minRooms(Room.RoomType.PADDED_CELL, Integer.parseInt(value))); i++; break;
+                case "--key-spacing": filter = filter.and(keySpacing(Float.parseFloat(value))); i++; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: SeedFinder [--seeds N] [--start S] [--difficulty EASY|HARD|MEGA]"
+                            + " [--layout RANDOM_GROWTH|SLOT_GRID] [--count N]"
+                            + " [--min-exit-distance F] [--min-bedrooms N] [--min-courtyards N]"
+                            + " [--min-padded-cells N] [--key-spacing F]");
+                    return;
+            }
+        }
+
+        GenerationOptions options = GenerationOptions.forDifficulty(difficulty);
+        options.layoutAlgorithm = layout;
+        options.verboseLogging = false;
+
+        System.out.println("[SeedFinder] Scanning up to " + seeds + " " + difficulty + " " + layout + " seeds from " + startSeed
+                + " on " + ForkJoinPool.getCommonPoolParallelism() + " threads...");
+
+        long start = System.nanoTime();
+        List<Long> matches = find(startSeed, seeds, maxResults, options, difficulty.getKeyCount(), filter);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        WorldLoader loader = new WorldLoader();
+        for (long seed : matches) {
+            WorldLayout found = loader.generateLayout(seed, options);
+            Candidate c = new Candidate(seed, found,
+                    KeyManager.chooseKeyRooms(found.rooms, difficulty.getKeyCount(), new Random(seed)));
+            System.out.printf(Locale.ROOT, "%d  rooms %d  exit %.0f (%d tunnels)  bedrooms %d  courtyards %d  padded cells %d  key spacing %.0f%n",
+                    seed, found.rooms.size(), c.exitDistance, c.exitDepth, c.count(Room.RoomType.BEDROOM),
+                    c.count(Room.RoomType.COURTYARD), c.count(Room.RoomType.PADDED_CELL), c.minKeySpacing());
+        }
+        // The search stops early once it has enough matches, so only a full scan gives a rate
+        String rate = matches.size() < maxResults ? String.format(Locale.ROOT, " (%.0f seeds/s)", seeds / seconds) : "";
+        System.out.printf(Locale.ROOT, "[SeedFinder] %d matches in %.2f s%s%n", matches.size(), seconds, rate);
+    }
+}
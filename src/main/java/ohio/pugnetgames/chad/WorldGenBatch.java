@@ -0,0 +1,382 @@
+package ohio.pugnetgames.chad;
+
+import ohio.pugnetgames.chad.core.Difficulty;
+import ohio.pugnetgames.chad.game.GameObject;
+import ohio.pugnetgames.chad.game.GenerationOptions;
+import ohio.pugnetgames.chad.game.PathNode;
+import ohio.pugnetgames.chad.game.PathfindingManager;
+import ohio.pugnetgames.chad.game.Room;
+import ohio.pugnetgames.chad.game.World;
+import ohio.pugnetgames.chad.game.WorldLoader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless world generation runner. Generates a batch of seeds in parallel
+ * (no window, no GL context), then reports how generation went: timing
+ * percentiles, object counts, room mix and how many seeds failed.
+ *
+ * A seed "fails" if generation throws, the escape tunnel wasn't built, or
+ * the escape can't be reached from the start room on the nav grid.
+ *
+ * Each seed's generation plus nav grid time is also checked against the
+ * difficulty's time target (see GenerationOptions). Heap can't be told apart
+ * per seed while seeds run in parallel, so after the batch the first seed is
+ * generated once more on its own and the heap it keeps (measured after a GC)
+ * is checked against the memory target.
+ *
+ * To run (from the project root, after a build):
+ *   java -cp build/classes/java/main ohio.pugnetgames.chad.WorldGenBatch [options]
+ *
+ * Options:
+ *   --seeds N          how many seeds to generate (default 1000)
+ *   --start S          first seed; seeds are S, S+1, ... (default 1)
+ *   --difficulty D     EASY, HARD or MEGA (default EASY)
+ *   --layout L         RANDOM_GROWTH or SLOT_GRID (default RANDOM_GROWTH)
+ *   --threads T        worker threads (default: one per core)
+ *   --csv FILE         write one row per seed
+ *   --json FILE        write the summary as JSON
+ *   --enforce-targets  exit with status 1 if any target was missed
+ *
+ * Timings are wall-clock per seed while other seeds run alongside, so
+ * compare runs made with the same thread count.
+ */
+public class WorldGenBatch {
+
+    // Stand-in texture IDs; nothing gets drawn
+    private static final int WALL_TEX = 1, ORB_TEX = 2, WOOD_TEX = 3, SHEETS_TEX = 4, TILE_TEX = 5;
+
+    /** What we measured for one seed. */
+    private static class SeedResult {
+        long seed;
+        long generationMs;
+        long navGridMs;
+        int rooms;
+        int objects;
+        int navTiles;
+        int[] roomTypes = new int[Room.RoomType.values().length];
+        boolean escapeBuilt;
+        boolean escapeReachable;
+        boolean overTimeTarget;
+        String error = "";
+
+        boolean failed() {
+            return !error.isEmpty() || !escapeBuilt || !escapeReachable;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seeds = 1000;
+        long startSeed = 1;
+        Difficulty difficulty = Difficulty.EASY;
+        GenerationOptions.LayoutAlgorithm layout = GenerationOptions.LayoutAlgorithm.RANDOM_GROWTH;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path csvFile = null;
+        Path jsonFile = null;
+        boolean enforceTargets = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : "";
+            switch (args[i]) {
+                case "--seeds": seeds = Integer.parseInt(value); i++; break;
+                case "--start": startSeed = Long.parseLong(value); i++; break;
+                case "--difficulty": difficulty = Difficulty.valueOf(value.toUpperCase(Locale.ROOT)); i++; break;
+                case "--layout": layout = GenerationOptions.LayoutAlgorithm.valueOf(value.toUpperCase(Locale.ROOT)); i++; break;
+                case "--threads": threads = Math.max(1, Integer.parseInt(value)); i++; break;
+                case "--csv": csvFile = Paths.get(value); i++; break;
+                case "--json": jsonFile = Paths.get(value); i++; break;
+                case "--enforce-targets": enforceTargets = true; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: WorldGenBatch [--seeds N] [--start S] [--difficulty EASY|HARD|MEGA]"
+                            + " [--layout RANDOM_GROWTH|SLOT_GRID] [--threads T] [--csv FILE] [--json FILE] [--enforce-targets]");
+                    return;
+            }
+        }
+
+        System.out.println("[WorldGenBatch] Generating " + seeds + " " + difficulty + " " + layout + " worlds from seed "
+                + startSeed + " on " + threads + " threads...");
+
+        // The generator and pathfinder log every world they build; mute them for the batch
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        long batchStart = System.currentTimeMillis();
+        List<SeedResult> results = new ArrayList<>(seeds);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "worldgen-batch");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<SeedResult>> futures = new ArrayList<>(seeds);
+            for (int i = 0; i < seeds; i++) {
+                long seed = startSeed + i;
+                GenerationOptions options = batchOptions(difficulty, layout);
+                futures.add(pool.submit(() -> runSeed(seed, options)));
+            }
+            int done = 0;
+            for (Future<SeedResult> future : futures) {
+                results.add(future.get());
+                done++;
+                if (done % 100 == 0 || done == seeds) {
+                    console.println("[WorldGenBatch] " + done + " / " + seeds);
+                }
+            }
+        } catch (ExecutionException e) {
+            System.setOut(console);
+            throw e;
+        } finally {
+            pool.shutdownNow();
+            // Let the workers exit so nothing they held counts towards the heap reading below
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+            System.setOut(console);
+        }
+        long batchMs = System.currentTimeMillis() - batchStart;
+
+        GenerationOptions targets = GenerationOptions.forDifficulty(difficulty);
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        double heapMb;
+        try {
+            heapMb = measureWorldHeapMb(startSeed, batchOptions(difficulty, layout));
+        } finally {
+            System.setOut(console);
+        }
+
+        Summary summary = new Summary(results, difficulty, threads, batchMs, targets, heapMb);
+        summary.print();
+        if (csvFile != null) {
+            writeCsv(csvFile, results);
+            System.out.println("[WorldGenBatch] Wrote per-seed results to " + csvFile.toAbsolutePath());
+        }
+        if (jsonFile != null) {
+            Files.writeString(jsonFile, summary.toJson());
+            System.out.println("[WorldGenBatch] Wrote summary to " + jsonFile.toAbsolutePath());
+        }
+        if (enforceTargets && summary.missedTargets()) {
+            System.err.printf(Locale.ROOT, "[WorldGenBatch] Targets missed: %d seeds over %d ms, heap %.1f MB (target %d MB)%n",
+                    summary.overTimeTarget, targets.generationTimeTargetMs, heapMb, targets.memoryTargetMb);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates one world with its nav grid on this thread and returns how much
+     * heap it keeps alive, in megabytes. Both readings are taken after a GC so
+     * only the finished world counts, not the garbage left from building it.
+     */
+    private static double measureWorldHeapMb(long seed, GenerationOptions options) {
+        long baseline = GenerationOptions.usedHeapBytesAfterGc();
+        World world = new WorldLoader().generateWorld(WALL_TEX, ORB_TEX, WOOD_TEX, SHEETS_TEX, TILE_TEX, seed, options);
+        PathfindingManager pathfinder = new PathfindingManager();
+        pathfinder.buildGrid(world);
+        long used = GenerationOptions.usedHeapBytesAfterGc();
+        // Keep both alive until after the measurement
+        Reference.reachabilityFence(world);
+        Reference.reachabilityFence(pathfinder);
+        return Math.max(0, used - baseline) / (1024.0 * 1024.0);
+    }
+
+    /** Options for one batch world; each world gets its own copy. */
+    private static GenerationOptions batchOptions(Difficulty difficulty, GenerationOptions.LayoutAlgorithm layout) {
+        GenerationOptions options = GenerationOptions.forDifficulty(difficulty);
+        options.verboseLogging = false;
+        options.layoutAlgorithm = layout;
+        return options;
+    }
+
+    private static SeedResult runSeed(long seed, GenerationOptions options) {
+        SeedResult result = new SeedResult();
+        result.seed = seed;
+        try {
+            long start = System.nanoTime();
+            World world = new WorldLoader().generateWorld(WALL_TEX, ORB_TEX, WOOD_TEX, SHEETS_TEX, TILE_TEX, seed, options);
+            long generated = System.nanoTime();
+            PathfindingManager pathfinder = new PathfindingManager();
+            pathfinder.buildGrid(world);
+            long gridBuilt = System.nanoTime();
+
+            result.generationMs = (generated - start) / 1_000_000;
+            result.navGridMs = (gridBuilt - generated) / 1_000_000;
+            result.overTimeTarget = result.generationMs + result.navGridMs > options.generationTimeTargetMs;
+            result.rooms = world.getAllRooms().size();
+            result.objects = world.getStaticObjects().size();
+            result.navTiles = pathfinder.getTileCount();
+            for (Room room : world.getAllRooms()) {
+                result.roomTypes[room.getType().ordinal()]++;
+            }
+
+            GameObject trigger = world.getWinTrigger();
+            result.escapeBuilt = trigger != null;
+            if (trigger != null) {
+                // The door only opens once all keys are in; open it like the game does
+                GameObject door = world.getEscapeDoor();
+                if (door != null) {
+                    pathfinder.openDoorInGrid(door);
+                }
+                List<PathNode> path = pathfinder.findPath(0.0f, 0.0f, trigger.getPosX(), trigger.getPosZ());
+                result.escapeReachable = path != null && !path.isEmpty();
+            }
+        } catch (RuntimeException e) {
+            result.error = e.toString();
+        }
+        return result;
+    }
+
+    // --- Reporting ---
+
+    private static void writeCsv(Path file, List<SeedResult> results) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("seed,generation_ms,nav_grid_ms,rooms,objects,nav_tiles");
+        for (Room.RoomType type : Room.RoomType.values()) {
+            sb.append(',').append(type.name().toLowerCase(Locale.ROOT)).append("_rooms");
+        }
+        sb.append(",escape_built,escape_reachable,over_time_target,error\n");
+        for (SeedResult r : results) {
+            sb.append(r.seed).append(',').append(r.generationMs).append(',').append(r.navGridMs).append(',')
+                    .append(r.rooms).append(',').append(r.objects).append(',').append(r.navTiles);
+            for (int count : r.roomTypes) {
+                sb.append(',').append(count);
+            }
+            sb.append(',').append(r.escapeBuilt).append(',').append(r.escapeReachable).append(',')
+                    .append(r.overTimeTarget).append(',')
+                    .append('"').append(r.error.replace("\"", "'")).append('"').append('\n');
+        }
+        Files.writeString(file, sb.toString());
+    }
+
+    /** Aggregated numbers for the whole batch. */
+    private static class Summary {
+        final Difficulty difficulty;
+        final int seeds;
+        final int threads;
+        final long batchMs;
+        final long[] generationMs;
+        final long[] navGridMs;
+        final long[] objects;
+        final long[] roomTypeTotals = new long[Room.RoomType.values().length];
+        final GenerationOptions targets;
+        final double heapMb;
+        int errors, noEscape, unreachable, failed, overTimeTarget;
+
+        Summary(List<SeedResult> results, Difficulty difficulty, int threads, long batchMs,
+                GenerationOptions targets, double heapMb) {
+            this.difficulty = difficulty;
+            this.targets = targets;
+            this.heapMb = heapMb;
+            this.seeds = results.size();
+            this.threads = threads;
+            this.batchMs = batchMs;
+            generationMs = new long[seeds];
+            navGridMs = new long[seeds];
+            objects = new long[seeds];
+            for (int i = 0; i < seeds; i++) {
+                SeedResult r = results.get(i);
+                generationMs[i] = r.generationMs;
+                navGridMs[i] = r.navGridMs;
+                objects[i] = r.objects;
+                for (int t = 0; t < roomTypeTotals.length; t++) {
+                    roomTypeTotals[t] += r.roomTypes[t];
+                }
+                if (!r.error.isEmpty()) errors++;
+                else if (!r.escapeBuilt) noEscape++;
+                else if (!r.escapeReachable) unreachable++;
+                if (r.failed()) failed++;
+                if (r.overTimeTarget) overTimeTarget++;
+            }
+            Arrays.sort(generationMs);
+            Arrays.sort(navGridMs);
+            Arrays.sort(objects);
+        }
+
+        boolean missedTargets() {
+            return overTimeTarget > 0 || heapMb > targets.memoryTargetMb;
+        }
+
+        double failureRate() {
+            return seeds == 0 ? 0.0 : (double) failed / seeds;
+        }
+
+        void print() {
+            System.out.println("--------------------------------------------------------------------------------");
+            System.out.printf("%d %s worlds in %.1f s on %d threads%n", seeds, difficulty, batchMs / 1000.0, threads);
+            System.out.println("  generation ms  " + percentiles(generationMs));
+            System.out.println("  nav grid ms    " + percentiles(navGridMs));
+            System.out.println("  objects        " + percentiles(objects));
+            StringBuilder mix = new StringBuilder();
+            long totalRooms = Arrays.stream(roomTypeTotals).sum();
+            for (Room.RoomType type : Room.RoomType.values()) {
+                mix.append(String.format(Locale.ROOT, "%s %.1f%%  ", type,
+                        totalRooms == 0 ? 0.0 : 100.0 * roomTypeTotals[type.ordinal()] / totalRooms));
+            }
+            System.out.println("  room mix       " + mix.toString().trim());
+            System.out.printf(Locale.ROOT, "  failures       %d (%.2f%%): %d errors, %d without escape, %d escape unreachable%n",
+                    failed, 100.0 * failureRate(), errors, noEscape, unreachable);
+            System.out.printf(Locale.ROOT, "  time target    %d seeds over %d ms%s%n", overTimeTarget,
+                    targets.generationTimeTargetMs, overTimeTarget > 0 ? "  MISSED" : "");
+            System.out.printf(Locale.ROOT, "  heap target    %.1f MB for one world, target %d MB%s%n", heapMb,
+                    targets.memoryTargetMb, heapMb > targets.memoryTargetMb ? "  MISSED" : "");
+            System.out.println("--------------------------------------------------------------------------------");
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\n");
+            sb.append("  \"difficulty\": \"").append(difficulty).append("\",\n");
+            sb.append("  \"seeds\": ").append(seeds).append(",\n");
+            sb.append("  \"threads\": ").append(threads).append(",\n");
+            sb.append("  \"batchMs\": ").append(batchMs).append(",\n");
+            sb.append("  \"generationMs\": ").append(percentilesJson(generationMs)).append(",\n");
+            sb.append("  \"navGridMs\": ").append(percentilesJson(navGridMs)).append(",\n");
+            sb.append("  \"objects\": ").append(percentilesJson(objects)).append(",\n");
+            sb.append("  \"roomTypes\": {");
+            for (Room.RoomType type : Room.RoomType.values()) {
+                if (type.ordinal() > 0) sb.append(", ");
+                sb.append('"').append(type).append("\": ").append(roomTypeTotals[type.ordinal()]);
+            }
+            sb.append("},\n");
+            sb.append("  \"errors\": ").append(errors).append(",\n");
+            sb.append("  \"noEscape\": ").append(noEscape).append(",\n");
+            sb.append("  \"escapeUnreachable\": ").append(unreachable).append(",\n");
+            sb.append("  \"timeTargetMs\": ").append(targets.generationTimeTargetMs).append(",\n");
+            sb.append("  \"overTimeTarget\": ").append(overTimeTarget).append(",\n");
+            sb.append("  \"heapMb\": ").append(String.format(Locale.ROOT, "%.1f", heapMb)).append(",\n");
+            sb.append("  \"memoryTargetMb\": ").append(targets.memoryTargetMb).append(",\n");
+            sb.append("  \"targetsMissed\": ").append(missedTargets()).append(",\n");
+            sb.append("  \"failureRate\": ").append(String.format(Locale.ROOT, "%.4f", failureRate())).append('\n');
+            sb.append("}\n");
+            return sb.toString();
+        }
+
+        private static long pick(long[] sorted, double fraction) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+        }
+
+        private static String percentiles(long[] sorted) {
+            return String.format(Locale.ROOT, "p50 %-7d p90 %-7d p99 %-7d max %d",
+                    pick(sorted, 0.50), pick(sorted, 0.90), pick(sorted, 0.99), pick(sorted, 1.0));
+        }
+
+        private static String percentilesJson(long[] sorted) {
+            return "{\"p50\": " + pick(sorted, 0.50) + ", \"p90\": " + pick(sorted, 0.90)
+                    + ", \"p99\": " + pick(sorted, 0.99) + ", \"max\": " + pick(sorted, 1.0) + "}";
+        }
+    }
+}
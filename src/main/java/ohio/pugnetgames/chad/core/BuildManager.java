@@ -40,6 +40,34 @@ public class BuildManager {
         return "true".equalsIgnoreCase(value);
     }
 
+    /**
+     * Gets an integer value from the loaded build.properties file.
+     *
+     * @param key          The property key (e.g., "endless.residentObjectBudget")
+     * @param defaultValue Returned when the key is missing or not a number.
+     */
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(buildProps.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets a float value from the loaded build.properties file.
+     *
+     * @param key          The property key (e.g., "endless.keepRadius")
+     * @param defaultValue Returned when the key is missing or not a number.
+     */
+    public static float getFloat(String key, float defaultValue) {
+        try {
+            return Float.parseFloat(buildProps.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     /**
      * --- NEW: Checks all features and prints their status ---
      * Loops through all properties, and if the key starts with "feature.",
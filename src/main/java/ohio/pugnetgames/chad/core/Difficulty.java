@@ -2,9 +2,42 @@ package ohio.pugnetgames.chad.core;
 
 /**
  * Represents the game difficulty.
- * This determines key count and score rewards.
+ * This determines key count, maze size and score rewards.
  */
 public enum Difficulty {
-    EASY,
-    HARD
-}
\ No newline at end of file
+    EASY(3, 50, 1),
+    HARD(10, 50, 5),
+    /** Stress tier: thousands of rooms. Anything that doesn't scale shows up here first. */
+    MEGA(25, 3000, 20);
+
+    private final int keyCount;
+    private final int roomCount;
+    private final int winReward;
+
+    Difficulty(int keyCount, int roomCount, int winReward) {
+        this.keyCount = keyCount;
+        this.roomCount = roomCount;
+        this.winReward = winReward;
+    }
+
+    /** Number of keys that must be collected before the exit opens. */
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /** Base number of rooms in the maze (the generator may add one more). */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /** Wins added to the best score when a run on this difficulty is won. */
+    public int getWinReward() {
+        return winReward;
+    }
+
+    /** The next difficulty in the create-run toggle (wraps around). */
+    public Difficulty next() {
+        Difficulty[] all = values();
+        return all[(ordinal() + 1) % all.length];
+    }
+}
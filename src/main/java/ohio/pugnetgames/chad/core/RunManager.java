@@ -11,7 +11,8 @@ import java.util.*;
  * Save structure:
  *   ~/.orbCollectorGame/runs/{id}/
  *       meta.dat   — name, difficulty, timestamps, status, elapsed time
- *       state.dat  — world seed, player position/rotation, key collection state
+ *       state.dat  — world seed, player position/rotation, key collection state, explored area
+ *       world.bin  — binary snapshot of the generated world (see WorldSnapshot)
  */
 public class RunManager {
 
@@ -86,6 +87,10 @@ public class RunManager {
             keys.append(state.keysCollected[i]);
         }
         sb.append("keys=").append(keys).append('\n');
+        // explored: the fog of war mask, already run-length encoded
+        if (state.explored != null) {
+            sb.append("explored=").append(Base64.getEncoder().encodeToString(state.explored)).append('\n');
+        }
         writeFile(file, sb.toString());
     }
 
@@ -106,13 +111,32 @@ public class RunManager {
             float   pitch   = Float.parseFloat(props.get("pitch"));
             String  keyStr  = props.getOrDefault("keys", "");
             boolean[] keys  = parseKeys(keyStr);
-            return new RunState(seed, px, py, pz, yaw, pitch, keys);
+            byte[]  explored    = parseExplored(props.get("explored"), run);
+            return new RunState(seed, px, py, pz, yaw, pitch, keys, explored);
         } catch (Exception e) {
             System.err.println("[RunManager] Corrupt state.dat for run '" + run.id + "': " + e.getMessage());
             return null;
         }
     }
 
+    /** A bad explored area only loses the fog of war, not the whole run. */
+    private byte[] parseExplored(String value, RunData run) {
+        if (value == null) return null;
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            System.err.println("[RunManager] Ignoring bad explored area for run '" + run.id + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Where the run's world snapshot lives. The file may not exist yet.
+     */
+    public Path getWorldSnapshotFile(RunData run) {
+        return run.folderPath.resolve("world.bin");
+    }
+
     /**
      * Marks a run as completed and persists the final elapsed time.
      */
@@ -25,8 +25,20 @@ public class RunState {
      */
     public final boolean[] keysCollected;
 
+    /**
+     * The map's explored area, run-length encoded (see ExplorationMask),
+     * or null if the fog of war is off or the save predates it.
+     */
+    public final byte[] explored;
+
+    /** A state with no explored area saved. */
     public RunState(long worldSeed, float playerX, float playerY, float playerZ,
                     float yaw, float pitch, boolean[] keysCollected) {
+        this(worldSeed, playerX, playerY, playerZ, yaw, pitch, keysCollected, null);
+    }
+
+    public RunState(long worldSeed, float playerX, float playerY, float playerZ,
+                    float yaw, float pitch, boolean[] keysCollected, byte[] explored) {
         this.worldSeed     = worldSeed;
         this.playerX       = playerX;
         this.playerY       = playerY;
@@ -34,5 +46,6 @@ public class RunState {
         this.yaw           = yaw;
         this.pitch         = pitch;
         this.keysCollected = keysCollected;
+        this.explored      = explored;
     }
 }
@@ -37,8 +37,8 @@ public class DebugRenderer {
 
         if (!isDebugLinesActive) return;
 
-        glDisable(GL_TEXTURE_2D);
-        glDisable(GL_DEPTH_TEST);
+        GLStateCache.disable(GL_TEXTURE_2D);
+        GLStateCache.disable(GL_DEPTH_TEST);
         glLineWidth(2.0f);
         glPointSize(5.0f); // Make points visible
 
@@ -101,12 +101,10 @@ public class DebugRenderer {
             }
 
             // --- 3. 徴 MODIFIED: Render nodes NEAR THE PLAYER ---
-            PathNode[][] grid = pathfinder.getGrid();
-            // Make sure we have a grid AND a player to render around
-            if (grid != null && player != null) {
+            // Make sure we have a player to render around
+            if (player != null) {
 
                 // Get player's grid position
-                // (This assumes you made these methods public in PathfindingManager!)
                 int playerGridX = pathfinder.worldToGridX(player.getPosX());
                 int playerGridZ = pathfinder.worldToGridZ(player.getPosZ());
 
@@ -116,23 +114,18 @@ public class DebugRenderer {
                 for (int x = playerGridX - DEBUG_GRID_RADIUS; x <= playerGridX + DEBUG_GRID_RADIUS; x++) {
                     for (int z = playerGridZ - DEBUG_GRID_RADIUS; z <= playerGridZ + DEBUG_GRID_RADIUS; z++) {
 
-                        // Make sure we're in bounds
-                        // (This assumes you made this method public in PathfindingManager!)
+                        // Skip cells outside the loaded nav tiles
                         if (!pathfinder.isGridCoordValid(x, z)) {
                             continue;
                         }
 
-                        // If we are in bounds, get the node
-                        PathNode node = grid[x][z];
-                        if (node == null) continue;
-
                         // Draw the node
-                        if (node.isWalkable) {
+                        if (pathfinder.isWalkable(x, z)) {
                             glColor3f(0.0f, 0.5f, 0.0f); // Dark green for walkable
                         } else {
                             glColor3f(0.5f, 0.0f, 0.0f); // Dark red for unwalkable
                         }
-                        glVertex3f(node.worldX, 0.5f, node.worldZ); // Draw 0.5f above ground
+                        glVertex3f(pathfinder.gridToWorldX(x), 0.5f, pathfinder.gridToWorldZ(z)); // Draw 0.5f above ground
                     }
                 }
                 glEnd();
@@ -141,7 +134,7 @@ public class DebugRenderer {
         }
         // --- END NEW ---
 
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_TEXTURE_2D);
+        GLStateCache.enable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_TEXTURE_2D);
     }
 }
\ No newline at end of file
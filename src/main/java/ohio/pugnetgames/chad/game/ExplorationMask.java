@@ -0,0 +1,236 @@
+package ohio.pugnetgames.chad.game;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which nav grid cells the player has been near, for the map's fog of war.
+ * Stored like the nav grid itself: sparse 64x64-cell tiles that only exist
+ * where something was explored, one bit per cell (see
+ * {@link PathfindingManager}).
+ *
+ * {@link #update} reveals a circle around the player, but only when they
+ * step into a new cell, and grows a dirty rectangle so the map's mask
+ * texture only re-uploads what changed (see {@link FogOfWarTexture}).
+ *
+ * The mask is saved with the run as run lengths (see {@link #encode()}),
+ * around 60 bytes per explored tile instead of 512.
+ *
+ * Game thread only.
+ */
+public class ExplorationMask {
+
+    private static final int TILE_SHIFT = PathfindingManager.TILE_SHIFT;
+    private static final int TILE_SIZE = PathfindingManager.TILE_SIZE;
+    private static final int TILE_MASK = TILE_SIZE - 1;
+    private static final int TILE_CELLS = TILE_SIZE * TILE_SIZE;
+
+    /** How far around the player counts as seen, in world units. */
+    public static final float REVEAL_RADIUS = 4.0f;
+
+    private final Map<Long, long[]> tiles = new HashMap<>();
+    private int lastCellX = Integer.MIN_VALUE;
+    private int lastCellZ = Integer.MIN_VALUE;
+
+    // Cells changed since clearDirty(), inclusive (empty when min > max)
+    private int dirtyMinX = Integer.MAX_VALUE, dirtyMinZ = Integer.MAX_VALUE;
+    private int dirtyMaxX = Integer.MIN_VALUE, dirtyMaxZ = Integer.MIN_VALUE;
+
+    /**
+     * Reveals around the player if they moved into a new cell.
+     *
+     * @return true if anything was revealed.
+     */
+    public boolean update(float worldX, float worldZ) {
+        int cellX = PathfindingManager.worldToCell(worldX);
+        int cellZ = PathfindingManager.worldToCell(worldZ);
+        if (cellX == lastCellX && cellZ == lastCellZ) return false;
+        lastCellX = cellX;
+        lastCellZ = cellZ;
+        return reveal(worldX, worldZ, REVEAL_RADIUS);
+    }
+
+    /**
+     * Marks every cell within a radius as explored.
+     *
+     * @return true if any of them weren't already.
+     */
+    public boolean reveal(float worldX, float worldZ, float radius) {
+        int centerX = PathfindingManager.worldToCell(worldX);
+        int centerZ = PathfindingManager.worldToCell(worldZ);
+        int r = (int) Math.ceil(radius / PathfindingManager.GRID_RESOLUTION);
+        boolean changed = false;
+        for (int dz = -r; dz <= r; dz++) {
+            int halfWidth = (int) Math.sqrt((double) r * r - dz * dz);
+            for (int dx = -halfWidth; dx <= halfWidth; dx++) {
+                changed |= set(centerX + dx, centerZ + dz);
+            }
+        }
+        if (changed) {
+            dirtyMinX = Math.min(dirtyMinX, centerX - r);
+            dirtyMinZ = Math.min(dirtyMinZ, centerZ - r);
+            dirtyMaxX = Math.max(dirtyMaxX, centerX + r);
+            dirtyMaxZ = Math.max(dirtyMaxZ, centerZ + r);
+        }
+        return changed;
+    }
+
+    private boolean set(int cellX, int cellZ) {
+        long key = PathfindingManager.tileKey(cellX >> TILE_SHIFT, cellZ >> TILE_SHIFT);
+        long[] bits = tiles.computeIfAbsent(key, k -> new long[TILE_CELLS / 64]);
+        int i = ((cellZ & TILE_MASK) << TILE_SHIFT) | (cellX & TILE_MASK);
+        long bit = 1L << (i & 63);
+        if ((bits[i >>> 6] & bit) != 0) return false;
+        bits[i >>> 6] |= bit;
+        return true;
+    }
+
+    public boolean isExplored(int cellX, int cellZ) {
+        long[] bits = tiles.get(PathfindingManager.tileKey(cellX >> TILE_SHIFT, cellZ >> TILE_SHIFT));
+        if (bits == null) return false;
+        int i = ((cellZ & TILE_MASK) << TILE_SHIFT) | (cellX & TILE_MASK);
+        return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+    }
+
+    /**
+     * @return true if any cell in a square block is explored. The block must
+     *         not cross a tile edge (size a power of two up to 64, aligned to it).
+     */
+    public boolean isAnyExplored(int firstCellX, int firstCellZ, int size) {
+        long[] bits = tiles.get(PathfindingManager.tileKey(firstCellX >> TILE_SHIFT, firstCellZ >> TILE_SHIFT));
+        if (bits == null) return false;
+        int localX = firstCellX & TILE_MASK;
+        int localZ = firstCellZ & TILE_MASK;
+        for (int z = localZ; z < localZ + size; z++) {
+            for (int x = localX; x < localX + size; x++) {
+                int i = (z << TILE_SHIFT) | x;
+                if ((bits[i >>> 6] & (1L << (i & 63))) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Forgets everything (a new world). */
+    public void clear() {
+        tiles.clear();
+        lastCellX = lastCellZ = Integer.MIN_VALUE;
+        markAllDirty();
+    }
+
+    // --- Dirty rectangle ---
+
+    public boolean isDirty() {
+        return dirtyMinX <= dirtyMaxX;
+    }
+
+    public int getDirtyMinX() { return dirtyMinX; }
+    public int getDirtyMinZ() { return dirtyMinZ; }
+    public int getDirtyMaxX() { return dirtyMaxX; }
+    public int getDirtyMaxZ() { return dirtyMaxZ; }
+
+    public void clearDirty() {
+        dirtyMinX = dirtyMinZ = Integer.MAX_VALUE;
+        dirtyMaxX = dirtyMaxZ = Integer.MIN_VALUE;
+    }
+
+    private void markAllDirty() {
+        dirtyMinX = dirtyMinZ = Integer.MIN_VALUE / 2;
+        dirtyMaxX = dirtyMaxZ = Integer.MAX_VALUE / 2;
+    }
+
+    // --- Saving ---
+
+    /**
+     * Run-length encodes the mask: a varint tile count, then per tile its
+     * zigzag-varint X and Z and varint run lengths over its 4096 cells in
+     * row order, alternating unexplored and explored (starting with
+     * unexplored, so the first run may be 0).
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarint(out, tiles.size());
+        for (Map.Entry<Long, long[]> entry : tiles.entrySet()) {
+            long key = entry.getKey();
+            writeVarint(out, zigzag((int) (key >> 32)));
+            writeVarint(out, zigzag((int) key));
+            long[] bits = entry.getValue();
+            boolean explored = false;
+            int run = 0;
+            for (int i = 0; i < TILE_CELLS; i++) {
+                boolean cell = (bits[i >>> 6] & (1L << (i & 63))) != 0;
+                if (cell != explored) {
+                    writeVarint(out, run);
+                    explored = cell;
+                    run = 0;
+                }
+                run++;
+            }
+            writeVarint(out, run);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Replaces the mask with one written by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the data is malformed.
+     */
+    public void decode(byte[] data) {
+        clear();
+        int[] pos = {0};
+        int tileCount = readVarint(data, pos);
+        for (int t = 0; t < tileCount; t++) {
+            int tileX = unzigzag(readVarint(data, pos));
+            int tileZ = unzigzag(readVarint(data, pos));
+            long[] bits = new long[TILE_CELLS / 64];
+            boolean explored = false;
+            int i = 0;
+            while (i < TILE_CELLS) {
+                int run = readVarint(data, pos);
+                if (run > TILE_CELLS - i) throw new IllegalArgumentException("Run past the end of a tile");
+                if (explored) {
+                    for (int end = i + run; i < end; i++) bits[i >>> 6] |= 1L << (i & 63);
+                } else {
+                    i += run;
+                }
+                explored = !explored;
+            }
+            tiles.put(PathfindingManager.tileKey(tileX, tileZ), bits);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] data, int[] pos) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (pos[0] >= data.length) throw new IllegalArgumentException("Truncated exploration data");
+            int b = data[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // --- Stats ---
+
+    /** @return Explored tiles (64x64 cells each). */
+    public int getTileCount() {
+        return tiles.size();
+    }
+}
@@ -0,0 +1,147 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * The map's fog of war: an alpha texture over the nav grid's bounds, opaque
+ * where the player hasn't explored (see {@link ExplorationMask}). One texel
+ * covers a block of nav cells, 4x4 unless the world is so big that the
+ * texture would pass {@link #MAX_SIZE}.
+ *
+ * {@link #sync} only re-uploads the texels inside the mask's dirty rectangle
+ * with glTexSubImage2D, so a frame where the player walks costs a small
+ * upload around them, and one where they stand still costs nothing. The
+ * whole texture is only rebuilt when the world's bounds change.
+ *
+ * GL thread only.
+ */
+public class FogOfWarTexture {
+
+    private static final int MIN_BLOCK = 4; // Nav cells per texel, each way
+    private static final int MAX_BLOCK = PathfindingManager.TILE_SIZE; // A block never crosses a nav tile
+    public static final int MAX_SIZE = 2048;
+
+    private int textureID;
+    private int block;
+    private int originCellX, originCellZ; // First cell of texel (0, 0)
+    private int width, height;
+    private ByteBuffer upload = BufferUtils.createByteBuffer(4096);
+
+    // World bounds the texture was built for
+    private float boundsMinX = Float.NaN, boundsMinZ, boundsMaxX, boundsMaxZ;
+
+    public FogOfWarTexture() {
+        textureID = glGenTextures();
+    }
+
+    /**
+     * Brings the texture up to date with the mask: all of it if the bounds
+     * changed, otherwise only the mask's dirty rectangle. Clears the dirty
+     * rectangle.
+     */
+    public void sync(ExplorationMask mask, float minX, float minZ, float maxX, float maxZ) {
+        if (minX != boundsMinX || minZ != boundsMinZ || maxX != boundsMaxX || maxZ != boundsMaxZ) {
+            resize(minX, minZ, maxX, maxZ);
+            uploadTexels(mask, 0, 0, width, height);
+            mask.clearDirty();
+            return;
+        }
+        if (!mask.isDirty()) return;
+        int firstX = Math.max(0, Math.floorDiv(mask.getDirtyMinX() - originCellX, block));
+        int firstZ = Math.max(0, Math.floorDiv(mask.getDirtyMinZ() - originCellZ, block));
+        int lastX = Math.min(width - 1, Math.floorDiv(mask.getDirtyMaxX() - originCellX, block));
+        int lastZ = Math.min(height - 1, Math.floorDiv(mask.getDirtyMaxZ() - originCellZ, block));
+        if (firstX <= lastX && firstZ <= lastZ) {
+            uploadTexels(mask, firstX, firstZ, lastX - firstX + 1, lastZ - firstZ + 1);
+        }
+        mask.clearDirty();
+    }
+
+    private void resize(float minX, float minZ, float maxX, float maxZ) {
+        boundsMinX = minX;
+        boundsMinZ = minZ;
+        boundsMaxX = maxX;
+        boundsMaxZ = maxZ;
+        int firstCellX = PathfindingManager.worldToCell(minX);
+        int firstCellZ = PathfindingManager.worldToCell(minZ);
+        int cellsX = PathfindingManager.worldToCell(maxX) - firstCellX + 1;
+        int cellsZ = PathfindingManager.worldToCell(maxZ) - firstCellZ + 1;
+        block = MIN_BLOCK;
+        while (block < MAX_BLOCK && Math.max(cellsX, cellsZ) / block + 2 > MAX_SIZE) {
+            block *= 2;
+        }
+        originCellX = Math.floorDiv(firstCellX, block) * block;
+        originCellZ = Math.floorDiv(firstCellZ, block) * block;
+        width = Math.min(MAX_SIZE, Math.floorDiv(firstCellX + cellsX - 1 - originCellX, block) + 1);
+        height = Math.min(MAX_SIZE, Math.floorDiv(firstCellZ + cellsZ - 1 - originCellZ, block) + 1);
+
+        GLStateCache.bindTexture(textureID);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_ALPHA8, width, height, 0, GL_ALPHA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+    }
+
+    /** Fills a rectangle of texels from the mask and uploads it. */
+    private void uploadTexels(ExplorationMask mask, int x, int z, int w, int h) {
+        if (upload.capacity() < w * h) {
+            upload = BufferUtils.createByteBuffer(w * h);
+        }
+        upload.clear();
+        for (int tz = z; tz < z + h; tz++) {
+            int cellZ = originCellZ + tz * block;
+            for (int tx = x; tx < x + w; tx++) {
+                boolean explored = mask.isAnyExplored(originCellX + tx * block, cellZ, block);
+                upload.put(explored ? (byte) 0 : (byte) 0xFF);
+            }
+        }
+        upload.flip();
+        GLStateCache.bindTexture(textureID);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 1); // Rows of single bytes
+        glTexSubImage2D(GL_TEXTURE_2D, 0, x, z, w, h, GL_ALPHA, GL_UNSIGNED_BYTE, upload);
+        glPixelStorei(GL_UNPACK_ALIGNMENT, 4);
+    }
+
+    /**
+     * Draws the fog over a map (HUD ortho projection, Z growing down the
+     * screen) in the given color. Expects GL_BLEND on with
+     * GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA; leaves GL_TEXTURE_2D off.
+     *
+     * @param pixelsPerUnit Map scale.
+     * @param viewMinX      World X at screenX.
+     * @param viewMinZ      World Z at screenY.
+     */
+    public void draw(float screenX, float screenY, float pixelsPerUnit, float viewMinX, float viewMinZ,
+                     float r, float g, float b, float a) {
+        if (width == 0) return;
+        float cellSize = PathfindingManager.GRID_RESOLUTION;
+        float x0 = screenX + (originCellX * cellSize - viewMinX) * pixelsPerUnit;
+        float y0 = screenY + (originCellZ * cellSize - viewMinZ) * pixelsPerUnit;
+        float x1 = x0 + width * block * cellSize * pixelsPerUnit;
+        float y1 = y0 + height * block * cellSize * pixelsPerUnit;
+
+        GLStateCache.enable(GL_TEXTURE_2D);
+        GLStateCache.bindTexture(textureID);
+        GLStateCache.texEnvMode(GL_MODULATE);
+        glColor4f(r, g, b, a);
+        glBegin(GL_QUADS);
+        glTexCoord2f(0.0f, 0.0f); glVertex2f(x0, y0);
+        glTexCoord2f(1.0f, 0.0f); glVertex2f(x1, y0);
+        glTexCoord2f(1.0f, 1.0f); glVertex2f(x1, y1);
+        glTexCoord2f(0.0f, 1.0f); glVertex2f(x0, y1);
+        glEnd();
+        GLStateCache.disable(GL_TEXTURE_2D);
+    }
+
+    public void cleanup() {
+        if (textureID != 0) {
+            GLStateCache.deleteTexture(textureID);
+            textureID = 0;
+        }
+    }
+}
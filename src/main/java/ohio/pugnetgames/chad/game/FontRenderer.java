@@ -1,10 +1,7 @@
 package ohio.pugnetgames.chad.game;
 
 import org.lwjgl.BufferUtils;
-import org.lwjgl.stb.STBTTAlignedQuad;
 import org.lwjgl.stb.STBTTBakedChar;
-import org.lwjgl.stb.STBTruetype;
-import org.lwjgl.system.MemoryStack;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -15,22 +12,103 @@ import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import static org.lwjgl.opengl.GL11.*;
 import static org.lwjgl.stb.STBTruetype.*;
-import static org.lwjgl.system.MemoryUtil.NULL;
 
 /**
  * Handles loading and rendering text using STB TrueType.
  * This bakes a font into a texture atlas and renders text as textured quads.
+ *
+ * Glyph quads go into one vertex array (position, texture coordinate and
+ * color per vertex) that is drawn with a single glDrawArrays: at
+ * {@link #end()} for everything drawn since {@link #begin()}, or at the end
+ * of the call otherwise. A string's glyphs and width, and how it wraps at
+ * a given width, are worked out once and cached, so text that doesn't
+ * change from frame to frame isn't measured again.
  */
 public class FontRenderer {
 
+    private static final int FIRST_CHAR = 32;
+    private static final int CHAR_COUNT = 96; // ASCII 32-127
+    private static final int FLOATS_PER_VERTEX = 7; // x, y, s, t, r, g, b
+    private static final int LAYOUT_CACHE_SIZE = 512; // Strings; HUD counters change every frame
+    private static final int WRAP_CACHE_SIZE = 256;
+
     private int textureID;
     private STBTTBakedChar.Buffer charData;
     private final float FONT_HEIGHT = 32.0f; // The pixel height of the font
     private final int BITMAP_WIDTH = 1024;
     private final int BITMAP_HEIGHT = 1024;
+    private boolean batching; // Between begin() and end()
+
+    // --- Glyphs, copied out of charData once (what stbtt_GetBakedQuad reads) ---
+    private boolean glyphsReady;
+    private final float[] glyphAdvance = new float[CHAR_COUNT];
+    private final float[] glyphOffsetX = new float[CHAR_COUNT];
+    private final float[] glyphOffsetY = new float[CHAR_COUNT];
+    private final int[] glyphWidth = new int[CHAR_COUNT];
+    private final int[] glyphHeight = new int[CHAR_COUNT];
+    private final float[] glyphS0 = new float[CHAR_COUNT], glyphT0 = new float[CHAR_COUNT];
+    private final float[] glyphS1 = new float[CHAR_COUNT], glyphT1 = new float[CHAR_COUNT];
+
+    /** A string's drawable glyphs (baked character indices) and its width. */
+    private static final class TextLayout {
+        final int[] glyphs;
+        final float width;
+
+        TextLayout(int[] glyphs, float width) {
+            this.glyphs = glyphs;
+            this.width = width;
+        }
+    }
+
+    /** A string and the width it was wrapped to. */
+    private static final class WrapKey {
+        final String text;
+        final float maxWidth;
+
+        WrapKey(String text, float maxWidth) {
+            this.text = text;
+            this.maxWidth = maxWidth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof WrapKey)) return false;
+            WrapKey other = (WrapKey) o;
+            return maxWidth == other.maxWidth && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, maxWidth);
+        }
+    }
+
+    private final Map<String, TextLayout> layouts = lruMap(LAYOUT_CACHE_SIZE);
+    private final Map<WrapKey, List<String>> wraps = lruMap(WRAP_CACHE_SIZE);
+
+    // --- Glyph batch ---
+    private FloatBuffer batch = BufferUtils.createFloatBuffer(256 * 4 * FLOATS_PER_VERTEX);
+    private int batchVertices;
+    private float lastR = 1.0f, lastG = 1.0f, lastB = 1.0f;
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
 
     /**
      * Initializes the font renderer.
@@ -39,7 +117,7 @@ public class FontRenderer {
      */
     public void init(String fontPath) {
         textureID = glGenTextures();
-        charData = STBTTBakedChar.malloc(96); // 96 characters (ASCII 32-127)
+        charData = STBTTBakedChar.malloc(CHAR_COUNT); // 96 characters (ASCII 32-127)
 
         try {
             // Load the font file into a ByteBuffer
@@ -48,15 +126,16 @@ public class FontRenderer {
             ByteBuffer bitmap = BufferUtils.createByteBuffer(BITMAP_WIDTH * BITMAP_HEIGHT);
 
             // Bake the font characters into the bitmap
-            int result = stbtt_BakeFontBitmap(ttfBuffer, FONT_HEIGHT, bitmap, BITMAP_WIDTH, BITMAP_HEIGHT, 32,
+            int result = stbtt_BakeFontBitmap(ttfBuffer, FONT_HEIGHT, bitmap, BITMAP_WIDTH, BITMAP_HEIGHT, FIRST_CHAR,
                     charData);
             if (result <= 0) {
                 System.err.println("Failed to bake font bitmap. Result: " + result);
                 return;
             }
+            loadGlyphs();
 
             // Upload the bitmap to an OpenGL texture
-            glBindTexture(GL_TEXTURE_2D, textureID);
+            GLStateCache.bindTexture(textureID);
             // Use GL_ALPHA for the single-channel bitmap
             glTexImage2D(GL_TEXTURE_2D, 0, GL_ALPHA, BITMAP_WIDTH, BITMAP_HEIGHT, 0, GL_ALPHA, GL_UNSIGNED_BYTE,
                     bitmap);
@@ -71,55 +150,157 @@ public class FontRenderer {
         }
     }
 
+    /** Copies the baked glyph metrics into plain arrays. */
+    private void loadGlyphs() {
+        float pixelWidth = 1.0f / BITMAP_WIDTH;
+        float pixelHeight = 1.0f / BITMAP_HEIGHT;
+        for (int i = 0; i < CHAR_COUNT; i++) {
+            STBTTBakedChar c = charData.get(i);
+            glyphAdvance[i] = c.xadvance();
+            glyphOffsetX[i] = c.xoff();
+            glyphOffsetY[i] = c.yoff();
+            glyphWidth[i] = c.x1() - c.x0();
+            glyphHeight[i] = c.y1() - c.y0();
+            glyphS0[i] = c.x0() * pixelWidth;
+            glyphT0[i] = c.y0() * pixelHeight;
+            glyphS1[i] = c.x1() * pixelWidth;
+            glyphT1[i] = c.y1() * pixelHeight;
+        }
+        glyphsReady = true;
+    }
+
     /**
-     * Draws a string of text on the screen.
-     * Assumes an orthographic projection is already set up (0,0 is top-left).
+     * Measures with the given advance for every character instead of a baked
+     * font, so wrapping and widths can be checked without a GL context.
      */
-    public void drawText(String text, float x, float y, float r, float g, float b) {
-        glEnable(GL_TEXTURE_2D);
-        glBindTexture(GL_TEXTURE_2D, textureID);
+    void useFixedAdvance(float advance) {
+        Arrays.fill(glyphAdvance, advance);
+        layouts.clear();
+        wraps.clear();
+        glyphsReady = true;
+    }
+
+    /**
+     * Starts collecting text: every {@link #drawText} until {@link #end()}
+     * goes into one batch, drawn by end() in a single call. Nothing but
+     * text may be drawn in between, since the text is drawn last.
+     */
+    public void begin() {
+        batching = true;
+    }
+
+    public void end() {
+        batching = false;
+        flush();
+    }
+
+    /** Draws the batched glyphs, if any, and empties the batch. */
+    private void flush() {
+        if (batchVertices == 0) return;
+        bindState();
+        glEnableClientState(GL_VERTEX_ARRAY);
+        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+        glEnableClientState(GL_COLOR_ARRAY);
+        int stride = FLOATS_PER_VERTEX * Float.BYTES;
+        batch.position(0);
+        glVertexPointer(2, GL_FLOAT, stride, batch);
+        batch.position(2);
+        glTexCoordPointer(2, GL_FLOAT, stride, batch);
+        batch.position(4);
+        glColorPointer(3, GL_FLOAT, stride, batch);
+        glDrawArrays(GL_QUADS, 0, batchVertices);
+        glDisableClientState(GL_COLOR_ARRAY);
+        glDisableClientState(GL_TEXTURE_COORD_ARRAY);
+        glDisableClientState(GL_VERTEX_ARRAY);
+        batch.clear();
+        batchVertices = 0;
+        GLStateCache.disable(GL_TEXTURE_2D);
+        // The current color is undefined after drawing with a color array; leave the text's, like before
+        glColor4f(lastR, lastG, lastB, 1.0f);
+    }
+
+    private void bindState() {
+        GLStateCache.enable(GL_TEXTURE_2D);
+        GLStateCache.bindTexture(textureID);
 
         // --- FIX: Explicitly set the texture environment mode to GL_MODULATE.
         // This is crucial for single-channel (GL_ALPHA) font textures to ensure
         // the color set by glColor4f is modulated by the texture's alpha channel.
-        glTexEnvi(GL_TEXTURE_ENV, GL_TEXTURE_ENV_MODE, GL_MODULATE);
-
-        // We modulate the texture's alpha (the letter shape) with the desired color.
-        glColor4f(r, g, b, 1.0f);
-
-        glBegin(GL_QUADS);
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            FloatBuffer xPos = stack.floats(x);
-            FloatBuffer yPos = stack.floats(y + FONT_HEIGHT / 2); // Adjust Y for font baseline
+        GLStateCache.texEnvMode(GL_MODULATE);
+    }
 
-            STBTTAlignedQuad quad = STBTTAlignedQuad.malloc(stack);
+    /**
+     * Draws a string of text on the screen.
+     * Assumes an orthographic projection is already set up (0,0 is top-left).
+     */
+    public void drawText(String text, float x, float y, float r, float g, float b) {
+        TextLayout layout = getLayout(text);
+        if (layout == null) return;
+        int glyphCount = layout.glyphs.length;
+        ensureBatchCapacity(glyphCount);
+        float pen = x;
+        float baseline = y + FONT_HEIGHT / 2; // Adjust Y for font baseline
 
-            for (int i = 0; i < text.length(); i++) {
-                char c = text.charAt(i);
-                if (c < 32 || c >= 128) {
-                    continue; // Skip characters not in our baked range
-                }
+        // Same pixel snapping and pen sums as stbtt_GetBakedQuad with the OpenGL fill rule
+        for (int i = 0; i < glyphCount; i++) {
+            int c = layout.glyphs[i];
+            float x0 = (float) Math.floor(pen + glyphOffsetX[c] + 0.5f);
+            float y0 = (float) Math.floor(baseline + glyphOffsetY[c] + 0.5f);
+            float x1 = x0 + glyphWidth[c];
+            float y1 = y0 + glyphHeight[c];
+            // We modulate the texture's alpha (the letter shape) with the desired color.
+            putVertex(x0, y0, glyphS0[c], glyphT0[c], r, g, b);
+            putVertex(x1, y0, glyphS1[c], glyphT0[c], r, g, b);
+            putVertex(x1, y1, glyphS1[c], glyphT1[c], r, g, b);
+            putVertex(x0, y1, glyphS0[c], glyphT1[c], r, g, b);
+            pen += glyphAdvance[c];
+        }
+        batchVertices += glyphCount * 4;
+        lastR = r;
+        lastG = g;
+        lastB = b;
 
-                // Get the quad data for this character
-                stbtt_GetBakedQuad(charData, BITMAP_WIDTH, BITMAP_HEIGHT, c - 32, xPos, yPos, quad, true);
+        if (!batching) flush();
+    }
 
-                // Render the quad
-                glTexCoord2f(quad.s0(), quad.t0());
-                glVertex2f(quad.x0(), quad.y0());
+    private void putVertex(float x, float y, float s, float t, float r, float g, float b) {
+        batch.put(x).put(y).put(s).put(t).put(r).put(g).put(b);
+    }
 
-                glTexCoord2f(quad.s1(), quad.t0());
-                glVertex2f(quad.x1(), quad.y0());
+    private void ensureBatchCapacity(int glyphs) {
+        int needed = batch.position() + glyphs * 4 * FLOATS_PER_VERTEX;
+        if (needed <= batch.capacity()) return;
+        FloatBuffer bigger = BufferUtils.createFloatBuffer(Math.max(needed, batch.capacity() * 2));
+        batch.flip();
+        bigger.put(batch);
+        batch = bigger;
+    }
 
-                glTexCoord2f(quad.s1(), quad.t1());
-                glVertex2f(quad.x1(), quad.y1());
+    /** @return The string's cached layout, or null if there's no font. */
+    private TextLayout getLayout(String text) {
+        if (!glyphsReady || text == null) return null;
+        TextLayout layout = layouts.get(text);
+        if (layout != null) return layout;
 
-                glTexCoord2f(quad.s0(), quad.t1());
-                glVertex2f(quad.x0(), quad.y1());
+        int drawable = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= FIRST_CHAR && c < FIRST_CHAR + CHAR_COUNT) drawable++;
+        }
+        int[] glyphs = new int[drawable];
+        float width = 0;
+        int n = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < FIRST_CHAR || c >= FIRST_CHAR + CHAR_COUNT) {
+                continue; // Skip characters not in our baked range
             }
+            glyphs[n++] = c - FIRST_CHAR;
+            width += glyphAdvance[c - FIRST_CHAR];
         }
-        glEnd();
-
-        glDisable(GL_TEXTURE_2D);
+        layout = new TextLayout(glyphs, width);
+        layouts.put(text, layout);
+        return layout;
     }
 
     /**
@@ -127,30 +308,61 @@ public class FontRenderer {
      * Uses the same baked character data as drawText.
      */
     public float getTextWidth(String text) {
-        if (charData == null || text == null)
-            return 0;
-        float width = 0;
-        try (MemoryStack stack = MemoryStack.stackPush()) {
-            FloatBuffer xPos = stack.floats(0);
-            FloatBuffer yPos = stack.floats(0);
-            STBTTAlignedQuad quad = STBTTAlignedQuad.malloc(stack);
-
-            for (int i = 0; i < text.length(); i++) {
-                char c = text.charAt(i);
-                if (c < 32 || c >= 128)
-                    continue;
-                stbtt_GetBakedQuad(charData, BITMAP_WIDTH, BITMAP_HEIGHT, c - 32, xPos, yPos, quad, true);
+        TextLayout layout = getLayout(text);
+        return layout != null ? layout.width : 0;
+    }
+
+    /**
+     * Splits text into multiple lines that fit within maxWidth pixels.
+     * Splits at word boundaries (spaces). If a single word is too wide,
+     * it gets its own line. The result is cached and must not be modified.
+     */
+    public List<String> wrapText(String text, float maxWidth) {
+        if (text == null || text.isEmpty()) {
+            return Collections.singletonList("");
+        }
+        WrapKey key = new WrapKey(text, maxWidth);
+        List<String> lines = wraps.get(key);
+        if (lines != null) return lines;
+
+        lines = new ArrayList<>();
+        float spaceWidth = getTextWidth(" ");
+        StringBuilder current = new StringBuilder();
+        float currentWidth = 0;
+        for (String word : text.split(" ")) {
+            float wordWidth = getTextWidth(word);
+            if (current.length() == 0) {
+                // First word on the line — always add it
+                current.append(word);
+                currentWidth = wordWidth;
+            } else if (currentWidth + spaceWidth + wordWidth <= maxWidth) {
+                current.append(' ').append(word);
+                currentWidth += spaceWidth + wordWidth;
+            } else {
+                // Flush current line, start new one
+                lines.add(current.toString());
+                current = new StringBuilder(word);
+                currentWidth = wordWidth;
             }
-            width = xPos.get(0);
         }
-        return width;
+        if (current.length() > 0) {
+            lines.add(current.toString());
+        }
+        if (lines.isEmpty()) {
+            lines.add("");
+        }
+        lines = Collections.unmodifiableList(lines);
+        wraps.put(key, lines);
+        return lines;
     }
 
     /**
      * Cleans up the OpenGL texture.
      */
     public void cleanup() {
-        glDeleteTextures(textureID);
+        layouts.clear();
+        wraps.clear();
+        GLStateCache.deleteTexture(textureID);
         if (charData != null) {
             charData.free();
         }
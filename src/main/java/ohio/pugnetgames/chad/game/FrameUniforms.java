@@ -0,0 +1,102 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL30.glBindBufferBase;
+import static org.lwjgl.opengl.GL31.GL_UNIFORM_BUFFER;
+
+/**
+ * The per-frame values every world shader reads, in one uniform buffer so
+ * they're uploaded once a frame instead of once per program:
+ *
+ * <pre>
+ * layout(std140) uniform Frame {
+ *     mat4 projection;
+ *     mat4 view;
+ *     vec4 fogColor;
+ *     float fogDensity;   // GL_EXP2
+ *     float ambient;      // Global ambient light (the only light there is)
+ *     float horrorLevel;  // 0 to 1
+ * };
+ * </pre>
+ *
+ * The matrices are built on the CPU from the same camera numbers as
+ * GamePanel.perspective() and Player.setupCamera() (see also
+ * {@link Frustum#update}).
+ *
+ * Needs GL 3.1. GL thread only.
+ */
+public class FrameUniforms {
+
+    /** The uniform buffer binding point the block is attached to. */
+    public static final int BINDING = 0;
+    public static final String BLOCK_NAME = "Frame";
+
+    private static final int FLOATS = 16 + 16 + 4 + 4; // std140 rounds the last three floats up to a vec4
+
+    private final FloatBuffer data = BufferUtils.createFloatBuffer(FLOATS);
+    private final float[] projection = new float[16];
+    private final float[] view = new float[16];
+    private int ubo;
+
+    public FrameUniforms() {
+        ubo = glGenBuffers();
+        glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+        glBufferData(GL_UNIFORM_BUFFER, FLOATS * 4L, GL_DYNAMIC_DRAW);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+        glBindBufferBase(GL_UNIFORM_BUFFER, BINDING, ubo);
+    }
+
+    /**
+     * Uploads this frame's values.
+     *
+     * @param fov         Vertical field of view in degrees.
+     * @param yaw         Degrees, as in Player.setupCamera().
+     * @param pitch       Degrees, as in Player.setupCamera().
+     * @param horrorLevel 0 to 100, as GamePanel keeps it.
+     */
+    public void update(float fov, float aspect, float near, float far,
+                       float eyeX, float eyeY, float eyeZ, float yaw, float pitch,
+                       float fogR, float fogG, float fogB, float fogDensity, float ambient, float horrorLevel) {
+        // glFrustum with a symmetric window, column-major
+        float yMax = near * (float) Math.tan(Math.toRadians(fov / 2.0));
+        float xMax = yMax * aspect;
+        projection[0] = near / xMax;
+        projection[5] = near / yMax;
+        projection[10] = -(far + near) / (far - near);
+        projection[11] = -1.0f;
+        projection[14] = -2.0f * far * near / (far - near);
+
+        // rotate(pitch, X) * rotate(yaw, Y) * translate(-eye), column-major
+        double yawRad = Math.toRadians(yaw);
+        double pitchRad = Math.toRadians(pitch);
+        float cy = (float) Math.cos(yawRad), sy = (float) Math.sin(yawRad);
+        float cp = (float) Math.cos(pitchRad), sp = (float) Math.sin(pitchRad);
+        view[0] = cy;        view[4] = 0.0f; view[8] = sy;
+        view[1] = sp * sy;   view[5] = cp;   view[9] = -sp * cy;
+        view[2] = -cp * sy;  view[6] = sp;   view[10] = cp * cy;
+        view[12] = -(view[0] * eyeX + view[4] * eyeY + view[8] * eyeZ);
+        view[13] = -(view[1] * eyeX + view[5] * eyeY + view[9] * eyeZ);
+        view[14] = -(view[2] * eyeX + view[6] * eyeY + view[10] * eyeZ);
+        view[15] = 1.0f;
+
+        data.clear();
+        data.put(projection).put(view);
+        data.put(fogR).put(fogG).put(fogB).put(1.0f);
+        data.put(fogDensity).put(ambient).put(horrorLevel / 100.0f).put(0.0f);
+        data.flip();
+        glBindBuffer(GL_UNIFORM_BUFFER, ubo);
+        glBufferSubData(GL_UNIFORM_BUFFER, 0, data);
+        glBindBuffer(GL_UNIFORM_BUFFER, 0);
+    }
+
+    public void cleanup() {
+        if (ubo != 0) {
+            glDeleteBuffers(ubo);
+            ubo = 0;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package ohio.pugnetgames.chad.game;
+
+/**
+ * The camera's view volume as six planes in world space, for skipping things
+ * that can't be on screen before they're sent to GL.
+ *
+ * It's built on the CPU from the same numbers GamePanel.perspective() and
+ * Player.setupCamera() hand to GL (field of view, aspect, near/far, eye
+ * position, yaw and pitch), so there's no glGet round trip and it works
+ * without a GL context. The planes come straight out of projection * view
+ * (Gribb and Hartmann's row sums) and point inwards.
+ *
+ * A frustum can also be narrowed to what's visible through a convex opening
+ * (see {@link #setThroughPortal}), which is how {@link PortalCuller} looks
+ * from room to room through doorways.
+ *
+ * It also counts what the renderers asked about this frame: objects that
+ * went on to be drawn vs objects that were culled. {@link #beginFrame()}
+ * resets the counts.
+ */
+public class Frustum {
+
+    // Plane i is planes[i*4 .. i*4+3] = a, b, c, d with a*x + b*y + c*z + d >= 0 inside.
+    // Planes 0 and 1 are always near and far; the rest are the sides.
+    private float[] planes = new float[6 * 4];
+    private int planeCount;
+    private boolean valid;
+    private float eyeX, eyeY, eyeZ; // From the last update()
+
+    // Edges shorter than this (as seen from the eye) don't get a plane of their own
+    private static final float MIN_EDGE_NORMAL = 1e-6f;
+
+    // --- Per-frame counters ---
+    private int objectsSubmitted;
+    private int objectsCulled;
+
+    /**
+     * Rebuilds the planes for a camera.
+     *
+     * @param fov    Vertical field of view in degrees.
+     * @param aspect Width / height.
+     * @param yaw    Degrees, as in Player.setupCamera().
+     * @param pitch  Degrees, as in Player.setupCamera().
+     */
+    public void update(float fov, float aspect, float near, float far,
+                       float eyeX, float eyeY, float eyeZ, float yaw, float pitch) {
+        // Projection (glFrustum with a symmetric window)
+        float yMax = near * (float) Math.tan(Math.toRadians(fov / 2.0));
+        float xMax = yMax * aspect;
+        float p00 = near / xMax;
+        float p11 = near / yMax;
+        float p22 = -(far + near) / (far - near);
+        float p23 = -2.0f * far * near / (far - near);
+
+        // View = rotate(pitch, X) * rotate(yaw, Y) * translate(-eye)
+        double yawRad = Math.toRadians(yaw);
+        double pitchRad = Math.toRadians(pitch);
+        float cy = (float) Math.cos(yawRad), sy = (float) Math.sin(yawRad);
+        float cp = (float) Math.cos(pitchRad), sp = (float) Math.sin(pitchRad);
+        // Rows of the rotation part
+        float r00 = cy,       r01 = 0.0f, r02 = sy;
+        float r10 = sp * sy,  r11 = cp,   r12 = -sp * cy;
+        float r20 = -cp * sy, r21 = sp,   r22 = cp * cy;
+        float t0 = -(r00 * eyeX + r01 * eyeY + r02 * eyeZ);
+        float t1 = -(r10 * eyeX + r11 * eyeY + r12 * eyeZ);
+        float t2 = -(r20 * eyeX + r21 * eyeY + r22 * eyeZ);
+
+        // Rows of projection * view (row 3 is just -(view row 2))
+        float[] m0 = {p00 * r00, p00 * r01, p00 * r02, p00 * t0};
+        float[] m1 = {p11 * r10, p11 * r11, p11 * r12, p11 * t1};
+        float[] m2 = {p22 * r20, p22 * r21, p22 * r22, p22 * t2 + p23};
+        float[] m3 = {-r20, -r21, -r22, -t2};
+
+        setPlane(0, m3, m2, 1.0f);  // Near
+        setPlane(1, m3, m2, -1.0f); // Far
+        setPlane(2, m3, m0, 1.0f);  // Left
+        setPlane(3, m3, m0, -1.0f); // Right
+        setPlane(4, m3, m1, 1.0f);  // Bottom
+        setPlane(5, m3, m1, -1.0f); // Top
+        planeCount = 6;
+        valid = true;
+        this.eyeX = eyeX;
+        this.eyeY = eyeY;
+        this.eyeZ = eyeZ;
+    }
+
+    private void setPlane(int index, float[] w, float[] row, float sign) {
+        float a = w[0] + sign * row[0];
+        float b = w[1] + sign * row[1];
+        float c = w[2] + sign * row[2];
+        float d = w[3] + sign * row[3];
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        int o = index * 4;
+        planes[o] = a / length;
+        planes[o + 1] = b / length;
+        planes[o + 2] = c / length;
+        planes[o + 3] = d / length;
+    }
+
+    /**
+     * Makes this the part of another frustum seen through a convex polygon:
+     * the parent's near and far planes plus one plane through the eye and
+     * each polygon edge. Clip the polygon to the parent first (see
+     * {@link #clipPolygon}) so the result is no wider than the parent.
+     *
+     * @param poly Vertices as x, y, z triples, in order around the polygon.
+     * @param n    Vertex count (at least 3).
+     */
+    public void setThroughPortal(Frustum parent, float eyeX, float eyeY, float eyeZ, float[] poly, int n) {
+        if (planes.length < (2 + n) * 4) {
+            planes = new float[(2 + n) * 4];
+        }
+        System.arraycopy(parent.planes, 0, planes, 0, 2 * 4);
+        planeCount = 2;
+
+        float cx = 0, cy = 0, cz = 0;
+        for (int i = 0; i < n; i++) {
+            cx += poly[i * 3];
+            cy += poly[i * 3 + 1];
+            cz += poly[i * 3 + 2];
+        }
+        cx = cx / n - eyeX;
+        cy = cy / n - eyeY;
+        cz = cz / n - eyeZ;
+
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            float ax = poly[i * 3] - eyeX, ay = poly[i * 3 + 1] - eyeY, az = poly[i * 3 + 2] - eyeZ;
+            float bx = poly[j * 3] - eyeX, by = poly[j * 3 + 1] - eyeY, bz = poly[j * 3 + 2] - eyeZ;
+            float a = ay * bz - az * by;
+            float b = az * bx - ax * bz;
+            float c = ax * by - ay * bx;
+            float length = (float) Math.sqrt(a * a + b * b + c * c);
+            if (length < MIN_EDGE_NORMAL) continue;
+            // Face the polygon's middle
+            if (a * cx + b * cy + c * cz < 0) {
+                length = -length;
+            }
+            a /= length;
+            b /= length;
+            c /= length;
+            int o = planeCount * 4;
+            planes[o] = a;
+            planes[o + 1] = b;
+            planes[o + 2] = c;
+            planes[o + 3] = -(a * eyeX + b * eyeY + c * eyeZ);
+            planeCount++;
+        }
+        valid = true;
+    }
+
+    /**
+     * Clips a convex polygon to the inside of every plane.
+     *
+     * @param poly    Vertices as x, y, z triples; overwritten with the result.
+     * @param n       Vertex count.
+     * @param scratch Space for the same number of floats as poly.
+     * @return The clipped vertex count (under 3 means nothing is left).
+     *         Each plane can add one vertex, so poly and scratch need room for
+     *         (n + plane count) vertices.
+     */
+    public int clipPolygon(float[] poly, int n, float[] scratch) {
+        float[] in = poly, out = scratch;
+        for (int p = 0; p < planeCount && n >= 3; p++) {
+            int o = p * 4;
+            float a = planes[o], b = planes[o + 1], c = planes[o + 2], d = planes[o + 3];
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                int j = (i + 1) % n;
+                float di = a * in[i * 3] + b * in[i * 3 + 1] + c * in[i * 3 + 2] + d;
+                float dj = a * in[j * 3] + b * in[j * 3 + 1] + c * in[j * 3 + 2] + d;
+                if (di >= 0) {
+                    out[count * 3] = in[i * 3];
+                    out[count * 3 + 1] = in[i * 3 + 1];
+                    out[count * 3 + 2] = in[i * 3 + 2];
+                    count++;
+                }
+                if ((di >= 0) != (dj >= 0)) {
+                    float t = di / (di - dj);
+                    out[count * 3] = in[i * 3] + t * (in[j * 3] - in[i * 3]);
+                    out[count * 3 + 1] = in[i * 3 + 1] + t * (in[j * 3 + 1] - in[i * 3 + 1]);
+                    out[count * 3 + 2] = in[i * 3 + 2] + t * (in[j * 3 + 2] - in[i * 3 + 2]);
+                    count++;
+                }
+            }
+            float[] swap = in;
+            in = out;
+            out = swap;
+            n = count;
+        }
+        if (in != poly) {
+            System.arraycopy(in, 0, poly, 0, n * 3);
+        }
+        return n;
+    }
+
+    public int getPlaneCount() {
+        return planeCount;
+    }
+
+    /** @return How far a point is from the eye of the last {@link #update}. */
+    public float distanceFromEye(float x, float y, float z) {
+        float dx = x - eyeX, dy = y - eyeY, dz = z - eyeZ;
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * @return false only if the box is entirely outside one of the planes.
+     *         (Boxes near a corner can pass without being visible, which is fine.)
+     */
+    public boolean intersectsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        if (!valid) return true;
+        for (int o = 0; o < planeCount * 4; o += 4) {
+            float a = planes[o], b = planes[o + 1], c = planes[o + 2];
+            // The box corner farthest along the plane's normal
+            float x = a >= 0 ? maxX : minX;
+            float y = b >= 0 ? maxY : minY;
+            float z = c >= 0 ? maxZ : minZ;
+            if (a * x + b * y + c * z + planes[o + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return false only if the sphere is entirely outside one of the planes. */
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        if (!valid) return true;
+        for (int o = 0; o < planeCount * 4; o += 4) {
+            if (planes[o] * x + planes[o + 1] * y + planes[o + 2] * z + planes[o + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Counting ---
+
+    /** Clears the submitted/culled counts. Call once per frame, before rendering. */
+    public void beginFrame() {
+        objectsSubmitted = 0;
+        objectsCulled = 0;
+    }
+
+    /**
+     * Tests a box holding some number of objects and counts them as submitted
+     * or culled.
+     *
+     * @return true if the objects should be drawn.
+     */
+    public boolean submitBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, int objects) {
+        boolean visible = intersectsBox(minX, minY, minZ, maxX, maxY, maxZ);
+        if (visible) objectsSubmitted += objects;
+        else objectsCulled += objects;
+        return visible;
+    }
+
+    /** Like {@link #submitBox}, for one object inside a sphere. */
+    public boolean submitSphere(float x, float y, float z, float radius) {
+        boolean visible = intersectsSphere(x, y, z, radius);
+        if (visible) objectsSubmitted++;
+        else objectsCulled++;
+        return visible;
+    }
+
+    /** @return Objects drawn since {@link #beginFrame()}. */
+    public int getObjectsSubmitted() {
+        return objectsSubmitted;
+    }
+
+    /** @return Objects skipped since {@link #beginFrame()}. */
+    public int getObjectsCulled() {
+        return objectsCulled;
+    }
+}
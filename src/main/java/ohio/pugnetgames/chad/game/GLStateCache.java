@@ -0,0 +1,153 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.glBindVertexArray;
+import static org.lwjgl.opengl.GL30.glDeleteVertexArrays;
+
+/**
+ * Remembers the GL state the game toggles most (capabilities like
+ * GL_TEXTURE_2D and GL_DEPTH_TEST, the bound 2D texture, the texture
+ * environment mode and the bound vertex array) and skips calls that
+ * wouldn't change anything.
+ *
+ * This only works if every change to that state goes through here, so all
+ * glEnable/glDisable/glBindTexture(GL_TEXTURE_2D) calls in the game do.
+ * Anything that changes it behind the cache's back (a library, a new
+ * context) must call {@link #invalidate()}.
+ *
+ * Also counts calls issued vs skipped since {@link #beginFrame()}.
+ *
+ * GL thread only.
+ */
+public final class GLStateCache {
+
+    // Capabilities with a cached state; anything else goes straight to GL
+    private static final int[] CAPS = {
+            GL_TEXTURE_2D, GL_DEPTH_TEST, GL_BLEND, GL_LIGHTING, GL_FOG, GL_SCISSOR_TEST,
+    };
+    private static final byte UNKNOWN = 0, ON = 1, OFF = 2;
+
+    private static final byte[] capState = new byte[CAPS.length];
+    private static int boundTexture = -1;
+    private static int texEnvMode = -1;
+    private static int boundVertexArray = -1;
+
+    // --- Stats ---
+    private static int issued;
+    private static int skipped;
+
+    private GLStateCache() {}
+
+    /** Forgets everything, so the next call of each kind goes to GL. */
+    public static void invalidate() {
+        Arrays.fill(capState, UNKNOWN);
+        boundTexture = -1;
+        texEnvMode = -1;
+        boundVertexArray = -1;
+    }
+
+    // --- Capabilities ---
+
+    public static void enable(int cap) {
+        set(cap, true);
+    }
+
+    public static void disable(int cap) {
+        set(cap, false);
+    }
+
+    private static void set(int cap, boolean on) {
+        int i = indexOf(cap);
+        if (i >= 0) {
+            byte state = on ? ON : OFF;
+            if (capState[i] == state) {
+                skipped++;
+                return;
+            }
+            capState[i] = state;
+        }
+        if (on) glEnable(cap);
+        else glDisable(cap);
+        issued++;
+    }
+
+    private static int indexOf(int cap) {
+        for (int i = 0; i < CAPS.length; i++) {
+            if (CAPS[i] == cap) return i;
+        }
+        return -1;
+    }
+
+    // --- Textures ---
+
+    /** glBindTexture(GL_TEXTURE_2D, ...) on texture unit 0. */
+    public static void bindTexture(int textureID) {
+        if (boundTexture == textureID) {
+            skipped++;
+            return;
+        }
+        glBindTexture(GL_TEXTURE_2D, textureID);
+        boundTexture = textureID;
+        issued++;
+    }
+
+    /** Deletes a texture, and forgets it was bound (GL reuses names). */
+    public static void deleteTexture(int textureID) {
+        glDeleteTextures(textureID);
+        if (boundTexture == textureID) {
+            boundTexture = 0; // GL falls back to the default texture
+        }
+    }
+
+    /** glTexEnvi(GL_TEXTURE_ENV, GL_TEXTURE_ENV_MODE, ...). */
+    public static void texEnvMode(int mode) {
+        if (texEnvMode == mode) {
+            skipped++;
+            return;
+        }
+        glTexEnvi(GL_TEXTURE_ENV, GL_TEXTURE_ENV_MODE, mode);
+        texEnvMode = mode;
+        issued++;
+    }
+
+    // --- Vertex arrays ---
+
+    /** glBindVertexArray (GL 3.0). */
+    public static void bindVertexArray(int vao) {
+        if (boundVertexArray == vao) {
+            skipped++;
+            return;
+        }
+        glBindVertexArray(vao);
+        boundVertexArray = vao;
+        issued++;
+    }
+
+    /** Deletes a vertex array, and forgets it was bound (GL reuses names). */
+    public static void deleteVertexArray(int vao) {
+        glDeleteVertexArrays(vao);
+        if (boundVertexArray == vao) {
+            boundVertexArray = 0;
+        }
+    }
+
+    // --- Stats ---
+
+    /** Clears the issued/skipped counts. Call once per frame. */
+    public static void beginFrame() {
+        issued = 0;
+        skipped = 0;
+    }
+
+    /** @return State calls that went to GL since {@link #beginFrame()}. */
+    public static int getIssuedCount() {
+        return issued;
+    }
+
+    /** @return State calls skipped as redundant since {@link #beginFrame()}. */
+    public static int getSkippedCount() {
+        return skipped;
+    }
+}
@@ -24,6 +24,14 @@ public class GameObject {
     private boolean isCollidable;
     private boolean isRendered;
 
+    // Set while this object is part of a World's StaticGeometry, so runtime
+    // changes (escape door opening, recoloring) reach the packed copy too.
+    private StaticGeometry geometry;
+    private int geometrySlot = -1;
+
+    // The placed prop this object is a part of, or null (see Prefab)
+    private PropInstance prop;
+
     /**
      * Constructor for a colored object. (Defaults to collidable, rendered)
      */
@@ -106,10 +114,25 @@ public class GameObject {
         this.isRendered = renderable;
     }
 
+    /**
+     * Rebuilds an object exactly as it was saved in a {@link WorldSnapshot}.
+     * Unlike the constructors, posY is the object's center (not its base).
+     */
+    static GameObject restore(ShapeType shape, float posX, float posY, float posZ,
+                              float scaleX, float scaleY, float scaleZ, float rotationY,
+                              float r, float g, float b, int textureID, boolean collidable, boolean renderable) {
+        GameObject obj = new GameObject(shape, posX, 0.0f, posZ, scaleX, scaleY, scaleZ, r, g, b, collidable, renderable);
+        obj.posY = posY;
+        obj.rotationY = rotationY;
+        obj.textureID = textureID;
+        return obj;
+    }
+
     // --- Setters for runtime changes ---
 
     public void setRotationY(float rotationY) {
         this.rotationY = rotationY;
+        if (geometry != null) geometry.setRotationY(geometrySlot, rotationY);
     }
 
     public void setColor(float r, float g, float b) {
@@ -118,18 +141,33 @@ public class GameObject {
         this.colorB = b;
         this.textureID = 0;
         this.isRendered = true;
+        if (geometry != null) {
+            geometry.setMaterial(geometrySlot, 0, r, g, b);
+            geometry.setFlag(geometrySlot, StaticGeometry.FLAG_RENDERED, true);
+        }
     }
 
     // --- NEW: Public setters for collidable and renderable ---
     public void setCollidable(boolean collidable) {
         this.isCollidable = collidable;
+        if (geometry != null) geometry.setFlag(geometrySlot, StaticGeometry.FLAG_COLLIDABLE, collidable);
     }
 
     public void setRendered(boolean renderable) {
         this.isRendered = renderable;
+        if (geometry != null) geometry.setFlag(geometrySlot, StaticGeometry.FLAG_RENDERED, renderable);
     }
     // --- END NEW ---
 
+    /**
+     * Links this object to its slot in a StaticGeometry (null to unlink).
+     * Only World does this, for the geometry it owns.
+     */
+    void attachGeometry(StaticGeometry geometry, int slot) {
+        this.geometry = geometry;
+        this.geometrySlot = slot;
+    }
+
 
     // --- Rendering ---
 
@@ -146,39 +184,52 @@ public class GameObject {
         // The scale is now handled by drawPlane/drawCube to fix texture stretching.
 
         if (textureID != 0) {
-            glEnable(GL_TEXTURE_2D);
-            glBindTexture(GL_TEXTURE_2D, textureID);
+            GLStateCache.enable(GL_TEXTURE_2D);
+            GLStateCache.bindTexture(textureID);
             glColor3f(1.0f, 1.0f, 1.0f);
         } else {
-            glDisable(GL_TEXTURE_2D);
+            GLStateCache.disable(GL_TEXTURE_2D);
             glColor3f(colorR, colorG, colorB);
         }
 
-        // Render based on shape
+        drawShape(shape, scaleX, scaleY, scaleZ, textureID != 0);
+
+        glPopMatrix();
+    }
+
+    /**
+     * Draws a shape at the current origin: from the shared vertex buffers
+     * when {@link PrimitiveMeshes} is ready, in immediate mode otherwise.
+     *
+     * @param textured Whether a texture is bound (it tiles with the size).
+     */
+    static void drawShape(ShapeType shape, float scaleX, float scaleY, float scaleZ, boolean textured) {
+        boolean shared = PrimitiveMeshes.isReady();
         switch (shape) {
             case PLANE:
-                // --- FIX: Pass scaleX and scaleZ to drawPlane ---
-                drawPlane(scaleX, scaleZ);
+                if (shared) PrimitiveMeshes.drawPlane(scaleX, scaleZ, textured);
+                else drawPlane(scaleX, scaleZ);
                 break;
             case CUBE:
-                // --- FIX: Pass all scales to drawCube ---
-                drawCube(scaleX, scaleY, scaleZ);
+                if (shared) PrimitiveMeshes.drawCube(scaleX, scaleY, scaleZ, textured);
+                else drawCube(scaleX, scaleY, scaleZ);
                 break;
             case SPHERE:
-                // --- FIX: Add glScalef back ONLY for sphere ---
-                // (Since spheres are usually scaled uniformly and not tiled)
-                glScalef(scaleX, scaleY, scaleZ);
-                drawSphere(1.0f, 16, 16);
+                // Spheres are scaled as a whole (their texture isn't tiled)
+                if (shared) {
+                    PrimitiveMeshes.drawSphere(scaleX, scaleY, scaleZ, PrimitiveMeshes.SphereDetail.MEDIUM);
+                } else {
+                    glScalef(scaleX, scaleY, scaleZ);
+                    drawSphere(1.0f, 16, 16);
+                }
                 break;
         }
-
-        glPopMatrix();
     }
 
     /**
      * --- FIX: Draws a plane using its actual size for vertices AND texture coords ---
      */
-    private void drawPlane(float sizeX, float sizeZ) {
+    static void drawPlane(float sizeX, float sizeZ) {
         glBegin(GL_QUADS);
         // START FIX: Add normal for correct lighting (upward facing plane)
         glNormal3f(0.0f, 1.0f, 0.0f);
@@ -195,7 +246,7 @@ public class GameObject {
     /**
      * --- FIX: Draws a cube using its actual size for vertices AND texture coords ---
      */
-    private void drawCube(float sizeX, float sizeY, float sizeZ) {
+    static void drawCube(float sizeX, float sizeY, float sizeZ) {
         glBegin(GL_QUADS);
         // Front face (+Z) - Uses X and Y scales
         glNormal3f(0.0f, 0.0f, 1.0f);
@@ -245,7 +296,7 @@ public class GameObject {
      * Draws a sphere using GL_QUADS.
      * (This is scaled in render() and will stretch if scaled non-uniformly)
      */
-    private void drawSphere(float radius, int rings, int sectors) {
+    static void drawSphere(float radius, int rings, int sectors) {
         float R = 1f / (float) (rings - 1);
         float S = 1f / (float) (sectors - 1);
         glBegin(GL_QUADS);
@@ -336,7 +387,7 @@ public class GameObject {
      * Resolves collision and returns the corrected position along an axis.
      * This is a simple separation axis algorithm for non-rotated AABB.
      */
-    public float resolveCollision(float pCurrent, float pPrev, float oCenter, float oScale, float pRadius) {
+    public static float resolveCollision(float pCurrent, float pPrev, float oCenter, float oScale, float pRadius) {
         // 1. Check which side the player is coming from
         float oMin = oCenter - oScale / 2.0f;
         float oMax = oCenter + oScale / 2.0f;
@@ -363,6 +414,21 @@ public class GameObject {
     public float getScaleZ() { return scaleZ; }
     public float getScaleY() { return scaleY; }
     public float getPosY() { return posY; }
+    public float getRotationY() { return rotationY; }
+    public float getColorR() { return colorR; }
+    public float getColorG() { return colorG; }
+    public float getColorB() { return colorB; }
+
+    /**
+     * @return The prop this object is a part of, or null if it isn't part of one.
+     */
+    public PropInstance getProp() {
+        return prop;
+    }
+
+    void setProp(PropInstance prop) {
+        this.prop = prop;
+    }
 
     public ShapeType getShape() {
         return shape;
@@ -372,6 +438,10 @@ public class GameObject {
         return isCollidable;
     }
 
+    public boolean isRendered() {
+        return isRendered;
+    }
+
     // --- 💥 FIX: ADD MISSING GETTER FOR TEXTURE ID 💥 ---
     public int getTextureID() {
         return textureID;
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.Collections;
+import java.util.Random;
 
 import org.lwjgl.glfw.Callbacks;
 import org.lwjgl.glfw.GLFWErrorCallback;
@@ -24,7 +25,9 @@ import org.lwjgl.system.MemoryStack;
 
 import java.awt.datatransfer.StringSelection;
 import java.awt.Toolkit;
+import java.io.IOException;
 import java.nio.IntBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 import static org.lwjgl.glfw.GLFW.*;
@@ -98,6 +101,17 @@ public class GamePanel extends Thread {
     private HudRenderer hudRenderer;
     private DebugRenderer debugRenderer;
     private WorldLoader worldLoader;
+    private WorldStreamer worldStreamer; // Only set in endless mode
+    private ExplorationMask explorationMask; // Null when the fog of war is off
+    private WorldMeshCache worldMeshes; // Null when static meshes are turned off
+    private PropInstancer propInstancer; // Null when props are baked with the rest (turned off or no GL 3.3)
+    private RenderPipeline renderPipeline; // Null when the world is drawn fixed-function (turned off or no GL 3.3)
+    private FrameUniforms frameUniforms; // Null unless one of the two above needs it
+    private TextureArray textureArray; // The world textures as one mipmapped array, null when off
+    private Frustum frustum; // Null when frustum culling is turned off
+    private PortalCuller portalCuller; // Null when portal culling (or frustum culling) is turned off
+    private int visibleRoomCount = -1; // Rooms drawn last frame, -1 when every room is
+    private long currentSeed; // Seed of the world being played (saved with the run)
     private InGameUI inGameUI;
 
     // --- DIY A* PATHFINDING AI ---
@@ -125,6 +139,9 @@ public class GamePanel extends Thread {
     private float FIELD_OF_VIEW = 60.0f; // mutable — adjusted from pause menu
     private final float NEAR_PLANE = 0.1f;
     private final float FAR_PLANE = 100.0f;
+    private final float AMBIENT_LIGHT = 0.8f; // Global ambient, the only light in the game
+    private final float MAP_PAN_STEP = 0.02f; // Full-screen map panning per frame, as a fraction of the view
+    private float fogDensity = 0.07f; // GL_EXP2, adjusted from the pause menu
 
     private boolean freeCamFeatureAvailable = false;
     private volatile boolean isFreeCamActive = false;
@@ -207,7 +224,9 @@ public class GamePanel extends Thread {
             }
         });
         glfwSetScrollCallback(window, (win, xoffset, yoffset) -> {
-            if (inGameUI != null) {
+            if (gameState == GameState.PLAYING && isMapActive && hudRenderer != null) {
+                hudRenderer.zoomMap(yoffset);
+            } else if (inGameUI != null) {
                 inGameUI.onMouseScroll(yoffset);
             }
         });
@@ -238,8 +257,27 @@ public class GamePanel extends Thread {
         keyManager  = new KeyManager();
         hudRenderer = new HudRenderer();
         debugRenderer = new DebugRenderer();
+        if (BuildManager.getBoolean("feature.primitivemeshes.enabled")) {
+            PrimitiveMeshes.init();
+        }
+        if (BuildManager.getBoolean("feature.staticmeshes.enabled")) {
+            worldMeshes = new WorldMeshCache(createPropInstancer(), createRenderPipeline());
+            if (propInstancer != null || renderPipeline != null) {
+                frameUniforms = new FrameUniforms();
+            }
+        }
+        if (BuildManager.getBoolean("feature.frustumculling.enabled")) {
+            frustum = new Frustum();
+            if (BuildManager.getBoolean("feature.portalculling.enabled")) {
+                portalCuller = new PortalCuller();
+            }
+        }
         soundManager = new SoundManager();
         hudRenderer.init();
+        if (BuildManager.getBoolean("feature.fogofwar.enabled")) {
+            explorationMask = new ExplorationMask();
+            hudRenderer.setExplorationMask(explorationMask);
+        }
 
         // Initialize in-game UI
         inGameUI = new InGameUI();
@@ -261,29 +299,68 @@ public class GamePanel extends Thread {
 
         // OpenGL state
         glClearColor(0.0f, 0.0f, 0.0f, 1.0f);
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_BLEND);
+        GLStateCache.enable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_BLEND);
         glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-        glEnable(GL_LIGHTING);
-        glDisable(GL_LIGHT0);
-        glEnable(GL_NORMALIZE);
+        GLStateCache.enable(GL_LIGHTING);
+        GLStateCache.disable(GL_LIGHT0);
+        GLStateCache.enable(GL_NORMALIZE);
         glShadeModel(GL_SMOOTH);
-        glEnable(GL_COLOR_MATERIAL);
+        GLStateCache.enable(GL_COLOR_MATERIAL);
         glColorMaterial(GL_FRONT_AND_BACK, GL_AMBIENT_AND_DIFFUSE);
 
-        float[] globalAmbient = { 0.8f, 0.8f, 0.8f, 1.0f };
+        float[] globalAmbient = { AMBIENT_LIGHT, AMBIENT_LIGHT, AMBIENT_LIGHT, 1.0f };
         glLightModelfv(GL_LIGHT_MODEL_AMBIENT, globalAmbient);
 
-        glEnable(GL_FOG);
+        GLStateCache.enable(GL_FOG);
         glFogi(GL_FOG_MODE, GL_EXP2);
         glFogfv(GL_FOG_COLOR, new float[] { 0.0f, 0.0f, 0.0f, 1.0f });
-        glFogf(GL_FOG_DENSITY, 0.07f);
+        glFogf(GL_FOG_DENSITY, fogDensity);
 
         // Start in main menu state — show cursor
         setCursorVisible(true);
         gameState = GameState.MAIN_MENU;
     }
 
+    /**
+     * @return The instanced prop renderer, or null if it's turned off, the
+     *         driver can't do instancing, or its shaders failed to load.
+     */
+    private PropInstancer createPropInstancer() {
+        if (!BuildManager.getBoolean("feature.instancedprops.enabled")) return null;
+        if (!PropInstancer.isSupported()) {
+            System.out.println("[GamePanel - createPropInstancer] OpenGL 3.3 not available, props will be baked.");
+            return null;
+        }
+        try {
+            propInstancer = new PropInstancer();
+        } catch (IOException e) {
+            System.err.println("[GamePanel - createPropInstancer] " + e.getMessage() + " Props will be baked.");
+        }
+        return propInstancer;
+    }
+
+    /**
+     * @return The shader pipeline for the world, or null if it's turned off,
+     *         the driver doesn't have GL 3.3, or its shaders failed to load.
+     */
+    private RenderPipeline createRenderPipeline() {
+        if (!BuildManager.getBoolean("feature.shaderpipeline.enabled")) return null;
+        if (!RenderPipeline.isSupported()) {
+            System.out.println("[GamePanel - createRenderPipeline] OpenGL 3.3 not available, using fixed-function drawing.");
+            return null;
+        }
+        if (BuildManager.getBoolean("feature.texturearray.enabled") && TextureArray.isSupported()) {
+            textureArray = new TextureArray(TextureLoader.getAllTextureFilenames(), loadedTextures);
+        }
+        try {
+            renderPipeline = new RenderPipeline(textureArray);
+        } catch (IOException e) {
+            System.err.println("[GamePanel - createRenderPipeline] " + e.getMessage() + " Using fixed-function drawing.");
+        }
+        return renderPipeline;
+    }
+
     // ============================================================
     // MAIN LOOP — dispatches to the current state
     // ============================================================
@@ -362,6 +439,7 @@ public class GamePanel extends Thread {
                     } else if (key == GLFW_KEY_M) {
                         isMapActive = !isMapActive;
                         if (isMapActive) {
+                            hudRenderer.resetMapView();
                             isFreeCamActive = false;
                             isAutoCollectActive = false;
                             if (inputHandler != null) {
@@ -446,7 +524,7 @@ public class GamePanel extends Thread {
     private void transitionToRun(RunData run) {
         this.activeRun  = run;
         this.difficulty = run.difficulty;
-        this.TOTAL_KEYS = (run.difficulty == Difficulty.HARD) ? 10 : 3;
+        this.TOTAL_KEYS = run.difficulty.getKeyCount();
 
         setCursorVisible(false);
         if (inGameUI != null)
@@ -456,11 +534,23 @@ public class GamePanel extends Thread {
         if (saved != null && saved.keysCollected.length == TOTAL_KEYS) {
             // Continue a saved run: regenerate the same world with the stored seed
             startGame(saved.worldSeed);
-            player.setPosX(saved.playerX);
-            player.setPosY(saved.playerY);
-            player.setPosZ(saved.playerZ);
-            player.setYaw(saved.yaw);
-            player.setPitch(saved.pitch);
+            // Endless mazes grow differently each time they're explored, so the
+            // saved spot may not exist yet; resume those runs from the start room.
+            if (worldStreamer == null) {
+                player.setPosX(saved.playerX);
+                player.setPosY(saved.playerY);
+                player.setPosZ(saved.playerZ);
+                player.setYaw(saved.yaw);
+                player.setPitch(saved.pitch);
+                if (explorationMask != null && saved.explored != null) {
+                    try {
+                        explorationMask.decode(saved.explored);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("[GamePanel] Couldn't restore explored area: " + e.getMessage());
+                        explorationMask.clear();
+                    }
+                }
+            }
             // Restore key collection state
             List<Key> keys = keyManager.getKeys();
             int restoredCount = 0;
@@ -517,7 +607,8 @@ public class GamePanel extends Thread {
         // FOV
         FIELD_OF_VIEW = inGameUI.getFieldOfView();
         // Fog density
-        glFogf(GL_FOG_DENSITY, inGameUI.getFogDensity());
+        fogDensity = inGameUI.getFogDensity();
+        glFogf(GL_FOG_DENSITY, fogDensity);
         // Sensitivity is applied each frame in updateGame via InputHandler
     }
 
@@ -533,7 +624,7 @@ public class GamePanel extends Thread {
 
         long currentWins = bestScoreCache;
         if (isWin) {
-            int winsToAdd = (this.difficulty == Difficulty.HARD) ? 5 : 1;
+            int winsToAdd = this.difficulty.getWinReward();
             currentWins += winsToAdd;
             if (currentWins > bestScoreCache) {
                 ScoreManager.saveBestScore(currentWins);
@@ -621,13 +712,12 @@ public class GamePanel extends Thread {
             glMatrixMode(GL_MODELVIEW);
             glLoadIdentity();
             player.setupCamera();
+            updateCamera((float) width / height);
 
             synchronized (world.getStaticObjects()) {
-                for (GameObject obj : world.getStaticObjects()) {
-                    obj.render();
-                }
+                renderStaticWorld();
             }
-            keyManager.render();
+            keyManager.render(frustum);
         }
 
         // 2D overlay
@@ -638,15 +728,15 @@ public class GamePanel extends Thread {
         glMatrixMode(GL_MODELVIEW);
         glPushMatrix();
         glLoadIdentity();
-        glDisable(GL_LIGHTING);
-        glDisable(GL_FOG);
-        glDisable(GL_DEPTH_TEST);
+        GLStateCache.disable(GL_LIGHTING);
+        GLStateCache.disable(GL_FOG);
+        GLStateCache.disable(GL_DEPTH_TEST);
 
         inGameUI.renderPauseMenu(width, height);
 
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_LIGHTING);
-        glEnable(GL_FOG);
+        GLStateCache.enable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_LIGHTING);
+        GLStateCache.enable(GL_FOG);
         glPopMatrix();
         glMatrixMode(GL_PROJECTION);
         glPopMatrix();
@@ -677,16 +767,16 @@ public class GamePanel extends Thread {
         glLoadIdentity();
 
         // Disable 3D stuff for menu
-        glDisable(GL_LIGHTING);
-        glDisable(GL_FOG);
-        glDisable(GL_DEPTH_TEST);
+        GLStateCache.disable(GL_LIGHTING);
+        GLStateCache.disable(GL_FOG);
+        GLStateCache.disable(GL_DEPTH_TEST);
 
         inGameUI.renderMainMenu(width, height);
 
         // Re-enable for gameplay
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_LIGHTING);
-        glEnable(GL_FOG);
+        GLStateCache.enable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_LIGHTING);
+        GLStateCache.enable(GL_FOG);
     }
 
     // ============================================================
@@ -720,13 +810,12 @@ public class GamePanel extends Thread {
             glMatrixMode(GL_MODELVIEW);
             glLoadIdentity();
             player.setupCamera();
+            updateCamera((float) width / height);
 
             synchronized (world.getStaticObjects()) {
-                for (GameObject obj : world.getStaticObjects()) {
-                    obj.render();
-                }
+                renderStaticWorld();
             }
-            keyManager.render();
+            keyManager.render(frustum);
         }
 
         // 2D overlay
@@ -737,15 +826,15 @@ public class GamePanel extends Thread {
         glMatrixMode(GL_MODELVIEW);
         glPushMatrix();
         glLoadIdentity();
-        glDisable(GL_LIGHTING);
-        glDisable(GL_FOG);
-        glDisable(GL_DEPTH_TEST);
+        GLStateCache.disable(GL_LIGHTING);
+        GLStateCache.disable(GL_FOG);
+        GLStateCache.disable(GL_DEPTH_TEST);
 
         inGameUI.renderGameOver(width, height);
 
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_LIGHTING);
-        glEnable(GL_FOG);
+        GLStateCache.enable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_LIGHTING);
+        GLStateCache.enable(GL_FOG);
         glPopMatrix();
         glMatrixMode(GL_PROJECTION);
         glPopMatrix();
@@ -770,9 +859,41 @@ public class GamePanel extends Thread {
         bestScoreCache = ScoreManager.loadBestScore();
 
         // World Gen
-        world = (seed == -1L)
-            ? worldLoader.generateWorld(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID)
-            : worldLoader.generateWorld(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID, seed);
+        if (worldStreamer != null) {
+            worldStreamer.shutdown();
+            worldStreamer = null;
+        }
+        long startTime = System.currentTimeMillis();
+        GenerationOptions genOptions = GenerationOptions.forDifficulty(difficulty);
+        if (BuildManager.getBoolean("feature.slotgrid.enabled")) {
+            genOptions.layoutAlgorithm = GenerationOptions.LayoutAlgorithm.SLOT_GRID;
+            genOptions.loopChance = BuildManager.getInt("slotgrid.loopPercent", 10) / 100.0f;
+        }
+        genOptions.computeVisibleSets = BuildManager.getBoolean("feature.pvs.enabled");
+        currentSeed = (seed == -1L) ? new Random().nextLong() : seed;
+        boolean endless = BuildManager.getBoolean("feature.endless.enabled");
+
+        // Runs keep a snapshot of their world, so continuing one skips generation
+        int[] snapshotTextures = {wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID};
+        Path snapshotFile = (activeRun != null && !endless) ? runManager.getWorldSnapshotFile(activeRun) : null;
+        long snapshotFingerprint = WorldSnapshot.fingerprint(currentSeed, genOptions, TOTAL_KEYS);
+        WorldSnapshot snapshot = (snapshotFile != null && seed != -1L)
+                ? WorldSnapshot.load(snapshotFile, snapshotFingerprint, snapshotTextures) : null;
+
+        if (endless) {
+            // Endless maze: only the area around the spawn is generated now,
+            // the rest streams in (and out) while playing.
+            pathfinder = new PathfindingManager();
+            worldStreamer = new WorldStreamer(worldLoader, pathfinder,
+                    wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID,
+                    currentSeed, TOTAL_KEYS + 2);
+            world = worldStreamer.getWorld();
+        } else if (snapshot != null) {
+            world = snapshot.world;
+        } else {
+            world = worldLoader.generateWorld(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID,
+                    currentSeed, genOptions);
+        }
         this.escapeDoor = world.getEscapeDoor();
         this.winTrigger = world.getWinTrigger();
 
@@ -781,19 +902,38 @@ public class GamePanel extends Thread {
         // Create a new InputHandler for this session
         inputHandler = new InputHandler(window);
         inputHandler.resetMouse();
-        keyManager.initializeKeys(world.getAllRooms(), world.getStaticObjects(), TOTAL_KEYS);
+        if (snapshot != null) {
+            keyManager.restoreKeys(snapshot.keyPositions);
+        } else {
+            keyManager.initializeKeys(world.getAllRooms(), world.getStaticObjects(), TOTAL_KEYS, currentSeed);
+        }
 
         keysCollected = 0;
         adminKeys.clear();
         horrorLevel = 0.0f;
 
-        // Pathfinding
-        System.out.println("[GamePanel] Building DIY Pathfinding Grid for new world...");
-        long startTime = System.currentTimeMillis();
-        pathfinder = new PathfindingManager();
-        pathfinder.buildGrid(world);
-        long endTime = System.currentTimeMillis();
-        System.out.println("[GamePanel] Pathfinding Grid built in " + (endTime - startTime) + " ms.");
+        // Pathfinding (the streamer keeps its own grid up to date)
+        if (snapshot != null) {
+            pathfinder = snapshot.pathfinder;
+            long elapsedMs = System.currentTimeMillis() - startTime;
+            System.out.println("[GamePanel] World restored from snapshot in " + elapsedMs + " ms.");
+            checkGenerationTargets("Snapshot load", genOptions, elapsedMs);
+        } else if (worldStreamer == null) {
+            System.out.println("[GamePanel] Building DIY Pathfinding Grid for new world...");
+            long gridStartTime = System.currentTimeMillis();
+            pathfinder = new PathfindingManager();
+            pathfinder.buildGrid(world);
+            long endTime = System.currentTimeMillis();
+            System.out.println("[GamePanel] Pathfinding Grid built in " + (endTime - gridStartTime) + " ms.");
+            checkGenerationTargets("World generation", genOptions, endTime - startTime);
+            if (snapshotFile != null) {
+                WorldSnapshot.save(snapshotFile, snapshotFingerprint, world, keyManager.getKeys(), pathfinder, snapshotTextures);
+            }
+        } else {
+            long elapsedMs = System.currentTimeMillis() - startTime;
+            System.out.println("[GamePanel] Endless world ready in " + elapsedMs + " ms.");
+            checkGenerationTargets("Endless start", genOptions, elapsedMs);
+        }
 
         aiPath = null;
         aiPathIndex = 0;
@@ -802,6 +942,9 @@ public class GamePanel extends Thread {
         isAutoCollectActive = false;
         isFreeCamActive = false;
         isMapActive = false;
+        if (explorationMask != null) {
+            explorationMask.clear();
+        }
 
         // Objective
         allKeysCollectedMessageTriggered = false;
@@ -816,6 +959,24 @@ public class GamePanel extends Thread {
         }
     }
 
+    /**
+     * Logs how getting the world ready did against the targets for this maze
+     * size, with a warning naming each target it went over. The heap is
+     * measured after a GC so leftover generation garbage doesn't count.
+     */
+    private void checkGenerationTargets(String what, GenerationOptions options, long elapsedMs) {
+        long usedMb = GenerationOptions.usedHeapBytesAfterGc() / (1024 * 1024);
+        String summary = world.getAllRooms().size() + " rooms, " + world.getStaticObjects().size() + " objects, "
+                + pathfinder.getTileCount() + " nav tiles: " + elapsedMs + " ms (target " + options.generationTimeTargetMs
+                + " ms), heap " + usedMb + " MB (target " + options.memoryTargetMb + " MB)";
+        List<String> missed = options.missedTargets(elapsedMs, usedMb);
+        if (!missed.isEmpty()) {
+            System.err.println("[GamePanel] WARNING: " + what + " over target (" + String.join(", ", missed) + "). " + summary);
+        } else {
+            System.out.println("[GamePanel] " + what + " within target. " + summary);
+        }
+    }
+
     /** Saves the current in-flight run state to disk. */
     private void saveCurrentRunState() {
         if (activeRun == null || runManager == null || player == null || keyManager == null)
@@ -827,10 +988,11 @@ public class GamePanel extends Thread {
         }
         long elapsed = runElapsedMs + (System.currentTimeMillis() - runStartTimeMs);
         RunState state = new RunState(
-            worldLoader.getLastSeed(),
+            currentSeed,
             player.getPosX(), player.getPosY(), player.getPosZ(),
             player.getYaw(), player.getPitch(),
-            collected
+            collected,
+            explorationMask != null ? explorationMask.encode() : null
         );
         runManager.saveRunState(activeRun, state);
         runManager.updateElapsed(activeRun, elapsed);
@@ -842,6 +1004,7 @@ public class GamePanel extends Thread {
         if (escapeDoor != null) {
             escapeDoor.setCollidable(false);
             escapeDoor.setRendered(false);
+            world.markGeometryChanged();
             if (pathfinder != null) pathfinder.openDoorInGrid(escapeDoor);
         }
     }
@@ -849,6 +1012,8 @@ public class GamePanel extends Thread {
     private void updateObjectiveText() {
         if (keysCollected < TOTAL_KEYS) {
             currentObjectiveText = "Objective: Find all keys (" + keysCollected + " / " + TOTAL_KEYS + ")";
+        } else if (worldStreamer != null) {
+            currentObjectiveText = "Objective: Keep exploring... there is no exit.";
         } else {
             currentObjectiveText = "Objective: Find the maze exit!";
         }
@@ -870,7 +1035,8 @@ public class GamePanel extends Thread {
             inputHandler.invertY = inGameUI.isInvertY();
             // FOV & fog
             FIELD_OF_VIEW = inGameUI.getFieldOfView();
-            glFogf(GL_FOG_DENSITY, inGameUI.getFogDensity());
+            fogDensity = inGameUI.getFogDensity();
+            glFogf(GL_FOG_DENSITY, fogDensity);
             // Volume
             if (soundManager != null) {
                 soundManager.setVolume(inGameUI.getMasterVolume());
@@ -882,6 +1048,23 @@ public class GamePanel extends Thread {
             if (!cursorVisible) {
                 player.update(inputHandler, world, isFreeCamActive || isAutoCollectActive);
             }
+        } else if (inputHandler != null) {
+            // WASD pans the full-screen map instead
+            float panX = (inputHandler.dPressed ? 1 : 0) - (inputHandler.aPressed ? 1 : 0);
+            float panZ = (inputHandler.sPressed ? 1 : 0) - (inputHandler.wPressed ? 1 : 0);
+            if (panX != 0 || panZ != 0) {
+                hudRenderer.panMap(panX * MAP_PAN_STEP, panZ * MAP_PAN_STEP);
+            }
+        }
+
+        // Endless mode: pick up finished chunks and queue the next streaming pass
+        if (worldStreamer != null) {
+            worldStreamer.update(player.getPosX(), player.getPosZ());
+        }
+
+        // Fog of war: uncover the map around the player
+        if (explorationMask != null) {
+            explorationMask.update(player.getPosX(), player.getPosZ());
         }
 
         // Key collection logic
@@ -910,6 +1093,7 @@ public class GamePanel extends Thread {
             if (escapeDoor != null && escapeDoor.isCollidable()) {
                 escapeDoor.setCollidable(false);
                 escapeDoor.setRendered(false);
+                world.markGeometryChanged();
                 if (pathfinder != null) {
                     pathfinder.openDoorInGrid(escapeDoor);
                 }
@@ -1098,6 +1282,7 @@ public class GamePanel extends Thread {
     // ============================================================
 
     private void render() {
+        GLStateCache.beginFrame();
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
 
         int width, height;
@@ -1118,16 +1303,15 @@ public class GamePanel extends Thread {
         glMatrixMode(GL_MODELVIEW);
         glLoadIdentity();
         player.setupCamera();
+        updateCamera((float) width / height);
 
         // Render world
         synchronized (world.getStaticObjects()) {
-            for (GameObject obj : world.getStaticObjects()) {
-                obj.render();
-            }
+            renderStaticWorld();
         }
 
         // Render keys
-        keyManager.render();
+        keyManager.render(frustum);
         for (Key key : adminKeys) {
             key.rotation = 0;
             keyManager.renderKey(key);
@@ -1146,6 +1330,12 @@ public class GamePanel extends Thread {
         glLoadIdentity();
 
         long displayBest = bestScoreCache;
+        if (frustum != null) {
+            hudRenderer.setCullStats(frustum.getObjectsSubmitted(), frustum.getObjectsCulled(),
+                    visibleRoomCount, world.getRoomGraph().getRoomCount());
+        }
+        hudRenderer.setStateStats(GLStateCache.getIssuedCount(), GLStateCache.getSkippedCount(),
+                worldMeshes != null ? worldMeshes.getMaterialChangeCount() : -1);
         hudRenderer.render(width, height, keysCollected, TOTAL_KEYS, displayBest,
                 isFreeCamActive, isAutoCollectActive, isDebugLinesActive,
                 adminPanelFeatureAvailable, horrorLevel,
@@ -1154,9 +1344,9 @@ public class GamePanel extends Thread {
 
         // Render admin panel overlay if open
         if (inGameUI != null && inGameUI.isAdminPanelOpen()) {
-            glDisable(GL_LIGHTING);
-            glDisable(GL_FOG);
-            glDisable(GL_DEPTH_TEST);
+            GLStateCache.disable(GL_LIGHTING);
+            GLStateCache.disable(GL_FOG);
+            GLStateCache.disable(GL_DEPTH_TEST);
 
             inGameUI.renderAdminPanel(width, height, new InGameUI.AdminCallback() {
                 @Override
@@ -1196,9 +1386,9 @@ public class GamePanel extends Thread {
                 }
             });
 
-            glEnable(GL_DEPTH_TEST);
-            glEnable(GL_LIGHTING);
-            glEnable(GL_FOG);
+            GLStateCache.enable(GL_DEPTH_TEST);
+            GLStateCache.enable(GL_LIGHTING);
+            GLStateCache.enable(GL_FOG);
         }
 
         glPopMatrix();
@@ -1207,6 +1397,58 @@ public class GamePanel extends Thread {
         glMatrixMode(GL_MODELVIEW);
     }
 
+    /**
+     * Draws the static world: the baked room meshes, or every object one by
+     * one if static meshes are turned off. Call with the staticObjects lock held.
+     */
+    private void renderStaticWorld() {
+        if (worldMeshes != null) {
+            List<Room> rooms = visibleRooms();
+            visibleRoomCount = rooms != null ? rooms.size() : -1;
+            worldMeshes.render(world, frustum, rooms);
+        } else {
+            world.getGeometry().render();
+        }
+    }
+
+    /**
+     * The rooms worth drawing this frame: the current room's precomputed
+     * visible set if the world has one, else whatever the portal culler can
+     * see through doorways.
+     *
+     * @return The rooms, or null to draw them all.
+     */
+    private List<Room> visibleRooms() {
+        float px = player.getPosX(), py = player.getPosY(), pz = player.getPosZ();
+        PotentiallyVisibleSets visibleSets = world.getVisibleSets();
+        if (visibleSets != null) {
+            Room current = world.getRoomGraph().getRoomAt(px, pz, 0.0f);
+            if (current != null && visibleSets.covers(current)) {
+                return visibleSets.get(current);
+            }
+        }
+        if (portalCuller != null) {
+            return portalCuller.update(world, frustum, px, py, pz);
+        }
+        return null;
+    }
+
+    /**
+     * Hands this frame's camera to everything that doesn't read it from the
+     * GL matrix stacks: the frustum and the shaders' frame uniforms.
+     */
+    private void updateCamera(float aspect) {
+        if (frameUniforms != null) {
+            frameUniforms.update(FIELD_OF_VIEW, aspect, NEAR_PLANE, FAR_PLANE,
+                    player.getPosX(), player.getPosY(), player.getPosZ(), player.getYaw(), player.getPitch(),
+                    0.0f, 0.0f, 0.0f, fogDensity, AMBIENT_LIGHT, horrorLevel);
+        }
+        if (frustum == null) return;
+        frustum.update(FIELD_OF_VIEW, aspect, NEAR_PLANE, FAR_PLANE,
+                player.getPosX(), player.getPosY(), player.getPosZ(), player.getYaw(), player.getPitch());
+        frustum.beginFrame();
+    }
+
     private void perspective(float fov, float aspect, float near, float far) {
         float yMax = near * (float) Math.tan(Math.toRadians(fov / 2.0));
         float yMin = -yMax;
@@ -1237,34 +1479,7 @@ public class GamePanel extends Thread {
                     break;
                 }
                 case "TABLE": {
-                    float tableX = pX;
-                    float tableZ = pZ;
-                    float TABLE_TOP_Y = 0.8f;
-                    float TABLE_TOP_W = 1.2f;
-                    float TABLE_TOP_D = 0.8f;
-                    float TABLE_TOP_H = 0.1f;
-                    float LEG_HEIGHT = 0.8f;
-                    float LEG_SIZE = 0.15f;
-                    float LEG_OFFSET_X = (TABLE_TOP_W / 2.0f) - (LEG_SIZE / 2.0f);
-                    float LEG_OFFSET_Z = (TABLE_TOP_D / 2.0f) - (LEG_SIZE / 2.0f);
-                    int tableTextureId = (textureId != 0) ? textureId
-                            : loadedTextures.getOrDefault("wood_texture.png", 0);
-
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, tableX, TABLE_TOP_Y - (TABLE_TOP_H / 2.0f), tableZ,
-                                    TABLE_TOP_W, TABLE_TOP_H, TABLE_TOP_D, 0.5f, 0.3f, 0.0f));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, tableX - LEG_OFFSET_X, 0.0f, tableZ - LEG_OFFSET_Z,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, tableX + LEG_OFFSET_X, 0.0f, tableZ - LEG_OFFSET_Z,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, tableX - LEG_OFFSET_X, 0.0f, tableZ + LEG_OFFSET_Z,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, tableX + LEG_OFFSET_X, 0.0f, tableZ + LEG_OFFSET_Z,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
+                    PrefabRegistry.TABLE.place(pX, 0.0f, pZ, 0, 0, world.getStaticObjects());
                     break;
                 }
                 case "KEY": {
@@ -1272,59 +1487,13 @@ public class GamePanel extends Thread {
                     break;
                 }
                 case "BED": {
-                    float bedX = pX;
-                    float bedZ = pZ;
-                    float BED_WIDTH = 2.5f;
-                    float BED_LENGTH = 3.0f;
-                    float BED_HEIGHT = 0.4f;
-                    float LEG_HEIGHT = 0.35f;
-                    float LEG_SIZE = 0.15f;
-                    float HEADBOARD_HEIGHT = 1.2f;
-                    float HEADBOARD_THICKNESS = 0.1f;
-                    float legOffsetX = (BED_LENGTH / 2.0f) - (LEG_SIZE / 2.0f);
-                    float legOffsetZ = (BED_WIDTH / 2.0f) - (LEG_SIZE / 2.0f);
                     int woodTex = loadedTextures.getOrDefault("wood_texture.png", 0);
                     int sheetsTex = loadedTextures.getOrDefault("sheets_texture.png", 0);
-
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, bedX - legOffsetX, 0.0f, bedZ - legOffsetZ,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, woodTex));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, bedX + legOffsetX, 0.0f, bedZ - legOffsetZ,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, woodTex));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, bedX - legOffsetX, 0.0f, bedZ + legOffsetZ,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, woodTex));
-                    world.getStaticObjects()
-                            .add(new GameObject(ShapeType.CUBE, bedX + legOffsetX, 0.0f, bedZ + legOffsetZ,
-                                    LEG_SIZE, LEG_HEIGHT, LEG_SIZE, woodTex));
-                    world.getStaticObjects().add(new GameObject(ShapeType.CUBE, bedX, LEG_HEIGHT, bedZ,
-                            BED_LENGTH, BED_HEIGHT, BED_WIDTH, sheetsTex));
-                    float headboardZ = bedZ + (BED_WIDTH / 2.0f) + (HEADBOARD_THICKNESS / 2.0f);
-                    world.getStaticObjects().add(new GameObject(ShapeType.CUBE, bedX, LEG_HEIGHT, headboardZ,
-                            BED_LENGTH, HEADBOARD_HEIGHT, HEADBOARD_THICKNESS, woodTex));
+                    PrefabRegistry.BED.place(pX, 0.0f, pZ, woodTex, sheetsTex, world.getStaticObjects());
                     break;
                 }
                 case "TREE": {
-                    float TRUNK_HEIGHT = 4.0f;
-                    float TRUNK_WIDTH = 0.4f;
-                    float LEAF_RADIUS = 2.0f;
-
-                    GameObject trunk = new GameObject(
-                            ShapeType.CUBE,
-                            pX, 0.0f, pZ,
-                            TRUNK_WIDTH, TRUNK_HEIGHT, TRUNK_WIDTH,
-                            0.5f, 0.3f, 0.0f,
-                            true, true);
-                    float leafY = TRUNK_HEIGHT;
-                    GameObject leaves = new GameObject(
-                            ShapeType.SPHERE,
-                            pX, leafY, pZ,
-                            LEAF_RADIUS, LEAF_RADIUS, LEAF_RADIUS,
-                            0.0f, 0.7f, 0.0f,
-                            false, true);
-                    world.getStaticObjects().add(trunk);
-                    world.getStaticObjects().add(leaves);
+                    PrefabRegistry.TREE.place(pX, 0.0f, pZ, 0, 0, world.getStaticObjects());
                     break;
                 }
                 case "ESCAPE_DOOR": {
@@ -1362,12 +1531,31 @@ public class GamePanel extends Thread {
         if (soundManager != null) {
             soundManager.stopAmbiance();
         }
+        if (worldStreamer != null) {
+            worldStreamer.shutdown();
+        }
         hudRenderer.cleanup();
+        if (worldMeshes != null) {
+            worldMeshes.cleanup();
+        }
+        if (propInstancer != null) {
+            propInstancer.cleanup();
+        }
+        if (renderPipeline != null) {
+            renderPipeline.cleanup();
+        }
+        if (frameUniforms != null) {
+            frameUniforms.cleanup();
+        }
+        if (textureArray != null) {
+            textureArray.cleanup();
+        }
+        PrimitiveMeshes.cleanup();
         if (inGameUI != null)
             inGameUI.cleanup();
 
         for (int id : loadedTextures.values()) {
-            glDeleteTextures(id);
+            GLStateCache.deleteTexture(id);
         }
 
         Callbacks.glfwFreeCallbacks(window);
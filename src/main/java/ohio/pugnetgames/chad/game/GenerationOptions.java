@@ -0,0 +1,93 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.core.Difficulty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for one world generation, passed to {@link WorldLoader}.
+ *
+ * The time and memory targets are what we expect a playable world (layout,
+ * geometry and the pathfinding grid, or a restored snapshot) to stay under at
+ * this size. {@link #missedTargets} says which ones a world went over.
+ * GamePanel logs every miss as a warning whether the world was generated,
+ * restored or streamed, and WorldGenBatch --enforce-targets fails the batch
+ * on a miss, which is how slow code sneaking in gets caught on the MEGA tier.
+ */
+public class GenerationOptions {
+
+    /** How the layout phase places rooms (see WorldLoader). */
+    public enum LayoutAlgorithm {
+        /** Grow off random walls, retrying on overlap. The original generator. */
+        RANDOM_GROWTH,
+        /** Plan the room graph on a grid of slots first. Never overlaps, never retries. */
+        SLOT_GRID
+    }
+
+    /** Base number of rooms. The maze ends up with roomCount or roomCount + 1. */
+    public int roomCount = 50;
+
+    public LayoutAlgorithm layoutAlgorithm = LayoutAlgorithm.RANDOM_GROWTH;
+
+    /** SLOT_GRID only: chance that two neighbouring rooms get an extra tunnel, making loops. */
+    public float loopChance = 0.1f;
+
+    /** Work out which rooms can see which after generating (see PotentiallyVisibleSets). */
+    public boolean computeVisibleSets = false;
+
+    /** Print a line per room while generating. Way too chatty for huge mazes. */
+    public boolean verboseLogging = true;
+
+    /** Wall-clock target for generating the world and its nav grid. */
+    public long generationTimeTargetMs = 1000;
+
+    /** Heap target for the finished world and its nav grid, in megabytes. */
+    public long memoryTargetMb = 64;
+
+    /**
+     * Checks a finished world against the targets. Returns one line per
+     * target it went over, or an empty list when it stayed within all of them.
+     *
+     * @param elapsedMs how long the world took to become playable
+     * @param heapMb heap in use once it was ready, ideally from {@link #usedHeapBytesAfterGc()}
+     */
+    public List<String> missedTargets(long elapsedMs, long heapMb) {
+        List<String> missed = new ArrayList<>(2);
+        if (elapsedMs > generationTimeTargetMs) {
+            missed.add("time " + elapsedMs + " ms > " + generationTimeTargetMs + " ms");
+        }
+        if (heapMb > memoryTargetMb) {
+            missed.add("heap " + heapMb + " MB > " + memoryTargetMb + " MB");
+        }
+        return missed;
+    }
+
+    /**
+     * Heap in use after asking for a full GC, in bytes. Without the GC the
+     * figure includes whatever garbage generation left behind, which can be
+     * several times the size of the world itself.
+     */
+    public static long usedHeapBytesAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /** Options for a normal 50-room maze. */
+    public static GenerationOptions defaults() {
+        return new GenerationOptions();
+    }
+
+    /** Options sized for the given difficulty. */
+    public static GenerationOptions forDifficulty(Difficulty difficulty) {
+        GenerationOptions options = new GenerationOptions();
+        options.roomCount = difficulty.getRoomCount();
+        if (difficulty == Difficulty.MEGA) {
+            options.verboseLogging = false;
+            options.generationTimeTargetMs = 5000;
+            options.memoryTargetMb = 512;
+        }
+        return options;
+    }
+}
@@ -1,6 +1,9 @@
 package ohio.pugnetgames.chad.game;
 
+import java.nio.FloatBuffer;
 import java.util.List;
+import org.lwjgl.BufferUtils;
+import ohio.pugnetgames.chad.core.BuildManager;
 import static org.lwjgl.opengl.GL11.*;
 import ohio.pugnetgames.chad.game.GameObject.ShapeType;
 import ohio.pugnetgames.chad.game.Room.RoomType;
@@ -21,11 +24,106 @@ public class HudRenderer {
     private final float[] BEDROOM_COLOR      = {0.55f, 0.27f, 0.07f}; // Chocolate Brown
     private final float[] PADDED_CELL_COLOR  = {0.88f, 0.88f, 0.92f}; // Off-white / pale blue-grey
     private final float[] TUNNEL_COLOR       = {0.4f, 0.4f, 0.4f};   // Slightly darker grey for tunnels
+    private final float[] WALL_COLOR         = {0.8f, 0.1f, 0.1f};   // Red
     // --- 💥 END NEW 💥 ---
 
+    // --- Cached minimap quads (see updateMapCache) ---
+    private FloatBuffer mapVertices;
+    private FloatBuffer mapColors;
+    private int mapVertexCount = 0;
+    private World mapCacheWorld;
+    private int mapCacheVersion = -1;
+    private int mapCacheObjectCount = -1;
+    private int mapCacheRoomCount = -1;
+    private int mapCacheBuilds = 0; // Bumped on every rebuild, so the map texture knows it's stale
+
+    // --- Minimap texture (the cached quads rendered once, see MapTexture) ---
+    private static final int MAP_TEXTURE_SIZE = 1024;
+    private MapTexture mapTexture; // Null when turned off or unsupported
+    private int mapTextureBuilds = -1;
+    private float mapTextureMinX, mapTextureMinZ, mapTextureExtent;
+
+    // --- Full-screen map tiles, zoomed and panned (see MapTilePyramid) ---
+    private MapTilePyramid mapTiles; // Null when turned off or unsupported
+    private int mapTilesBuilds = -1;
+    private float mapTilesMinX, mapTilesMinZ, mapTilesExtent;
+    private float mapZoom = 1.0f; // 1 = the whole world fits
+    private float mapCenterX, mapCenterZ;
+    private float mapViewExtent = 1.0f; // World units across the full-screen map last frame
+    private boolean mapViewReset = true; // Center on the player next frame
+
+    // --- Fog of war (see ExplorationMask) ---
+    private ExplorationMask explorationMask; // Null = the whole map is shown
+    private FogOfWarTexture fogTexture;
+
+    // Last frame's frustum culling counts, shown with the debug lines (-1 = culling off)
+    private int cullSubmitted = -1;
+    private int cullCulled = -1;
+    private int cullRoomsVisible = -1; // -1 = portal culling off
+    private int cullRoomCount;
+    private int stateIssued = -1;
+    private int stateSkipped;
+    private int stateMaterials = -1; // -1 = no baked world meshes
+
     public void init() {
         fontRenderer = new FontRenderer();
         fontRenderer.init("inter_extracted/extras/ttf/Inter-Regular.ttf");
+        if (BuildManager.getBoolean("feature.minimaptexture.enabled") && MapTexture.isSupported()) {
+            mapTexture = new MapTexture(MAP_TEXTURE_SIZE);
+        }
+        if (BuildManager.getBoolean("feature.maptiles.enabled") && MapTexture.isSupported()) {
+            mapTiles = new MapTilePyramid();
+        }
+    }
+
+    /**
+     * Hides the parts of the map the player hasn't explored, or shows all of
+     * it when null.
+     */
+    public void setExplorationMask(ExplorationMask mask) {
+        this.explorationMask = mask;
+        if (mask != null && fogTexture == null) {
+            fogTexture = new FogOfWarTexture();
+        }
+    }
+
+    /** Shows the whole world on the full-screen map, centered on the player. Call when it opens. */
+    public void resetMapView() {
+        mapZoom = 1.0f;
+        mapViewReset = true;
+    }
+
+    /** Zooms the full-screen map in (positive) or out by scroll wheel steps. */
+    public void zoomMap(double steps) {
+        if (mapTiles == null) return;
+        mapZoom = (float) Math.max(1.0, Math.min(mapTiles.getMaxZoom(), mapZoom * Math.pow(1.25, steps)));
+    }
+
+    /** Pans the full-screen map by fractions of what's on screen (+Z is down). */
+    public void panMap(float dx, float dz) {
+        if (mapTiles == null) return;
+        mapCenterX += dx * mapViewExtent;
+        mapCenterZ += dz * mapViewExtent;
+    }
+
+    /**
+     * Sets the culling counts shown with the debug lines. Pass -1s to hide them.
+     */
+    public void setCullStats(int submitted, int culled, int roomsVisible, int roomCount) {
+        this.cullSubmitted = submitted;
+        this.cullCulled = culled;
+        this.cullRoomsVisible = roomsVisible;
+        this.cullRoomCount = roomCount;
+    }
+
+    /**
+     * Sets the GL state call counts (see {@link GLStateCache}) shown with the
+     * debug lines. Pass -1 as materials when the world isn't drawn from baked meshes.
+     */
+    public void setStateStats(int issued, int skipped, int materials) {
+        this.stateIssued = issued;
+        this.stateSkipped = skipped;
+        this.stateMaterials = materials;
     }
 
     /**
@@ -47,6 +145,9 @@ public class HudRenderer {
             String highscoreText = "BEST WINS: " + bestWins; // This is still correct
             // MODIFIED: Removed timerText
 
+            // Everything up to the minimap is text
+            fontRenderer.begin();
+
             // --- Standard HUD ---
             fontRenderer.drawText(scoreText, 20, 10, 1.0f, 1.0f, 0.0f);
             fontRenderer.drawText(highscoreText, 20, 60, 0.8f, 0.8f, 0.8f);
@@ -81,6 +182,24 @@ public class HudRenderer {
                 // Draw it below the "DEBUG LINES ON" text, in red
                 fontRenderer.drawText(horrorText, horrorX, 110, 1.0f, 0.0f, 0.0f);
                 // --- END NEW ---
+
+                if (cullSubmitted >= 0) {
+                    String cullText = "DRAWN: " + cullSubmitted + "  CULLED: " + cullCulled;
+                    if (cullRoomsVisible >= 0) {
+                        cullText += "  ROOMS: " + cullRoomsVisible + "/" + cullRoomCount;
+                    }
+                    float cullX = (width / 2.0f) - (cullText.length() * 10);
+                    fontRenderer.drawText(cullText, cullX, 160, 0.0f, 1.0f, 1.0f);
+                }
+
+                if (stateIssued >= 0) {
+                    String stateText = "STATE: " + stateIssued + "  SKIPPED: " + stateSkipped;
+                    if (stateMaterials >= 0) {
+                        stateText += "  MATERIALS: " + stateMaterials;
+                    }
+                    float stateX = (width / 2.0f) - (stateText.length() * 10);
+                    fontRenderer.drawText(stateText, stateX, 210, 0.0f, 1.0f, 1.0f);
+                }
             }
 
             // --- NEW: Draw Hot/Cold Text ---
@@ -136,6 +255,8 @@ public class HudRenderer {
             controlY += lineHeight; // Add M key hint to the bottom left controls
             fontRenderer.drawText("M: Map", controlX, controlY, 0.8f, 0.8f, 0.8f);
             // --- 💥 END NEW ---
+
+            fontRenderer.end();
         }
 
         // --- 💥 NEW: Draw Mini Map (Top Right) 💥 ---
@@ -168,6 +289,10 @@ public class HudRenderer {
     /**
      * Renders a 2D representation of the maze by drawing scaled quads for
      * each major structural GameObject (walls and floors).
+     * MODIFIED: The quads are cached and drawn with one call, so huge mazes
+     * don't walk every object in immediate mode every frame. With a
+     * {@link MapTexture} they're rendered into it once and the map is one
+     * textured quad, whatever the maze size.
      */
     private void renderMiniMap(int screenWidth, int screenHeight, PathfindingManager pathfinder,
                                Player player, KeyManager keyManager, GameObject winTrigger, World world, boolean isFullScreen) {
@@ -205,12 +330,55 @@ public class HudRenderer {
         float worldDepth = wMaxZ - wMinZ;
 
         // Calculate scaling ratio (pixels per world unit)
-        float mapRatio = mapSize / Math.max(worldWidth, worldDepth);
+        float mapExtent = Math.max(worldWidth, worldDepth);
+        float mapRatio = mapSize / mapExtent;
+
+        // 1-3. Tunnels, room floors and walls/furniture, from the cached
+        // world-space quads. With a map texture they're only rendered into
+        // it when they or the bounds change.
+        updateMapCache(world);
+        if (mapTexture != null && (mapTextureBuilds != mapCacheBuilds || mapTextureMinX != wMinX
+                || mapTextureMinZ != wMinZ || mapTextureExtent != mapExtent)) {
+            mapTexture.render(mapVertices, mapColors, mapVertexCount, wMinX, wMinZ, mapExtent);
+            mapTextureBuilds = mapCacheBuilds;
+            mapTextureMinX = wMinX;
+            mapTextureMinZ = wMinZ;
+            mapTextureExtent = mapExtent;
+        }
+
+        // The full-screen map draws from the tile pyramid, zoomed and panned
+        boolean tiled = isFullScreen && mapTiles != null;
+        float viewMinX = wMinX, viewMinZ = wMinZ, viewRatio = mapRatio;
+        if (tiled) {
+            if (mapTilesBuilds != mapCacheBuilds || mapTilesMinX != wMinX
+                    || mapTilesMinZ != wMinZ || mapTilesExtent != mapExtent) {
+                mapTiles.setSource(mapVertices, mapColors, mapVertexCount, wMinX, wMinZ, mapExtent);
+                mapTilesBuilds = mapCacheBuilds;
+                mapTilesMinX = wMinX;
+                mapTilesMinZ = wMinZ;
+                mapTilesExtent = mapExtent;
+                mapZoom = Math.min(mapZoom, mapTiles.getMaxZoom());
+            }
+            mapTiles.update();
+            if (mapViewReset) {
+                mapCenterX = player.getPosX();
+                mapCenterZ = player.getPosZ();
+                mapViewReset = false;
+            }
+            // Keep the view inside the world
+            mapViewExtent = mapExtent / mapZoom;
+            float half = mapViewExtent / 2.0f;
+            mapCenterX = Math.max(wMinX + half, Math.min(wMinX + mapExtent - half, mapCenterX));
+            mapCenterZ = Math.max(wMinZ + half, Math.min(wMinZ + mapExtent - half, mapCenterZ));
+            viewMinX = mapCenterX - half;
+            viewMinZ = mapCenterZ - half;
+            viewRatio = mapSize / mapViewExtent;
+        }
 
         // --- Setup GL State for 2D Drawing ---
-        glDisable(GL_TEXTURE_2D);
-        glDisable(GL_DEPTH_TEST);
-        glEnable(GL_BLEND);
+        GLStateCache.disable(GL_TEXTURE_2D);
+        GLStateCache.disable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_BLEND);
         glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
 
         // Draw Map Background (Dark Gray)
@@ -222,138 +390,155 @@ public class HudRenderer {
         glVertex2f(mapX_Screen, mapY_Screen + mapSize);
         glEnd();
 
-        // 1. 💥 DRAW TUNNEL FLOORS FIRST (Layer 1 - Bottom) 💥
-        // This draws the generic grey tunnels, which will be covered by the room quads.
-        glBegin(GL_QUADS);
-        float[] tunnelColor = TUNNEL_COLOR;
-        glColor3f(tunnelColor[0], tunnelColor[1], tunnelColor[2]);
-
-        synchronized (world.getStaticObjects()) {
-            for (GameObject obj : world.getStaticObjects()) {
-                ShapeType shape = obj.getShape();
-
-                // A Tunnel floor is a CUBE with low Y-scale AND the wallTextureID
-                boolean isTunnelFloor = (shape == ShapeType.CUBE && obj.getScaleY() <= 0.5f && obj.getTextureID() == world.getWallTextureID());
-
-                if (isTunnelFloor) {
-                    // Calculate Bounding Box of Object in World Space
-                    float oMinX_World = obj.getPosX() - obj.getScaleX() / 2.0f;
-                    float oMaxX_World = obj.getPosX() + obj.getScaleX() / 2.0f;
-                    float oMinZ_World = obj.getPosZ() - obj.getScaleZ() / 2.0f;
-                    float oMaxZ_World = obj.getPosZ() + obj.getScaleZ() / 2.0f;
-
-                    // Convert to Screen Space
-                    float oMinX_Screen = mapX_Screen + (oMinX_World - wMinX) * mapRatio;
-                    float oMaxX_Screen = mapX_Screen + (oMaxX_World - wMinX) * mapRatio;
-                    float oMinZ_Screen = mapY_Screen + (oMinZ_World - wMinZ) * mapRatio; // Z maps to screen Y
-                    float oMaxZ_Screen = mapY_Screen + (oMaxZ_World - wMinZ) * mapRatio;
-
-                    // Draw Quad
-                    glVertex2f(oMinX_Screen, oMinZ_Screen);
-                    glVertex2f(oMaxX_Screen, oMinZ_Screen);
-                    glVertex2f(oMaxX_Screen, oMaxZ_Screen);
-                    glVertex2f(oMinX_Screen, oMaxZ_Screen);
-                }
-            }
+        // Zoomed tiles and the fog stick out of the map square (window coordinates are bottom-up)
+        glScissor((int) mapX_Screen, (int) (screenHeight - mapY_Screen - mapSize), mapSize, mapSize);
+        GLStateCache.enable(GL_SCISSOR_TEST);
+        if (tiled) {
+            mapTiles.draw(viewMinX, viewMinZ, mapViewExtent, mapX_Screen, mapY_Screen, mapSize);
+        } else if (mapTexture != null) {
+            mapTexture.draw(mapX_Screen, mapY_Screen, mapSize);
+        } else if (mapVertexCount > 0) {
+            // The matrix maps world units onto the map square
+            glPushMatrix();
+            glTranslatef(mapX_Screen - wMinX * mapRatio, mapY_Screen - wMinZ * mapRatio, 0.0f); // Z maps to screen Y
+            glScalef(mapRatio, mapRatio, 1.0f);
+            glEnableClientState(GL_VERTEX_ARRAY);
+            glEnableClientState(GL_COLOR_ARRAY);
+            glVertexPointer(2, GL_FLOAT, 0, mapVertices);
+            glColorPointer(3, GL_FLOAT, 0, mapColors);
+            glDrawArrays(GL_QUADS, 0, mapVertexCount);
+            glDisableClientState(GL_COLOR_ARRAY);
+            glDisableClientState(GL_VERTEX_ARRAY);
+            glPopMatrix();
         }
-        glEnd();
 
-
-        // 2. 💥 DRAW ROOM FLOORS LAST (Layer 2 - Middle/Top) 💥
-        // This overwrites the tunnel color where rooms are defined.
-        glBegin(GL_QUADS);
-        // Iterate over all rooms
-        for (Room room : world.getAllRooms()) {
-            float[] color = getColorForRoomType(room.getType());
-            glColor3f(color[0], color[1], color[2]);
-
-            // Calculate Bounding Box of Room in World Space
-            float oMinX_World = room.minX;
-            float oMaxX_World = room.maxX;
-            float oMinZ_World = room.minZ;
-            float oMaxZ_World = room.maxZ;
-
-            // Convert to Screen Space
-            float oMinX_Screen = mapX_Screen + (oMinX_World - wMinX) * mapRatio;
-            float oMaxX_Screen = mapX_Screen + (oMaxX_World - wMinX) * mapRatio;
-            float oMinZ_Screen = mapY_Screen + (oMinZ_World - wMinZ) * mapRatio; // Z maps to screen Y
-            float oMaxZ_Screen = mapY_Screen + (oMaxZ_World - wMinZ) * mapRatio;
-
-            // Draw Quad
-            glVertex2f(oMinX_Screen, oMinZ_Screen);
-            glVertex2f(oMaxX_Screen, oMinZ_Screen);
-            glVertex2f(oMaxX_Screen, oMaxZ_Screen);
-            glVertex2f(oMinX_Screen, oMaxZ_Screen);
+        // Unexplored parts are covered in the background color
+        if (explorationMask != null) {
+            fogTexture.sync(explorationMask, wMinX, wMinZ, wMaxX, wMaxZ);
+            fogTexture.draw(mapX_Screen, mapY_Screen, viewRatio, viewMinX, viewMinZ, 0.1f, 0.1f, 0.1f, 1.0f);
+        }
+        GLStateCache.disable(GL_SCISSOR_TEST);
+
+        // 4. Draw Player Location (Red Circle/Point), unless zoomed away from it
+        float pX_Screen = mapX_Screen + (player.getPosX() - viewMinX) * viewRatio;
+        float pZ_Screen = mapY_Screen + (player.getPosZ() - viewMinZ) * viewRatio;
+        if (pX_Screen >= mapX_Screen && pX_Screen <= mapX_Screen + mapSize
+                && pZ_Screen >= mapY_Screen && pZ_Screen <= mapY_Screen + mapSize) {
+            glPointSize(PLAYER_SIZE);
+            glBegin(GL_POINTS); // Restart points drawing after removing other sections
+            glColor3f(1.0f, 0.0f, 0.0f); // Red
+            glVertex2f(pX_Screen, pZ_Screen);
+            glEnd();
+            glPointSize(1.0f); // Reset point size
         }
-        glEnd();
-
 
-        // 3. Draw World Geometry (Walls and Furniture - Layer 3 - Top)
-        synchronized (world.getStaticObjects()) {
-            for (GameObject obj : world.getStaticObjects()) {
-                // Only draw structural elements that should block the view (walls, tables, beds)
-                ShapeType shape = obj.getShape();
-                if (shape != ShapeType.CUBE && shape != ShapeType.PLANE) continue;
+        // --- Cleanup GL State ---
+        GLStateCache.enable(GL_DEPTH_TEST);
+        GLStateCache.enable(GL_TEXTURE_2D);
+    }
 
-                // --- Determine if object is a Wall/Obstacle or a Floor (to skip it) ---
-                boolean isFloor = (shape == ShapeType.PLANE) || // Skip Plane floors (already drawn by room loop)
-                        (shape == ShapeType.CUBE && obj.getScaleY() <= 0.5f); // Skip low CUBE floors (already drawn by tunnel loop)
+    /**
+     * Rebuilds the cached minimap quads when the world changed (new world,
+     * streamed rooms, or objects added by the admin panel). The quads are in
+     * world units so the cache survives the map being resized or the bounds
+     * growing; renderMiniMap just sets up a matrix and draws them in one call.
+     *
+     * Layers are stored in draw order: tunnel floors, then room floors on
+     * top, then walls and furniture.
+     */
+    private void updateMapCache(World world) {
+        List<GameObject> objects = world.getStaticObjects();
+        synchronized (objects) {
+            if (world == mapCacheWorld && world.getGeometryVersion() == mapCacheVersion
+                    && objects.size() == mapCacheObjectCount && world.getAllRooms().size() == mapCacheRoomCount) {
+                return;
+            }
 
-                if (isFloor) continue; // Skip all floor objects
+            StaticGeometry geo = world.getGeometry();
+            int quads = world.getAllRooms().size();
+            for (int i = 0; i < geo.count; i++) {
+                if (isMapTunnelFloor(geo, i, world) || isMapObstacle(geo, i, world)) quads++;
+            }
+            if (mapVertices == null || mapVertices.capacity() < quads * 8) {
+                mapVertices = BufferUtils.createFloatBuffer(quads * 8);
+                mapColors = BufferUtils.createFloatBuffer(quads * 12);
+            }
+            mapVertices.clear();
+            mapColors.clear();
 
-                // --- Walls/Obstacles logic ---
-                // If it's collidable AND tall, it's a wall or furniture
-                // We use sheetsTextureID to skip the mattress which is floor height
-                if (!obj.isCollidable() || obj.getScaleY() > 5.0f || obj.getTextureID() == world.getSheetsTextureID()) {
-                    continue; // Skip invisible walls, triggers, and mattresses (sheets)
+            // 1. 💥 TUNNEL FLOORS FIRST (Layer 1 - Bottom) 💥
+            for (int i = 0; i < geo.count; i++) {
+                if (isMapTunnelFloor(geo, i, world)) {
+                    putMapQuad(geo, i, TUNNEL_COLOR);
+                }
+            }
+            // 2. 💥 ROOM FLOORS (Layer 2 - Middle) 💥
+            for (Room room : world.getAllRooms()) {
+                putMapQuad(room.minX, room.minZ, room.maxX, room.maxZ, getColorForRoomType(room.getType()));
+            }
+            // 3. Walls and Furniture (Layer 3 - Top), in red
+            for (int i = 0; i < geo.count; i++) {
+                if (isMapObstacle(geo, i, world)) {
+                    putMapQuad(geo, i, WALL_COLOR);
                 }
-
-                // Wall/Obstacle Color (Red)
-                glColor3f(0.8f, 0.1f, 0.1f);
-
-                // --- Calculate Bounding Box of Object in World Space ---
-                float oMinX_World = obj.getPosX() - obj.getScaleX() / 2.0f;
-                float oMaxX_World = obj.getPosX() + obj.getScaleX() / 2.0f;
-                float oMinZ_World = obj.getPosZ() - obj.getScaleZ() / 2.0f;
-                float oMaxZ_World = obj.getPosZ() + obj.getScaleZ() / 2.0f;
-
-                // --- Convert to Screen Space ---
-                float oMinX_Screen = mapX_Screen + (oMinX_World - wMinX) * mapRatio;
-                float oMaxX_Screen = mapX_Screen + (oMaxX_World - wMinX) * mapRatio;
-                float oMinZ_Screen = mapY_Screen + (oMinZ_World - wMinZ) * mapRatio; // Z maps to screen Y
-                float oMaxZ_Screen = mapY_Screen + (oMaxZ_World - wMinZ) * mapRatio;
-
-                // Draw Quad
-                glBegin(GL_QUADS);
-                glVertex2f(oMinX_Screen, oMinZ_Screen);
-                glVertex2f(oMaxX_Screen, oMinZ_Screen);
-                glVertex2f(oMaxX_Screen, oMaxZ_Screen);
-                glVertex2f(oMinX_Screen, oMaxZ_Screen);
-                glEnd();
             }
-        }
 
-        // 4. Draw Player Location (Red Circle/Point)
-        glPointSize(PLAYER_SIZE);
-        glBegin(GL_POINTS); // Restart points drawing after removing other sections
+            mapVertexCount = mapVertices.position() / 2;
+            mapVertices.flip();
+            mapColors.flip();
+            mapCacheWorld = world;
+            mapCacheVersion = world.getGeometryVersion();
+            mapCacheObjectCount = objects.size();
+            mapCacheRoomCount = world.getAllRooms().size();
+            mapCacheBuilds++;
+        }
+    }
 
-        float pX_Screen = mapX_Screen + (player.getPosX() - wMinX) * mapRatio;
-        float pZ_Screen = mapY_Screen + (player.getPosZ() - wMinZ) * mapRatio;
+    /** A Tunnel floor is a CUBE with low Y-scale AND the wallTextureID. */
+    private boolean isMapTunnelFloor(StaticGeometry geo, int i, World world) {
+        return geo.isCube(i) && geo.scaleY[i] <= 0.5f && geo.getTextureID(i) == world.getWallTextureID();
+    }
 
-        glColor3f(1.0f, 0.0f, 0.0f); // Red
-        glVertex2f(pX_Screen, pZ_Screen);
+    /**
+     * Only structural elements that should block the view (walls, tables, beds).
+     * Floors are drawn by the floor layers; invisible walls, triggers and
+     * mattresses (sheets) are skipped.
+     */
+    private boolean isMapObstacle(StaticGeometry geo, int i, World world) {
+        if (!geo.isCube(i)) return false; // Planes are always floors
+        if (geo.scaleY[i] <= 0.5f) return false; // Low CUBE floors
+        return geo.isCollidable(i) && geo.scaleY[i] <= 5.0f && geo.getTextureID(i) != world.getSheetsTextureID();
+    }
 
-        glEnd();
-        glPointSize(1.0f); // Reset point size
+    /** Adds the XZ footprint of one geometry slot. */
+    private void putMapQuad(StaticGeometry geo, int i, float[] color) {
+        float hx = geo.scaleX[i] / 2.0f;
+        float hz = geo.scaleZ[i] / 2.0f;
+        putMapQuad(geo.posX[i] - hx, geo.posZ[i] - hz, geo.posX[i] + hx, geo.posZ[i] + hz, color);
+    }
 
-        // --- Cleanup GL State ---
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_TEXTURE_2D);
+    private void putMapQuad(float minX, float minZ, float maxX, float maxZ, float[] color) {
+        mapVertices.put(minX).put(minZ);
+        mapVertices.put(maxX).put(minZ);
+        mapVertices.put(maxX).put(maxZ);
+        mapVertices.put(minX).put(maxZ);
+        for (int i = 0; i < 4; i++) {
+            mapColors.put(color[0]).put(color[1]).put(color[2]);
+        }
     }
 
     public void cleanup() {
         if (fontRenderer != null) {
             fontRenderer.cleanup();
         }
+        if (mapTexture != null) {
+            mapTexture.cleanup();
+        }
+        if (mapTiles != null) {
+            mapTiles.cleanup();
+        }
+        if (fogTexture != null) {
+            fogTexture.cleanup();
+        }
     }
 }
\ No newline at end of file
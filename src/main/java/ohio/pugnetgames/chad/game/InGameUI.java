@@ -337,7 +337,7 @@ public class InGameUI {
 
         // Background — shared by all sub-screens
         drawFilledRect(0, 0, width, height, 0.094f, 0.102f, 0.125f, 1.0f);
-        glEnable(GL_BLEND);
+        GLStateCache.enable(GL_BLEND);
         glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
         drawFilledRect(0, 0, width, height / 3, 0.15f, 0.08f, 0.25f, 0.3f);
 
@@ -463,7 +463,7 @@ public class InGameUI {
         drawOutlineRect(listX, listTop, listW, listH, 0.235f, 1.0f, 0.47f);
 
         // Scissor clip
-        glEnable(GL_SCISSOR_TEST);
+        GLStateCache.enable(GL_SCISSOR_TEST);
         glScissor((int) listX, screenH - (int) (listTop + listH), (int) listW, (int) listH);
 
         float drawY = listTop + 5 - runsListScroll;
@@ -490,10 +490,15 @@ public class InGameUI {
                         nameAlpha, nameAlpha, nameAlpha);
 
                 // Difficulty badge
-                String diffBadge = run.difficulty == Difficulty.HARD ? "HARD" : "EASY";
-                float dr = run.difficulty == Difficulty.HARD ? 1.0f : 0.3f;
-                float dg = run.difficulty == Difficulty.HARD ? 0.4f : 0.9f;
-                float db = run.difficulty == Difficulty.HARD ? 0.2f : 0.35f;
+                String diffBadge = run.difficulty.name();
+                float dr, dg, db;
+                if (run.difficulty == Difficulty.MEGA) {
+                    dr = 0.8f; dg = 0.3f; db = 1.0f;
+                } else if (run.difficulty == Difficulty.HARD) {
+                    dr = 1.0f; dg = 0.4f; db = 0.2f;
+                } else {
+                    dr = 0.3f; dg = 0.9f; db = 0.35f;
+                }
                 float da = completed ? 0.5f : 1.0f;
                 fontRenderer.drawText(diffBadge, listX + 38, drawY + 32, dr * da, dg * da, db * da);
 
@@ -535,7 +540,7 @@ public class InGameUI {
             drawY += entryH;
         }
 
-        glDisable(GL_SCISSOR_TEST);
+        GLStateCache.disable(GL_SCISSOR_TEST);
 
         // Empty state
         if (runsListCache.isEmpty()) {
@@ -622,17 +627,20 @@ public class InGameUI {
         cy += fieldH + 35;
 
         // --- Difficulty toggle button ---
-        String diffLabel = (createRunDifficulty == Difficulty.HARD)
-                ? "HARD  (10 keys)" : "EASY  (3 keys)";
-        float dr = createRunDifficulty == Difficulty.HARD ? 1.0f : 0.235f;
-        float dg = createRunDifficulty == Difficulty.HARD ? 0.4f : 1.0f;
-        float db = createRunDifficulty == Difficulty.HARD ? 0.2f : 0.47f;
+        String diffLabel = createRunDifficulty.name() + "  (" + createRunDifficulty.getKeyCount() + " keys)";
+        float dr, dg, db;
+        if (createRunDifficulty == Difficulty.MEGA) {
+            dr = 0.8f; dg = 0.3f; db = 1.0f;
+        } else if (createRunDifficulty == Difficulty.HARD) {
+            dr = 1.0f; dg = 0.4f; db = 0.2f;
+        } else {
+            dr = 0.235f; dg = 1.0f; db = 0.47f;
+        }
         float diffBtnW = 300;
         float diffBtnH = 46;
         runsButtons.add(new Button(diffLabel, (width - diffBtnW) / 2.0f, cy, diffBtnW, diffBtnH,
                 dr, dg, db,
-                () -> createRunDifficulty = (createRunDifficulty == Difficulty.EASY)
-                        ? Difficulty.HARD : Difficulty.EASY));
+                () -> createRunDifficulty = createRunDifficulty.next()));
 
         cy += diffBtnH + 50;
 
@@ -724,7 +732,7 @@ public class InGameUI {
         logListScroll = Math.max(0, Math.min(maxScroll, logListScroll));
 
         // Scissor test for clipping
-        glEnable(GL_SCISSOR_TEST);
+        GLStateCache.enable(GL_SCISSOR_TEST);
         // OpenGL scissor uses bottom-left origin, our UI uses top-left
         int scissorX = (int) panelX;
         int scissorY = screenH - (int) (contentY + contentH);
@@ -773,7 +781,7 @@ public class InGameUI {
             drawY += entryH;
         }
 
-        glDisable(GL_SCISSOR_TEST);
+        GLStateCache.disable(GL_SCISSOR_TEST);
 
         // Scroll indicator if content overflows
         if (totalListH > contentH) {
@@ -864,7 +872,7 @@ public class InGameUI {
         logDetailScroll = Math.max(0, Math.min(maxScroll, logDetailScroll));
 
         // Scissor for content clipping
-        glEnable(GL_SCISSOR_TEST);
+        GLStateCache.enable(GL_SCISSOR_TEST);
         glScissor((int) contentX, screenH - (int) (contentY + contentH),
                 (int) contentW, (int) contentH);
 
@@ -890,7 +898,7 @@ public class InGameUI {
             }
         }
 
-        glDisable(GL_SCISSOR_TEST);
+        GLStateCache.disable(GL_SCISSOR_TEST);
 
         // Scroll bar
         if (totalH > contentH) {
@@ -970,45 +978,11 @@ public class InGameUI {
 
     /**
      * Splits text into multiple lines that fit within maxWidth pixels.
-     * Splits at word boundaries (spaces). If a single word is too wide,
-     * it gets its own line and will be clipped by the scissor test.
+     * If a single word is too wide, it gets its own line and will be
+     * clipped by the scissor test. Cached by the font renderer; don't modify.
      */
     private List<String> wrapText(String text, float maxWidth) {
-        List<String> lines = new ArrayList<>();
-        if (text == null || text.isEmpty()) {
-            lines.add("");
-            return lines;
-        }
-
-        String[] words = text.split(" ");
-        StringBuilder current = new StringBuilder();
-
-        for (String word : words) {
-            if (current.length() == 0) {
-                // First word on the line — always add it
-                current.append(word);
-            } else {
-                // Check if adding this word exceeds width
-                String test = current.toString() + " " + word;
-                if (fontRenderer.getTextWidth(test) <= maxWidth) {
-                    current.append(" ").append(word);
-                } else {
-                    // Flush current line, start new one
-                    lines.add(current.toString());
-                    current = new StringBuilder(word);
-                }
-            }
-        }
-
-        // Don't forget the last line
-        if (current.length() > 0) {
-            lines.add(current.toString());
-        }
-
-        if (lines.isEmpty()) {
-            lines.add("");
-        }
-        return lines;
+        return fontRenderer.wrapText(text, maxWidth);
     }
 
     // ============================================================
@@ -1500,8 +1474,8 @@ public class InGameUI {
 
     private void drawFilledCircle(float cx, float cy, float radius,
             float r, float g, float b, float a) {
-        glDisable(GL_TEXTURE_2D);
-        glEnable(GL_BLEND);
+        GLStateCache.disable(GL_TEXTURE_2D);
+        GLStateCache.enable(GL_BLEND);
         glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
         glColor4f(r, g, b, a);
         glBegin(GL_TRIANGLE_FAN);
@@ -1516,8 +1490,8 @@ public class InGameUI {
 
     private void drawFilledRect(float x, float y, float w, float h,
             float r, float g, float b, float a) {
-        glDisable(GL_TEXTURE_2D);
-        glEnable(GL_BLEND);
+        GLStateCache.disable(GL_TEXTURE_2D);
+        GLStateCache.enable(GL_BLEND);
         glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
         glColor4f(r, g, b, a);
         glBegin(GL_QUADS);
@@ -1530,7 +1504,7 @@ public class InGameUI {
 
     private void drawOutlineRect(float x, float y, float w, float h,
             float r, float g, float b) {
-        glDisable(GL_TEXTURE_2D);
+        GLStateCache.disable(GL_TEXTURE_2D);
         glColor4f(r, g, b, 1.0f);
         glLineWidth(2.0f);
         glBegin(GL_LINE_LOOP);
@@ -1,6 +1,5 @@
 package ohio.pugnetgames.chad.game;
 
-import ohio.pugnetgames.chad.game.GameObject.ShapeType;
 import ohio.pugnetgames.chad.game.Room.RoomType; // 💥 IMPORT ROOMTYPE 💥
 
 import java.util.ArrayList;
@@ -19,24 +18,15 @@ import static org.lwjgl.opengl.GL11.*;
 public class KeyManager {
 
     private final List<Key> keys = new ArrayList<>();
-    private final Random random = new Random();
+    private Random random = new Random();
 
     private final float KEY_COLLISION_RADIUS_SQ = 1.0f * 1.0f;
     private final float KEY_SCALE = 0.001f;
+    private static final float KEY_CULL_RADIUS = 1.0f; // Holds the model or the fallback cube
 
     private int keysCollected = 0;
     private int TOTAL_KEYS = 3;
 
-    // --- Table constants (for non-bedroom rooms) ---
-    private final float TABLE_TOP_Y = 0.8f;
-    private final float TABLE_TOP_W = 1.2f; // width (x)
-    private final float TABLE_TOP_D = 0.8f; // depth (z)
-    private final float TABLE_TOP_H = 0.1f;
-    private final float LEG_HEIGHT = 0.8f;
-    private final float LEG_SIZE = 0.15f;
-    private final float LEG_OFFSET_X = (TABLE_TOP_W / 2.0f) - (LEG_SIZE / 2.0f);
-    private final float LEG_OFFSET_Z = (TABLE_TOP_D / 2.0f) - (LEG_SIZE / 2.0f);
-
     // --- Model and Texture ---
     private Mesh keyModel;
     private int keyTextureID;
@@ -48,36 +38,22 @@ public class KeyManager {
      * @param allRooms List of all generated rooms to spawn in.
      * @param staticObjects The world's object list to add tables to.
      * @param totalKeysToSpawn The number of keys to create (e.g., 3 or 10).
+     * @param seed The world seed, so a seed always puts keys in the same rooms.
      */
     // --- 💥 REWRITTEN: initializeKeys 💥 ---
-    public void initializeKeys(List<Room> allRooms, List<GameObject> staticObjects, int totalKeysToSpawn) {
+    public void initializeKeys(List<Room> allRooms, List<GameObject> staticObjects, int totalKeysToSpawn, long seed) {
         keys.clear();
         keysCollected = 0;
         this.TOTAL_KEYS = totalKeysToSpawn;
+        this.random = new Random(seed);
 
         // --- 1. Load the model and texture ONCE ---
-        try {
-            this.keyModel = ModelLoader.loadModel("key.obj");
-            this.keyTextureID = TextureLoader.loadTexture("key_diffuse.png");
-        } catch (Exception e) {
-            System.err.println("!!!!!!!!!! FAILED TO LOAD KEY MODEL !!!!!!!!!!");
-            e.printStackTrace();
-            this.keyModel = null;
-        }
+        loadKeyModel();
 
-        // Create a list of rooms we can spawn in
-        List<Room> spawnableRooms = new ArrayList<>(allRooms);
-        if (!spawnableRooms.isEmpty()) {
-            spawnableRooms.remove(0); // Don't spawn in Start Room
-        }
-        if (!spawnableRooms.isEmpty()) {
-            spawnableRooms.remove(spawnableRooms.size() - 1); // Don't spawn in Escape Room
-        }
-        Collections.shuffle(spawnableRooms, random);
+        List<Room> keyRooms = chooseKeyRooms(allRooms, TOTAL_KEYS, random);
 
-        // --- 2. Spawn keys in the first X shuffled rooms ---
-        for (int i = 0; i < TOTAL_KEYS && i < spawnableRooms.size(); i++) {
-            Room room = spawnableRooms.get(i);
+        // --- 2. Spawn keys in the chosen rooms ---
+        for (Room room : keyRooms) {
 
             // --- 💥 NEW LOGIC: Check room type 💥 ---
             if (room.getType() == RoomType.BEDROOM) {
@@ -103,20 +79,11 @@ public class KeyManager {
                 float tableX = room.getCenterX();
                 float tableZ = room.getCenterZ();
 
-                // 2a. Create and add the table GameObjects
-                staticObjects.add(new GameObject(ShapeType.CUBE, tableX, TABLE_TOP_Y - (TABLE_TOP_H / 2.0f), tableZ,
-                        TABLE_TOP_W, TABLE_TOP_H, TABLE_TOP_D, 0.5f, 0.3f, 0.0f));
-                staticObjects.add(new GameObject(ShapeType.CUBE, tableX - LEG_OFFSET_X, 0.0f, tableZ - LEG_OFFSET_Z,
-                        LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
-                staticObjects.add(new GameObject(ShapeType.CUBE, tableX + LEG_OFFSET_X, 0.0f, tableZ - LEG_OFFSET_Z,
-                        LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
-                staticObjects.add(new GameObject(ShapeType.CUBE, tableX - LEG_OFFSET_X, 0.0f, tableZ + LEG_OFFSET_Z,
-                        LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
-                staticObjects.add(new GameObject(ShapeType.CUBE, tableX + LEG_OFFSET_X, 0.0f, tableZ + LEG_OFFSET_Z,
-                        LEG_SIZE, LEG_HEIGHT, LEG_SIZE, 0.5f, 0.3f, 0.0f));
+                // 2a. Place the table (plain brown, like before)
+                PrefabRegistry.TABLE.place(tableX, 0.0f, tableZ, 0, 0, staticObjects);
 
                 // 2b. Create the Key on top of the table
-                Key key = new Key(tableX, TABLE_TOP_Y + 0.05f, tableZ);
+                Key key = new Key(tableX, PrefabRegistry.TABLE_TOP_Y + 0.05f, tableZ);
                 keys.add(key);
                 System.out.println("[KeyManager] Spawning key in STANDARD room at (" + tableX + ", " + tableZ + ")");
             }
@@ -124,6 +91,53 @@ public class KeyManager {
         }
     }
 
+    /**
+     * Picks the rooms that get a key: never the start room or the last room,
+     * otherwise a shuffle of the rest. Only uses the room list, so it can be
+     * run on a bare layout (the seed finder does this). The Random is left
+     * where {@link #initializeKeys} expects it.
+     */
+    public static List<Room> chooseKeyRooms(List<Room> allRooms, int totalKeys, Random random) {
+        // Create a list of rooms we can spawn in
+        List<Room> spawnableRooms = new ArrayList<>(allRooms);
+        if (!spawnableRooms.isEmpty()) {
+            spawnableRooms.remove(0); // Don't spawn in Start Room
+        }
+        if (!spawnableRooms.isEmpty()) {
+            spawnableRooms.remove(spawnableRooms.size() - 1); // Don't spawn in Escape Room
+        }
+        Collections.shuffle(spawnableRooms, random);
+        return spawnableRooms.subList(0, Math.min(totalKeys, spawnableRooms.size()));
+    }
+
+    /**
+     * Puts keys back exactly where a saved world had them (see WorldSnapshot).
+     * Their tables are already part of the saved static objects.
+     *
+     * @param positions One [x, y, z] per key, in spawn order.
+     */
+    public void restoreKeys(List<float[]> positions) {
+        keys.clear();
+        keysCollected = 0;
+        this.TOTAL_KEYS = positions.size();
+        loadKeyModel();
+        for (float[] pos : positions) {
+            keys.add(new Key(pos[0], pos[1], pos[2]));
+        }
+        System.out.println("[KeyManager] Restored " + keys.size() + " keys from snapshot.");
+    }
+
+    private void loadKeyModel() {
+        try {
+            this.keyModel = ModelLoader.loadModel("key.obj");
+            this.keyTextureID = TextureLoader.loadTexture("key_diffuse.png");
+        } catch (Exception e) {
+            System.err.println("!!!!!!!!!! FAILED TO LOAD KEY MODEL !!!!!!!!!!");
+            e.printStackTrace();
+            this.keyModel = null;
+        }
+    }
+
     /**
      * Updates all keys. Checks for collection and updates rotation.
      * @param player The player object to check distance against.
@@ -155,36 +169,51 @@ public class KeyManager {
      * Renders all uncollected keys.
      */
     public void render() {
+        render(null);
+    }
+
+    /**
+     * Renders the uncollected keys inside the frustum (all of them if it's null).
+     */
+    public void render(Frustum frustum) {
         if (keyModel != null && keyTextureID != 0) {
             // --- Render using the 3D MODEL ---
-            glEnable(GL_TEXTURE_2D);
-            glBindTexture(GL_TEXTURE_2D, keyTextureID);
+            GLStateCache.enable(GL_TEXTURE_2D);
+            GLStateCache.bindTexture(keyTextureID);
             glColor3f(1.0f, 1.0f, 1.0f); // White tint
 
             for (Key key : keys) {
-                if (!key.collected) {
+                if (!key.collected && isVisible(key, frustum)) {
                     renderKey(key);
                 }
             }
-            glDisable(GL_TEXTURE_2D);
+            GLStateCache.disable(GL_TEXTURE_2D);
 
         } else {
             // --- Fallback to rendering YELLOW CUBES ---
-            glDisable(GL_TEXTURE_2D);
+            GLStateCache.disable(GL_TEXTURE_2D);
             glColor3f(1.0f, 1.0f, 0.0f); // Bright Yellow
 
             for (Key key : keys) {
-                if (!key.collected) {
+                if (!key.collected && isVisible(key, frustum)) {
                     glPushMatrix();
                     glTranslatef(key.x, key.y + 0.25f, key.z); // Center the cube
                     glRotatef(key.rotation, 0.0f, 1.0f, 0.0f);
-                    drawCube(0.5f, 0.5f, 0.5f);
+                    if (PrimitiveMeshes.isReady()) {
+                        PrimitiveMeshes.drawCube(0.5f, 0.5f, 0.5f, false);
+                    } else {
+                        drawCube(0.5f, 0.5f, 0.5f);
+                    }
                     glPopMatrix();
                 }
             }
         }
     }
 
+    private static boolean isVisible(Key key, Frustum frustum) {
+        return frustum == null || frustum.submitSphere(key.x, key.y + KEY_CULL_RADIUS / 2.0f, key.z, KEY_CULL_RADIUS);
+    }
+
     /**
      * NEW: Helper method to render a single key model.
      * This is used by the main render loop and the admin panel spawner.
@@ -192,8 +221,8 @@ public class KeyManager {
     public void renderKey(Key key) {
         if (keyModel == null || keyTextureID == 0) return; // Guard
 
-        glEnable(GL_TEXTURE_2D);
-        glBindTexture(GL_TEXTURE_2D, keyTextureID);
+        GLStateCache.enable(GL_TEXTURE_2D);
+        GLStateCache.bindTexture(keyTextureID);
         glColor3f(1.0f, 1.0f, 1.0f);
 
         glPushMatrix();
@@ -203,7 +232,7 @@ public class KeyManager {
         keyModel.render();
         glPopMatrix();
 
-        glDisable(GL_TEXTURE_2D);
+        GLStateCache.disable(GL_TEXTURE_2D);
     }
 
 
@@ -0,0 +1,97 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cheap connectivity check for a {@link WorldLayout}, run before any geometry
+ * or nav grid exists.
+ *
+ * Rooms are joined with a union-find: a tunnel joins its two rooms, but only
+ * if both walls it passes through are marked used (otherwise the room would
+ * be built with a solid wall there). A layout is winnable when every room is
+ * in the start room's set and the escape tunnel exists and leaves from a room
+ * in that set through a wall with a doorway. Every key spot sits inside some
+ * room, so checking rooms also covers the key tables.
+ *
+ * Runs in about linear time in the number of rooms and tunnels.
+ */
+final class LayoutValidator {
+
+    private LayoutValidator() {}
+
+    /** What {@link #check} found. */
+    static final class Result {
+        /** Rooms that can't be reached from the start room, in layout order. */
+        final List<Room> unreachableRooms = new ArrayList<>();
+        boolean escapeReachable;
+
+        boolean isWinnable() {
+            return escapeReachable && unreachableRooms.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "escapeReachable=" + escapeReachable + ", unreachableRooms=" + unreachableRooms.size();
+        }
+    }
+
+    static Result check(WorldLayout layout) {
+        List<Room> rooms = layout.rooms;
+        int[] parent = new int[rooms.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+
+        for (Tunnel tunnel : layout.tunnels) {
+            if (isOpen(tunnel.fromRoom, tunnel.direction) && isOpen(tunnel.toRoom, tunnel.direction.getOpposite())) {
+                union(parent, tunnel.fromRoom.index, tunnel.toRoom.index);
+            }
+        }
+
+        Result result = new Result();
+        if (rooms.isEmpty()) {
+            return result;
+        }
+        int start = find(parent, 0);
+        for (Room room : rooms) {
+            if (find(parent, room.index) != start) {
+                result.unreachableRooms.add(room);
+            }
+        }
+
+        Tunnel escape = layout.escapeTunnel;
+        result.escapeReachable = escape != null
+                && find(parent, escape.fromRoom.index) == start
+                && isOpen(escape.fromRoom, escape.direction);
+        return result;
+    }
+
+    /** True if the given wall of the room gets a doorway. */
+    private static boolean isOpen(Room room, Direction wall) {
+        switch (wall) {
+            case NORTH: return room.northWallUsed;
+            case SOUTH: return room.southWallUsed;
+            case EAST:  return room.eastWallUsed;
+            case WEST:  return room.westWallUsed;
+            default:    return false;
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]]; // Path halving
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            // Keep the lower index as root so the start room stays on top
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
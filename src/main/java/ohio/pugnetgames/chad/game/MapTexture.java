@@ -0,0 +1,173 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.opengl.GL;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.*;
+import static org.lwjgl.system.MemoryStack.stackPush;
+
+/**
+ * A square of the map (world XZ, seen from above) rendered once into a
+ * texture through a framebuffer object, so drawing it each frame is one
+ * textured quad however many walls and floors are in it.
+ *
+ * The texture is cleared to transparent and the map quads are drawn opaque,
+ * so it holds premultiplied alpha and is drawn with
+ * GL_ONE, GL_ONE_MINUS_SRC_ALPHA over whatever background is under it.
+ * Mipmaps are generated after each render, so the map stays readable when
+ * it's drawn smaller than the texture.
+ *
+ * Needs GL 3.0. GL thread only.
+ */
+public class MapTexture {
+
+    private final int size;
+    private int textureID;
+    private int fbo;
+
+    /**
+     * @param size Width and height of the texture in pixels.
+     */
+    public MapTexture(int size) {
+        this.size = size;
+        textureID = glGenTextures();
+        GLStateCache.bindTexture(textureID);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA8, size, size, 0, GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        GLStateCache.bindTexture(0);
+
+        fbo = glGenFramebuffers();
+        glBindFramebuffer(GL_FRAMEBUFFER, fbo);
+        glFramebufferTexture2D(GL_FRAMEBUFFER, GL_COLOR_ATTACHMENT0, GL_TEXTURE_2D, textureID, 0);
+        int status = glCheckFramebufferStatus(GL_FRAMEBUFFER);
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        if (status != GL_FRAMEBUFFER_COMPLETE) {
+            System.err.println("[MapTexture] Framebuffer incomplete (0x" + Integer.toHexString(status) + ").");
+        }
+    }
+
+    /** @return true if the current GL context has framebuffer objects. */
+    public static boolean isSupported() {
+        return GL.getCapabilities().OpenGL30;
+    }
+
+    /**
+     * Renders map quads into the texture, replacing what was there.
+     *
+     * @param vertices    XZ corners in world units, four per quad.
+     * @param colors      RGB per vertex.
+     * @param vertexCount How many vertices to draw.
+     * @param minX        World X at the texture's left edge.
+     * @param minZ        World Z at the texture's top edge.
+     * @param extent      World units across the texture, both ways.
+     */
+    public void render(FloatBuffer vertices, FloatBuffer colors, int vertexCount, float minX, float minZ, float extent) {
+        int[] viewport = new int[4];
+        float[] clearColor = new float[4];
+        try (var stack = stackPush()) {
+            IntBuffer viewportBuffer = stack.mallocInt(4);
+            glGetIntegerv(GL_VIEWPORT, viewportBuffer);
+            viewportBuffer.get(viewport);
+            FloatBuffer clearBuffer = stack.mallocFloat(4);
+            glGetFloatv(GL_COLOR_CLEAR_VALUE, clearBuffer);
+            clearBuffer.get(clearColor);
+        }
+        glBindFramebuffer(GL_FRAMEBUFFER, fbo);
+        glViewport(0, 0, size, size);
+        glClearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        glClear(GL_COLOR_BUFFER_BIT);
+
+        glMatrixMode(GL_PROJECTION);
+        glPushMatrix();
+        glLoadIdentity();
+        // Z grows down the map, and texture row 0 is the map's top edge
+        glOrtho(minX, minX + extent, minZ, minZ + extent, -1.0, 1.0);
+        glMatrixMode(GL_MODELVIEW);
+        glPushMatrix();
+        glLoadIdentity();
+
+        GLStateCache.disable(GL_TEXTURE_2D);
+        GLStateCache.disable(GL_DEPTH_TEST);
+        GLStateCache.disable(GL_BLEND);
+        if (vertexCount > 0) {
+            glEnableClientState(GL_VERTEX_ARRAY);
+            glEnableClientState(GL_COLOR_ARRAY);
+            glVertexPointer(2, GL_FLOAT, 0, vertices);
+            glColorPointer(3, GL_FLOAT, 0, colors);
+            glDrawArrays(GL_QUADS, 0, vertexCount);
+            glDisableClientState(GL_COLOR_ARRAY);
+            glDisableClientState(GL_VERTEX_ARRAY);
+        }
+
+        glPopMatrix();
+        glMatrixMode(GL_PROJECTION);
+        glPopMatrix();
+        glMatrixMode(GL_MODELVIEW);
+
+        glBindFramebuffer(GL_FRAMEBUFFER, 0);
+        glViewport(viewport[0], viewport[1], viewport[2], viewport[3]);
+        glClearColor(clearColor[0], clearColor[1], clearColor[2], clearColor[3]);
+
+        GLStateCache.bindTexture(textureID);
+        glGenerateMipmap(GL_TEXTURE_2D);
+    }
+
+    /**
+     * Draws the texture as a screen-space square (top-left origin, like the
+     * HUD's ortho projection). Leaves GL_TEXTURE_2D off and the blend
+     * function at GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA.
+     */
+    public void draw(float x, float y, float drawSize) {
+        beginDrawing();
+        drawRegion(x, y, drawSize, drawSize, 0.0f, 0.0f, 1.0f, 1.0f);
+        endDrawing();
+    }
+
+    /** Sets up texturing and premultiplied blending for {@link #drawRegion}. */
+    public static void beginDrawing() {
+        GLStateCache.enable(GL_TEXTURE_2D);
+        GLStateCache.texEnvMode(GL_MODULATE);
+        GLStateCache.enable(GL_BLEND);
+        glBlendFunc(GL_ONE, GL_ONE_MINUS_SRC_ALPHA);
+        glColor4f(1.0f, 1.0f, 1.0f, 1.0f);
+    }
+
+    /** Puts back the HUD's blend function and turns texturing off. */
+    public static void endDrawing() {
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        GLStateCache.disable(GL_TEXTURE_2D);
+    }
+
+    /**
+     * Draws part of the texture (u and v from 0 to 1, v = 0 at the map's
+     * top edge) into a screen rectangle. Call between
+     * {@link #beginDrawing()} and {@link #endDrawing()}.
+     */
+    public void drawRegion(float x, float y, float width, float height, float u0, float v0, float u1, float v1) {
+        GLStateCache.bindTexture(textureID);
+        glBegin(GL_QUADS);
+        glTexCoord2f(u0, v0); glVertex2f(x, y);
+        glTexCoord2f(u1, v0); glVertex2f(x + width, y);
+        glTexCoord2f(u1, v1); glVertex2f(x + width, y + height);
+        glTexCoord2f(u0, v1); glVertex2f(x, y + height);
+        glEnd();
+    }
+
+    public void cleanup() {
+        if (fbo != 0) {
+            glDeleteFramebuffers(fbo);
+            fbo = 0;
+        }
+        if (textureID != 0) {
+            GLStateCache.deleteTexture(textureID);
+            textureID = 0;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The full-screen map as a pyramid of {@link MapTexture} tiles, so it can be
+ * zoomed and panned on huge mazes. Level 0 is the whole world in one tile;
+ * each level below splits every tile of the one above into four, down to
+ * tiles {@link #MIN_TILE_EXTENT} world units across.
+ *
+ * Tiles are made when they're first looked at. Picking the map quads that
+ * fall inside a tile happens on a background thread; rendering them into a
+ * texture has to happen on the GL thread, so at most
+ * {@link #RENDERS_PER_FRAME} finished tiles are rendered per frame. Until a
+ * tile is ready its nearest ready ancestor is drawn scaled up in its place.
+ *
+ * At most {@link #MAX_TILES} tiles are kept; the least recently drawn one's
+ * texture is reused for the next. So memory and the cost of a frame depend
+ * on how many tiles are on screen, not on the size of the maze.
+ *
+ * GL thread only, apart from the worker.
+ */
+public class MapTilePyramid {
+
+    public static final int TILE_SIZE = 256; // Pixels across a tile's texture
+    private static final float MIN_TILE_EXTENT = 8.0f; // World units across a tile at the deepest level
+    private static final int MAX_TILES = 64;
+    private static final int RENDERS_PER_FRAME = 2;
+
+    /** The quads inside one tile, cut out by the worker. */
+    private static final class TileQuads {
+        final long key;
+        final int generation;
+        final float[] vertices;
+        final float[] colors;
+        final int vertexCount;
+
+        TileQuads(long key, int generation, float[] vertices, float[] colors, int vertexCount) {
+            this.key = key;
+            this.generation = generation;
+            this.vertices = vertices;
+            this.colors = colors;
+            this.vertexCount = vertexCount;
+        }
+    }
+
+    // --- Source (the map quads, in world units) ---
+    private float[] sourceVertices = new float[0];
+    private float[] sourceColors = new float[0];
+    private int sourceVertexCount;
+    private float minX, minZ, extent;
+    private int maxLevel;
+    private volatile int generation; // Bumped by setSource; older worker results are dropped
+
+    // --- Tiles ---
+    private final LinkedHashMap<Long, MapTexture> tiles = new LinkedHashMap<>(16, 0.75f, true); // Access order
+    private final ArrayDeque<MapTexture> freeTextures = new ArrayDeque<>();
+    private final Set<Long> pending = new HashSet<>();
+    private final Queue<TileQuads> finished = new ConcurrentLinkedQueue<>();
+    private final ExecutorService worker;
+    private FloatBuffer renderVertices;
+    private FloatBuffer renderColors;
+
+    public MapTilePyramid() {
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "map-tiles");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Replaces the map quads and drops every tile made from the old ones.
+     *
+     * @param vertices    XZ corners in world units, four per quad (copied).
+     * @param colors      RGB per vertex (copied).
+     * @param vertexCount How many vertices there are.
+     * @param minX        World X at the map's left edge.
+     * @param minZ        World Z at the map's top edge.
+     * @param extent      World units across the map, both ways.
+     */
+    public void setSource(FloatBuffer vertices, FloatBuffer colors, int vertexCount, float minX, float minZ, float extent) {
+        float[] newVertices = new float[vertexCount * 2];
+        float[] newColors = new float[vertexCount * 3];
+        vertices.duplicate().get(newVertices); // Flipped buffers: position 0, limit = the data
+        colors.duplicate().get(newColors);
+        // The worker only reads these after a new task is submitted, which publishes them
+        this.sourceVertices = newVertices;
+        this.sourceColors = newColors;
+        this.sourceVertexCount = vertexCount;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.extent = extent;
+        this.maxLevel = Math.max(0, (int) Math.ceil(Math.log(extent / MIN_TILE_EXTENT) / Math.log(2)));
+        generation++;
+
+        freeTextures.addAll(tiles.values());
+        tiles.clear();
+        pending.clear();
+        finished.clear();
+    }
+
+    /** @return How far in the map can be zoomed (1 = the whole world fits). */
+    public float getMaxZoom() {
+        return 1 << maxLevel;
+    }
+
+    // --- Drawing ---
+
+    /**
+     * Renders a few of the tiles the worker has finished. Call once a frame
+     * before {@link #draw}, outside any scissor rectangle (it renders
+     * through a framebuffer).
+     */
+    public void update() {
+        int rendered = 0;
+        while (rendered < RENDERS_PER_FRAME) {
+            TileQuads quads = finished.poll();
+            if (quads == null) return;
+            if (quads.generation != generation) continue; // Made from old quads
+            pending.remove(quads.key);
+            renderTile(quads);
+            rendered++;
+        }
+    }
+
+    /**
+     * Draws the tiles covering a square of the world into a square on
+     * screen. Tiles that aren't ready are asked for. The caller clips to the
+     * screen square.
+     *
+     * @param viewMinX   World X at the screen square's left edge.
+     * @param viewMinZ   World Z at its top edge.
+     * @param viewExtent World units across it.
+     */
+    public void draw(float viewMinX, float viewMinZ, float viewExtent, float screenX, float screenY, float screenSize) {
+        // The shallowest level with at least one texel per pixel
+        float pixelsPerUnit = screenSize / viewExtent;
+        int level = (int) Math.ceil(Math.log(pixelsPerUnit * extent / TILE_SIZE) / Math.log(2));
+        level = Math.max(0, Math.min(maxLevel, level));
+        int tilesAcross = 1 << level;
+        float tileExtent = extent / tilesAcross;
+
+        int firstX = Math.max(0, (int) Math.floor((viewMinX - minX) / tileExtent));
+        int firstZ = Math.max(0, (int) Math.floor((viewMinZ - minZ) / tileExtent));
+        int lastX = Math.min(tilesAcross - 1, (int) Math.floor((viewMinX + viewExtent - minX) / tileExtent));
+        int lastZ = Math.min(tilesAcross - 1, (int) Math.floor((viewMinZ + viewExtent - minZ) / tileExtent));
+        float tileScreenSize = tileExtent * pixelsPerUnit;
+
+        MapTexture.beginDrawing();
+        for (int tz = firstZ; tz <= lastZ; tz++) {
+            for (int tx = firstX; tx <= lastX; tx++) {
+                float x = screenX + (minX + tx * tileExtent - viewMinX) * pixelsPerUnit;
+                float y = screenY + (minZ + tz * tileExtent - viewMinZ) * pixelsPerUnit;
+                MapTexture tile = tiles.get(key(level, tx, tz));
+                if (tile != null) {
+                    tile.drawRegion(x, y, tileScreenSize, tileScreenSize, 0.0f, 0.0f, 1.0f, 1.0f);
+                    continue;
+                }
+                request(level, tx, tz);
+                drawFromAncestor(level, tx, tz, x, y, tileScreenSize);
+            }
+        }
+        MapTexture.endDrawing();
+    }
+
+    /** Draws the part of the nearest ready ancestor tile that covers a missing tile. */
+    private void drawFromAncestor(int level, int tx, int tz, float x, float y, float size) {
+        for (int up = 1; up <= level; up++) {
+            MapTexture ancestor = tiles.get(key(level - up, tx >> up, tz >> up));
+            if (ancestor == null) continue;
+            float span = 1.0f / (1 << up);
+            float u0 = (tx & ((1 << up) - 1)) * span;
+            float v0 = (tz & ((1 << up) - 1)) * span;
+            ancestor.drawRegion(x, y, size, size, u0, v0, u0 + span, v0 + span);
+            return;
+        }
+    }
+
+    // --- Making tiles ---
+
+    private void request(int level, int tx, int tz) {
+        long key = key(level, tx, tz);
+        if (!pending.add(key)) return;
+        int requestGeneration = generation;
+        float[] vertices = sourceVertices;
+        float[] colors = sourceColors;
+        int vertexCount = sourceVertexCount;
+        float tileExtent = extent / (1 << level);
+        float tileMinX = minX + tx * tileExtent;
+        float tileMinZ = minZ + tz * tileExtent;
+        worker.submit(() -> finished.add(cutQuads(key, requestGeneration, vertices, colors, vertexCount,
+                tileMinX, tileMinZ, tileMinX + tileExtent, tileMinZ + tileExtent)));
+    }
+
+    /** Copies out the quads that overlap a rectangle, in draw order. Runs on the worker. */
+    private static TileQuads cutQuads(long key, int generation, float[] vertices, float[] colors, int vertexCount,
+                                      float rectMinX, float rectMinZ, float rectMaxX, float rectMaxZ) {
+        int kept = 0;
+        float[] outVertices = new float[64];
+        float[] outColors = new float[96];
+        for (int v = 0; v < vertexCount; v += 4) {
+            // Quads are axis aligned: corner 0 is the minimum, corner 2 the maximum
+            float qMinX = vertices[v * 2], qMinZ = vertices[v * 2 + 1];
+            float qMaxX = vertices[v * 2 + 4], qMaxZ = vertices[v * 2 + 5];
+            if (qMaxX < rectMinX || qMinX > rectMaxX || qMaxZ < rectMinZ || qMinZ > rectMaxZ) continue;
+            if (outVertices.length < (kept + 4) * 2) {
+                outVertices = Arrays.copyOf(outVertices, outVertices.length * 2);
+                outColors = Arrays.copyOf(outColors, outColors.length * 2);
+            }
+            System.arraycopy(vertices, v * 2, outVertices, kept * 2, 8);
+            System.arraycopy(colors, v * 3, outColors, kept * 3, 12);
+            kept += 4;
+        }
+        return new TileQuads(key, generation, outVertices, outColors, kept);
+    }
+
+    private void renderTile(TileQuads quads) {
+        if (renderVertices == null || renderVertices.capacity() < quads.vertexCount * 2) {
+            renderVertices = BufferUtils.createFloatBuffer(Math.max(quads.vertexCount * 2, 1024));
+            renderColors = BufferUtils.createFloatBuffer(Math.max(quads.vertexCount * 3, 1536));
+        }
+        renderVertices.clear();
+        renderVertices.put(quads.vertices, 0, quads.vertexCount * 2).flip();
+        renderColors.clear();
+        renderColors.put(quads.colors, 0, quads.vertexCount * 3).flip();
+
+        int level = (int) (quads.key >>> 48);
+        int tx = (int) ((quads.key >>> 24) & 0xFFFFFF);
+        int tz = (int) (quads.key & 0xFFFFFF);
+        float tileExtent = extent / (1 << level);
+        MapTexture tile = takeTexture();
+        tile.render(renderVertices, renderColors, quads.vertexCount,
+                minX + tx * tileExtent, minZ + tz * tileExtent, tileExtent);
+        tiles.put(quads.key, tile);
+    }
+
+    /** A free texture, a new one, or the least recently drawn tile's. */
+    private MapTexture takeTexture() {
+        MapTexture texture = freeTextures.poll();
+        if (texture != null) return texture;
+        if (tiles.size() < MAX_TILES) return new MapTexture(TILE_SIZE);
+        Iterator<Map.Entry<Long, MapTexture>> eldest = tiles.entrySet().iterator();
+        texture = eldest.next().getValue();
+        eldest.remove();
+        return texture;
+    }
+
+    private static long key(int level, int tx, int tz) {
+        return ((long) level << 48) | ((long) tx << 24) | tz;
+    }
+
+    // --- Stats ---
+
+    /** @return Tiles with a texture. */
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    /** @return Tiles asked for and not rendered yet. */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // --- Cleanup ---
+
+    public void cleanup() {
+        worker.shutdownNow();
+        for (MapTexture tile : tiles.values()) tile.cleanup();
+        for (MapTexture tile : freeTextures) tile.cleanup();
+        tiles.clear();
+        freeTextures.clear();
+    }
+}
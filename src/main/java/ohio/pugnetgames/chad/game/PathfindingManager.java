@@ -1,13 +1,18 @@
 package ohio.pugnetgames.chad.game;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Manages the A* pathfinding grid and logic.
@@ -15,31 +20,91 @@ import java.util.HashMap;
  * allowing the A* algorithm to find paths around obstacles.
  *
  * This is our DIY version, no libraries needed!
+ *
+ * MODIFIED: The grid is now SPARSE. It's split into square tiles that only
+ * exist where there's floor, and each tile is just a bitset of walkable
+ * cells. Tiles can be swapped in and out one at a time, which is what lets
+ * the endless maze unload far-away rooms without rebuilding everything.
  */
 public class PathfindingManager {
 
-    // --- Grid ---
-    private PathNode[][] grid;
-    private int gridWidth = 0;
-    private int gridDepth = 0;
+    // --- Tiles ---
+    static final int TILE_SHIFT = 6;
+    static final int TILE_SIZE = 1 << TILE_SHIFT; // 64x64 cells per tile
+    private static final int TILE_MASK = TILE_SIZE - 1;
+
+    /**
+     * One TILE_SIZE x TILE_SIZE block of the nav grid, packed one bit per cell.
+     * Built either on the game thread (full builds) or on the world streamer's
+     * worker thread, but never modified once it has been handed to the manager
+     * (except by openDoorInGrid, which runs on the game thread).
+     */
+    static final class NavTile {
+        final int tileX;
+        final int tileZ;
+        private final long[] bits = new long[TILE_SIZE * TILE_SIZE / 64];
+
+        // Cached region ids along the tile edges, see edgeRegions()
+        short[] edgeRegions;
+
+        // Scratch data while an A* search is running through this tile
+        int corridorStamp = 0;
+        int searchSlot = -1;
+        int[] searchG;
+        int[] searchParent;
+
+        NavTile(int tileX, int tileZ) {
+            this.tileX = tileX;
+            this.tileZ = tileZ;
+        }
 
-    // --- World-to-Grid Mapping ---
+        boolean get(int localX, int localZ) {
+            int i = (localZ << TILE_SHIFT) | localX;
+            return (bits[i >>> 6] & (1L << (i & 63))) != 0;
+        }
+
+        void set(int localX, int localZ, boolean walkable) {
+            int i = (localZ << TILE_SHIFT) | localX;
+            edgeRegions = null;
+            if (walkable) {
+                bits[i >>> 6] |= (1L << (i & 63));
+            } else {
+                bits[i >>> 6] &= ~(1L << (i & 63));
+            }
+        }
+
+        boolean isEmpty() {
+            for (long word : bits) {
+                if (word != 0) return false;
+            }
+            return true;
+        }
+    }
+
+    private final Map<Long, NavTile> tiles = new HashMap<>();
+
+    // --- World Bounds (Needed for Minimap) ---
     private float worldMinX = 0;
     private float worldMinZ = 0;
     // --- 💥 NEW: Store Max Bounds (Needed for Minimap) 💥 ---
     private float worldMaxX = 0;
     private float worldMaxZ = 0;
     // --- 💥 END NEW 💥 ---
+    private boolean hasBounds = false;
 
     // ---
-    // --- 1. YOUR PREFERRED RESOLUTION 徴 ---
+    // --- 1. YOUR PREFERRED RESOLUTION 徴 ---
     // ---
-    private static final float GRID_RESOLUTION = 0.2f; // Your high-res value
+    static final float GRID_RESOLUTION = 0.2f; // Your high-res value
     private static final float INSET_AMOUNT = 0.21f; // Must be > GRID_RESOLUTION
     // ---
-    // --- 徴 END OF CHANGE 徴 ---
+    // --- 徴 END OF CHANGE 徴 ---
     // ---
 
+    // Stops a search from walking the whole maze when the target is unreachable
+    private static final int MAX_SEARCH_NODES = 4_000_000;
+    private static final int MAX_NEAREST_SEARCH_NODES = 20_000;
+
     // --- Path Cache ---
     private List<PathNode> currentPath;
 
@@ -57,27 +122,18 @@ public class PathfindingManager {
         System.out.println("[PathfindingManager] Starting grid build...");
 
         // 1. Find the total bounds of the world
-        worldMinX = Float.MAX_VALUE;
-        worldMinZ = Float.MAX_VALUE;
-        worldMaxX = Float.MIN_VALUE; // 💥 FIX: Use the class field now 💥
-        worldMaxZ = Float.MIN_VALUE; // 💥 FIX: Use the class field now 💥
+        hasBounds = false;
 
         for (Room room : world.getAllRooms()) {
-            if (room.minX < worldMinX) worldMinX = room.minX;
-            if (room.minZ < worldMinZ) worldMinZ = room.minZ;
-            if (room.maxX > worldMaxX) worldMaxX = room.maxX;
-            if (room.maxZ > worldMaxZ) worldMaxZ = room.maxZ;
+            includeBounds(room.minX, room.minZ, room.maxX, room.maxZ);
         }
-        for (GameObject obj : world.getStaticObjects()) {
-            float objMinX = obj.getPosX() - obj.getScaleX() / 2.0f;
-            float objMaxX = obj.getPosX() + obj.getScaleX() / 2.0f;
-            float objMinZ = obj.getPosZ() - obj.getScaleZ() / 2.0f;
-            float objMaxZ = obj.getPosZ() + obj.getScaleZ() / 2.0f;
-
-            if (objMinX < worldMinX) worldMinX = objMinX;
-            if (objMinZ < worldMinZ) worldMinZ = objMinZ;
-            if (objMaxX > worldMaxX) worldMaxX = objMaxX;
-            if (objMaxZ > worldMaxZ) worldMaxZ = objMaxZ;
+        StaticGeometry geo;
+        synchronized (world.getStaticObjects()) {
+            geo = world.getGeometry();
+            for (int i = 0; i < geo.count; i++) {
+                includeBounds(geo.posX[i] - geo.scaleX[i] / 2.0f, geo.posZ[i] - geo.scaleZ[i] / 2.0f,
+                        geo.posX[i] + geo.scaleX[i] / 2.0f, geo.posZ[i] + geo.scaleZ[i] / 2.0f);
+            }
         }
 
         // Add a 5-unit buffer for safety
@@ -86,354 +142,735 @@ public class PathfindingManager {
         worldMaxX += 5.0f;
         worldMaxZ += 5.0f;
 
-        // 2. Calculate grid dimensions
-        gridWidth = (int) ((worldMaxX - worldMinX) / GRID_RESOLUTION);
-        gridDepth = (int) ((worldMaxZ - worldMinZ) / GRID_RESOLUTION);
+        // 2. Paint floors and erase obstacles into fresh tiles
+        tiles.clear();
+        tiles.putAll(rasterizeTiles(null, geo));
 
-        if (gridWidth <= 0 || gridDepth <= 0) {
-            System.err.println("[PathfindingManager] FATAL: Invalid grid dimensions!");
-            return;
-        }
-
-        System.out.println("[PathfindingManager] Grid Dimensions: " + gridWidth + "x" + gridDepth);
-        grid = new PathNode[gridWidth][gridDepth];
+        System.out.println("[PathfindingManager] Grid build complete. " + tiles.size() + " tiles ("
+                + (tiles.size() * TILE_SIZE * TILE_SIZE) + " cells).");
+    }
 
-        // 3. 徴FIX: Initialize all cells as UNWALKABLE (the void)
-        for (int x = 0; x < gridWidth; x++) {
-            for (int z = 0; z < gridDepth; z++) {
-                float worldX = gridToWorldX(x);
-                float worldZ = gridToWorldZ(z);
-                // Default to false (unwalkable)
-                grid[x][z] = new PathNode(x, z, worldX, worldZ, false);
-            }
-        }
+    /**
+     * Rasterizes static objects into nav tiles.
+     *
+     * A cell ends up walkable when some floor covers it and no ground-level
+     * obstacle does, so the result doesn't depend on object order. That means
+     * any tile can be rebuilt on its own from the objects that touch it.
+     *
+     * Safe to call from any thread; it only touches the map it returns.
+     *
+     * @param onlyTiles If non-null, only these tile keys are produced.
+     * @param geo       The static objects to rasterize.
+     * @return The built tiles. Requested tiles that turned out empty are
+     *         mapped to null so callers can drop them.
+     */
+    static Map<Long, NavTile> rasterizeTiles(Set<Long> onlyTiles, StaticGeometry geo) {
+        Map<Long, NavTile> out = new HashMap<>();
 
-        // 4. 徴NEW: Mark WALKABLE floors
+        // 4. 徴NEW: Mark WALKABLE floors
         // This is a "painting" pass. We find all floor objects and
         // mark the nodes they cover as walkable.
-        System.out.println("[PathfindingManager] Marking walkable floor nodes...");
-        for (GameObject obj : world.getStaticObjects()) {
+        for (int i = 0; i < geo.count; i++) {
 
-            boolean isPlaneFloor = obj.getShape() == GameObject.ShapeType.PLANE;
-            boolean isCubeFloor = obj.getShape() == GameObject.ShapeType.CUBE && obj.getScaleY() <= 0.5f;
+            boolean isPlaneFloor = geo.isPlane(i);
+            boolean isCubeFloor = geo.isCube(i) && geo.scaleY[i] <= 0.5f;
 
             if (isPlaneFloor || isCubeFloor) {
                 // ---
-                // --- 徴 FIX 1: SELECTIVE FLOOR PAINTING 徴 ---
+                // --- 徴 FIX 1: SELECTIVE FLOOR PAINTING 徴 ---
                 // ---
                 float objMinX, objMaxX, objMinZ, objMaxZ;
 
                 if (isPlaneFloor) {
                     // PLANES (courtyards, rooms) must SHRINK to prevent "void paths"
-                    objMinX = obj.getPosX() - (obj.getScaleX() / 2.0f) + INSET_AMOUNT; // <-- PLUS
-                    objMaxX = obj.getPosX() + (obj.getScaleX() / 2.0f) - INSET_AMOUNT; // <-- MINUS
-                    objMinZ = obj.getPosZ() - (obj.getScaleZ() / 2.0f) + INSET_AMOUNT; // <-- PLUS
-                    objMaxZ = obj.getPosZ() + (obj.getScaleZ() / 2.0f) - INSET_AMOUNT; // <-- MINUS
+                    objMinX = geo.posX[i] - (geo.scaleX[i] / 2.0f) + INSET_AMOUNT; // <-- PLUS
+                    objMaxX = geo.posX[i] + (geo.scaleX[i] / 2.0f) - INSET_AMOUNT; // <-- MINUS
+                    objMinZ = geo.posZ[i] - (geo.scaleZ[i] / 2.0f) + INSET_AMOUNT; // <-- PLUS
+                    objMaxZ = geo.posZ[i] + (geo.scaleZ[i] / 2.0f) - INSET_AMOUNT; // <-- MINUS
                 } else {
                     // CUBE floors (tunnels) must EXPAND on ends, SHRINK on sides
-                    float objScaleX = obj.getScaleX();
-                    float objScaleZ = obj.getScaleZ();
+                    float objScaleX = geo.scaleX[i];
+                    float objScaleZ = geo.scaleZ[i];
 
                     if (objScaleX > objScaleZ) {
                         // This is an EAST-WEST tunnel (wider than it is deep)
                         // EXPAND on X-axis (the ends)
-                        objMinX = obj.getPosX() - (objScaleX / 2.0f) - INSET_AMOUNT; // <-- MINUS (Expand)
-                        objMaxX = obj.getPosX() + (objScaleX / 2.0f) + INSET_AMOUNT; // <-- PLUS (Expand)
+                        objMinX = geo.posX[i] - (objScaleX / 2.0f) - INSET_AMOUNT; // <-- MINUS (Expand)
+                        objMaxX = geo.posX[i] + (objScaleX / 2.0f) + INSET_AMOUNT; // <-- PLUS (Expand)
                         // SHRINK on Z-axis (the sides)
-                        objMinZ = obj.getPosZ() - (objScaleZ / 2.0f) + INSET_AMOUNT; // <-- PLUS (Shrink)
-                        objMaxZ = obj.getPosZ() + (obj.getScaleZ() / 2.0f) - INSET_AMOUNT; // <-- MINUS (Shrink)
+                        objMinZ = geo.posZ[i] - (objScaleZ / 2.0f) + INSET_AMOUNT; // <-- PLUS (Shrink)
+                        objMaxZ = geo.posZ[i] + (objScaleZ / 2.0f) - INSET_AMOUNT; // <-- MINUS (Shrink)
                     } else {
                         // This is a NORTH-SOUTH tunnel (deeper than it is wide)
                         // SHRINK on X-axis (the sides)
-                        objMinX = obj.getPosX() - (objScaleX / 2.0f) + INSET_AMOUNT; // <-- PLUS (Shrink)
-                        objMaxX = obj.getPosX() + (obj.getScaleX() / 2.0f) - INSET_AMOUNT; // <-- MINUS (Shrink)
+                        objMinX = geo.posX[i] - (objScaleX / 2.0f) + INSET_AMOUNT; // <-- PLUS (Shrink)
+                        objMaxX = geo.posX[i] + (objScaleX / 2.0f) - INSET_AMOUNT; // <-- MINUS (Shrink)
                         // EXPAND on Z-axis (the ends)
-                        objMinZ = obj.getPosZ() - (objScaleZ / 2.0f) - INSET_AMOUNT; // <-- MINUS (Expand)
-                        objMaxZ = obj.getPosZ() + (obj.getScaleZ() / 2.0f) + INSET_AMOUNT; // <-- PLUS (Expand)
+                        objMinZ = geo.posZ[i] - (objScaleZ / 2.0f) - INSET_AMOUNT; // <-- MINUS (Expand)
+                        objMaxZ = geo.posZ[i] + (objScaleZ / 2.0f) + INSET_AMOUNT; // <-- PLUS (Expand)
                     }
                 }
                 // ---
-                // --- 徴 END OF FIX 1 徴 ---
+                // --- 徴 END OF FIX 1 徴 ---
                 // ---
 
-                int gridMinX = worldToGridX(objMinX);
-                int gridMaxX = worldToGridX(objMaxX);
-                int gridMinZ = worldToGridZ(objMinZ);
-                int gridMaxZ = worldToGridZ(objMaxZ);
-
-                for (int x = gridMinX; x <= gridMaxX; x++) {
-                    for (int z = gridMinZ; z <= gridMaxZ; z++) {
-                        if (isGridCoordValid(x, z)) {
-                            grid[x][z].isWalkable = true;
-                        }
-                    }
-                }
+                fillCells(out, onlyTiles, worldToCell(objMinX), worldToCell(objMinZ),
+                        worldToCell(objMaxX), worldToCell(objMaxZ), true);
             }
         }
 
-        // 5. 徴NEW: Mark UNWALKABLE obstacles
+        // 5. 徴NEW: Mark UNWALKABLE obstacles
         // This is an "erasing" pass. We find all collidable objects
         // and punch holes in the walkable areas.
-        System.out.println("[PathfindingManager] Marking unwalkable obstacle nodes...");
-        for (GameObject obj : world.getStaticObjects()) {
-
-            // This logic is correct
-            boolean isFloor = (obj.getShape() == GameObject.ShapeType.PLANE) ||
-                    (obj.getShape() == GameObject.ShapeType.CUBE && obj.getScaleY() <= 0.5f);
+        for (int i = 0; i < geo.count; i++) {
 
-            // If it's collidable AND it's NOT a floor, it's an obstacle.
+            boolean isFloor = geo.isPlane(i) || (geo.isCube(i) && geo.scaleY[i] <= 0.5f);
 
             // --- 💥 THE FIX: Check the object's Y-level! ---
-            // Calculate the object's base Y-level (its lowest point)
-            // (The lintel's base Y-level is 3.0f, wall bases are 0.0f)
-            float objectBaseY = obj.getPosY() - (obj.getScaleY() / 2.0f);
-
             // We only mark obstacles as unwalkable if their base is on the
             // ground (less than 3.0f, which is the tunnel height).
             // This stops LINTELS (the object *over* the door) from
             // blocking the path, since their baseY is exactly 3.0f.
-            if (obj.isCollidable() && !isFloor && objectBaseY < 3.0f) {
-                // --- 💥 END OF FIX ---
+            float objectBaseY = geo.posY[i] - (geo.scaleY[i] / 2.0f);
+
+            if (geo.isCollidable(i) && !isFloor && objectBaseY < 3.0f) {
+                // Erase the EXACT footprint. The painting pass already
+                // created the buffers by shrinking/expanding floors.
+                float objMinX = geo.posX[i] - (geo.scaleX[i] / 2.0f);
+                float objMaxX = geo.posX[i] + (geo.scaleX[i] / 2.0f);
+                float objMinZ = geo.posZ[i] - (geo.scaleZ[i] / 2.0f);
+                float objMaxZ = geo.posZ[i] + (geo.scaleZ[i] / 2.0f);
+
+                fillCells(out, onlyTiles, worldToCell(objMinX), worldToCell(objMinZ),
+                        worldToCell(objMaxX), worldToCell(objMaxZ), false);
+            }
+        }
 
-                // ---
-                // --- 💥 FINAL FIX: Erase the EXACT footprint ---
-                // ---
-                // We do NOT modify the obstacle's bounds here.
-                // The "painting" pass (Step 4) already created the
-                // necessary buffers by shrinking/expanding floors.
-                // Erasing the exact wall footprint will now leave
-                // a perfect, small unwalkable gap on the sides
-                // and create a perfect connection at the doorways.
-                // --- 💥 END OF FIX ---
-
-                float objMinX = obj.getPosX() - (obj.getScaleX() / 2.0f);
-                float objMaxX = obj.getPosX() + (obj.getScaleX() / 2.0f);
-                float objMinZ = obj.getPosZ() - (obj.getScaleZ() / 2.0f);
-                float objMaxZ = obj.getPosZ() + (obj.getScaleZ() / 2.0f);
-
-                int gridMinX = worldToGridX(objMinX);
-                int gridMaxX = worldToGridX(objMaxX);
-                int gridMinZ = worldToGridZ(objMinZ);
-                int gridMaxZ = worldToGridZ(objMaxZ);
-
-                for (int x = gridMinX; x <= gridMaxX; x++) {
-                    for (int z = gridMinZ; z <= gridMaxZ; z++) {
-                        if (isGridCoordValid(x, z)) {
-                            grid[x][z].isWalkable = false; // Punch a hole
-                        }
-                    }
+        // Report requested-but-empty tiles as removals
+        if (onlyTiles != null) {
+            for (Long key : onlyTiles) {
+                NavTile tile = out.get(key);
+                if (tile == null || tile.isEmpty()) {
+                    out.put(key, null);
                 }
             }
         }
-
-        // 6. Build the neighbor connections for every node
-        buildNeighbors();
-        System.out.println("[PathfindingManager] Grid build complete.");
+        return out;
     }
 
     /**
-     * Loops through the generated grid and connects all walkable nodes
-     * to their walkable neighbors.
+     * Sets every cell in the inclusive cell rectangle. Walkable writes create
+     * tiles as needed; unwalkable writes only touch tiles that already exist.
      */
-    private void buildNeighbors() {
-        for (int x = 0; x < gridWidth; x++) {
-            for (int z = 0; z < gridDepth; z++) {
-                if (grid[x][z] == null || !grid[x][z].isWalkable) continue;
-
-                // Check North
-                if (isGridCoordValid(x, z - 1) && grid[x][z - 1] != null && grid[x][z - 1].isWalkable) {
-                    grid[x][z].addNeighbor(grid[x][z - 1]);
-                }
-                // Check South
-                if (isGridCoordValid(x, z + 1) && grid[x][z + 1] != null && grid[x][z + 1].isWalkable) {
-                    grid[x][z].addNeighbor(grid[x][z + 1]);
+    private static void fillCells(Map<Long, NavTile> target, Set<Long> onlyTiles,
+                                  int minX, int minZ, int maxX, int maxZ, boolean walkable) {
+        for (int tz = minZ >> TILE_SHIFT; tz <= maxZ >> TILE_SHIFT; tz++) {
+            for (int tx = minX >> TILE_SHIFT; tx <= maxX >> TILE_SHIFT; tx++) {
+                long key = tileKey(tx, tz);
+                if (onlyTiles != null && !onlyTiles.contains(key)) continue;
+
+                NavTile tile = target.get(key);
+                if (tile == null) {
+                    if (!walkable) continue;
+                    tile = new NavTile(tx, tz);
+                    target.put(key, tile);
                 }
-                // Check West
-                if (isGridCoordValid(x - 1, z) && grid[x - 1][z] != null && grid[x - 1][z].isWalkable) {
-                    grid[x][z].addNeighbor(grid[x - 1][z]);
-                }
-                // Check East
-                if (isGridCoordValid(x + 1, z) && grid[x + 1][z] != null && grid[x + 1][z].isWalkable) {
-                    grid[x][z].addNeighbor(grid[x + 1][z]);
+
+                int x0 = Math.max(minX, tx << TILE_SHIFT) & TILE_MASK;
+                int x1 = Math.min(maxX, (tx << TILE_SHIFT) + TILE_MASK) & TILE_MASK;
+                int z0 = Math.max(minZ, tz << TILE_SHIFT) & TILE_MASK;
+                int z1 = Math.min(maxZ, (tz << TILE_SHIFT) + TILE_MASK) & TILE_MASK;
+                for (int z = z0; z <= z1; z++) {
+                    for (int x = x0; x <= x1; x++) {
+                        tile.set(x, z, walkable);
+                    }
                 }
-                // TODO: Add diagonal neighbors if desired
             }
         }
-        System.out.println("[PathfindingManager] Neighbor connections built.");
     }
 
     /**
-     * Finds the closest node on the grid to the given world coordinates.
+     * Installs tiles built elsewhere (e.g. by the world streamer).
+     * A null value removes that tile.
+     */
+    public void applyTiles(Map<Long, NavTile> update) {
+        for (Map.Entry<Long, NavTile> entry : update.entrySet()) {
+            if (entry.getValue() == null) {
+                tiles.remove(entry.getKey());
+            } else {
+                tiles.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // --- World snapshots ---
+
+    /**
+     * Writes the grid (bounds and every tile) for a {@link WorldSnapshot}.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeFloat(worldMinX);
+        out.writeFloat(worldMinZ);
+        out.writeFloat(worldMaxX);
+        out.writeFloat(worldMaxZ);
+        out.writeInt(tiles.size());
+        for (NavTile tile : tiles.values()) {
+            out.writeInt(tile.tileX);
+            out.writeInt(tile.tileZ);
+            for (long word : tile.bits) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Reads a grid written by {@link #writeTo}, replacing this one.
+     */
+    void readFrom(ByteBuffer in) {
+        tiles.clear();
+        worldMinX = in.getFloat();
+        worldMinZ = in.getFloat();
+        worldMaxX = in.getFloat();
+        worldMaxZ = in.getFloat();
+        hasBounds = true;
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            NavTile tile = new NavTile(in.getInt(), in.getInt());
+            in.asLongBuffer().get(tile.bits);
+            in.position(in.position() + tile.bits.length * Long.BYTES);
+            tiles.put(tileKey(tile.tileX, tile.tileZ), tile);
+        }
+    }
+
+    /**
+     * Grows the world bounds (used by the minimap) to cover the given area,
+     * plus the usual 5-unit buffer.
+     */
+    public void includeRoomBounds(Room room) {
+        includeBounds(room.minX - 5.0f, room.minZ - 5.0f, room.maxX + 5.0f, room.maxZ + 5.0f);
+    }
+
+    private void includeBounds(float minX, float minZ, float maxX, float maxZ) {
+        if (!hasBounds) {
+            worldMinX = minX;
+            worldMinZ = minZ;
+            worldMaxX = maxX;
+            worldMaxZ = maxZ;
+            hasBounds = true;
+            return;
+        }
+        if (minX < worldMinX) worldMinX = minX;
+        if (minZ < worldMinZ) worldMinZ = minZ;
+        if (maxX > worldMaxX) worldMaxX = maxX;
+        if (maxZ > worldMaxZ) worldMaxZ = maxZ;
+    }
+
+    /**
+     * Returns the keys of every tile overlapping the given world rectangle.
+     */
+    static void collectTileKeys(float minX, float minZ, float maxX, float maxZ, Set<Long> out) {
+        int tMinX = worldToCell(minX) >> TILE_SHIFT;
+        int tMaxX = worldToCell(maxX) >> TILE_SHIFT;
+        int tMinZ = worldToCell(minZ) >> TILE_SHIFT;
+        int tMaxZ = worldToCell(maxZ) >> TILE_SHIFT;
+        for (int tz = tMinZ; tz <= tMaxZ; tz++) {
+            for (int tx = tMinX; tx <= tMaxX; tx++) {
+                out.add(tileKey(tx, tz));
+            }
+        }
+    }
+
+    /**
+     * Finds the closest walkable cell to the given world coordinates.
+     * @return The packed cell, or -1 if nothing walkable is nearby.
      */
-    private PathNode findNearestNode(float worldX, float worldZ) {
+    private long findNearestCell(float worldX, float worldZ) {
         int gridX = worldToGridX(worldX);
         int gridZ = worldToGridZ(worldZ);
 
-        if (!isGridCoordValid(gridX, gridZ)) {
-            return null; // Out of bounds
+        if (isWalkable(gridX, gridZ)) {
+            return cellKey(gridX, gridZ); // Original node was fine
         }
 
-        PathNode node = grid[gridX][gridZ];
-
         // If the node is unwalkable, spiral out to find the nearest walkable one
-        if (node == null || !node.isWalkable) {
-            System.out.println("[PathfindingManager] Target node unwalkable, searching for nearby...");
-            Queue<PathNode> searchQueue = new LinkedList<>();
-            Set<PathNode> visited = new HashSet<>();
-
-            if(node != null) { // Start search from the unwalkable node
-                searchQueue.add(node);
-                visited.add(node);
-            } else { // This should not happen, but as a fallback
-                return null;
-            }
+        System.out.println("[PathfindingManager] Target node unwalkable, searching for nearby...");
+        ArrayDeque<Long> searchQueue = new ArrayDeque<>();
+        Set<Long> visited = new HashSet<>();
+        long start = cellKey(gridX, gridZ);
+        searchQueue.add(start);
+        visited.add(start);
 
-            while(!searchQueue.isEmpty()) {
-                PathNode currentNode = searchQueue.poll();
-                if (currentNode.isWalkable) {
-                    System.out.println("[PathfindingManager] Found nearby walkable node at (" + currentNode.x + ", " + currentNode.z + ")");
-                    return currentNode; // Found it
+        while (!searchQueue.isEmpty() && visited.size() < MAX_NEAREST_SEARCH_NODES) {
+            long current = searchQueue.poll();
+            int x = cellX(current);
+            int z = cellZ(current);
+            if (isWalkable(x, z)) {
+                System.out.println("[PathfindingManager] Found nearby walkable node at (" + x + ", " + z + ")");
+                return current; // Found it
+            }
+            // Add unvisited 4-directional neighbors (staying inside loaded tiles)
+            for (int d = 0; d < 4; d++) {
+                int nx = x + DX[d];
+                int nz = z + DZ[d];
+                long next = cellKey(nx, nz);
+                if (isGridCoordValid(nx, nz) && visited.add(next)) {
+                    searchQueue.add(next);
                 }
-                // Add unvisited 4-directional neighbors
-                int x = currentNode.x;
-                int z = currentNode.z;
-                if (isGridCoordValid(x, z-1) && grid[x][z-1] != null && !visited.contains(grid[x][z-1])) { searchQueue.add(grid[x][z-1]); visited.add(grid[x][z-1]); }
-                if (isGridCoordValid(x, z+1) && grid[x][z+1] != null && !visited.contains(grid[x][z+1])) { searchQueue.add(grid[x][z+1]); visited.add(grid[x][z+1]); }
-                if (isGridCoordValid(x-1, z) && grid[x-1][z] != null && !visited.contains(grid[x-1][z])) { searchQueue.add(grid[x-1][z]); visited.add(grid[x-1][z]); }
-                if (isGridCoordValid(x+1, z) && grid[x+1][z] != null && !visited.contains(grid[x+1][z])) { searchQueue.add(grid[x+1][z]); visited.add(grid[x+1][z]); }
             }
-            System.err.println("[PathfindingManager] Nearby search failed to find any walkable node.");
-            return null; // No walkable node found anywhere?
         }
-
-        return node; // Original node was fine
+        System.err.println("[PathfindingManager] Nearby search failed to find any walkable node.");
+        return -1;
     }
 
+    private static final int[] DX = {0, 0, -1, 1};
+    private static final int[] DZ = {-1, 1, 0, 0};
+
     /**
      * Finds a path from a start to an end location in world coordinates.
      * @return A List of PathNodes representing the path, or null if no path is found.
      */
     public List<PathNode> findPath(float startX, float startZ, float endX, float endZ) {
-        if (grid == null) {
+        if (tiles.isEmpty()) {
             System.err.println("[PathfindingManager] findPath called before grid was built!");
             return null;
         }
 
-        // 1. Find the start and end nodes on the grid
-        PathNode startNode = findNearestNode(startX, startZ);
-        PathNode endNode = findNearestNode(endX, endZ);
+        // 1. Find the start and end cells on the grid
+        long startCell = findNearestCell(startX, startZ);
+        long endCell = findNearestCell(endX, endZ);
 
-        if (startNode == null || endNode == null) {
+        if (startCell == -1 || endCell == -1) {
             System.err.println("[PathfindingManager] Invalid start or end node (is null).");
             return null;
         }
 
-        // 2. Run the Breadth-First Search (BFS)
-        System.out.println("[PathfindingManager] Finding path from (" + startNode.x + ", " + startNode.z + ") to (" + endNode.x + ", " + endNode.z + ")");
-        Map<PathNode, PathNode> parentMap = bfs(startNode, endNode);
-
-        // 3. Reconstruct the path from the parent map
-        currentPath = reconstructPath(parentMap, startNode, endNode);
+        // 2. Run A*
+        System.out.println("[PathfindingManager] Finding path from (" + cellX(startCell) + ", " + cellZ(startCell)
+                + ") to (" + cellX(endCell) + ", " + cellZ(endCell) + ")");
+        long searchStart = System.nanoTime();
+        int sx = cellX(startCell), sz = cellZ(startCell);
+        int ex = cellX(endCell), ez = cellZ(endCell);
+        currentPath = null;
+        if (markTileCorridor(sx, sz, ex, ez)) {
+            currentPath = aStar(sx, sz, ex, ez);
+        }
 
         if (currentPath == null || currentPath.isEmpty()) {
             System.err.println("[PathfindingManager] No path found.");
         } else {
-            System.out.println("[PathfindingManager] Path found with " + currentPath.size() + " nodes.");
+            System.out.println("[PathfindingManager] Path found with " + currentPath.size() + " nodes in "
+                    + ((System.nanoTime() - searchStart) / 1_000_000) + " ms.");
         }
 
         return currentPath;
     }
 
+    // --- A* search state ---
+    // Search data lives in small per-tile arrays that are only handed out to
+    // tiles the search actually reaches, so a search costs memory in
+    // proportion to what it explores, not to the size of the maze.
+    // A search cell is packed as (slot << TILE_SHIFT*2) | localIndex, where
+    // slot is the tile's position in searchTiles.
+    private static final int LOCAL_BITS = TILE_SHIFT * 2;
+    private static final int LOCAL_MASK = (1 << LOCAL_BITS) - 1;
+    private final List<NavTile> searchTiles = new ArrayList<>();
+    private final ArrayDeque<int[]> searchArrayPool = new ArrayDeque<>();
+    private long[] openHeap = new long[1024];
+    private int openSize = 0;
+
     /**
-     * Performs a Breadth-First Search to find the shortest path.
-     * @return A Map where each key is a node and its value is the parent
-     * node we took to get there.
+     * A* over the 4-connected cell grid with a Manhattan heuristic. Every step
+     * costs 1, so this finds a shortest path just like the old BFS did, while
+     * only exploring toward the goal.
+     * Only steps into tiles marked by the last markTileCorridor call.
      */
-    private Map<PathNode, PathNode> bfs(PathNode start, PathNode end) {
-        // Reset all nodes for this search
-        for (int x = 0; x < gridWidth; x++) {
-            for (int z = 0; z < gridDepth; z++) {
-                if(grid[x][z] != null) {
-                    grid[x][z].reset();
+    private List<PathNode> aStar(int startX, int startZ, int endX, int endZ) {
+        openSize = 0;
+        try {
+            int start = searchCell(tileAt(startX, startZ), startX & TILE_MASK, startZ & TILE_MASK);
+            setG(start, 0);
+            setParent(start, start);
+            heapPush(((long) manhattan(startX, startZ, endX, endZ) << 32) | start);
+
+            int expanded = 0;
+            while (openSize > 0 && expanded < MAX_SEARCH_NODES) {
+                int current = (int) heapPop();
+                if (isClosed(current)) continue; // Stale heap entry
+                int currentG = getG(current);
+                setClosed(current);
+                expanded++;
+
+                NavTile tile = searchTiles.get(current >>> LOCAL_BITS);
+                int localX = current & TILE_MASK;
+                int localZ = (current & LOCAL_MASK) >>> TILE_SHIFT;
+                int x = (tile.tileX << TILE_SHIFT) | localX;
+                int z = (tile.tileZ << TILE_SHIFT) | localZ;
+
+                if (x == endX && z == endZ) {
+                    return buildPath(current, start);
+                }
+
+                int nextG = currentG + 1;
+                for (int d = 0; d < 4; d++) {
+                    int nlx = localX + DX[d];
+                    int nlz = localZ + DZ[d];
+                    NavTile neighborTile = tile;
+                    if ((nlx & ~TILE_MASK) != 0 || (nlz & ~TILE_MASK) != 0) {
+                        // Stepping into the next tile over
+                        neighborTile = tiles.get(tileKey(tile.tileX + (nlx >> TILE_SHIFT), tile.tileZ + (nlz >> TILE_SHIFT)));
+                        if (neighborTile == null) continue;
+                        if (neighborTile.corridorStamp != corridorStamp) continue;
+                        nlx &= TILE_MASK;
+                        nlz &= TILE_MASK;
+                    }
+                    if (!neighborTile.get(nlx, nlz)) continue;
+
+                    int neighbor = searchCell(neighborTile, nlx, nlz);
+                    if (isClosed(neighbor)) continue;
+                    int oldG = getG(neighbor);
+                    if (oldG >= 0 && oldG <= nextG) continue;
+                    setG(neighbor, nextG);
+                    setParent(neighbor, current);
+                    heapPush(((long) (nextG + manhattan(x + DX[d], z + DZ[d], endX, endZ)) << 32) | neighbor);
                 }
             }
+            return null;
+        } finally {
+            releaseSearch();
         }
+    }
 
-        Queue<PathNode> queue = new LinkedList<>();
-        Set<PathNode> visited = new HashSet<>();
-        Map<PathNode, PathNode> parentMap = new HashMap<>();
-
-        queue.add(start);
-        visited.add(start);
-
-        while (!queue.isEmpty()) {
-            PathNode currentNode = queue.poll();
+    // --- Tile corridor (coarse search) ---
+    // Before the cell search, we find a route through whole tiles. Each tile is
+    // split into regions (groups of walkable cells connected inside the tile),
+    // and two regions in neighboring tiles are linked when they touch across the
+    // shared edge. That makes the coarse route exact: if it exists, a cell path
+    // exists inside the tiles it passes through. The cell search is then limited
+    // to those tiles plus one ring around them (room to straighten the path),
+    // which stops long cross-maze searches from flooding the whole grid.
+    private int corridorStamp = 0;
+    private final int[] regionScratch = new int[TILE_SIZE * TILE_SIZE];
+    private final int[] floodStack = new int[TILE_SIZE * TILE_SIZE];
+
+    /** A (tile, region) node in the coarse search. */
+    private static final class RegionNode {
+        final NavTile tile;
+        final int region;
+        int id = -1;
+        int cost = Integer.MAX_VALUE;
+        RegionNode parent;
+
+        RegionNode(NavTile tile, int region) {
+            this.tile = tile;
+            this.region = region;
+        }
+    }
 
-            if (currentNode == end) {
-                return parentMap; // Found the end!
+    /**
+     * Marks the tiles along a coarse route between two cells (plus their
+     * neighbors) with a fresh corridorStamp.
+     * @return true if the cells are connected at all.
+     */
+    private boolean markTileCorridor(int startX, int startZ, int endX, int endZ) {
+        NavTile startTile = tileAt(startX, startZ);
+        NavTile endTile = tileAt(endX, endZ);
+        int startRegion = regionOf(startTile, startX & TILE_MASK, startZ & TILE_MASK);
+        int endRegion = regionOf(endTile, endX & TILE_MASK, endZ & TILE_MASK);
+
+        Map<Long, RegionNode[]> visited = new HashMap<>();
+        PriorityQueue<long[]> open = new PriorityQueue<>((p, q) -> Long.compare(p[0], q[0]));
+        List<RegionNode> nodes = new ArrayList<>();
+
+        RegionNode start = regionNode(visited, startTile, startRegion);
+        start.id = 0;
+        start.cost = 0;
+        nodes.add(start);
+        open.add(new long[]{manhattan(startTile.tileX, startTile.tileZ, endTile.tileX, endTile.tileZ), 0, 0});
+
+        RegionNode goal = null;
+        while (!open.isEmpty()) {
+            long[] entry = open.poll();
+            RegionNode node = nodes.get((int) entry[1]);
+            if (entry[2] != node.cost) continue; // Stale heap entry
+            if (node.tile == endTile && node.region == endRegion) {
+                goal = node;
+                break;
             }
 
-            for (PathNode neighbor : currentNode.neighbors) {
-                if (!visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    parentMap.put(neighbor, currentNode); // Log how we got here
-                    queue.add(neighbor);
+            short[] edges = edgeRegions(node.tile);
+            for (int d = 0; d < 4; d++) {
+                NavTile next = tiles.get(tileKey(node.tile.tileX + DX[d], node.tile.tileZ + DZ[d]));
+                if (next == null) continue;
+                short[] nextEdges = edgeRegions(next);
+                int edge = d * TILE_SIZE;
+                int facing = (d ^ 1) * TILE_SIZE;
+                for (int i = 0; i < TILE_SIZE; i++) {
+                    if (edges[edge + i] != node.region || nextEdges[facing + i] < 0) continue;
+                    RegionNode neighbor = regionNode(visited, next, nextEdges[facing + i]);
+                    if (neighbor.cost <= node.cost + 1) continue;
+                    if (neighbor.id < 0) {
+                        neighbor.id = nodes.size();
+                        nodes.add(neighbor);
+                    }
+                    neighbor.cost = node.cost + 1;
+                    neighbor.parent = node;
+                    open.add(new long[]{neighbor.cost + manhattan(next.tileX, next.tileZ, endTile.tileX, endTile.tileZ),
+                            neighbor.id, neighbor.cost});
+                }
+            }
+        }
+        if (goal == null) return false;
+
+        corridorStamp++;
+        for (RegionNode node = goal; node != null; node = node.parent) {
+            for (int dz = -1; dz <= 1; dz++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    NavTile ring = tiles.get(tileKey(node.tile.tileX + dx, node.tile.tileZ + dz));
+                    if (ring != null) ring.corridorStamp = corridorStamp;
                 }
             }
         }
+        return true;
+    }
 
-        return parentMap; // Return map even if path not found
+    private static RegionNode regionNode(Map<Long, RegionNode[]> visited, NavTile tile, int region) {
+        RegionNode[] perTile = visited.get(tileKey(tile.tileX, tile.tileZ));
+        if (perTile == null || perTile.length <= region) {
+            RegionNode[] grown = new RegionNode[Math.max(region + 1, 4)];
+            if (perTile != null) System.arraycopy(perTile, 0, grown, 0, perTile.length);
+            perTile = grown;
+            visited.put(tileKey(tile.tileX, tile.tileZ), perTile);
+        }
+        if (perTile[region] == null) {
+            perTile[region] = new RegionNode(tile, region);
+        }
+        return perTile[region];
+    }
+
+    /** Region id of one (walkable) cell in a tile. */
+    private int regionOf(NavTile tile, int localX, int localZ) {
+        floodRegions(tile);
+        return regionScratch[(localZ << TILE_SHIFT) | localX];
     }
 
     /**
-     * Reconstructs the path backwards from the end node.
+     * Region ids of the cells along each tile edge, in DX/DZ order
+     * (-Z, +Z, -X, +X), TILE_SIZE entries each. -1 means not walkable.
+     * Cached on the tile until its cells change.
      */
-    private List<PathNode> reconstructPath(Map<PathNode, PathNode> parentMap, PathNode start, PathNode end) {
+    private short[] edgeRegions(NavTile tile) {
+        if (tile.edgeRegions == null) {
+            floodRegions(tile);
+            short[] edges = new short[4 * TILE_SIZE];
+            for (int i = 0; i < TILE_SIZE; i++) {
+                edges[i] = (short) regionScratch[i];                                        // z = 0
+                edges[TILE_SIZE + i] = (short) regionScratch[(TILE_MASK << TILE_SHIFT) | i]; // z = max
+                edges[2 * TILE_SIZE + i] = (short) regionScratch[i << TILE_SHIFT];           // x = 0
+                edges[3 * TILE_SIZE + i] = (short) regionScratch[(i << TILE_SHIFT) | TILE_MASK]; // x = max
+            }
+            tile.edgeRegions = edges;
+        }
+        return tile.edgeRegions;
+    }
+
+    /** Flood-fills a tile's walkable cells into regionScratch (-1 = blocked). */
+    private void floodRegions(NavTile tile) {
+        Arrays.fill(regionScratch, -1);
+        int regions = 0;
+        for (int cell = 0; cell < regionScratch.length; cell++) {
+            if (regionScratch[cell] >= 0 || !tile.get(cell & TILE_MASK, cell >>> TILE_SHIFT)) continue;
+            int top = 0;
+            floodStack[top++] = cell;
+            regionScratch[cell] = regions;
+            while (top > 0) {
+                int c = floodStack[--top];
+                int x = c & TILE_MASK;
+                int z = c >>> TILE_SHIFT;
+                for (int d = 0; d < 4; d++) {
+                    int nx = x + DX[d];
+                    int nz = z + DZ[d];
+                    if ((nx & ~TILE_MASK) != 0 || (nz & ~TILE_MASK) != 0) continue;
+                    int n = (nz << TILE_SHIFT) | nx;
+                    if (regionScratch[n] >= 0 || !tile.get(nx, nz)) continue;
+                    regionScratch[n] = regions;
+                    floodStack[top++] = n;
+                }
+            }
+            regions++;
+        }
+    }
+
+    /** Walks parent links back from the goal and turns them into PathNodes. */
+    private List<PathNode> buildPath(int end, int start) {
         List<PathNode> path = new ArrayList<>();
-        PathNode current = end;
+        int current = end;
+        while (true) {
+            NavTile tile = searchTiles.get(current >>> LOCAL_BITS);
+            int local = current & LOCAL_MASK;
+            int x = (tile.tileX << TILE_SHIFT) | (local & TILE_MASK);
+            int z = (tile.tileZ << TILE_SHIFT) | (local >>> TILE_SHIFT);
+            path.add(new PathNode(x, z, gridToWorldX(x), gridToWorldZ(z), true));
+            if (current == start) break; // We're back at the start
+            current = getParent(current);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private NavTile tileAt(int x, int z) {
+        return tiles.get(tileKey(x >> TILE_SHIFT, z >> TILE_SHIFT));
+    }
+
+    /** Returns the search cell id for a walkable cell, joining its tile to the search if needed. */
+    private int searchCell(NavTile tile, int localX, int localZ) {
+        if (tile.searchSlot < 0) {
+            tile.searchSlot = searchTiles.size();
+            tile.searchG = takeSearchArray(-1);
+            tile.searchParent = takeSearchArray(-1);
+            searchTiles.add(tile);
+        }
+        return (tile.searchSlot << LOCAL_BITS) | (localZ << TILE_SHIFT) | localX;
+    }
+
+    private int getG(int cell) {
+        return searchTiles.get(cell >>> LOCAL_BITS).searchG[cell & LOCAL_MASK];
+    }
+
+    private void setG(int cell, int g) {
+        searchTiles.get(cell >>> LOCAL_BITS).searchG[cell & LOCAL_MASK] = g;
+    }
+
+    private int getParent(int cell) {
+        return searchTiles.get(cell >>> LOCAL_BITS).searchParent[cell & LOCAL_MASK];
+    }
+
+    private void setParent(int cell, int parent) {
+        searchTiles.get(cell >>> LOCAL_BITS).searchParent[cell & LOCAL_MASK] = parent;
+    }
+
+    // Closed cells are marked by flipping their g score negative (below -1)
+    private boolean isClosed(int cell) {
+        return getG(cell) < -1;
+    }
 
-        if (!parentMap.containsKey(end) && start != end) {
-            return null; // 'end' node was never reached
+    private void setClosed(int cell) {
+        int[] g = searchTiles.get(cell >>> LOCAL_BITS).searchG;
+        g[cell & LOCAL_MASK] = -2 - g[cell & LOCAL_MASK];
+    }
+
+    private int[] takeSearchArray(int fill) {
+        int[] array = searchArrayPool.poll();
+        if (array == null) {
+            array = new int[TILE_SIZE * TILE_SIZE];
         }
+        Arrays.fill(array, fill);
+        return array;
+    }
 
-        while (current != null) {
-            path.add(0, current); // Add to the front of the list
-            if (current == start) {
-                return path; // We're back at the start
+    /** Detaches all tiles from the finished search and keeps a few arrays for next time. */
+    private void releaseSearch() {
+        for (NavTile tile : searchTiles) {
+            if (searchArrayPool.size() < 64) {
+                searchArrayPool.push(tile.searchG);
+                searchArrayPool.push(tile.searchParent);
             }
-            current = parentMap.get(current);
+            tile.searchSlot = -1;
+            tile.searchG = null;
+            tile.searchParent = null;
+        }
+        searchTiles.clear();
+        openSize = 0;
+    }
+
+    private static int manhattan(int x0, int z0, int x1, int z1) {
+        return Math.abs(x1 - x0) + Math.abs(z1 - z0);
+    }
+
+    // --- Binary min-heap of (f << 32 | cell) ---
+
+    private void heapPush(long entry) {
+        if (openSize == openHeap.length) {
+            openHeap = Arrays.copyOf(openHeap, openSize * 2);
+        }
+        int i = openSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (openHeap[parent] <= entry) break;
+            openHeap[i] = openHeap[parent];
+            i = parent;
         }
+        openHeap[i] = entry;
+    }
 
-        return null; // Should not happen if start == end or parentMap is correct
+    private long heapPop() {
+        long top = openHeap[0];
+        long last = openHeap[--openSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= openSize) break;
+            if (child + 1 < openSize && openHeap[child + 1] < openHeap[child]) child++;
+            if (openHeap[child] >= last) break;
+            openHeap[i] = openHeap[child];
+            i = child;
+        }
+        openHeap[i] = last;
+        return top & 0xFFFFFFFFL;
     }
 
     /**
-     * Checks if a grid coordinate is within the valid grid array bounds.
+     * Checks if a grid coordinate is inside a loaded tile.
      */
     public boolean isGridCoordValid(int x, int z) {
-        return x >= 0 && x < gridWidth && z >= 0 && z < gridDepth;
+        return tiles.containsKey(tileKey(x >> TILE_SHIFT, z >> TILE_SHIFT));
+    }
+
+    /**
+     * Checks if a grid cell is walkable. Cells outside loaded tiles never are.
+     */
+    public boolean isWalkable(int x, int z) {
+        NavTile tile = tiles.get(tileKey(x >> TILE_SHIFT, z >> TILE_SHIFT));
+        return tile != null && tile.get(x & TILE_MASK, z & TILE_MASK);
     }
 
     // --- Coordinate Conversion Helpers ---
 
+    static int worldToCell(float world) {
+        return (int) Math.floor(world / GRID_RESOLUTION);
+    }
+
+    static long tileKey(int tileX, int tileZ) {
+        return ((long) tileX << 32) | (tileZ & 0xFFFFFFFFL);
+    }
+
+    private static long cellKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int cellX(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    private static int cellZ(long cell) {
+        return (int) cell;
+    }
+
     public int worldToGridX(float worldX) {
-        int gridX = (int) ((worldX - worldMinX) / GRID_RESOLUTION);
-        return Math.max(0, Math.min(gridWidth - 1, gridX)); // Clamp to bounds
+        return worldToCell(worldX);
     }
 
     public int worldToGridZ(float worldZ) {
-        int gridZ = (int) ((worldZ - worldMinZ) / GRID_RESOLUTION);
-        return Math.max(0, Math.min(gridDepth - 1, gridZ)); // Clamp to bounds
+        return worldToCell(worldZ);
     }
 
-    private float gridToWorldX(int gridX) {
+    public float gridToWorldX(int gridX) {
         // Return the *center* of the grid cell
-        return (gridX * GRID_RESOLUTION) + worldMinX + (GRID_RESOLUTION / 2.0f);
+        return (gridX * GRID_RESOLUTION) + (GRID_RESOLUTION / 2.0f);
     }
 
-    private float gridToWorldZ(int gridZ) {
+    public float gridToWorldZ(int gridZ) {
         // Return the *center* of the grid cell
-        return (gridZ * GRID_RESOLUTION) + worldMinZ + (GRID_RESOLUTION / 2.0f);
+        return (gridZ * GRID_RESOLUTION) + (GRID_RESOLUTION / 2.0f);
     }
 
     /**
@@ -444,10 +881,10 @@ public class PathfindingManager {
     }
 
     /**
-     * Gets the entire grid for debug rendering.
+     * Gets the number of loaded nav tiles (for debug output).
      */
-    public PathNode[][] getGrid() {
-        return grid;
+    public int getTileCount() {
+        return tiles.size();
     }
 
     // --- 💥 NEW GETTERS FOR MINIMAP V2 BOUNDING BOX 💥 ---
@@ -458,71 +895,29 @@ public class PathfindingManager {
     // --- 💥 END NEW GETTERS 💥 ---
 
     /**
-     * NEW: Updates the grid to make an area (like a door) walkable
-     * and rebuilds neighbor connections for that area.
+     * NEW: Updates the grid to make an area (like a door) walkable.
      * This is called when the escape door opens.
      * @param door The GameObject representing the door to open.
      */
     public void openDoorInGrid(GameObject door) {
-        if (grid == null || door == null) {
+        if (tiles.isEmpty() || door == null) {
             return;
         }
 
         System.out.println("[PathfindingManager] Updating grid: Opening door...");
 
-        // 1. Get the exact footprint of the door
-        // (Copied from the "erase" pass in buildGrid)
+        // Get the exact footprint of the door
+        // (Same as the "erase" pass in rasterizeTiles)
         float objMinX = door.getPosX() - (door.getScaleX() / 2.0f);
         float objMaxX = door.getPosX() + (door.getScaleX() / 2.0f);
         float objMinZ = door.getPosZ() - (door.getScaleZ() / 2.0f);
         float objMaxZ = door.getPosZ() + (door.getScaleZ() / 2.0f);
 
-        int gridMinX = worldToGridX(objMinX);
-        int gridMaxX = worldToGridX(objMaxX);
-        int gridMinZ = worldToGridZ(objMinZ);
-        int gridMaxZ = worldToGridZ(objMaxZ);
-
-        // 2. Mark all nodes in this footprint as WALKABLE
-        for (int x = gridMinX; x <= gridMaxX; x++) {
-            for (int z = gridMinZ; z <= gridMaxZ; z++) {
-                if (isGridCoordValid(x, z) && grid[x][z] != null) {
-                    grid[x][z].isWalkable = true; // "Open" the door
-                }
-            }
-        }
-
-        // 3. Re-build neighbor connections for this area AND its immediate surroundings
-        // (We must check a slightly larger area to connect the new nodes to the old floor)
-        int border = 1;
-        for (int x = gridMinX - border; x <= gridMaxX + border; x++) {
-            for (int z = gridMinZ - border; z <= gridMaxZ + border; z++) {
-
-                if (isGridCoordValid(x, z) && grid[x][z] != null && grid[x][z].isWalkable) {
-
-                    // Clear old neighbors first
-                    grid[x][z].neighbors.clear();
-
-                    // Check North
-                    if (isGridCoordValid(x, z - 1) && grid[x][z - 1] != null && grid[x][z - 1].isWalkable) {
-                        grid[x][z].addNeighbor(grid[x][z - 1]);
-                    }
-                    // Check South
-                    if (isGridCoordValid(x, z + 1) && grid[x][z + 1] != null && grid[x][z + 1].isWalkable) {
-                        grid[x][z].addNeighbor(grid[x][z + 1]);
-                    }
-                    // Check West
-                    if (isGridCoordValid(x - 1, z) && grid[x - 1][z] != null && grid[x - 1][z].isWalkable) {
-                        grid[x][z].addNeighbor(grid[x - 1][z]);
-                    }
-                    // Check East
-                    if (isGridCoordValid(x + 1, z) && grid[x + 1][z] != null && grid[x + 1][z].isWalkable) {
-                        grid[x][z].addNeighbor(grid[x + 1][z]);
-                    }
-                }
-            }
-        }
+        // Mark all cells in this footprint as WALKABLE. Neighbors are
+        // worked out on the fly during the search, so nothing else to rebuild.
+        fillCells(tiles, null, worldToCell(objMinX), worldToCell(objMinZ),
+                worldToCell(objMaxX), worldToCell(objMaxZ), true);
 
-        System.out.println("[PathfindingManager] Door area nodes set to walkable and neighbors rebuilt.");
+        System.out.println("[PathfindingManager] Door area nodes set to walkable.");
     }
-    // --- 💥💥💥 END FIX 💥💥💥 ---
-}
\ No newline at end of file
+}
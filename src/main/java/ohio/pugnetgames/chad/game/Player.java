@@ -28,6 +28,10 @@ public class Player {
     public final float PLAYER_EYE_HEIGHT = 1.5f;
     private final float PLAYER_COLLISION_RADIUS = 0.3f;
     private final float PLAYER_HALF_HEIGHT = 0.5f; // Player body is 1.0f high
+    private final float COLLISION_QUERY_MARGIN = 0.5f; // Extra slack around the broadphase box
+
+    // Reused every frame for the collision broadphase
+    private final SpatialGrid.Ids nearbyColliders = new SpatialGrid.Ids();
 
     public Player(float startX, float startY, float startZ) {
         this.posX = startX;
@@ -99,21 +103,27 @@ public class Player {
             float playerCenterY = nextPosY - PLAYER_HALF_HEIGHT;
             float prevPlayerCenterY = posY - PLAYER_HALF_HEIGHT;
 
-            // Wall/Object Collision
-            for (GameObject obj : world.getStaticObjects()) {
-                if (obj.getShape() == GameObject.ShapeType.CUBE && obj.isCollidable()) {
+            // Wall/Object Collision (only objects near where we're moving)
+            float reach = PLAYER_COLLISION_RADIUS + COLLISION_QUERY_MARGIN;
+            world.getColliderSlotsNear(Math.min(posX, nextPosX) - reach, Math.min(posZ, nextPosZ) - reach,
+                    Math.max(posX, nextPosX) + reach, Math.max(posZ, nextPosZ) + reach, nearbyColliders);
+            synchronized (world.getStaticObjects()) {
+                StaticGeometry geo = world.getGeometry();
+                for (int n = 0; n < nearbyColliders.size; n++) {
+                    int i = nearbyColliders.ids[n];
+                    if (!geo.isCollidable(i)) continue; // Flags can change between grid rebuilds
 
                     // 1. Resolve Y
-                    if (obj.isColliding(posX, playerCenterY, posZ, PLAYER_COLLISION_RADIUS, PLAYER_HALF_HEIGHT)) {
-                        float objMinY = obj.getPosY() - obj.getScaleY() / 2.0f;
-                        float objMaxY = obj.getPosY() + obj.getScaleY() / 2.0f;
+                    if (geo.isColliding(i, posX, playerCenterY, posZ, PLAYER_COLLISION_RADIUS, PLAYER_HALF_HEIGHT)) {
+                        float objMinY = geo.posY[i] - geo.scaleY[i] / 2.0f;
+                        float objMaxY = geo.posY[i] + geo.scaleY[i] / 2.0f;
 
-                        if (velY <= 0 && prevPlayerCenterY > obj.getPosY()) {
+                        if (velY <= 0 && prevPlayerCenterY > geo.posY[i]) {
                             playerCenterY = objMaxY + PLAYER_HALF_HEIGHT;
                             velY = 0;
                             onGround = true;
                         }
-                        else if (velY > 0 && prevPlayerCenterY < obj.getPosY()) {
+                        else if (velY > 0 && prevPlayerCenterY < geo.posY[i]) {
                             playerCenterY = objMinY - PLAYER_HALF_HEIGHT;
                             velY = 0;
                         }
@@ -121,13 +131,13 @@ public class Player {
                     }
 
                     // 2. Resolve X
-                    if (obj.isColliding(nextPosX, nextPosY - PLAYER_HALF_HEIGHT, posZ, PLAYER_COLLISION_RADIUS, PLAYER_HALF_HEIGHT)) {
-                        nextPosX = obj.resolveCollision(nextPosX, prevPosX, obj.getPosX(), obj.getScaleX(), PLAYER_COLLISION_RADIUS);
+                    if (geo.isColliding(i, nextPosX, nextPosY - PLAYER_HALF_HEIGHT, posZ, PLAYER_COLLISION_RADIUS, PLAYER_HALF_HEIGHT)) {
+                        nextPosX = GameObject.resolveCollision(nextPosX, prevPosX, geo.posX[i], geo.scaleX[i], PLAYER_COLLISION_RADIUS);
                     }
 
                     // 3. Resolve Z
-                    if (obj.isColliding(nextPosX, nextPosY - PLAYER_HALF_HEIGHT, nextPosZ, PLAYER_COLLISION_RADIUS, PLAYER_HALF_HEIGHT)) {
-                        nextPosZ = obj.resolveCollision(nextPosZ, prevPosZ, obj.getPosZ(), obj.getScaleZ(), PLAYER_COLLISION_RADIUS);
+                    if (geo.isColliding(i, nextPosX, nextPosY - PLAYER_HALF_HEIGHT, nextPosZ, PLAYER_COLLISION_RADIUS, PLAYER_HALF_HEIGHT)) {
+                        nextPosZ = GameObject.resolveCollision(nextPosZ, prevPosZ, geo.posZ[i], geo.scaleZ[i], PLAYER_COLLISION_RADIUS);
                     }
                 }
             }
@@ -0,0 +1,252 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.Room.RoomType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Works out which rooms can be seen from the camera by looking through
+ * doorways. Rooms are closed boxes and the only way to see out of one is
+ * through the doorways its tunnels open in its walls, so starting from the
+ * room the camera is in, each doorway inside the view narrows the view down
+ * to what's visible through it, and the room on the other side is visited
+ * with that narrower view. A tunnel counts as seen through both of its
+ * doorways, one after the other.
+ *
+ * The work grows with the number of doorways actually in view, not with the
+ * size of the maze.
+ *
+ * Courtyards don't have visible walls, so a courtyard in view doesn't narrow
+ * anything: every room inside the view it's seen with is visible. That pass
+ * goes over every room, but only on frames where a courtyard is in view.
+ *
+ * GL thread only.
+ */
+public class PortalCuller {
+
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_PORTALS = 1024; // Per frame
+    private static final float PORTAL_PADDING = 0.1f; // Grow doorways a little, so wall edges never pop
+    private static final float ON_PORTAL_DISTANCE = 0.25f; // Closer than this, looking through a doorway is ill-defined
+
+    private final List<Room> visibleRooms = new ArrayList<>();
+    private boolean[] visible = new boolean[64];
+    private boolean[] onPath = new boolean[64];
+
+    // One frustum per doorway looked through this frame, reused across frames
+    private final List<Frustum> frustumPool = new ArrayList<>();
+    private int frustumsUsed;
+    private final List<Frustum> openViews = new ArrayList<>();
+
+    private float[] polygon = new float[16 * 3];
+    private float[] scratch = new float[16 * 3];
+
+    private RoomGraph graph;
+    private float eyeX, eyeY, eyeZ;
+
+    // --- Stats (last update) ---
+    private int portalsTested;
+
+    /**
+     * Finds the rooms visible from the eye.
+     *
+     * @param view The camera's frustum.
+     * @return The visible rooms (valid until the next update), or null if the
+     *         eye isn't in any room and everything should be drawn.
+     */
+    public List<Room> update(World world, Frustum view, float eyeX, float eyeY, float eyeZ) {
+        for (Room room : visibleRooms) {
+            visible[room.index] = false;
+        }
+        visibleRooms.clear();
+        openViews.clear();
+        frustumsUsed = 0;
+        portalsTested = 0;
+
+        graph = world.getRoomGraph();
+        this.eyeX = eyeX;
+        this.eyeY = eyeY;
+        this.eyeZ = eyeZ;
+        Room start = graph.getRoomAt(eyeX, eyeZ, 0.0f);
+        if (start == null) {
+            return null;
+        }
+        if (visible.length < graph.getRoomCount()) {
+            int size = Math.max(graph.getRoomCount(), visible.length * 2);
+            visible = Arrays.copyOf(visible, size);
+            onPath = Arrays.copyOf(onPath, size);
+        }
+
+        RoomGraph.Connection tunnel = isInside(start) ? null : tunnelAt(start);
+        if (tunnel != null) {
+            // In a tunnel: both ends are in front of or behind the eye, never through a doorway
+            visit(tunnel.from, view, 0, tunnel);
+            if (tunnel.to != null) {
+                visit(tunnel.to, view, 0, tunnel);
+            }
+        } else {
+            visit(start, view, 0, null);
+        }
+
+        if (!openViews.isEmpty()) {
+            addRoomsInOpenViews();
+        }
+        return visibleRooms;
+    }
+
+    private void visit(Room room, Frustum view, int depth, RoomGraph.Connection cameFrom) {
+        markVisible(room);
+        if (room.getType() == RoomType.COURTYARD) {
+            openViews.add(view);
+            return;
+        }
+        if (depth >= MAX_DEPTH) return;
+
+        onPath[room.index] = true;
+        for (RoomGraph.Connection connection : graph.getConnections(room)) {
+            if (connection == cameFrom || connection.isEscape()) continue;
+            Room next = connection.other(room);
+            if (onPath[next.index] || portalsTested >= MAX_PORTALS) continue;
+
+            Direction travel = connection.doorwayIn(room).wall;
+            Frustum throughNear = lookThrough(view, connection.doorwayIn(room), travel);
+            if (throughNear == null) continue;
+            // The tunnel is drawn with one of its rooms, so seeing into it is enough to draw next
+            markVisible(next);
+            Frustum throughBoth = lookThrough(throughNear, connection.doorwayIn(next), travel);
+            if (throughBoth != null) {
+                visit(next, throughBoth, depth + 1, connection);
+            }
+        }
+        onPath[room.index] = false;
+    }
+
+    /**
+     * @param travel The way the doorway is being looked through.
+     * @return The part of the view seen through the doorway, the view itself
+     *         if the eye is standing in the doorway, or null if none of the
+     *         doorway is in view.
+     */
+    private Frustum lookThrough(Frustum view, RoomGraph.Doorway doorway, Direction travel) {
+        portalsTested++;
+        boolean alongZ = travel == Direction.NORTH || travel == Direction.SOUTH;
+        float sign = travel == Direction.NORTH || travel == Direction.EAST ? 1.0f : -1.0f;
+        float wallLine = alongZ ? doorway.getCenterZ() : doorway.getCenterX();
+        float distance = ((alongZ ? eyeZ : eyeX) - wallLine) * sign; // Negative on the near side
+
+        float lo = (alongZ ? doorway.minX : doorway.minZ) - PORTAL_PADDING;
+        float hi = (alongZ ? doorway.maxX : doorway.maxZ) + PORTAL_PADDING;
+        if (Math.abs(distance) < ON_PORTAL_DISTANCE) {
+            float across = alongZ ? eyeX : eyeZ;
+            return across >= lo && across <= hi ? view : null;
+        }
+        if (distance > 0) {
+            return null; // Already past it
+        }
+
+        int needed = (4 + view.getPlaneCount()) * 3;
+        if (polygon.length < needed) {
+            polygon = new float[needed];
+            scratch = new float[needed];
+        }
+        float bottom = -PORTAL_PADDING;
+        float top = RoomGraph.DOORWAY_HEIGHT + PORTAL_PADDING;
+        if (alongZ) {
+            setVertex(0, lo, bottom, wallLine);
+            setVertex(1, hi, bottom, wallLine);
+            setVertex(2, hi, top, wallLine);
+            setVertex(3, lo, top, wallLine);
+        } else {
+            setVertex(0, wallLine, bottom, lo);
+            setVertex(1, wallLine, bottom, hi);
+            setVertex(2, wallLine, top, hi);
+            setVertex(3, wallLine, top, lo);
+        }
+        int n = view.clipPolygon(polygon, 4, scratch);
+        if (n < 3) {
+            return null;
+        }
+        Frustum narrowed = nextFrustum();
+        narrowed.setThroughPortal(view, eyeX, eyeY, eyeZ, polygon, n);
+        return narrowed;
+    }
+
+    private void setVertex(int i, float x, float y, float z) {
+        polygon[i * 3] = x;
+        polygon[i * 3 + 1] = y;
+        polygon[i * 3 + 2] = z;
+    }
+
+    private Frustum nextFrustum() {
+        if (frustumsUsed == frustumPool.size()) {
+            frustumPool.add(new Frustum());
+        }
+        return frustumPool.get(frustumsUsed++);
+    }
+
+    private void markVisible(Room room) {
+        if (!visible[room.index]) {
+            visible[room.index] = true;
+            visibleRooms.add(room);
+        }
+    }
+
+    private void addRoomsInOpenViews() {
+        for (Room room : graph.getRooms()) {
+            if (visible[room.index]) continue;
+            if (inOpenView(room.minX, room.minZ, room.maxX, room.maxZ)) {
+                markVisible(room);
+                continue;
+            }
+            // The tunnels drawn with the room stick out of it
+            for (RoomGraph.Connection connection : graph.getConnections(room)) {
+                Tunnel tunnel = connection.tunnel;
+                boolean owned = connection.isEscape() ? connection.from == room : connection.to == room;
+                if (owned && inOpenView(tunnel.minX, tunnel.minZ, tunnel.maxX, tunnel.maxZ)) {
+                    markVisible(room);
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean inOpenView(float minX, float minZ, float maxX, float maxZ) {
+        for (Frustum view : openViews) {
+            // Nothing is taller than the courtyards' 100-unit walls
+            if (view.intersectsBox(minX, 0.0f, minZ, maxX, 100.0f, maxZ)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- Where the eye is ---
+
+    private boolean isInside(Room room) {
+        return eyeX >= room.minX && eyeX <= room.maxX && eyeZ >= room.minZ && eyeZ <= room.maxZ;
+    }
+
+    private RoomGraph.Connection tunnelAt(Room owner) {
+        for (RoomGraph.Connection connection : graph.getConnections(owner)) {
+            Tunnel tunnel = connection.tunnel;
+            if (eyeX >= tunnel.minX && eyeX <= tunnel.maxX && eyeZ >= tunnel.minZ && eyeZ <= tunnel.maxZ) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    // --- Stats ---
+
+    /** @return Rooms found visible by the last update. */
+    public int getVisibleRoomCount() {
+        return visibleRooms.size();
+    }
+
+    /** @return Doorways looked through by the last update. */
+    public int getPortalsTested() {
+        return portalsTested;
+    }
+}
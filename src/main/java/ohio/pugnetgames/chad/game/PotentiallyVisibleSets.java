@@ -0,0 +1,388 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.Room.RoomType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * For every room, the rooms that might be visible from anywhere inside it
+ * (or inside the tunnels drawn with it), worked out once when the world is
+ * generated. The renderer then just draws the current room's set instead of
+ * walking doorways every frame like {@link PortalCuller} does.
+ *
+ * A room can see the next one along a chain of doorways only if some straight
+ * line passes through every doorway of the chain. The test is done from
+ * above, on the doorways' footprints, which can only let more through than
+ * the real 3D openings would, so the sets are conservative.
+ *
+ * Courtyards have no visible walls: a room sees into one, and past it, along
+ * every line that gets through the doorways on the way, so every room those
+ * lines reach is in the set. From inside a courtyard, everything is.
+ *
+ * "Everything" stops at {@link #VIEW_DISTANCE}, the renderer's far plane:
+ * rooms farther than that from every point of a room are never in its set.
+ *
+ * Sets are computed per room on the common fork/join pool, like room
+ * geometry, and saved with the world snapshot. They're only valid for the
+ * rooms the world had when they were computed.
+ */
+public class PotentiallyVisibleSets {
+
+    private static final float PORTAL_PADDING = 0.1f; // Same as PortalCuller
+    private static final int MAX_CHAINS = 200_000; // Doorway chains tried per room before giving up and seeing everything
+    private static final double ANGLE_EPSILON = 1e-9;
+
+    /**
+     * Matches GamePanel's far plane. (The far plane's corners reach a little
+     * past it with a very wide field of view, deep inside the fog.)
+     */
+    public static final float VIEW_DISTANCE = 100.0f;
+
+    private final List<Room> rooms;
+    // visible[i] = indices of the rooms room i can see, sorted, including i
+    private final int[][] visible;
+    private final List<List<Room>> visibleRooms;
+
+    private PotentiallyVisibleSets(List<Room> rooms, int[][] visible) {
+        this.rooms = new ArrayList<>(rooms);
+        this.visible = visible;
+        this.visibleRooms = new ArrayList<>(visible.length);
+        for (int[] set : visible) {
+            List<Room> list = new ArrayList<>(set.length);
+            for (int index : set) {
+                list.add(this.rooms.get(index));
+            }
+            visibleRooms.add(Collections.unmodifiableList(list));
+        }
+    }
+
+    /**
+     * Works out every room's set, spread over the common fork/join pool.
+     */
+    public static PotentiallyVisibleSets compute(RoomGraph graph) {
+        long startTime = System.currentTimeMillis();
+        List<Room> rooms = graph.getRooms();
+        float[] areas = areaBounds(graph);
+        List<int[]> sets = IntStream.range(0, rooms.size())
+                .parallel()
+                .mapToObj(i -> new Search(graph, areas).run(rooms.get(i)))
+                .collect(Collectors.toList());
+        PotentiallyVisibleSets pvs = new PotentiallyVisibleSets(rooms, sets.toArray(new int[0][]));
+        System.out.println("[PotentiallyVisibleSets - compute] " + rooms.size() + " rooms, "
+                + String.format("%.1f", pvs.getAverageSetSize()) + " visible on average, in "
+                + (System.currentTimeMillis() - startTime) + " ms.");
+        return pvs;
+    }
+
+    /**
+     * Each room's bounds including the tunnels drawn with it, as
+     * minX, minZ, maxX, maxZ per room index.
+     */
+    private static float[] areaBounds(RoomGraph graph) {
+        float[] areas = new float[graph.getRoomCount() * 4];
+        for (Room room : graph.getRooms()) {
+            int o = room.index * 4;
+            areas[o] = room.minX;
+            areas[o + 1] = room.minZ;
+            areas[o + 2] = room.maxX;
+            areas[o + 3] = room.maxZ;
+            for (RoomGraph.Connection connection : graph.getConnections(room)) {
+                if (!owns(room, connection)) continue;
+                Tunnel tunnel = connection.tunnel;
+                areas[o] = Math.min(areas[o], tunnel.minX);
+                areas[o + 1] = Math.min(areas[o + 1], tunnel.minZ);
+                areas[o + 2] = Math.max(areas[o + 2], tunnel.maxX);
+                areas[o + 3] = Math.max(areas[o + 3], tunnel.maxZ);
+            }
+        }
+        return areas;
+    }
+
+    /** @return true if the tunnel is drawn with the room (see RoomGraph#getRoomAt). */
+    private static boolean owns(Room room, RoomGraph.Connection connection) {
+        return connection.isEscape() ? connection.from == room : connection.to == room;
+    }
+
+    // --- Queries ---
+
+    /** @return true if the room was in the world when the sets were computed. */
+    public boolean covers(Room room) {
+        return room.index >= 0 && room.index < visible.length && rooms.get(room.index) == room;
+    }
+
+    /** @return The rooms visible from the given one, itself included (read-only). */
+    public List<Room> get(Room room) {
+        return visibleRooms.get(room.index);
+    }
+
+    public double getAverageSetSize() {
+        long total = 0;
+        for (int[] set : visible) {
+            total += set.length;
+        }
+        return visible.length == 0 ? 0 : (double) total / visible.length;
+    }
+
+    // --- Saving ---
+
+    /**
+     * Writes every set as a count and the room indices.
+     */
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(visible.length);
+        for (int[] set : visible) {
+            out.writeInt(set.length);
+            for (int index : set) {
+                out.writeInt(index);
+            }
+        }
+    }
+
+    /**
+     * Reads sets written by {@link #writeTo} for the given rooms.
+     *
+     * @throws IOException if they were written for a different number of rooms.
+     */
+    static PotentiallyVisibleSets readFrom(ByteBuffer in, List<Room> rooms) throws IOException {
+        int count = in.getInt();
+        if (count != rooms.size()) {
+            throw new IOException("visibility sets are for " + count + " rooms, world has " + rooms.size());
+        }
+        int[][] visible = new int[count][];
+        for (int i = 0; i < count; i++) {
+            visible[i] = new int[in.getInt()];
+            in.asIntBuffer().get(visible[i]);
+            in.position(in.position() + visible[i].length * Integer.BYTES);
+        }
+        return new PotentiallyVisibleSets(rooms, visible);
+    }
+
+    // --- Working out one room's set ---
+
+    /**
+     * Depth-first walk over chains of doorways starting in one room. Each
+     * doorway is a segment on the ground crossed in a known direction, kept
+     * as its left and right ends as seen when crossing it.
+     */
+    private static final class Search {
+        private final RoomGraph graph;
+        private final float[] areas;
+        private final BitSet seen = new BitSet();
+        private final boolean[] onPath;
+        // Rooms close enough to the source to be drawn at all
+        private final BitSet inRange = new BitSet();
+        private final List<Room> candidates = new ArrayList<>();
+
+        // Doorways of the current chain: left end, right end
+        private double[] leftX = new double[16], leftZ = new double[16];
+        private double[] rightX = new double[16], rightZ = new double[16];
+        private int depth;
+
+        private double[] angles = new double[256];
+        private int chains;
+        private boolean everything;
+
+        Search(RoomGraph graph, float[] areas) {
+            this.graph = graph;
+            this.areas = areas;
+            this.onPath = new boolean[graph.getRoomCount()];
+        }
+
+        int[] run(Room source) {
+            int s = source.index * 4;
+            for (Room room : graph.getRooms()) {
+                int o = room.index * 4;
+                float dx = Math.max(0.0f, Math.max(areas[o] - areas[s + 2], areas[s] - areas[o + 2]));
+                float dz = Math.max(0.0f, Math.max(areas[o + 1] - areas[s + 3], areas[s + 1] - areas[o + 3]));
+                if (dx * dx + dz * dz <= VIEW_DISTANCE * VIEW_DISTANCE) {
+                    inRange.set(room.index);
+                    candidates.add(room);
+                }
+            }
+
+            seen.set(source.index);
+            if (source.getType() == RoomType.COURTYARD) {
+                everything = true;
+            } else {
+                explore(source, null);
+            }
+            // Standing in one of the room's own tunnels, the doorways at either end are the first in the chain
+            for (RoomGraph.Connection connection : graph.getConnections(source)) {
+                if (everything) break;
+                if (!owns(source, connection)) continue;
+                Direction intoSource = connection.doorwayIn(source).wall.getOpposite();
+                push(connection.doorwayIn(source), intoSource);
+                explore(source, connection);
+                pop();
+                if (!connection.isEscape()) {
+                    Room other = connection.other(source);
+                    seen.set(other.index);
+                    push(connection.doorwayIn(other), intoSource.getOpposite());
+                    explore(other, connection);
+                    pop();
+                }
+            }
+            if (everything) {
+                seen.or(inRange);
+            }
+            return seen.stream().toArray();
+        }
+
+        private void explore(Room room, RoomGraph.Connection cameFrom) {
+            if (everything) return;
+            if (room.getType() == RoomType.COURTYARD) {
+                if (depth == 0) everything = true;
+                else seeThroughCourtyard();
+                return;
+            }
+            onPath[room.index] = true;
+            for (RoomGraph.Connection connection : graph.getConnections(room)) {
+                if (connection == cameFrom || connection.isEscape()) continue;
+                Room next = connection.other(room);
+                if (onPath[next.index] || !inRange.get(next.index)) continue;
+                if (++chains > MAX_CHAINS) {
+                    everything = true;
+                    break;
+                }
+                Direction travel = connection.doorwayIn(room).wall;
+                push(connection.doorwayIn(room), travel);
+                if (isStabbable()) {
+                    // Seeing into the tunnel is enough to draw next, it's drawn with one of the two
+                    seen.set(next.index);
+                    push(connection.doorwayIn(next), travel);
+                    if (isStabbable()) {
+                        explore(next, connection);
+                    }
+                    pop();
+                }
+                pop();
+                if (everything) break;
+            }
+            onPath[room.index] = false;
+        }
+
+        /**
+         * Past a courtyard nothing blocks the view, so any room (or tunnel
+         * drawn with it) that a line through the whole chain reaches on the
+         * far side of the last doorway is visible.
+         */
+        private void seeThroughCourtyard() {
+            // The last doorway's line, and which side of it is "beyond"
+            int last = depth - 1;
+            boolean alongZ = leftZ[last] == rightZ[last];
+            double line = alongZ ? leftZ[last] : leftX[last];
+            // Crossing with the left end at lower x means heading +Z; with the left end at higher z, heading +X
+            double sign = alongZ ? (leftX[last] < rightX[last] ? 1 : -1) : (leftZ[last] > rightZ[last] ? 1 : -1);
+
+            for (Room room : candidates) {
+                if (seen.get(room.index)) continue;
+                if (reachesBeyond(room.minX, room.minZ, room.maxX, room.maxZ, alongZ, line, sign)) {
+                    seen.set(room.index);
+                    continue;
+                }
+                for (RoomGraph.Connection connection : graph.getConnections(room)) {
+                    Tunnel tunnel = connection.tunnel;
+                    if (owns(room, connection) && reachesBeyond(tunnel.minX, tunnel.minZ, tunnel.maxX, tunnel.maxZ, alongZ, line, sign)) {
+                        seen.set(room.index);
+                        break;
+                    }
+                }
+            }
+        }
+
+        /** @return true if a line through the chain crosses the part of the box beyond the line. */
+        private boolean reachesBeyond(double minX, double minZ, double maxX, double maxZ,
+                                      boolean alongZ, double line, double sign) {
+            if (alongZ) {
+                if (sign > 0) minZ = Math.max(minZ, line);
+                else maxZ = Math.min(maxZ, line);
+            } else {
+                if (sign > 0) minX = Math.max(minX, line);
+                else maxX = Math.min(maxX, line);
+            }
+            if (minX > maxX || minZ > maxZ) return false;
+            // A line crosses a box exactly when it crosses one of its diagonals, either way round
+            return crossesSegment(minX, minZ, maxX, maxZ) || crossesSegment(maxX, maxZ, minX, minZ)
+                    || crossesSegment(minX, maxZ, maxX, minZ) || crossesSegment(maxX, minZ, minX, maxZ);
+        }
+
+        private boolean crossesSegment(double ax, double az, double bx, double bz) {
+            pushEnds(ax, az, bx, bz);
+            boolean result = isStabbable();
+            pop();
+            return result;
+        }
+
+        // --- The chain ---
+
+        private void push(RoomGraph.Doorway doorway, Direction travel) {
+            float minX = doorway.minX, maxX = doorway.maxX, minZ = doorway.minZ, maxZ = doorway.maxZ;
+            float midX = doorway.getCenterX(), midZ = doorway.getCenterZ();
+            switch (travel) {
+                case NORTH: pushEnds(minX - PORTAL_PADDING, midZ, maxX + PORTAL_PADDING, midZ); break;
+                case SOUTH: pushEnds(maxX + PORTAL_PADDING, midZ, minX - PORTAL_PADDING, midZ); break;
+                case EAST:  pushEnds(midX, maxZ + PORTAL_PADDING, midX, minZ - PORTAL_PADDING); break;
+                default:    pushEnds(midX, minZ - PORTAL_PADDING, midX, maxZ + PORTAL_PADDING); break;
+            }
+        }
+
+        private void pushEnds(double lx, double lz, double rx, double rz) {
+            if (depth == leftX.length) {
+                int size = depth * 2;
+                leftX = Arrays.copyOf(leftX, size);
+                leftZ = Arrays.copyOf(leftZ, size);
+                rightX = Arrays.copyOf(rightX, size);
+                rightZ = Arrays.copyOf(rightZ, size);
+            }
+            leftX[depth] = lx;
+            leftZ[depth] = lz;
+            rightX[depth] = rx;
+            rightZ[depth] = rz;
+            depth++;
+        }
+
+        private void pop() {
+            depth--;
+        }
+
+        /**
+         * Is there a directed line with every doorway's left end on its left
+         * (or on it) and right end on its right? Writing the line as
+         * n . p + c = 0 with n its left normal, that needs
+         * n . (left_j - right_i) >= 0 for every pair, so n has to be within 90
+         * degrees of all those vectors: they must fit in a half circle, which
+         * is the same as the widest gap between their angles being at least 180.
+         */
+        private boolean isStabbable() {
+            if (depth <= 1) return true;
+            int count = 0;
+            if (angles.length < depth * depth) {
+                angles = new double[depth * depth * 2];
+            }
+            for (int i = 0; i < depth; i++) {
+                for (int j = 0; j < depth; j++) {
+                    double vx = leftX[j] - rightX[i];
+                    double vz = leftZ[j] - rightZ[i];
+                    if (vx == 0 && vz == 0) continue;
+                    angles[count++] = Math.atan2(vz, vx);
+                }
+            }
+            if (count <= 1) return true;
+            Arrays.sort(angles, 0, count);
+            double widestGap = angles[0] + 2 * Math.PI - angles[count - 1];
+            for (int k = 1; k < count; k++) {
+                widestGap = Math.max(widestGap, angles[k] - angles[k - 1]);
+            }
+            return widestGap >= Math.PI - ANGLE_EPSILON;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.GameObject.ShapeType;
+
+import java.util.List;
+
+/**
+ * A prop type (table, bed, tree...) defined once as a fixed set of parts.
+ * Placing it just picks a position: the parts are stamped out as static
+ * objects (collision, the nav grid and the minimap all work on those) and
+ * each one points back to the same {@link PropInstance}, so anything that
+ * wants to can treat the whole prop as one unit with one bounding box.
+ *
+ * Prefabs are registered in {@link PrefabRegistry}.
+ */
+public final class Prefab {
+
+    /** Which of the world's textures a part uses. */
+    public enum TextureSlot { NONE, WOOD, SHEETS }
+
+    /**
+     * One piece of a prefab. Offsets are from the prop's position to the
+     * part's base (the same "standing on y" convention GameObject uses).
+     */
+    public static final class Part {
+        public final ShapeType shape;
+        public final float offsetX, offsetY, offsetZ;
+        public final float scaleX, scaleY, scaleZ;
+        /** Used when the part has no texture (or its texture isn't loaded). */
+        public final float colorR, colorG, colorB;
+        public final TextureSlot texture;
+        public final boolean collidable, rendered;
+
+        public Part(ShapeType shape, float offsetX, float offsetY, float offsetZ,
+                    float scaleX, float scaleY, float scaleZ,
+                    float r, float g, float b, TextureSlot texture, boolean collidable, boolean rendered) {
+            this.shape = shape;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.offsetZ = offsetZ;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            this.scaleZ = scaleZ;
+            this.colorR = r;
+            this.colorG = g;
+            this.colorB = b;
+            this.texture = texture;
+            this.collidable = collidable;
+            this.rendered = rendered;
+        }
+    }
+
+    public final String name;
+    private final Part[] parts;
+
+    // Bounding box of all parts, relative to the prop's position
+    public final float minX, minY, minZ, maxX, maxY, maxZ;
+
+    public Prefab(String name, Part... parts) {
+        this.name = name;
+        this.parts = parts.clone();
+
+        float loX = Float.MAX_VALUE, loY = Float.MAX_VALUE, loZ = Float.MAX_VALUE;
+        float hiX = -Float.MAX_VALUE, hiY = -Float.MAX_VALUE, hiZ = -Float.MAX_VALUE;
+        for (Part part : parts) {
+            // Spheres are drawn with their scale as the radius, boxes with it as the size
+            float half = part.shape == ShapeType.SPHERE ? 1.0f : 0.5f;
+            float centerY = part.offsetY + part.scaleY / 2.0f;
+            loX = Math.min(loX, part.offsetX - part.scaleX * half);
+            hiX = Math.max(hiX, part.offsetX + part.scaleX * half);
+            loY = Math.min(loY, centerY - part.scaleY * half);
+            hiY = Math.max(hiY, centerY + part.scaleY * half);
+            loZ = Math.min(loZ, part.offsetZ - part.scaleZ * half);
+            hiZ = Math.max(hiZ, part.offsetZ + part.scaleZ * half);
+        }
+        this.minX = loX;
+        this.minY = loY;
+        this.minZ = loZ;
+        this.maxX = hiX;
+        this.maxY = hiY;
+        this.maxZ = hiZ;
+    }
+
+    public int getPartCount() {
+        return parts.length;
+    }
+
+    public Part getPart(int i) {
+        return parts[i];
+    }
+
+    /**
+     * Places the prop and adds its parts to the list, in part order.
+     *
+     * @param woodTextureID   Texture for WOOD parts, or 0 to draw them in their color.
+     * @param sheetsTextureID Texture for SHEETS parts, or 0 to draw them in their color.
+     * @return The placed prop, which every added part points to.
+     */
+    public PropInstance place(float x, float y, float z, int woodTextureID, int sheetsTextureID, List<GameObject> out) {
+        PropInstance prop = new PropInstance(this, x, y, z);
+        for (Part part : parts) {
+            int textureID = part.texture == TextureSlot.WOOD ? woodTextureID
+                    : part.texture == TextureSlot.SHEETS ? sheetsTextureID : 0;
+            GameObject obj;
+            if (textureID != 0) {
+                obj = new GameObject(part.shape, x + part.offsetX, y + part.offsetY, z + part.offsetZ,
+                        part.scaleX, part.scaleY, part.scaleZ, textureID, part.collidable, part.rendered);
+            } else {
+                obj = new GameObject(part.shape, x + part.offsetX, y + part.offsetY, z + part.offsetZ,
+                        part.scaleX, part.scaleY, part.scaleZ, part.colorR, part.colorG, part.colorB,
+                        part.collidable, part.rendered);
+            }
+            obj.setProp(prop);
+            out.add(obj);
+        }
+        return prop;
+    }
+}
@@ -0,0 +1,115 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.GameObject.ShapeType;
+import ohio.pugnetgames.chad.game.Prefab.Part;
+import ohio.pugnetgames.chad.game.Prefab.TextureSlot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every prop the game can place, each defined once. World generation, key
+ * tables and the admin spawn menu all place props from here.
+ *
+ * A prefab's id is its position in the registry; snapshots store that id,
+ * so only ever add new prefabs at the end.
+ */
+public final class PrefabRegistry {
+
+    // --- Table ---
+    public static final float TABLE_TOP_W = 1.2f; // width (x)
+    public static final float TABLE_TOP_D = 0.8f; // depth (z)
+    public static final float TABLE_TOP_H = 0.1f;
+    public static final float TABLE_TOP_Y = 0.8f; // Height of table surface
+    private static final float TABLE_LEG_HEIGHT = 0.8f;
+    private static final float TABLE_LEG_SIZE = 0.15f;
+    private static final float TABLE_LEG_OFFSET_X = (TABLE_TOP_W / 2.0f) - (TABLE_LEG_SIZE / 2.0f);
+    private static final float TABLE_LEG_OFFSET_Z = (TABLE_TOP_D / 2.0f) - (TABLE_LEG_SIZE / 2.0f);
+
+    // --- Bed (long side along X, headboard on the +Z side) ---
+    public static final float BED_WIDTH = 2.5f;  // Z-axis
+    public static final float BED_LENGTH = 3.0f; // X-axis
+    private static final float BED_HEIGHT = 0.4f; // Mattress
+    private static final float BED_LEG_HEIGHT = 0.35f;
+    private static final float BED_LEG_SIZE = 0.15f;
+    private static final float BED_LEG_OFFSET_X = BED_LENGTH / 2 - BED_LEG_SIZE / 2;
+    private static final float BED_LEG_OFFSET_Z = BED_WIDTH / 2 - BED_LEG_SIZE / 2;
+    private static final float HEADBOARD_HEIGHT = 1.2f;
+    private static final float HEADBOARD_THICKNESS = 0.1f;
+
+    // --- Tree ---
+    public static final float TRUNK_HEIGHT = 4.0f;
+    private static final float TRUNK_WIDTH = 0.4f;
+    public static final float LEAF_RADIUS = 2.0f;
+
+    // Brown, for wood parts drawn without the wood texture
+    private static final float WOOD_R = 0.5f, WOOD_G = 0.3f, WOOD_B = 0.0f;
+
+    private static final List<Prefab> PREFABS = new ArrayList<>();
+    private static final Map<String, Prefab> BY_NAME = new HashMap<>();
+
+    public static final Prefab TABLE = register(new Prefab("TABLE",
+            woodBox(0.0f, TABLE_TOP_Y - (TABLE_TOP_H / 2.0f), 0.0f, TABLE_TOP_W, TABLE_TOP_H, TABLE_TOP_D),
+            woodBox(-TABLE_LEG_OFFSET_X, 0.0f, -TABLE_LEG_OFFSET_Z, TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE),
+            woodBox(TABLE_LEG_OFFSET_X, 0.0f, -TABLE_LEG_OFFSET_Z, TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE),
+            woodBox(-TABLE_LEG_OFFSET_X, 0.0f, TABLE_LEG_OFFSET_Z, TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE),
+            woodBox(TABLE_LEG_OFFSET_X, 0.0f, TABLE_LEG_OFFSET_Z, TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE)));
+
+    public static final Prefab BED = register(new Prefab("BED",
+            woodBox(-BED_LEG_OFFSET_X, 0.0f, -BED_LEG_OFFSET_Z, BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE),
+            woodBox(BED_LEG_OFFSET_X, 0.0f, -BED_LEG_OFFSET_Z, BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE),
+            woodBox(-BED_LEG_OFFSET_X, 0.0f, BED_LEG_OFFSET_Z, BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE),
+            woodBox(BED_LEG_OFFSET_X, 0.0f, BED_LEG_OFFSET_Z, BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE),
+            new Part(ShapeType.CUBE, 0.0f, BED_LEG_HEIGHT, 0.0f, BED_LENGTH, BED_HEIGHT, BED_WIDTH,
+                    1.0f, 1.0f, 1.0f, TextureSlot.SHEETS, true, true),
+            woodBox(0.0f, BED_LEG_HEIGHT, (BED_WIDTH / 2.0f) + (HEADBOARD_THICKNESS / 2.0f),
+                    BED_LENGTH, HEADBOARD_HEIGHT, HEADBOARD_THICKNESS)));
+
+    public static final Prefab TREE = register(new Prefab("TREE",
+            new Part(ShapeType.CUBE, 0.0f, 0.0f, 0.0f, TRUNK_WIDTH, TRUNK_HEIGHT, TRUNK_WIDTH,
+                    WOOD_R, WOOD_G, WOOD_B, TextureSlot.NONE, true, true),
+            new Part(ShapeType.SPHERE, 0.0f, TRUNK_HEIGHT, 0.0f, LEAF_RADIUS, LEAF_RADIUS, LEAF_RADIUS,
+                    0.0f, 0.7f, 0.0f, TextureSlot.NONE, false, true)));
+
+    private PrefabRegistry() {}
+
+    private static Part woodBox(float x, float y, float z, float sx, float sy, float sz) {
+        return new Part(ShapeType.CUBE, x, y, z, sx, sy, sz, WOOD_R, WOOD_G, WOOD_B, TextureSlot.WOOD, true, true);
+    }
+
+    /**
+     * Adds a prefab at the end of the registry.
+     *
+     * @throws IllegalArgumentException if the name is taken.
+     */
+    public static synchronized Prefab register(Prefab prefab) {
+        if (BY_NAME.containsKey(prefab.name)) {
+            throw new IllegalArgumentException("prefab " + prefab.name + " is already registered");
+        }
+        PREFABS.add(prefab);
+        BY_NAME.put(prefab.name, prefab);
+        return prefab;
+    }
+
+    /** @return The prefab with this name (e.g. "TABLE"), or null. */
+    public static synchronized Prefab get(String name) {
+        return BY_NAME.get(name);
+    }
+
+    /** @return The prefab with this id, or null. */
+    public static synchronized Prefab byId(int id) {
+        return id >= 0 && id < PREFABS.size() ? PREFABS.get(id) : null;
+    }
+
+    /** @return The prefab's id (its registration order). */
+    public static synchronized int idOf(Prefab prefab) {
+        return PREFABS.indexOf(prefab);
+    }
+
+    public static synchronized List<Prefab> getAll() {
+        return Collections.unmodifiableList(new ArrayList<>(PREFABS));
+    }
+}
@@ -0,0 +1,277 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+/**
+ * Unit-sized cube, plane and spheres, built once into one vertex buffer, for
+ * the objects that are still drawn one at a time (the escape door, the win
+ * trigger, spheres, key stand-ins, and everything when static meshes are
+ * turned off).
+ *
+ * Drawing one is a model transform (glScalef on top of whatever the caller
+ * set up) and a glDrawArrays, with no glBegin/glEnd and no trig per frame.
+ * The same vertices come out as {@link GameObject}'s immediate-mode
+ * drawCube/drawPlane/drawSphere.
+ *
+ * Textures tile with the object's size, like before: the texture matrix is
+ * scaled by the two sizes a face spans. A cube's faces span three different
+ * pairs, so a textured cube is three draws (one per pair of opposite faces);
+ * an untextured one is one.
+ *
+ * With the shader pipeline ({@link RenderPipeline}) the same vertices are
+ * drawn through {@link #getVertexArray()}: each vertex also says which of
+ * the object's sizes its texture coordinates are scaled by, so a textured
+ * cube is one draw there.
+ *
+ * {@link #init()} must run on the GL thread before anything is drawn. Until
+ * it has, {@link #isReady()} is false and callers fall back to immediate mode.
+ */
+public final class PrimitiveMeshes {
+
+    private static final int FLOATS_PER_VERTEX = 10; // Position, normal, texture coords, tile axes
+    private static final int STRIDE = FLOATS_PER_VERTEX * 4;
+
+    /** Sphere tessellations (rings = sectors). GameObject draws MEDIUM. */
+    public enum SphereDetail {
+        LOW(8), MEDIUM(16), HIGH(32);
+
+        final int segments;
+        int first, count;
+
+        SphereDetail(int segments) {
+            this.segments = segments;
+        }
+    }
+
+    // Vertex ranges in the shared buffer. The cube is stored as three pairs of
+    // opposite faces: X/Y (front, back), X/Z (top, bottom), Z/Y (right, left).
+    private static final int CUBE_PAIR_VERTICES = 2 * 6;
+    private static int cubeFirst;
+    private static int planeFirst;
+
+    private static int vbo;
+    private static int vao; // Only made when the shader pipeline asks for it
+    private static boolean bound; // Between begin() and end()
+
+    private PrimitiveMeshes() {}
+
+    /** Builds and uploads every primitive. Safe to call more than once. */
+    public static void init() {
+        if (vbo != 0) return;
+        int vertexCount = WorldMeshCache.CUBE_FACES.length * 6 + 6;
+        for (SphereDetail detail : SphereDetail.values()) {
+            vertexCount += detail.segments * detail.segments * 6;
+        }
+        FloatBuffer data = BufferUtils.createFloatBuffer(vertexCount * FLOATS_PER_VERTEX);
+
+        cubeFirst = 0;
+        for (float[] face : WorldMeshCache.CUBE_FACES) {
+            putFace(data, face);
+        }
+        planeFirst = data.position() / FLOATS_PER_VERTEX;
+        putFace(data, WorldMeshCache.PLANE_FACE);
+        for (SphereDetail detail : SphereDetail.values()) {
+            detail.first = data.position() / FLOATS_PER_VERTEX;
+            putSphere(data, detail.segments);
+            detail.count = data.position() / FLOATS_PER_VERTEX - detail.first;
+        }
+        data.flip();
+
+        vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glBufferData(GL_ARRAY_BUFFER, data, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        System.out.println("[PrimitiveMeshes - init] Uploaded " + vertexCount + " vertices.");
+    }
+
+    public static boolean isReady() {
+        return vbo != 0;
+    }
+
+    // --- Building ---
+
+    /**
+     * One face of the unit cube (or the unit plane) as two triangles. Texture
+     * coordinates are 0 or 1; the texture matrix scales them to the size.
+     */
+    private static void putFace(FloatBuffer data, float[] face) {
+        for (int c : new int[]{0, 1, 2, 0, 2, 3}) {
+            int k = 3 + c * 5;
+            data.put(face[k] * 0.5f).put(face[k + 1] * 0.5f).put(face[k + 2] * 0.5f);
+            data.put(face[0]).put(face[1]).put(face[2]);
+            data.put(face[k + 3] != 0 ? 1.0f : 0.0f).put(face[k + 4] != 0 ? 1.0f : 0.0f);
+            data.put(face[k + 3]).put(face[k + 4]);
+        }
+    }
+
+    /** Same quads GameObject.drawSphere(1, n, n) draws, as triangles. */
+    private static void putSphere(FloatBuffer data, int segments) {
+        float step = 1.0f / (segments - 1);
+        for (int r = 0; r < segments; r++) {
+            for (int s = 0; s < segments; s++) {
+                for (int c : new int[]{0, 1, 2, 0, 2, 3}) {
+                    int rr = r + (c >= 2 ? 1 : 0);
+                    int ss = s + (c == 1 || c == 2 ? 1 : 0);
+                    float y = (float) Math.cos(Math.PI * rr * step);
+                    float ring = (float) Math.sin(Math.PI * rr * step);
+                    float x = ring * (float) Math.cos(2 * Math.PI * ss * step);
+                    float z = ring * (float) Math.sin(2 * Math.PI * ss * step);
+                    data.put(x).put(y).put(z);
+                    data.put(x).put(y).put(z);
+                    data.put(ss * step).put(rr * step);
+                    data.put(0.0f).put(0.0f); // Not tiled
+                }
+            }
+        }
+    }
+
+    // --- Drawing ---
+
+    /**
+     * Binds the buffer and turns the vertex arrays on, for drawing many
+     * primitives in a row. Pair with {@link #end()}.
+     */
+    public static void begin() {
+        glBindBuffer(GL_ARRAY_BUFFER, vbo);
+        glEnableClientState(GL_VERTEX_ARRAY);
+        glEnableClientState(GL_NORMAL_ARRAY);
+        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+        glVertexPointer(3, GL_FLOAT, STRIDE, 0L);
+        glNormalPointer(GL_FLOAT, STRIDE, 3 * 4L);
+        glTexCoordPointer(2, GL_FLOAT, STRIDE, 6 * 4L);
+        bound = true;
+    }
+
+    public static void end() {
+        glDisableClientState(GL_VERTEX_ARRAY);
+        glDisableClientState(GL_NORMAL_ARRAY);
+        glDisableClientState(GL_TEXTURE_COORD_ARRAY);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        bound = false;
+    }
+
+    /**
+     * Draws a box of the given size centered on the current origin, like
+     * GameObject.drawCube().
+     *
+     * @param textured Whether a texture is bound (it then tiles with the size).
+     */
+    public static void drawCube(float sizeX, float sizeY, float sizeZ, boolean textured) {
+        boolean wasBound = bound;
+        if (!wasBound) begin();
+        glPushMatrix();
+        glScalef(sizeX, sizeY, sizeZ);
+        if (textured) {
+            drawTiled(cubeFirst, CUBE_PAIR_VERTICES, sizeX, sizeY);
+            drawTiled(cubeFirst + CUBE_PAIR_VERTICES, CUBE_PAIR_VERTICES, sizeX, sizeZ);
+            drawTiled(cubeFirst + 2 * CUBE_PAIR_VERTICES, CUBE_PAIR_VERTICES, sizeZ, sizeY);
+        } else {
+            glDrawArrays(GL_TRIANGLES, cubeFirst, 3 * CUBE_PAIR_VERTICES);
+        }
+        glPopMatrix();
+        if (!wasBound) end();
+    }
+
+    /** Draws a flat XZ plane of the given size at the current origin, like GameObject.drawPlane(). */
+    public static void drawPlane(float sizeX, float sizeZ, boolean textured) {
+        boolean wasBound = bound;
+        if (!wasBound) begin();
+        glPushMatrix();
+        glScalef(sizeX, 1.0f, sizeZ);
+        if (textured) {
+            drawTiled(planeFirst, 6, sizeX, sizeZ);
+        } else {
+            glDrawArrays(GL_TRIANGLES, planeFirst, 6);
+        }
+        glPopMatrix();
+        if (!wasBound) end();
+    }
+
+    /**
+     * Draws a sphere with the given radii at the current origin. The texture
+     * wraps once around it whatever its size, as before.
+     */
+    public static void drawSphere(float radiusX, float radiusY, float radiusZ, SphereDetail detail) {
+        boolean wasBound = bound;
+        if (!wasBound) begin();
+        glPushMatrix();
+        glScalef(radiusX, radiusY, radiusZ);
+        glDrawArrays(GL_TRIANGLES, detail.first, detail.count);
+        glPopMatrix();
+        if (!wasBound) end();
+    }
+
+    // --- Shader pipeline ---
+
+    /**
+     * @return A vertex array over the shared buffer with position at
+     *         location 0, texture coords at 2 and tile axes at 6 (see
+     *         shaders/world.vert). Made on first use; needs GL 3.0.
+     */
+    public static int getVertexArray() {
+        if (vao == 0) {
+            vao = glGenVertexArrays();
+            GLStateCache.bindVertexArray(vao);
+            glBindBuffer(GL_ARRAY_BUFFER, vbo);
+            glEnableVertexAttribArray(RenderPipeline.ATTRIB_POSITION);
+            glVertexAttribPointer(RenderPipeline.ATTRIB_POSITION, 3, GL_FLOAT, false, STRIDE, 0L);
+            glEnableVertexAttribArray(RenderPipeline.ATTRIB_TEX_COORD);
+            glVertexAttribPointer(RenderPipeline.ATTRIB_TEX_COORD, 2, GL_FLOAT, false, STRIDE, 6 * 4L);
+            glEnableVertexAttribArray(RenderPipeline.ATTRIB_TILE_AXIS);
+            glVertexAttribPointer(RenderPipeline.ATTRIB_TILE_AXIS, 2, GL_FLOAT, false, STRIDE, 8 * 4L);
+            GLStateCache.bindVertexArray(0);
+            glBindBuffer(GL_ARRAY_BUFFER, 0);
+        }
+        return vao;
+    }
+
+    /** @return The first vertex of a shape (spheres at MEDIUM detail) in the shared buffer. */
+    public static int getFirst(GameObject.ShapeType shape) {
+        switch (shape) {
+            case PLANE:  return planeFirst;
+            case SPHERE: return SphereDetail.MEDIUM.first;
+            default:     return cubeFirst;
+        }
+    }
+
+    /** @return How many vertices (as triangles) {@link #getFirst} is followed by. */
+    public static int getCount(GameObject.ShapeType shape) {
+        switch (shape) {
+            case PLANE:  return 6;
+            case SPHERE: return SphereDetail.MEDIUM.count;
+            default:     return 3 * CUBE_PAIR_VERTICES;
+        }
+    }
+
+    private static void drawTiled(int first, int count, float scaleU, float scaleV) {
+        glMatrixMode(GL_TEXTURE);
+        glLoadIdentity();
+        glScalef(scaleU, scaleV, 1.0f);
+        glMatrixMode(GL_MODELVIEW);
+        glDrawArrays(GL_TRIANGLES, first, count);
+        glMatrixMode(GL_TEXTURE);
+        glLoadIdentity();
+        glMatrixMode(GL_MODELVIEW);
+    }
+
+    // --- Cleanup ---
+
+    public static void cleanup() {
+        if (vao != 0) {
+            GLStateCache.deleteVertexArray(vao);
+            vao = 0;
+        }
+        if (vbo != 0) {
+            glDeleteBuffers(vbo);
+            vbo = 0;
+        }
+    }
+}
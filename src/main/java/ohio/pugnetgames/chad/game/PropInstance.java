@@ -0,0 +1,33 @@
+package ohio.pugnetgames.chad.game;
+
+/**
+ * One placed {@link Prefab}: which prop it is and where it stands. Every
+ * static object the placement created points back to its PropInstance
+ * through {@link GameObject#getProp()}.
+ */
+public final class PropInstance {
+
+    public final Prefab prefab;
+    public final float x, y, z;
+
+    // World-space bounding box of all the prop's parts
+    public final float minX, minY, minZ, maxX, maxY, maxZ;
+
+    public PropInstance(Prefab prefab, float x, float y, float z) {
+        this.prefab = prefab;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.minX = x + prefab.minX;
+        this.minY = y + prefab.minY;
+        this.minZ = z + prefab.minZ;
+        this.maxX = x + prefab.maxX;
+        this.maxY = y + prefab.maxY;
+        this.maxZ = z + prefab.maxZ;
+    }
+
+    /** @return true if the prop's footprint overlaps the given rectangle on the ground. */
+    public boolean overlaps(float otherMinX, float otherMinZ, float otherMaxX, float otherMaxZ) {
+        return minX < otherMaxX && maxX > otherMinX && minZ < otherMaxZ && maxZ > otherMinZ;
+    }
+}
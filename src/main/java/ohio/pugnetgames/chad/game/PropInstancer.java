@@ -0,0 +1,405 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.Prefab.TextureSlot;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL31.glDrawArraysInstanced;
+import static org.lwjgl.opengl.GL33.glVertexAttribDivisor;
+
+/**
+ * Draws placed props with hardware instancing. Each prefab's parts are built
+ * once into a vertex buffer in the prop's own space, and every placement of
+ * it becomes one entry (where it stands) in a per-instance buffer, so
+ * a hundred beds cost the same draw calls as one: one per prefab per
+ * texture it uses (a bed has wood and sheets, so two).
+ *
+ * Props are grouped by prefab and by the textures they were placed with
+ * (a prop placed without a texture is drawn in its parts' colors).
+ *
+ * The instances come from the world's prop placements ({@link GameObject#getProp()}),
+ * collected by {@link WorldMeshCache} whenever it re-syncs; a prop only
+ * counts if all its parts are still there and rendered, otherwise its parts
+ * are baked like any other object.
+ *
+ * Needs GL 3.3 (instanced arrays); see {@link #isSupported()}. The camera,
+ * ambient and fog come from {@link FrameUniforms}, which must be updated
+ * every frame props are drawn.
+ *
+ * GL thread only.
+ */
+public class PropInstancer {
+
+    private static final int FLOATS_PER_VERTEX = 8; // Position, texture coords, color
+    private static final int VERTEX_STRIDE = FLOATS_PER_VERTEX * 4;
+    private static final int FLOATS_PER_INSTANCE = 3; // Position; props are never rotated, scaled or tinted
+    private static final int INSTANCE_STRIDE = FLOATS_PER_INSTANCE * 4;
+
+    // Attribute locations (the shader's layout qualifiers)
+    private static final int ATTRIB_POSITION = 0;
+    private static final int ATTRIB_TEX_COORD = 1;
+    private static final int ATTRIB_COLOR = 2;
+    private static final int ATTRIB_OFFSET = 3;
+
+    // Same tessellation GameObject.render() draws spheres with
+    private static final int SPHERE_RINGS = 16;
+    private static final int SPHERE_SECTORS = 16;
+
+    private static final TextureSlot[] TEXTURE_SLOTS = TextureSlot.values();
+
+    /** One prefab's parts, as triangles grouped by texture slot. */
+    private static final class PrefabMesh {
+        final Prefab prefab;
+        int vbo;
+        final int[] first = new int[TEXTURE_SLOTS.length];
+        final int[] count = new int[TEXTURE_SLOTS.length];
+
+        PrefabMesh(Prefab prefab) {
+            this.prefab = prefab;
+        }
+    }
+
+    /** Every placement of one prefab with the same textures. */
+    private static final class Batch {
+        final PrefabMesh mesh;
+        final int[] textureIDs = new int[TEXTURE_SLOTS.length];
+        final List<PropInstance> props = new ArrayList<>();
+        final List<Room> rooms = new ArrayList<>(); // Each prop's room, or null
+        int instanceVbo;
+
+        Batch(PrefabMesh mesh, int woodTextureID, int sheetsTextureID) {
+            this.mesh = mesh;
+            textureIDs[TextureSlot.WOOD.ordinal()] = woodTextureID;
+            textureIDs[TextureSlot.SHEETS.ordinal()] = sheetsTextureID;
+        }
+    }
+
+    private final ShaderProgram program;
+    private final int texturedUniform;
+
+    private final List<PrefabMesh> meshes = new ArrayList<>();
+    private final List<Batch> batches = new ArrayList<>();
+    private FloatBuffer instanceData = BufferUtils.createFloatBuffer(64 * FLOATS_PER_INSTANCE);
+
+    // --- Stats ---
+    private int propCount;
+    private int drawCalls;
+    private int instancesDrawn;
+
+    /**
+     * @throws IOException if the shaders can't be loaded.
+     */
+    public PropInstancer() throws IOException {
+        program = new ShaderProgram("shaders/prop_instanced.vert", "shaders/prop_instanced.frag");
+        program.bindUniformBlock(FrameUniforms.BLOCK_NAME, FrameUniforms.BINDING);
+        texturedUniform = program.getUniformLocation("textured");
+        program.bind();
+        glUniform1i(program.getUniformLocation("diffuse"), 0);
+        ShaderProgram.unbind();
+    }
+
+    /** @return true if the current GL context can draw instanced props. */
+    public static boolean isSupported() {
+        GLCapabilities caps = GL.getCapabilities();
+        return caps.OpenGL33;
+    }
+
+    // --- Instances ---
+
+    /** Forgets every placed prop (the meshes are kept). */
+    public void clearInstances() {
+        for (Batch batch : batches) {
+            batch.props.clear();
+            batch.rooms.clear();
+        }
+        propCount = 0;
+    }
+
+    /**
+     * Adds a placed prop.
+     *
+     * @param woodTextureID   The texture its WOOD parts were placed with (0 for none).
+     * @param sheetsTextureID The texture its SHEETS parts were placed with (0 for none).
+     * @param room            The room it stands in, or null.
+     */
+    public void addInstance(PropInstance prop, int woodTextureID, int sheetsTextureID, Room room) {
+        Batch batch = batchFor(prop.prefab, woodTextureID, sheetsTextureID);
+        batch.props.add(prop);
+        batch.rooms.add(room);
+        propCount++;
+    }
+
+    private Batch batchFor(Prefab prefab, int woodTextureID, int sheetsTextureID) {
+        for (Batch batch : batches) {
+            if (batch.mesh.prefab == prefab && batch.textureIDs[TextureSlot.WOOD.ordinal()] == woodTextureID
+                    && batch.textureIDs[TextureSlot.SHEETS.ordinal()] == sheetsTextureID) {
+                return batch;
+            }
+        }
+        Batch batch = new Batch(meshFor(prefab), woodTextureID, sheetsTextureID);
+        batch.instanceVbo = glGenBuffers();
+        batches.add(batch);
+        return batch;
+    }
+
+    private PrefabMesh meshFor(Prefab prefab) {
+        for (PrefabMesh mesh : meshes) {
+            if (mesh.prefab == prefab) return mesh;
+        }
+        PrefabMesh mesh = buildMesh(prefab);
+        meshes.add(mesh);
+        return mesh;
+    }
+
+    // --- Rendering ---
+
+    /**
+     * Draws the props that are inside the frustum and in a visible room.
+     *
+     * @param frustum     The camera's frustum, or null to skip culling.
+     * @param roomVisible Indexed by {@link Room#index}, or null to draw props
+     *                    in every room. Props outside every room are always drawn.
+     */
+    public void render(Frustum frustum, boolean[] roomVisible) {
+        drawCalls = 0;
+        instancesDrawn = 0;
+        if (propCount == 0) return;
+
+        boolean started = false;
+        for (Batch batch : batches) {
+            int visible = fillInstances(batch, frustum, roomVisible);
+            if (visible == 0) continue;
+            if (!started) {
+                begin();
+                started = true;
+            }
+            glBindBuffer(GL_ARRAY_BUFFER, batch.instanceVbo);
+            glBufferData(GL_ARRAY_BUFFER, instanceData, GL_STREAM_DRAW);
+            glVertexAttribPointer(ATTRIB_OFFSET, 3, GL_FLOAT, false, INSTANCE_STRIDE, 0L);
+
+            PrefabMesh mesh = batch.mesh;
+            glBindBuffer(GL_ARRAY_BUFFER, mesh.vbo);
+            glVertexAttribPointer(ATTRIB_POSITION, 3, GL_FLOAT, false, VERTEX_STRIDE, 0L);
+            glVertexAttribPointer(ATTRIB_TEX_COORD, 2, GL_FLOAT, false, VERTEX_STRIDE, 3 * 4L);
+            glVertexAttribPointer(ATTRIB_COLOR, 3, GL_FLOAT, false, VERTEX_STRIDE, 5 * 4L);
+            for (int t = 0; t < TEXTURE_SLOTS.length; t++) {
+                if (mesh.count[t] == 0) continue;
+                int textureID = batch.textureIDs[t];
+                glUniform1i(texturedUniform, textureID != 0 ? 1 : 0);
+                if (textureID != 0) {
+                    GLStateCache.bindTexture(textureID);
+                }
+                glDrawArraysInstanced(GL_TRIANGLES, mesh.first[t], mesh.count[t], visible);
+                drawCalls++;
+            }
+            instancesDrawn += visible;
+        }
+        if (started) {
+            end();
+        }
+    }
+
+    /** Writes the batch's visible props into instanceData. @return How many. */
+    private int fillInstances(Batch batch, Frustum frustum, boolean[] roomVisible) {
+        int size = batch.props.size();
+        if (instanceData.capacity() < size * FLOATS_PER_INSTANCE) {
+            instanceData = BufferUtils.createFloatBuffer(Math.max(size, instanceData.capacity() / FLOATS_PER_INSTANCE * 2) * FLOATS_PER_INSTANCE);
+        }
+        instanceData.clear();
+        int parts = batch.mesh.prefab.getPartCount();
+        int visible = 0;
+        for (int p = 0; p < size; p++) {
+            Room room = batch.rooms.get(p);
+            if (roomVisible != null && room != null && (room.index >= roomVisible.length || !roomVisible[room.index])) {
+                continue;
+            }
+            PropInstance prop = batch.props.get(p);
+            if (frustum != null && !frustum.submitBox(prop.minX, prop.minY, prop.minZ, prop.maxX, prop.maxY, prop.maxZ, parts)) {
+                continue;
+            }
+            instanceData.put(prop.x).put(prop.y).put(prop.z);
+            visible++;
+        }
+        instanceData.flip();
+        return visible;
+    }
+
+    private void begin() {
+        program.bind();
+        glActiveTexture(GL_TEXTURE0);
+        for (int a = ATTRIB_POSITION; a <= ATTRIB_OFFSET; a++) {
+            glEnableVertexAttribArray(a);
+        }
+        glVertexAttribDivisor(ATTRIB_OFFSET, 1);
+    }
+
+    private void end() {
+        // Some drivers alias generic attributes with the fixed-function arrays,
+        // so put every location back the way the rest of the renderer expects
+        for (int a = ATTRIB_POSITION; a <= ATTRIB_OFFSET; a++) {
+            glVertexAttribDivisor(a, 0);
+            glDisableVertexAttribArray(a);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        ShaderProgram.unbind();
+    }
+
+    // --- Building a prefab's mesh ---
+
+    private PrefabMesh buildMesh(Prefab prefab) {
+        PrefabMesh mesh = new PrefabMesh(prefab);
+        float[] data = new float[0];
+        int vertexCount = 0;
+        // One pass per texture slot, so each slot is one range
+        for (int t = 0; t < TEXTURE_SLOTS.length; t++) {
+            mesh.first[t] = vertexCount;
+            for (int p = 0; p < prefab.getPartCount(); p++) {
+                Prefab.Part part = prefab.getPart(p);
+                if (part.texture != TEXTURE_SLOTS[t]) continue;
+                int needed = (vertexCount + partVertexCount(part)) * FLOATS_PER_VERTEX;
+                if (data.length < needed) {
+                    data = Arrays.copyOf(data, Math.max(needed, data.length * 2));
+                }
+                vertexCount = putPart(part, data, vertexCount);
+            }
+            mesh.count[t] = vertexCount - mesh.first[t];
+        }
+
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(vertexCount * FLOATS_PER_VERTEX);
+        buffer.put(data, 0, vertexCount * FLOATS_PER_VERTEX).flip();
+        mesh.vbo = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, mesh.vbo);
+        glBufferData(GL_ARRAY_BUFFER, buffer, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        System.out.println("[PropInstancer - buildMesh] " + prefab.name + ": " + vertexCount + " vertices.");
+        return mesh;
+    }
+
+    private static int partVertexCount(Prefab.Part part) {
+        switch (part.shape) {
+            case SPHERE: return SPHERE_RINGS * SPHERE_SECTORS * 6;
+            case PLANE:  return 6;
+            default:     return WorldMeshCache.CUBE_FACES.length * 6;
+        }
+    }
+
+    /** Writes one part as triangles, relative to the prop's position. @return The new vertex count. */
+    private static int putPart(Prefab.Part part, float[] data, int vertexCount) {
+        // Same center GameObject uses: standing on its offset
+        float cx = part.offsetX;
+        float cy = part.offsetY + part.scaleY / 2.0f;
+        float cz = part.offsetZ;
+        float[] quad = new float[4 * 5]; // x, y, z, u, v per corner
+
+        if (part.shape == GameObject.ShapeType.SPHERE) {
+            // Same quads as GameObject.drawSphere(1, 16, 16) under glScalef(scale)
+            float ringStep = 1.0f / (SPHERE_RINGS - 1);
+            float sectorStep = 1.0f / (SPHERE_SECTORS - 1);
+            for (int r = 0; r < SPHERE_RINGS; r++) {
+                for (int s = 0; s < SPHERE_SECTORS; s++) {
+                    for (int c = 0; c < 4; c++) {
+                        int rr = r + (c >= 2 ? 1 : 0);
+                        int ss = s + (c == 1 || c == 2 ? 1 : 0);
+                        float ringY = (float) Math.cos(Math.PI * rr * ringStep);
+                        float ringRadius = (float) Math.sin(Math.PI * rr * ringStep);
+                        float x = (float) Math.cos(2 * Math.PI * ss * sectorStep);
+                        float z = (float) Math.sin(2 * Math.PI * ss * sectorStep);
+                        setCorner(quad, c, cx + ringRadius * x * part.scaleX, cy + ringY * part.scaleY,
+                                cz + ringRadius * z * part.scaleZ, ss * sectorStep, rr * ringStep);
+                    }
+                    vertexCount = putQuad(part, quad, data, vertexCount);
+                }
+            }
+            return vertexCount;
+        }
+
+        float hx = part.scaleX / 2.0f, hy = part.scaleY / 2.0f, hz = part.scaleZ / 2.0f;
+        boolean plane = part.shape == GameObject.ShapeType.PLANE;
+        int faces = plane ? 1 : WorldMeshCache.CUBE_FACES.length;
+        for (int f = 0; f < faces; f++) {
+            float[] face = plane ? WorldMeshCache.PLANE_FACE : WorldMeshCache.CUBE_FACES[f];
+            for (int c = 0; c < 4; c++) {
+                int k = 3 + c * 5;
+                setCorner(quad, c, cx + face[k] * hx, cy + face[k + 1] * hy, cz + face[k + 2] * hz,
+                        texSize(part, (int) face[k + 3]), texSize(part, (int) face[k + 4]));
+            }
+            vertexCount = putQuad(part, quad, data, vertexCount);
+        }
+        return vertexCount;
+    }
+
+    private static void setCorner(float[] quad, int c, float x, float y, float z, float u, float v) {
+        quad[c * 5] = x;
+        quad[c * 5 + 1] = y;
+        quad[c * 5 + 2] = z;
+        quad[c * 5 + 3] = u;
+        quad[c * 5 + 4] = v;
+    }
+
+    private static final int[] QUAD_TRIANGLES = {0, 1, 2, 0, 2, 3};
+
+    private static int putQuad(Prefab.Part part, float[] quad, float[] data, int vertexCount) {
+        int out = vertexCount * FLOATS_PER_VERTEX;
+        for (int c : QUAD_TRIANGLES) {
+            System.arraycopy(quad, c * 5, data, out, 5);
+            out += 5;
+            data[out++] = part.colorR;
+            data[out++] = part.colorG;
+            data[out++] = part.colorB;
+        }
+        return vertexCount + QUAD_TRIANGLES.length;
+    }
+
+    private static float texSize(Prefab.Part part, int axis) {
+        switch (axis) {
+            case 1:  return part.scaleX;
+            case 2:  return part.scaleY;
+            case 3:  return part.scaleZ;
+            default: return 0.0f;
+        }
+    }
+
+    // --- Stats ---
+
+    /** @return Props collected at the last sync. */
+    public int getPropCount() {
+        return propCount;
+    }
+
+    /** @return Draw calls made by the last {@link #render}. */
+    public int getDrawCallCount() {
+        return drawCalls;
+    }
+
+    /** @return Props drawn by the last {@link #render}. */
+    public int getInstancesDrawn() {
+        return instancesDrawn;
+    }
+
+    // --- Cleanup ---
+
+    public void cleanup() {
+        for (Batch batch : batches) {
+            glDeleteBuffers(batch.instanceVbo);
+        }
+        batches.clear();
+        for (PrefabMesh mesh : meshes) {
+            glDeleteBuffers(mesh.vbo);
+        }
+        meshes.clear();
+        propCount = 0;
+        program.cleanup();
+    }
+}
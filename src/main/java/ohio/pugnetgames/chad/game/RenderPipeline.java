@@ -0,0 +1,216 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.io.IOException;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL20.*;
+
+/**
+ * Shader-based drawing for the 3D world: GLSL 330 core shaders
+ * (shaders/world.vert and world.frag), vertex array objects, and camera,
+ * fog and ambient light read from {@link FrameUniforms} instead of the
+ * fixed-function matrix stacks and glFog/glLightModel state. The output
+ * matches what the fixed-function path draws.
+ *
+ * Materials are the {@link StaticGeometry} materials: a texture, or a flat
+ * color when there's none. {@link #setMaterial} skips uniform and texture
+ * changes when the material is the one already set.
+ *
+ * Given a {@link TextureArray}, textures that are in it are sampled from
+ * their layer instead of being bound. The material (color and layer) is a
+ * vertex attribute, so baked meshes carry it per vertex and a chunk that
+ * only uses colors and array layers is one draw call
+ * ({@link #useVertexMaterials()}).
+ *
+ * The window keeps a compatibility context, because the HUD, menus, fonts
+ * and key models are still fixed-function; only what goes through here
+ * (baked room chunks, singly drawn objects) uses the shaders.
+ *
+ * GL thread only.
+ */
+public class RenderPipeline {
+
+    // Attribute locations (the layout qualifiers in world.vert)
+    public static final int ATTRIB_POSITION = 0;
+    public static final int ATTRIB_TEX_COORD = 2;
+    public static final int ATTRIB_TILE_AXIS = 6;
+    public static final int ATTRIB_MATERIAL = 7; // Color, then array layer (-1 = none)
+
+    private static final int ARRAY_UNIT = 1;
+
+    private final ShaderProgram program;
+    private final int modelUniform;
+    private final int tileSizeUniform;
+    private final int texturedUniform;
+    private final TextureArray textureArray; // Null if not used
+
+    private final float[] model = new float[16];
+    private int boundTexture = -1;
+    private float boundR = -1, boundG = -1, boundB = -1, boundLayer = -2;
+    private int drawCalls;
+
+    /**
+     * @param textureArray The world textures as one array, or null to bind
+     *                     each texture on its own.
+     * @throws IOException if the shaders can't be loaded.
+     */
+    public RenderPipeline(TextureArray textureArray) throws IOException {
+        this.textureArray = textureArray;
+        program = new ShaderProgram("shaders/world.vert", "shaders/world.frag");
+        program.bindUniformBlock(FrameUniforms.BLOCK_NAME, FrameUniforms.BINDING);
+        modelUniform = program.getUniformLocation("model");
+        tileSizeUniform = program.getUniformLocation("tileSize");
+        texturedUniform = program.getUniformLocation("textured");
+        program.bind();
+        glUniform1i(program.getUniformLocation("diffuse"), 0);
+        glUniform1i(program.getUniformLocation("diffuseArray"), ARRAY_UNIT);
+        ShaderProgram.unbind();
+    }
+
+    /** @return true if the current GL context can run the pipeline. */
+    public static boolean isSupported() {
+        GLCapabilities caps = GL.getCapabilities();
+        return caps.OpenGL33;
+    }
+
+    // --- Passes ---
+
+    /** Binds the program. Pair with {@link #end()}. */
+    public void begin() {
+        program.bind();
+        glActiveTexture(GL_TEXTURE0);
+        if (textureArray != null) {
+            textureArray.bind(ARRAY_UNIT);
+        }
+        boundTexture = -1;
+        forgetMaterialAttribute();
+        drawCalls = 0;
+        // Baked meshes don't carry tile axes, and fixed-function calls can
+        // leave anything in the current value of an unused attribute
+        glVertexAttrib2f(ATTRIB_TILE_AXIS, 0.0f, 0.0f);
+    }
+
+    /** Goes back to the fixed-function pipeline. */
+    public void end() {
+        GLStateCache.bindVertexArray(0);
+        ShaderProgram.unbind();
+    }
+
+    // --- Materials ---
+
+    /**
+     * @param textureID The texture, or 0 to draw in the color.
+     */
+    public void setMaterial(int textureID, float r, float g, float b) {
+        int layer = getTextureLayer(textureID);
+        if (textureID != 0) {
+            r = g = b = 1.0f; // White under a texture, like glColor3f(1, 1, 1)
+        }
+        if (textureID != 0 && layer < 0) {
+            if (boundTexture != textureID) {
+                if (boundTexture <= 0) glUniform1i(texturedUniform, 1);
+                GLStateCache.bindTexture(textureID);
+                boundTexture = textureID;
+            }
+        } else if (boundTexture != 0) {
+            glUniform1i(texturedUniform, 0);
+            boundTexture = 0;
+        }
+        setMaterialAttribute(r, g, b, layer);
+    }
+
+    /**
+     * Takes the material from the vertices of the next draws (baked chunks
+     * whose textures are all in the array, see {@link #getTextureLayer}).
+     */
+    public void useVertexMaterials() {
+        if (boundTexture != 0) {
+            glUniform1i(texturedUniform, 0);
+            boundTexture = 0;
+        }
+        // Drawing with the attribute's array on leaves its current value undefined
+        forgetMaterialAttribute();
+    }
+
+    /**
+     * @return The array layer a texture is sampled from, or -1 if it's bound
+     *         on its own (or 0, no texture).
+     */
+    public int getTextureLayer(int textureID) {
+        return textureArray != null && textureID != 0 ? textureArray.getLayer(textureID) : -1;
+    }
+
+    private void setMaterialAttribute(float r, float g, float b, float layer) {
+        if (r != boundR || g != boundG || b != boundB || layer != boundLayer) {
+            glVertexAttrib4f(ATTRIB_MATERIAL, r, g, b, layer);
+            boundR = r;
+            boundG = g;
+            boundB = b;
+            boundLayer = layer;
+        }
+    }
+
+    private void forgetMaterialAttribute() {
+        boundR = boundG = boundB = -1;
+        boundLayer = -2;
+    }
+
+    // --- Drawing ---
+
+    /** For meshes already in world space (the baked chunks). */
+    public void setModelIdentity() {
+        setModel(0.0f, 0.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f);
+    }
+
+    /**
+     * Sets the model transform the way GameObject.render() builds it:
+     * translate to the position, rotate about Y, then scale.
+     */
+    public void setModel(float x, float y, float z, float rotationY, float scaleX, float scaleY, float scaleZ) {
+        float cos = 1.0f, sin = 0.0f;
+        if (rotationY != 0.0f) {
+            double angle = Math.toRadians(rotationY);
+            cos = (float) Math.cos(angle);
+            sin = (float) Math.sin(angle);
+        }
+        model[0] = cos * scaleX;   model[4] = 0.0f;   model[8] = sin * scaleZ;   model[12] = x;
+        model[1] = 0.0f;           model[5] = scaleY; model[9] = 0.0f;           model[13] = y;
+        model[2] = -sin * scaleX;  model[6] = 0.0f;   model[10] = cos * scaleZ;  model[14] = z;
+        model[3] = 0.0f;           model[7] = 0.0f;   model[11] = 0.0f;          model[15] = 1.0f;
+        glUniformMatrix4fv(modelUniform, false, model);
+    }
+
+    /**
+     * Draws one of the {@link PrimitiveMeshes} shapes with a GameObject's
+     * transform, in the current material. One draw call, textured or not.
+     */
+    public void drawPrimitive(GameObject.ShapeType shape, float x, float y, float z, float rotationY,
+                              float scaleX, float scaleY, float scaleZ) {
+        // Planes are flat; their Y size only moves their center (like drawPlane)
+        setModel(x, y, z, rotationY, scaleX, shape == GameObject.ShapeType.PLANE ? 1.0f : scaleY, scaleZ);
+        glUniform3f(tileSizeUniform, scaleX, scaleY, scaleZ);
+        GLStateCache.bindVertexArray(PrimitiveMeshes.getVertexArray());
+        glDrawArrays(GL_TRIANGLES, PrimitiveMeshes.getFirst(shape), PrimitiveMeshes.getCount(shape));
+        drawCalls++;
+    }
+
+    /** Draws indexed triangles from the bound vertex array, in the current material. */
+    public void drawElements(int first, int count) {
+        glDrawElements(GL_TRIANGLES, count, GL_UNSIGNED_INT, first * 4L);
+        drawCalls++;
+    }
+
+    /** @return Draw calls since the last {@link #begin()}. */
+    public int getDrawCallCount() {
+        return drawCalls;
+    }
+
+    public void cleanup() {
+        program.cleanup();
+    }
+}
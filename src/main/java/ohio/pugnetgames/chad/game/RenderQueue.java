@@ -0,0 +1,112 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.Arrays;
+
+/**
+ * Draw submissions for one frame, sorted before anything is drawn so state
+ * changes happen as rarely as possible.
+ *
+ * Each submission gets one 64-bit sort key:
+ *
+ * <pre>
+ *   pass (4 bits) | material (16 bits) | depth (16 bits) | item (28 bits)
+ * </pre>
+ *
+ * so the queue comes out grouped by pass, then by material (one texture or
+ * color change per material), then front to back within a material (so the
+ * depth test throws away hidden pixels early). The transparent pass is
+ * sorted back to front instead. The item bits index the submission's
+ * payload: what to draw, as a kind and two ints the caller defines.
+ *
+ * Sorting is a primitive long sort, with no allocation once the arrays have
+ * grown to a frame's size.
+ */
+public class RenderQueue {
+
+    public static final int PASS_OPAQUE = 0;
+    public static final int PASS_TRANSPARENT = 1;
+
+    private static final int MATERIAL_BITS = 16;
+    private static final int DEPTH_BITS = 16;
+    private static final int ITEM_BITS = 28;
+    private static final long ITEM_MASK = (1L << ITEM_BITS) - 1;
+    private static final int DEPTH_LEVELS = (1 << DEPTH_BITS) - 1;
+
+    private final float maxDepth;
+
+    private long[] keys = new long[256];
+    private int[] kinds = new int[256];
+    private int[] payloadA = new int[256];
+    private int[] payloadB = new int[256];
+    private int size;
+
+    /**
+     * @param maxDepth Distances past this all sort as the farthest (use the far plane).
+     */
+    public RenderQueue(float maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a draw.
+     *
+     * @param material Below 65536.
+     * @param depth    Distance from the eye.
+     * @param kind     What a and b mean, up to the caller.
+     */
+    public void submit(int pass, int material, float depth, int kind, int a, int b) {
+        if (size == keys.length) {
+            int grown = size * 2;
+            keys = Arrays.copyOf(keys, grown);
+            kinds = Arrays.copyOf(kinds, grown);
+            payloadA = Arrays.copyOf(payloadA, grown);
+            payloadB = Arrays.copyOf(payloadB, grown);
+        }
+        long quantized = (long) (Math.min(Math.max(depth / maxDepth, 0.0f), 1.0f) * DEPTH_LEVELS);
+        if (pass == PASS_TRANSPARENT) {
+            quantized = DEPTH_LEVELS - quantized; // Back to front
+        }
+        keys[size] = ((long) pass << (MATERIAL_BITS + DEPTH_BITS + ITEM_BITS))
+                | ((long) material << (DEPTH_BITS + ITEM_BITS))
+                | (quantized << ITEM_BITS)
+                | size;
+        kinds[size] = kind;
+        payloadA[size] = a;
+        payloadB[size] = b;
+        size++;
+    }
+
+    public void sort() {
+        Arrays.sort(keys, 0, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // --- Reading back, in sorted order ---
+
+    public int getMaterial(int i) {
+        return (int) (keys[i] >>> (DEPTH_BITS + ITEM_BITS)) & ((1 << MATERIAL_BITS) - 1);
+    }
+
+    public int getKind(int i) {
+        return kinds[item(i)];
+    }
+
+    public int getA(int i) {
+        return payloadA[item(i)];
+    }
+
+    public int getB(int i) {
+        return payloadB[item(i)];
+    }
+
+    private int item(int i) {
+        return (int) (keys[i] & ITEM_MASK);
+    }
+}
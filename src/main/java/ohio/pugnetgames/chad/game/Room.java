@@ -27,6 +27,9 @@ public class Room {
     // NEW: Room type
     private final RoomType type;
 
+    /** Position of this room in the layout's room list (-1 until the room is accepted). */
+    public int index = -1;
+
     // --- 💥 NEW: A list to store potential key spawn points (e.g., tables) ---
     // Stores float arrays of [x, y, z]
     public List<float[]> keySpawnLocations = new ArrayList<>();
@@ -48,6 +51,29 @@ public class Room {
         return type;
     }
 
+    /**
+     * @return A separate Room with the same bounds, type, index, used walls
+     *         and key spawn points.
+     */
+    public Room copy() {
+        Room copy = new Room(minX, minZ, maxX, maxZ, type);
+        copy.index = index;
+        copy.copyStateFrom(this);
+        return copy;
+    }
+
+    /**
+     * Takes the used walls and key spawn points (the parts that change once a
+     * room exists) from another copy of the same room.
+     */
+    public void copyStateFrom(Room other) {
+        northWallUsed = other.northWallUsed;
+        southWallUsed = other.southWallUsed;
+        eastWallUsed = other.eastWallUsed;
+        westWallUsed = other.westWallUsed;
+        keySpawnLocations = new ArrayList<>(other.keySpawnLocations);
+    }
+
     /**
      * Checks if this room overlaps with another room, using a specified padding
      * to ensure minimum separation distance.
@@ -0,0 +1,286 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * How the rooms of a world connect: rooms are the nodes, tunnels are the
+ * edges, and every edge knows the doorway it opens in each room's wall.
+ *
+ * Lookups are by {@link Room#index}, so asking for a room's neighbour through
+ * a given wall, or all of its connections, is O(1) with no hashing. A room
+ * has at most one tunnel per wall, which is what the generators produce.
+ *
+ * The escape tunnel is an edge too; its {@link Connection#to} is null and it
+ * only has the doorway on its own room's side.
+ *
+ * It also answers "which room is this point in?" ({@link #getRoomAt}): a
+ * point in a tunnel counts as being in the room the tunnel leads into, the
+ * same room whose chunk builds that tunnel.
+ *
+ * In the endless maze the graph grows as rooms are streamed in (on the game
+ * thread, like the rest of the world), so it's never rebuilt from scratch.
+ * Not thread-safe.
+ */
+public class RoomGraph {
+
+    // Same sizes WorldLoader builds with
+    private static final float WALL_THICKNESS = 0.1f;
+    public static final float DOORWAY_HEIGHT = 3.0f;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final float AREA_CELL_SIZE = 16.0f;
+
+    /**
+     * The opening a tunnel makes in one room's wall, as a footprint on the
+     * ground: as wide as the tunnel, as deep as the wall, centered on the
+     * wall line. It runs from the floor up to {@link #DOORWAY_HEIGHT}.
+     */
+    public static class Doorway {
+        public final Room room;
+        public final Direction wall;
+        public final float minX, minZ, maxX, maxZ;
+
+        Doorway(Room room, Direction wall, float minX, float minZ, float maxX, float maxZ) {
+            this.room = room;
+            this.wall = wall;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        public float getCenterX() {
+            return (minX + maxX) / 2.0f;
+        }
+
+        public float getCenterZ() {
+            return (minZ + maxZ) / 2.0f;
+        }
+    }
+
+    /** One tunnel between two rooms (or out of the maze, for the escape tunnel). */
+    public static class Connection {
+        public final Tunnel tunnel;
+        public final Room from;
+        /** Null for the escape tunnel. */
+        public final Room to;
+        public final Doorway fromDoorway;
+        /** Null for the escape tunnel. */
+        public final Doorway toDoorway;
+
+        Connection(Tunnel tunnel) {
+            this.tunnel = tunnel;
+            this.from = tunnel.fromRoom;
+            this.to = tunnel.toRoom;
+            this.fromDoorway = doorwayAt(tunnel, from, tunnel.direction, true);
+            this.toDoorway = to != null ? doorwayAt(tunnel, to, tunnel.direction.getOpposite(), false) : null;
+        }
+
+        public boolean isEscape() {
+            return to == null;
+        }
+
+        /** @return The room on the other end, or null if there's none (escape tunnel). */
+        public Room other(Room room) {
+            return room == from ? to : from;
+        }
+
+        /** @return The doorway in the given room's wall. */
+        public Doorway doorwayIn(Room room) {
+            return room == from ? fromDoorway : toDoorway;
+        }
+    }
+
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private Connection escape;
+
+    // Four slots per room, indexed by room.index * 4 + wall
+    private Connection[] byWall = new Connection[64];
+    // Each room's connections, in the order they were added
+    private final List<List<Connection>> byRoom = new ArrayList<>();
+
+    // Floor areas for getRoomAt: rooms and tunnels, each owned by a room
+    private final SpatialGrid<Void> areaGrid = new SpatialGrid<>(AREA_CELL_SIZE);
+    private final List<Room> areaOwners = new ArrayList<>();
+    private final List<float[]> areaBounds = new ArrayList<>();
+    private final List<Boolean> areaIsTunnel = new ArrayList<>();
+    private final SpatialGrid.Ids areaIds = new SpatialGrid.Ids();
+
+    /**
+     * Builds the graph for a finished layout. Tunnels that lead into a room
+     * that isn't in the list are skipped.
+     */
+    public static RoomGraph of(List<Room> rooms, List<Tunnel> tunnels, Tunnel escapeTunnel) {
+        RoomGraph graph = new RoomGraph();
+        for (Room room : rooms) {
+            graph.addRoom(room);
+        }
+        for (Tunnel tunnel : tunnels) {
+            graph.addTunnel(tunnel);
+        }
+        if (escapeTunnel != null) {
+            graph.addTunnel(escapeTunnel);
+        }
+        return graph;
+    }
+
+    // --- Building ---
+
+    /**
+     * Adds a room as a node. Its {@link Room#index} must already be set and be
+     * the next free one.
+     */
+    public void addRoom(Room room) {
+        if (room.index != rooms.size()) {
+            throw new IllegalArgumentException("room index " + room.index + " doesn't follow " + rooms.size() + " rooms");
+        }
+        rooms.add(room);
+        byRoom.add(new ArrayList<>(2));
+        addArea(room, false, room.minX, room.minZ, room.maxX, room.maxZ);
+        if (byWall.length < rooms.size() * 4) {
+            byWall = Arrays.copyOf(byWall, byWall.length * 2);
+        }
+    }
+
+    /**
+     * Adds a tunnel as an edge between its rooms (both must be in the graph).
+     *
+     * @return The new connection, or null if a room is missing.
+     */
+    public Connection addTunnel(Tunnel tunnel) {
+        if (!contains(tunnel.fromRoom) || (tunnel.toRoom != null && !contains(tunnel.toRoom))) {
+            return null;
+        }
+        Connection connection = new Connection(tunnel);
+        connections.add(connection);
+        link(tunnel.fromRoom, tunnel.direction, connection);
+        if (connection.isEscape()) {
+            escape = connection;
+        } else {
+            link(tunnel.toRoom, tunnel.direction.getOpposite(), connection);
+        }
+        addArea(connection.isEscape() ? tunnel.fromRoom : tunnel.toRoom, true, tunnel.minX, tunnel.minZ, tunnel.maxX, tunnel.maxZ);
+        return connection;
+    }
+
+    private void addArea(Room owner, boolean tunnel, float minX, float minZ, float maxX, float maxZ) {
+        areaGrid.add(null, minX, minZ, maxX, maxZ);
+        areaOwners.add(owner);
+        areaIsTunnel.add(tunnel);
+        areaBounds.add(new float[]{minX, minZ, maxX, maxZ});
+    }
+
+    private void link(Room room, Direction wall, Connection connection) {
+        byWall[room.index * 4 + wall.ordinal()] = connection;
+        byRoom.get(room.index).add(connection);
+    }
+
+    // --- Queries ---
+
+    public boolean contains(Room room) {
+        return room.index >= 0 && room.index < rooms.size() && rooms.get(room.index) == room;
+    }
+
+    /** @return The connection leaving through the given wall, or null if the wall is solid. */
+    public Connection getConnection(Room room, Direction wall) {
+        if (!contains(room)) return null;
+        return byWall[room.index * 4 + wall.ordinal()];
+    }
+
+    /** @return The room through the given wall, or null if there isn't one. */
+    public Room getNeighbor(Room room, Direction wall) {
+        Connection connection = getConnection(room, wall);
+        return connection != null ? connection.other(room) : null;
+    }
+
+    /** @return Every connection touching the room (read-only). */
+    public List<Connection> getConnections(Room room) {
+        if (!contains(room)) return Collections.emptyList();
+        return Collections.unmodifiableList(byRoom.get(room.index));
+    }
+
+    /** @return Rooms one tunnel away, in wall order (NORTH, SOUTH, EAST, WEST). */
+    public List<Room> getNeighbors(Room room) {
+        List<Room> out = new ArrayList<>(4);
+        if (!contains(room)) return out;
+        for (Direction wall : DIRECTIONS) {
+            Room neighbor = getNeighbor(room, wall);
+            if (neighbor != null) out.add(neighbor);
+        }
+        return out;
+    }
+
+    /**
+     * Finds the room a point is in. Rooms win over tunnels where they touch
+     * (a doorway's wall sits on both).
+     *
+     * @param margin How far outside a room or tunnel the point may be and
+     *               still count (e.g. half a wall's thickness).
+     * @return The room, the room a tunnel the point is in leads to, or null.
+     */
+    public Room getRoomAt(float x, float z, float margin) {
+        areaGrid.queryIds(x - margin, z - margin, x + margin, z + margin, areaIds);
+        Room tunnelOwner = null;
+        for (int i = 0; i < areaIds.size; i++) {
+            int id = areaIds.ids[i];
+            float[] b = areaBounds.get(id);
+            if (x < b[0] - margin || x > b[2] + margin || z < b[1] - margin || z > b[3] + margin) continue;
+            if (!areaIsTunnel.get(id)) {
+                return areaOwners.get(id);
+            }
+            if (tunnelOwner == null) tunnelOwner = areaOwners.get(id);
+        }
+        return tunnelOwner;
+    }
+
+    public List<Room> getRooms() {
+        return Collections.unmodifiableList(rooms);
+    }
+
+    /** @return Every connection, including the escape tunnel, in the order added (read-only). */
+    public List<Connection> getConnections() {
+        return Collections.unmodifiableList(connections);
+    }
+
+    /** @return The escape tunnel's connection, or null (endless mode). */
+    public Connection getEscape() {
+        return escape;
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    // --- Doorways ---
+
+    /**
+     * The doorway at one end of a tunnel. The near end (the wall the tunnel
+     * was dug out of) is the tunnel's edge facing back along its direction;
+     * the far end is the edge facing along it.
+     */
+    private static Doorway doorwayAt(Tunnel tunnel, Room room, Direction wall, boolean nearEnd) {
+        float half = WALL_THICKNESS / 2.0f;
+        switch (tunnel.direction) {
+            case NORTH: {
+                float z = nearEnd ? tunnel.minZ : tunnel.maxZ;
+                return new Doorway(room, wall, tunnel.minX, z - half, tunnel.maxX, z + half);
+            }
+            case SOUTH: {
+                float z = nearEnd ? tunnel.maxZ : tunnel.minZ;
+                return new Doorway(room, wall, tunnel.minX, z - half, tunnel.maxX, z + half);
+            }
+            case EAST: {
+                float x = nearEnd ? tunnel.minX : tunnel.maxX;
+                return new Doorway(room, wall, x - half, tunnel.minZ, x + half, tunnel.maxZ);
+            }
+            default: {
+                float x = nearEnd ? tunnel.maxX : tunnel.minX;
+                return new Doorway(room, wall, x - half, tunnel.minZ, x + half, tunnel.maxZ);
+            }
+        }
+    }
+}
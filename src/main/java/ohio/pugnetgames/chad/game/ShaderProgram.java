@@ -0,0 +1,141 @@
+package ohio.pugnetgames.chad.game;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.lwjgl.opengl.GL11.GL_FALSE;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL31.GL_INVALID_INDEX;
+import static org.lwjgl.opengl.GL31.glGetUniformBlockIndex;
+import static org.lwjgl.opengl.GL31.glUniformBlockBinding;
+
+/**
+ * A vertex and fragment shader pair loaded from the resources folder and
+ * linked into one GL program.
+ *
+ * Attribute locations are fixed before linking (see the constructor), so the
+ * code feeding a program can use constants instead of looking them up.
+ *
+ * GL thread only.
+ */
+public class ShaderProgram {
+
+    private final String name;
+    private int programID;
+
+    /**
+     * Compiles and links a program.
+     *
+     * @param vertexPath   Resource path of the vertex shader.
+     * @param fragmentPath Resource path of the fragment shader.
+     * @param attributes   Attribute names, bound to locations 0, 1, 2... in order.
+     *                     A null leaves its location to the attribute before it
+     *                     (a mat4 takes four).
+     * @throws IOException if a shader can't be read, compiled or linked.
+     */
+    public ShaderProgram(String vertexPath, String fragmentPath, String... attributes) throws IOException {
+        this.name = vertexPath;
+        int vertex = compile(GL_VERTEX_SHADER, vertexPath);
+        int fragment;
+        try {
+            fragment = compile(GL_FRAGMENT_SHADER, fragmentPath);
+        } catch (IOException e) {
+            glDeleteShader(vertex);
+            throw e;
+        }
+
+        programID = glCreateProgram();
+        glAttachShader(programID, vertex);
+        glAttachShader(programID, fragment);
+        for (int i = 0; i < attributes.length; i++) {
+            if (attributes[i] != null) {
+                glBindAttribLocation(programID, i, attributes[i]);
+            }
+        }
+        glLinkProgram(programID);
+        // Once linked, the program keeps what it needs
+        glDetachShader(programID, vertex);
+        glDetachShader(programID, fragment);
+        glDeleteShader(vertex);
+        glDeleteShader(fragment);
+
+        if (glGetProgrami(programID, GL_LINK_STATUS) == GL_FALSE) {
+            String log = glGetProgramInfoLog(programID);
+            glDeleteProgram(programID);
+            programID = 0;
+            throw new IOException("Failed to link " + vertexPath + " + " + fragmentPath + ": " + log);
+        }
+    }
+
+    private static int compile(int type, String path) throws IOException {
+        int shader = glCreateShader(type);
+        glShaderSource(shader, readResource(path));
+        glCompileShader(shader);
+        if (glGetShaderi(shader, GL_COMPILE_STATUS) == GL_FALSE) {
+            String log = glGetShaderInfoLog(shader);
+            glDeleteShader(shader);
+            throw new IOException("Failed to compile " + path + ": " + log);
+        }
+        return shader;
+    }
+
+    private static String readResource(String path) throws IOException {
+        try (InputStream in = ShaderProgram.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IOException("Resource not found: " + path);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // --- Use ---
+
+    public void bind() {
+        glUseProgram(programID);
+    }
+
+    /** Goes back to the fixed-function pipeline. */
+    public static void unbind() {
+        glUseProgram(0);
+    }
+
+    /**
+     * @return The uniform's location, or -1 if the program has no such
+     *         uniform (setting -1 is a no-op in GL).
+     */
+    public int getUniformLocation(String uniform) {
+        int location = glGetUniformLocation(programID, uniform);
+        if (location < 0) {
+            System.out.println("[ShaderProgram - getUniformLocation] " + name + " has no active uniform '" + uniform + "'.");
+        }
+        return location;
+    }
+
+    /**
+     * Attaches one of the program's uniform blocks to a uniform buffer
+     * binding point (see {@link FrameUniforms}). Needs GL 3.1.
+     */
+    public void bindUniformBlock(String block, int binding) {
+        int index = glGetUniformBlockIndex(programID, block);
+        if (index == GL_INVALID_INDEX) {
+            System.out.println("[ShaderProgram - bindUniformBlock] " + name + " has no uniform block '" + block + "'.");
+            return;
+        }
+        glUniformBlockBinding(programID, index, binding);
+    }
+
+    public void cleanup() {
+        if (programID != 0) {
+            glDeleteProgram(programID);
+            programID = 0;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A simple uniform grid over the XZ plane for "what's near this box?" queries.
+ *
+ * Items are stored with their bounding box and show up in every cell they
+ * touch. Queries return each matching item once, in the order the items were
+ * added, so code that used to loop over a whole list in order can switch to a
+ * query and still do exactly the same thing.
+ *
+ * Used for room overlap checks during generation and for the player's
+ * collision broadphase. Not thread-safe.
+ */
+public class SpatialGrid<T> {
+
+    /** A reusable list of item ids, filled by {@link #queryIds}. */
+    public static final class Ids {
+        public int[] ids = new int[64];
+        public int size;
+    }
+
+    private static final class Bucket {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    private final float cellSize;
+    private final List<T> items = new ArrayList<>();
+    private final Map<Long, Bucket> cells = new HashMap<>();
+
+    // Scratch space for queries
+    private int[] found = new int[64];
+
+    /**
+     * @param cellSize Width of one grid cell in world units. Pick something
+     *                 around the size of a typical item.
+     */
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Adds an item covering the given world rectangle.
+     */
+    public void add(T item, float minX, float minZ, float maxX, float maxZ) {
+        int id = items.size();
+        items.add(item);
+        int cx0 = cell(minX), cx1 = cell(maxX);
+        int cz0 = cell(minZ), cz1 = cell(maxZ);
+        for (int cz = cz0; cz <= cz1; cz++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                cells.computeIfAbsent(key(cx, cz), k -> new Bucket()).add(id);
+            }
+        }
+    }
+
+    /**
+     * Collects every item whose cells touch the given world rectangle.
+     * This is a broadphase: callers still do their own exact overlap test.
+     *
+     * @param out Cleared, then filled in insertion order with no duplicates.
+     */
+    public void query(float minX, float minZ, float maxX, float maxZ, List<T> out) {
+        out.clear();
+        int count = gather(minX, minZ, maxX, maxZ);
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            if (found[i] != last) {
+                last = found[i];
+                out.add(items.get(last));
+            }
+        }
+    }
+
+    /**
+     * Like {@link #query}, but hands back item ids (0 for the first item
+     * added, 1 for the next...) instead of the items, so callers that keep
+     * their data in arrays don't need an object per item.
+     */
+    public void queryIds(float minX, float minZ, float maxX, float maxZ, Ids out) {
+        out.size = 0;
+        int count = gather(minX, minZ, maxX, maxZ);
+        if (out.ids.length < count) {
+            out.ids = new int[Math.max(count, out.ids.length * 2)];
+        }
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            if (found[i] != last) {
+                last = found[i];
+                out.ids[out.size++] = last;
+            }
+        }
+    }
+
+    /** Copies the ids from every touched cell into found[] and sorts them. */
+    private int gather(float minX, float minZ, float maxX, float maxZ) {
+        int count = 0;
+        int cx0 = cell(minX), cx1 = cell(maxX);
+        int cz0 = cell(minZ), cz1 = cell(maxZ);
+        for (int cz = cz0; cz <= cz1; cz++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                Bucket bucket = cells.get(key(cx, cz));
+                if (bucket == null) continue;
+                if (count + bucket.size > found.length) {
+                    found = Arrays.copyOf(found, Math.max(found.length * 2, count + bucket.size));
+                }
+                System.arraycopy(bucket.ids, 0, found, count, bucket.size);
+                count += bucket.size;
+            }
+        }
+
+        Arrays.sort(found, 0, count);
+        return count;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public void clear() {
+        items.clear();
+        cells.clear();
+    }
+
+    private int cell(float world) {
+        return (int) Math.floor(world / cellSize);
+    }
+
+    private static long key(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,283 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.Arrays;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/**
+ * Static world geometry stored as parallel arrays (structure of arrays).
+ *
+ * Every object is one "slot": position and scale live in float arrays, the
+ * shape and collidable/rendered flags are packed into one int, and the color
+ * or texture is an index into a small material table. The hot passes (player
+ * collision, nav grid rasterization, the minimap and drawing the world) loop
+ * over these arrays instead of chasing thousands of separate GameObjects.
+ *
+ * World keeps one of these in sync with its object list (see
+ * {@link World#getGeometry()}), and GameObjects added to the world write
+ * their runtime changes (like the escape door opening) through to their slot.
+ * Anyone else can build a throwaway copy from a list with {@link #of}.
+ *
+ * Not thread-safe; World only touches its copy while holding the
+ * staticObjects lock.
+ */
+public class StaticGeometry {
+
+    // --- Packed flags ---
+    public static final int FLAG_COLLIDABLE = 1;
+    public static final int FLAG_RENDERED = 1 << 1;
+    private static final int SHAPE_SHIFT = 2;
+    private static final int SHAPE_MASK = 0x3 << SHAPE_SHIFT;
+    private static final GameObject.ShapeType[] SHAPES = GameObject.ShapeType.values();
+
+    public int count = 0;
+    public float[] posX = new float[0];
+    public float[] posY = new float[0];
+    public float[] posZ = new float[0];
+    public float[] scaleX = new float[0];
+    public float[] scaleY = new float[0];
+    public float[] scaleZ = new float[0];
+    public float[] rotationY = new float[0];
+    public int[] flags = new int[0];
+    public int[] material = new int[0];
+    private GameObject[] objects = new GameObject[0];
+
+    // --- Materials (texture ID, or a plain color when the texture is 0) ---
+    private int materialCount = 0;
+    private int[] materialTexture = new int[8];
+    private float[] materialColor = new float[8 * 3];
+
+    /**
+     * Builds a standalone copy of a list of objects. Each slot still points
+     * at its object (see {@link #getObject}), but the objects don't write
+     * their changes through to this copy, so it's safe to use from worker
+     * threads as long as nobody changes the objects meanwhile.
+     */
+    public static StaticGeometry of(Iterable<GameObject> source) {
+        StaticGeometry geometry = new StaticGeometry();
+        for (GameObject obj : source) {
+            geometry.add(obj);
+        }
+        return geometry;
+    }
+
+    /**
+     * Appends an object and returns its slot.
+     */
+    public int add(GameObject obj) {
+        if (count == posX.length) {
+            grow(Math.max(64, count * 2));
+        }
+        int slot = count++;
+        posX[slot] = obj.getPosX();
+        posY[slot] = obj.getPosY();
+        posZ[slot] = obj.getPosZ();
+        scaleX[slot] = obj.getScaleX();
+        scaleY[slot] = obj.getScaleY();
+        scaleZ[slot] = obj.getScaleZ();
+        rotationY[slot] = obj.getRotationY();
+        flags[slot] = packFlags(obj.getShape(), obj.isCollidable(), obj.isRendered());
+        material[slot] = materialFor(obj.getTextureID(), obj.getColorR(), obj.getColorG(), obj.getColorB());
+        objects[slot] = obj;
+        return slot;
+    }
+
+    /**
+     * Forgets every slot. Materials are kept since they get reused.
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, count, null);
+        count = 0;
+    }
+
+    // --- Slot access ---
+
+    public GameObject getObject(int slot) {
+        return objects[slot];
+    }
+
+    public GameObject.ShapeType getShape(int slot) {
+        return SHAPES[(flags[slot] & SHAPE_MASK) >>> SHAPE_SHIFT];
+    }
+
+    public boolean isCube(int slot) {
+        return (flags[slot] & SHAPE_MASK) == (GameObject.ShapeType.CUBE.ordinal() << SHAPE_SHIFT);
+    }
+
+    public boolean isPlane(int slot) {
+        return (flags[slot] & SHAPE_MASK) == (GameObject.ShapeType.PLANE.ordinal() << SHAPE_SHIFT);
+    }
+
+    public boolean isCollidable(int slot) {
+        return (flags[slot] & FLAG_COLLIDABLE) != 0;
+    }
+
+    public boolean isRendered(int slot) {
+        return (flags[slot] & FLAG_RENDERED) != 0;
+    }
+
+    public int getTextureID(int slot) {
+        return materialTexture[material[slot]];
+    }
+
+    public int getMaterialCount() {
+        return materialCount;
+    }
+
+    // --- Write-through from GameObject setters ---
+
+    void setFlag(int slot, int flag, boolean on) {
+        flags[slot] = on ? (flags[slot] | flag) : (flags[slot] & ~flag);
+    }
+
+    void setMaterial(int slot, int textureID, float r, float g, float b) {
+        material[slot] = materialFor(textureID, r, g, b);
+    }
+
+    void setRotationY(int slot, float rotation) {
+        rotationY[slot] = rotation;
+    }
+
+    // --- Queries ---
+
+    /**
+     * Same test as {@link GameObject#isColliding}, read from the arrays.
+     */
+    public boolean isColliding(int slot, float pX, float pY, float pZ, float pR, float pH) {
+        float hx = scaleX[slot] / 2.0f;
+        float hy = scaleY[slot] / 2.0f;
+        float hz = scaleZ[slot] / 2.0f;
+        return pX - pR < posX[slot] + hx && pX + pR > posX[slot] - hx
+                && pY - pH < posY[slot] + hy && pY + pH > posY[slot] - hy
+                && pZ - pR < posZ[slot] + hz && pZ + pR > posZ[slot] - hz;
+    }
+
+    // --- Rendering ---
+
+    /**
+     * Draws every rendered slot, in slot order. Same output as calling
+     * GameObject.render() on each object, but texture state is only touched
+     * when the material actually changes.
+     */
+    public void render() {
+        boolean shared = PrimitiveMeshes.isReady();
+        if (shared) PrimitiveMeshes.begin();
+        int boundMaterial = -1;
+        for (int i = 0; i < count; i++) {
+            if ((flags[i] & FLAG_RENDERED) == 0) continue;
+            if (material[i] != boundMaterial) {
+                boundMaterial = material[i];
+                bindMaterial(boundMaterial);
+            }
+            drawSlot(i);
+        }
+        if (shared) PrimitiveMeshes.end();
+    }
+
+    /**
+     * Same as {@link #render()}, but only for the listed slots.
+     */
+    public void render(int[] slots, int slotCount) {
+        if (slotCount == 0) return;
+        boolean shared = PrimitiveMeshes.isReady();
+        if (shared) PrimitiveMeshes.begin();
+        int boundMaterial = -1;
+        for (int s = 0; s < slotCount; s++) {
+            int i = slots[s];
+            if ((flags[i] & FLAG_RENDERED) == 0) continue;
+            if (material[i] != boundMaterial) {
+                boundMaterial = material[i];
+                bindMaterial(boundMaterial);
+            }
+            drawSlot(i);
+        }
+        if (shared) PrimitiveMeshes.end();
+    }
+
+    /** @return A material's texture, or 0 for a flat color. */
+    int getMaterialTexture(int mat) {
+        return materialTexture[mat];
+    }
+
+    /** @return A material's red, green or blue (channel 0, 1 or 2). */
+    float getMaterialColor(int mat, int channel) {
+        return materialColor[mat * 3 + channel];
+    }
+
+    /** Hands one material to the shader pipeline. */
+    void bindMaterial(int mat, RenderPipeline pipeline) {
+        pipeline.setMaterial(materialTexture[mat], materialColor[mat * 3], materialColor[mat * 3 + 1], materialColor[mat * 3 + 2]);
+    }
+
+    /**
+     * Sets up texturing and color for one material, the same way
+     * GameObject.render() does.
+     */
+    void bindMaterial(int mat) {
+        int textureID = materialTexture[mat];
+        if (textureID != 0) {
+            GLStateCache.enable(GL_TEXTURE_2D);
+            GLStateCache.bindTexture(textureID);
+            glColor3f(1.0f, 1.0f, 1.0f);
+        } else {
+            GLStateCache.disable(GL_TEXTURE_2D);
+            glColor3f(materialColor[mat * 3], materialColor[mat * 3 + 1], materialColor[mat * 3 + 2]);
+        }
+    }
+
+    /** Draws one slot in the current material, like GameObject.render(). */
+    void drawSlot(int i) {
+        glPushMatrix();
+        glTranslatef(posX[i], posY[i], posZ[i]);
+        if (rotationY[i] != 0.0f) {
+            glRotatef(rotationY[i], 0.0f, 1.0f, 0.0f);
+        }
+        GameObject.drawShape(getShape(i), scaleX[i], scaleY[i], scaleZ[i], materialTexture[material[i]] != 0);
+        glPopMatrix();
+    }
+
+    // --- Internals ---
+
+    private static int packFlags(GameObject.ShapeType shape, boolean collidable, boolean rendered) {
+        int packed = shape.ordinal() << SHAPE_SHIFT;
+        if (collidable) packed |= FLAG_COLLIDABLE;
+        if (rendered) packed |= FLAG_RENDERED;
+        return packed;
+    }
+
+    /** Finds or adds a material. There are only a handful, so a linear scan is fine. */
+    private int materialFor(int textureID, float r, float g, float b) {
+        if (textureID != 0) {
+            r = g = b = 1.0f; // Textures are always drawn white
+        }
+        for (int m = 0; m < materialCount; m++) {
+            if (materialTexture[m] == textureID && materialColor[m * 3] == r
+                    && materialColor[m * 3 + 1] == g && materialColor[m * 3 + 2] == b) {
+                return m;
+            }
+        }
+        if (materialCount == materialTexture.length) {
+            materialTexture = Arrays.copyOf(materialTexture, materialCount * 2);
+            materialColor = Arrays.copyOf(materialColor, materialCount * 2 * 3);
+        }
+        int m = materialCount++;
+        materialTexture[m] = textureID;
+        materialColor[m * 3] = r;
+        materialColor[m * 3 + 1] = g;
+        materialColor[m * 3 + 2] = b;
+        return m;
+    }
+
+    private void grow(int capacity) {
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        scaleX = Arrays.copyOf(scaleX, capacity);
+        scaleY = Arrays.copyOf(scaleY, capacity);
+        scaleZ = Arrays.copyOf(scaleZ, capacity);
+        rotationY = Arrays.copyOf(rotationY, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        material = Arrays.copyOf(material, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+    }
+}
@@ -0,0 +1,135 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.stb.STBImageResize;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL12.glTexImage3D;
+import static org.lwjgl.opengl.GL12.glTexSubImage3D;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL30.GL_TEXTURE_2D_ARRAY;
+import static org.lwjgl.opengl.GL30.glGenerateMipmap;
+import static org.lwjgl.system.MemoryStack.stackPush;
+
+/**
+ * The world's textures (orb, tunnel, wood and sheets; see
+ * {@link TextureLoader#getAllTextureFilenames}) as layers of one
+ * GL_TEXTURE_2D_ARRAY with a full mipmap chain. Geometry says which layer it
+ * uses per vertex, so a room chunk is drawn in one call with no texture
+ * changes, and far surfaces sample small mip levels instead of every texel.
+ *
+ * Layers all have the same size, so every image is resized to
+ * {@link #LAYER_SIZE} square when it's loaded. Texture coordinates go from 0
+ * to 1 across the whole image either way, so nothing looks stretched that
+ * wasn't before.
+ *
+ * Layers are looked up by the GL_TEXTURE_2D ID the same file was loaded as
+ * (see {@link TextureLoader#loadTexture}), since that's what objects carry.
+ * Textures that aren't in the list, like the floor tile texture, have no
+ * layer and are still bound on their own.
+ *
+ * Needs GL 3.0. GL thread only.
+ */
+public class TextureArray {
+
+    public static final int LAYER_SIZE = 256;
+
+    private int textureID;
+    private final Map<Integer, Integer> layerByTexture = new HashMap<>();
+
+    /**
+     * Loads every file into its own layer. Files that fail to load get a
+     * layer of opaque white, so the layer numbers stay in order.
+     *
+     * @param fileNames  The images, one per layer.
+     * @param textureIDs The GL_TEXTURE_2D ID each file was loaded as.
+     */
+    public TextureArray(List<String> fileNames, Map<String, Integer> textureIDs) {
+        int layers = fileNames.size();
+        textureID = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D_ARRAY, textureID);
+        glTexImage3D(GL_TEXTURE_2D_ARRAY, 0, GL_RGBA8, LAYER_SIZE, LAYER_SIZE, layers, 0,
+                GL_RGBA, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+
+        ByteBuffer layerData = BufferUtils.createByteBuffer(LAYER_SIZE * LAYER_SIZE * 4);
+        for (int layer = 0; layer < layers; layer++) {
+            String fileName = fileNames.get(layer);
+            if (!loadLayer(fileName, layerData)) {
+                layerData.clear();
+                while (layerData.hasRemaining()) layerData.put((byte) 0xFF);
+                layerData.flip();
+            }
+            glTexSubImage3D(GL_TEXTURE_2D_ARRAY, 0, 0, 0, layer, LAYER_SIZE, LAYER_SIZE, 1,
+                    GL_RGBA, GL_UNSIGNED_BYTE, layerData);
+            Integer id = textureIDs.get(fileName);
+            if (id != null && id != 0) {
+                layerByTexture.put(id, layer);
+            }
+        }
+
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_S, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_WRAP_T, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MIN_FILTER, GL_LINEAR_MIPMAP_LINEAR);
+        glTexParameteri(GL_TEXTURE_2D_ARRAY, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        glGenerateMipmap(GL_TEXTURE_2D_ARRAY);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, 0);
+        System.out.println("[TextureArray] Loaded " + layers + " layers at " + LAYER_SIZE + "x" + LAYER_SIZE + ".");
+    }
+
+    /** @return true if the current GL context has texture arrays. */
+    public static boolean isSupported() {
+        return GL.getCapabilities().OpenGL30;
+    }
+
+    /** Decodes an image into the layer buffer, resized to the layer size. */
+    private static boolean loadLayer(String fileName, ByteBuffer layerData) {
+        try (var stack = stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            ByteBuffer pixels = TextureLoader.loadPixels(fileName, w, h);
+            if (pixels == null) {
+                return false;
+            }
+            layerData.clear();
+            boolean resized = STBImageResize.stbir_resize_uint8(pixels, w.get(0), h.get(0), 0,
+                    layerData, LAYER_SIZE, LAYER_SIZE, 0, 4);
+            STBImage.stbi_image_free(pixels);
+            if (!resized) {
+                System.err.println("[TextureArray - loadLayer] Couldn't resize " + fileName + ".");
+            }
+            return resized;
+        }
+    }
+
+    /**
+     * @param textureID A GL_TEXTURE_2D ID from {@link TextureLoader#loadTexture}.
+     * @return The layer holding the same image, or -1 if it isn't in the array.
+     */
+    public int getLayer(int textureID) {
+        Integer layer = layerByTexture.get(textureID);
+        return layer != null ? layer : -1;
+    }
+
+    /** Binds the array to a texture unit, leaving unit 0 active. */
+    public void bind(int unit) {
+        glActiveTexture(GL_TEXTURE0 + unit);
+        glBindTexture(GL_TEXTURE_2D_ARRAY, textureID);
+        glActiveTexture(GL_TEXTURE0);
+    }
+
+    public void cleanup() {
+        if (textureID != 0) {
+            glDeleteTextures(textureID);
+            textureID = 0;
+        }
+    }
+}
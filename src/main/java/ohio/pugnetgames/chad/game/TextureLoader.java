@@ -1,6 +1,7 @@
 package ohio.pugnetgames.chad.game;
 
 import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
 import org.lwjgl.stb.STBImage;
 import java.io.IOException;
 import java.io.InputStream;
@@ -14,6 +15,7 @@ import java.nio.file.Paths;
 import java.util.List; // 💥 NEW IMPORT 💥
 
 import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL30.glGenerateMipmap;
 import static org.lwjgl.system.MemoryStack.stackPush;
 
 /**
@@ -38,53 +40,39 @@ public class TextureLoader {
     }
 
     /**
-     * Loads a texture from the resources folder.
+     * Loads a texture from the resources folder, with mipmaps when the
+     * driver can generate them (GL 3.0), so far surfaces don't shimmer.
      * @param fileName The name of the texture file (e.g., "orb_texture.png").
      * @return The OpenGL texture ID, or 0 if loading failed.
      */
     public static int loadTexture(String fileName) {
-        ByteBuffer imageBuffer;
-        try {
-            // MODIFIED: Use the same robust loadResource method as FontRenderer
-            imageBuffer = loadResource(fileName, 512 * 1024); // 512KB buffer
-        } catch (IOException e) {
-            System.err.println("Could not load texture file: " + fileName);
-            e.printStackTrace();
-            return 0;
-        }
-
-        int width, height;
-        ByteBuffer imageData;
-
         // Use MemoryStack for temporary buffers
         try (var stack = stackPush()) {
             IntBuffer w = stack.mallocInt(1);
             IntBuffer h = stack.mallocInt(1);
-            stack.mallocInt(1); // Placeholder for components, we force 4
-
-            // Decode the image
-            // Note: We ignore the actual number of components and force 4 channels (RGBA)
-            imageData = STBImage.stbi_load_from_memory(imageBuffer, w, h, stack.mallocInt(1), 4);
+            ByteBuffer imageData = loadPixels(fileName, w, h);
             if (imageData == null) {
-                System.err.println("Failed to load texture data for " + fileName + ": " + STBImage.stbi_failure_reason());
                 return 0;
             }
-
-            width = w.get(0);
-            height = h.get(0);
+            int width = w.get(0);
+            int height = h.get(0);
+            boolean mipmaps = GL.getCapabilities().OpenGL30;
 
             // Create OpenGL Texture
             int textureID = glGenTextures();
-            glBindTexture(GL_TEXTURE_2D, textureID);
+            GLStateCache.bindTexture(textureID);
 
             // Set texture parameters
             glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
             glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, mipmaps ? GL_LINEAR_MIPMAP_LINEAR : GL_LINEAR);
             glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
 
             // Upload the image data to the texture
             glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, imageData);
+            if (mipmaps) {
+                glGenerateMipmap(GL_TEXTURE_2D);
+            }
 
             // Free the image data buffer
             STBImage.stbi_image_free(imageData);
@@ -93,6 +81,34 @@ public class TextureLoader {
         }
     }
 
+    /**
+     * Decodes an image from the resources folder as RGBA.
+     * @param width  Receives the width.
+     * @param height Receives the height.
+     * @return The pixels (free them with STBImage.stbi_image_free), or null if loading failed.
+     */
+    static ByteBuffer loadPixels(String fileName, IntBuffer width, IntBuffer height) {
+        ByteBuffer imageBuffer;
+        try {
+            // MODIFIED: Use the same robust loadResource method as FontRenderer
+            imageBuffer = loadResource(fileName, 512 * 1024); // 512KB buffer
+        } catch (IOException e) {
+            System.err.println("Could not load texture file: " + fileName);
+            e.printStackTrace();
+            return null;
+        }
+
+        try (var stack = stackPush()) {
+            // Decode the image
+            // Note: We ignore the actual number of components and force 4 channels (RGBA)
+            ByteBuffer imageData = STBImage.stbi_load_from_memory(imageBuffer, width, height, stack.mallocInt(1), 4);
+            if (imageData == null) {
+                System.err.println("Failed to load texture data for " + fileName + ": " + STBImage.stbi_failure_reason());
+            }
+            return imageData;
+        }
+    }
+
     /**
      * Utility to load a resource file into a ByteBuffer.
      */
@@ -0,0 +1,39 @@
+package ohio.pugnetgames.chad.game;
+
+/**
+ * A data class that represents a single tunnel produced by the layout phase.
+ * It stores the tunnel's footprint and the two rooms it connects.
+ * The escape tunnel is a dead end, so its {@link #toRoom} is null.
+ */
+public class Tunnel {
+
+    // The boundaries of the tunnel footprint
+    public final float minX, minZ, maxX, maxZ;
+
+    /** The room the tunnel was dug out of. */
+    public final Room fromRoom;
+
+    /** The room the tunnel leads into, or null for the escape tunnel. */
+    public final Room toRoom;
+
+    /** The wall of {@link #fromRoom} the tunnel leaves through. */
+    public final Direction direction;
+
+    public Tunnel(float minX, float minZ, float maxX, float maxZ,
+                  Room fromRoom, Room toRoom, Direction direction) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+        this.fromRoom = fromRoom;
+        this.toRoom = toRoom;
+        this.direction = direction;
+    }
+
+    /**
+     * @return true if this is the dead-end escape tunnel.
+     */
+    public boolean isEscape() {
+        return toRoom == null;
+    }
+}
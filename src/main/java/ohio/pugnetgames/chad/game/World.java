@@ -1,12 +1,21 @@
 package ohio.pugnetgames.chad.game;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A container class to hold all world-related data,
  * including static geometry, room data, and escape objects.
  * MODIFIED: Removed orb zones, added rooms and escape objects.
  * MODIFIED: Added new texture IDs for bedrooms.
+ *
+ * In the endless maze, rooms are loaded and unloaded as "chunks" while the
+ * game runs (see {@link WorldStreamer}). All of that happens on the game
+ * thread while holding the staticObjects lock, same as the rest of the code.
  */
 public class World {
 
@@ -21,15 +30,36 @@ public class World {
     // MODIFIED: Replaced orbSpawnZones with allRooms
     private final List<Room> allRooms;
 
+    // --- How the rooms connect (see RoomGraph) ---
+    private final RoomGraph roomGraph;
+    // Which rooms each room can see; null if not computed (or the rooms changed since)
+    private PotentiallyVisibleSets visibleSets;
+
     // --- NEW: Escape objects ---
     private final GameObject escapeDoor;
     private final GameObject winTrigger;
 
-    public World(List<GameObject> staticObjects, List<Room> allRooms,
+    // --- Streamed room chunks (endless mode only) ---
+    private final Map<Room, List<GameObject>> roomChunks = new HashMap<>();
+
+    // --- Packed copy of the static objects (see StaticGeometry) ---
+    private final StaticGeometry geometry = new StaticGeometry();
+    private int geometryVersion = 0;
+    private int syncedVersion = -1;
+
+    // --- Collision broadphase (holds geometry slots of collidable cubes) ---
+    private static final float COLLIDER_CELL_SIZE = 8.0f;
+    private final SpatialGrid<Void> colliderGrid = new SpatialGrid<>(COLLIDER_CELL_SIZE);
+    private int[] colliderSlots = new int[0];
+    private int colliderGridVersion = -1;
+    private int colliderGridObjectCount = -1;
+
+    public World(List<GameObject> staticObjects, List<Room> allRooms, RoomGraph roomGraph,
                  GameObject escapeDoor, GameObject winTrigger,
                  int wallTextureID, int orbTextureID, int woodTextureID, int sheetsTextureID) {
         this.staticObjects = staticObjects;
         this.allRooms = allRooms;
+        this.roomGraph = roomGraph;
         this.escapeDoor = escapeDoor;
         this.winTrigger = winTrigger;
         this.wallTextureID = wallTextureID;
@@ -47,6 +77,25 @@ public class World {
         return allRooms;
     }
 
+    /**
+     * @return The rooms and the tunnels between them, with doorways.
+     */
+    public RoomGraph getRoomGraph() {
+        return roomGraph;
+    }
+
+    /**
+     * @return Each room's potentially visible rooms, or null if they weren't
+     *         computed for this world.
+     */
+    public PotentiallyVisibleSets getVisibleSets() {
+        return visibleSets;
+    }
+
+    public void setVisibleSets(PotentiallyVisibleSets visibleSets) {
+        this.visibleSets = visibleSets;
+    }
+
     public GameObject getEscapeDoor() {
         return escapeDoor;
     }
@@ -56,6 +105,138 @@ public class World {
     }
     // --- END MODIFIED ---
 
+    // --- Streaming ---
+
+    /**
+     * Adds a newly generated room to the room list, and it and the tunnel
+     * leading into it to the room graph.
+     */
+    public void addRoom(Room room, Tunnel entrance) {
+        allRooms.add(room);
+        roomGraph.addRoom(room);
+        if (entrance != null) {
+            roomGraph.addTunnel(entrance);
+        }
+        visibleSets = null; // New doorways can open up new sight lines
+    }
+
+    /**
+     * Loads (or reloads) the geometry for one room, replacing whatever
+     * was loaded for it before.
+     */
+    public void setRoomChunk(Room room, List<GameObject> chunk) {
+        synchronized (staticObjects) {
+            removeRoomChunk(room);
+            roomChunks.put(room, chunk);
+            staticObjects.addAll(chunk);
+            geometryVersion++;
+        }
+    }
+
+    /**
+     * Unloads the geometry for one room. The Room itself stays in the
+     * room list so it can still be shown on the map and rebuilt later.
+     */
+    public void removeRoomChunk(Room room) {
+        synchronized (staticObjects) {
+            List<GameObject> chunk = roomChunks.remove(room);
+            if (chunk == null) return;
+            Set<GameObject> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            gone.addAll(chunk);
+            staticObjects.removeIf(gone::contains);
+            geometryVersion++;
+        }
+    }
+
+    /**
+     * Bumped whenever streamed geometry is loaded or unloaded. Objects added
+     * straight to the static list (keys' tables, admin-placed objects) don't
+     * bump it, so caches should also compare the list size.
+     */
+    public int getGeometryVersion() {
+        return geometryVersion;
+    }
+
+    /**
+     * Call after changing a static object in place (e.g. opening the escape
+     * door) so cached data like the minimap gets rebuilt.
+     */
+    public void markGeometryChanged() {
+        synchronized (staticObjects) {
+            geometryVersion++;
+        }
+    }
+
+    /**
+     * Returns the static objects packed into arrays, brought up to date with
+     * the object list first. Call (and use the result) while holding the
+     * staticObjects lock, like any other walk over the static objects.
+     *
+     * Objects appended to the list are just added on the end; anything that
+     * bumps the geometry version (streamed rooms coming and going) repacks
+     * everything.
+     */
+    public StaticGeometry getGeometry() {
+        synchronized (staticObjects) {
+            if (syncedVersion != geometryVersion || geometry.count > staticObjects.size()) {
+                for (int i = 0; i < geometry.count; i++) {
+                    geometry.getObject(i).attachGeometry(null, -1);
+                }
+                geometry.clear();
+                syncedVersion = geometryVersion;
+            }
+            for (int i = geometry.count; i < staticObjects.size(); i++) {
+                GameObject obj = staticObjects.get(i);
+                obj.attachGeometry(geometry, geometry.add(obj));
+            }
+            return geometry;
+        }
+    }
+
+    /**
+     * Collects the geometry slots of the collidable cubes whose footprint might
+     * touch the given XZ box, in static object order. This is just a
+     * broadphase: callers still run their own collision test on each slot
+     * (against {@link #getGeometry()}, under the staticObjects lock).
+     */
+    public void getColliderSlotsNear(float minX, float minZ, float maxX, float maxZ, SpatialGrid.Ids out) {
+        synchronized (staticObjects) {
+            StaticGeometry geo = getGeometry();
+            if (colliderGridVersion != geometryVersion || colliderGridObjectCount != geo.count) {
+                rebuildColliderGrid(geo);
+            }
+            colliderGrid.queryIds(minX, minZ, maxX, maxZ, out);
+            for (int i = 0; i < out.size; i++) {
+                out.ids[i] = colliderSlots[out.ids[i]];
+            }
+        }
+    }
+
+    private void rebuildColliderGrid(StaticGeometry geo) {
+        colliderGrid.clear();
+        if (colliderSlots.length < geo.count) {
+            colliderSlots = new int[geo.count];
+        }
+        int colliders = 0;
+        for (int i = 0; i < geo.count; i++) {
+            if (!geo.isCube(i) || !geo.isCollidable(i)) continue;
+            float hx = geo.scaleX[i] / 2.0f;
+            float hz = geo.scaleZ[i] / 2.0f;
+            colliderGrid.add(null, geo.posX[i] - hx, geo.posZ[i] - hz, geo.posX[i] + hx, geo.posZ[i] + hz);
+            colliderSlots[colliders++] = i;
+        }
+        colliderGridVersion = geometryVersion;
+        colliderGridObjectCount = geo.count;
+    }
+
+    public boolean isRoomLoaded(Room room) {
+        return roomChunks.containsKey(room);
+    }
+
+    public int getLoadedRoomCount() {
+        return roomChunks.size();
+    }
+
     // NEW: Getters for textures
     public int getWallTextureID() {
         return wallTextureID;
@@ -0,0 +1,46 @@
+package ohio.pugnetgames.chad.game;
+
+import java.util.List;
+
+/**
+ * The result of the layout phase of world generation: which rooms exist,
+ * where they are, and which tunnels connect them. Contains no geometry.
+ *
+ * Rooms are stored in generation order and each room's {@link Room#index}
+ * matches its position in {@link #rooms}.
+ */
+public class WorldLayout {
+
+    /** The seed the layout was generated from. */
+    public final long seed;
+
+    public final List<Room> rooms;
+
+    /** Every tunnel between two rooms, in the order they were dug. */
+    public final List<Tunnel> tunnels;
+
+    /** The dead-end escape tunnel, or null if generation failed to place it. */
+    public final Tunnel escapeTunnel;
+
+    public WorldLayout(long seed, List<Room> rooms, List<Tunnel> tunnels, Tunnel escapeTunnel) {
+        this.seed = seed;
+        this.rooms = rooms;
+        this.tunnels = tunnels;
+        this.escapeTunnel = escapeTunnel;
+    }
+
+    /**
+     * @return true if the escape tunnel was placed.
+     */
+    public boolean hasEscapeTunnel() {
+        return escapeTunnel != null;
+    }
+
+    /**
+     * @return true if every room and the escape tunnel can be reached from
+     *         the start room (see {@link LayoutValidator}).
+     */
+    public boolean isWinnable() {
+        return LayoutValidator.check(this).isWinnable();
+    }
+}
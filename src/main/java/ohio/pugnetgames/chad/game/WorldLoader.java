@@ -4,8 +4,17 @@ import ohio.pugnetgames.chad.core.BuildManager;
 import ohio.pugnetgames.chad.game.GameObject.ShapeType;
 import ohio.pugnetgames.chad.game.Room.RoomType;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * WorldLoader now procedurally generates a random map of rooms and tunnels
@@ -13,9 +22,27 @@ import java.util.Random;
  *
  * MODIFIED: Now generates Bedrooms with 2 beds, 2 tables, and saves
  * key spawn locations to the Room object.
+ *
+ * Generation runs in two phases. The layout phase decides where rooms and
+ * tunnels go using one seeded Random and produces a {@link WorldLayout}. The
+ * geometry phase then builds each room in parallel, each with its own random
+ * stream derived from the seed, so a seed always yields the same world no
+ * matter how many cores are doing the work.
+ *
+ * For the endless maze the same two phases are driven one room at a time by
+ * {@link WorldStreamer}: {@link #beginEndlessLayout} creates the start room,
+ * {@link #growRoom} adds a room off a wall, and {@link #buildRoomChunk(Room)}
+ * (re)builds a room's geometry whenever it needs to be loaded.
  */
 public class WorldLoader {
 
+    /**
+     * Bump this whenever a change here makes a seed produce a different
+     * world. Saved world snapshots from older versions are then thrown away
+     * and regenerated instead of being loaded.
+     */
+    public static final int GENERATOR_VERSION = 2;
+
     // --- Generation Constants ---
     private static final float WALL_HEIGHT = 8.0f;
     private static final float WALL_THICKNESS = 0.1f;
@@ -26,6 +53,10 @@ public class WorldLoader {
     private static final float MAX_ROOM_SIZE = 30.0f;
     private static final float MIN_TUNNEL_LENGTH = 8.0f;
     private static final float MAX_TUNNEL_LENGTH = 15.0f;
+    private static final float BOUNDS_CELL_SIZE = 32.0f; // About one room across
+    private static final int MAX_LAYOUT_ATTEMPTS = 8; // Seeds tried before giving up on a winnable layout
+    // Slot grid: room centers sit this far apart, so the biggest rooms still get a minimum-length tunnel
+    private static final float SLOT_PITCH = MAX_ROOM_SIZE + MIN_TUNNEL_LENGTH;
 
     // --- NEW ESCAPE CONSTANTS ---
     private static final float HALLWAY_LENGTH = 20.0f;
@@ -33,28 +64,16 @@ public class WorldLoader {
 
     // --- NEW TREE CONSTANTS ---
     private static final int TREES_PER_COURTYARD = 8;
-    private static final float TRUNK_HEIGHT = 4.0f;
-    private static final float TRUNK_WIDTH = 0.4f;
-    private static final float LEAF_RADIUS = 2.0f;
     private static final float TREE_INSET = 2.5f; // Distance from walls/orb zone edges
 
     // --- 💥 BEDROOM FURNITURE CONSTANTS 💥 ---
-    private static final float BED_WIDTH = 2.5f;  // X-axis (Increased depth into the room)
-    private static final float BED_LENGTH = 3.0f; // Z-axis (Increased width along the wall)
-    private static final float BED_HEIGHT = 0.4f; // Y-axis (mattress)
-    private static final float BED_LEG_HEIGHT = 0.35f;
-    private static final float BED_LEG_SIZE = 0.15f;
-    private static final float HEADBOARD_HEIGHT = 1.2f;
-    private static final float HEADBOARD_THICKNESS = 0.1f;
-
-    private static final float TABLE_TOP_W = 1.2f; // width (x)
-    private static final float TABLE_TOP_D = 0.8f; // depth (z)
-    private static final float TABLE_TOP_H = 0.1f;
-    private static final float TABLE_TOP_Y = 0.8f; // Height of table surface
-    private static final float TABLE_LEG_HEIGHT = 0.8f;
-    private static final float TABLE_LEG_SIZE = 0.15f;
-    private static final float TABLE_LEG_OFFSET_X = (TABLE_TOP_W / 2.0f) - (TABLE_LEG_SIZE / 2.0f);
-    private static final float TABLE_LEG_OFFSET_Z = (TABLE_TOP_D / 2.0f) - (TABLE_LEG_SIZE / 2.0f);
+    // (Prop sizes live in PrefabRegistry; these are just for placement)
+    private static final float BED_WIDTH = PrefabRegistry.BED_WIDTH;
+    private static final float BED_LENGTH = PrefabRegistry.BED_LENGTH;
+    private static final float TABLE_TOP_W = PrefabRegistry.TABLE_TOP_W;
+    private static final float TABLE_TOP_D = PrefabRegistry.TABLE_TOP_D;
+    private static final float TABLE_TOP_Y = PrefabRegistry.TABLE_TOP_Y;
+    private static final float LEAF_RADIUS = PrefabRegistry.LEAF_RADIUS;
 
     private static final float FURNITURE_WALL_PADDING = 0.5f; // Distance from wall
     // --- 💥 END CONSTANTS 💥 ---
@@ -65,7 +84,13 @@ public class WorldLoader {
     private long lastSeed;
     private List<GameObject> staticObjects;
     private List<Room> allRooms;
-    private List<Room> allGeneratedBounds;
+    // Every room and tunnel placed so far, for overlap checks
+    private SpatialGrid<Room> generatedBounds;
+    private final List<Room> nearbyBounds = new ArrayList<>();
+    private GenerationOptions options = GenerationOptions.defaults();
+    private List<Tunnel> tunnels;
+    private Tunnel escapeTunnel;
+    private Map<Room, Tunnel> entranceTunnels;
 
     private boolean forceCourtyards = false;
     private boolean forceBedrooms = false;
@@ -89,31 +114,50 @@ public class WorldLoader {
      */
     public World generateWorld(int wallTextureID, int orbTextureID, int woodTextureID,
                                int sheetsTextureID, int tileTextureID, long seed) {
-        this.lastSeed  = seed;
-        this.random    = new Random(seed);
-        this.staticObjects        = new ArrayList<>();
-        this.allRooms             = new ArrayList<>();
-        this.allGeneratedBounds   = new ArrayList<>();
-        this.wallTextureID   = wallTextureID;
-        this.orbTextureID    = orbTextureID;
-        this.woodTextureID   = woodTextureID;
-        this.sheetsTextureID = sheetsTextureID;
-        this.tileTextureID   = tileTextureID;
-        this.forceCourtyards = BuildManager.getBoolean("feature.allcourtyards.enabled");
-        this.forceBedrooms   = BuildManager.getBoolean("feature.allbedrooms.enabled");
+        return generateWorld(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID,
+                seed, GenerationOptions.defaults());
+    }
+
+    /**
+     * Creates and returns a World object using a specific seed and size/logging options.
+     */
+    public World generateWorld(int wallTextureID, int orbTextureID, int woodTextureID,
+                               int sheetsTextureID, int tileTextureID, long seed, GenerationOptions options) {
+        reset(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID, seed);
+        this.options = options;
         return buildWorld();
     }
 
+    /**
+     * Runs only the layout phase (including validation and repair) for a
+     * seed: rooms and tunnels, no geometry and no textures. Gives the same
+     * rooms as {@link #generateWorld} with the same seed and options, and is
+     * cheap enough to scan thousands of seeds (see SeedFinder).
+     */
+    public WorldLayout generateLayout(long seed, GenerationOptions options) {
+        reset(0, 0, 0, 0, 0, seed);
+        this.options = options;
+        return planLayout();
+    }
+
     /**
      * Creates and returns a World object containing all static GameObjects and room data.
      */
     public World generateWorld(int wallTextureID, int orbTextureID, int woodTextureID,
                                int sheetsTextureID, int tileTextureID) {
-        this.lastSeed        = new Random().nextLong();
-        this.random          = new Random(lastSeed);
+        return generateWorld(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID,
+                new Random().nextLong());
+    }
+
+    /**
+     * Resets all generator state for a fresh world from the given seed.
+     */
+    private void reset(int wallTextureID, int orbTextureID, int woodTextureID,
+                       int sheetsTextureID, int tileTextureID, long seed) {
+        this.lastSeed        = seed;
+        this.options         = GenerationOptions.defaults();
         this.staticObjects   = new ArrayList<>();
-        this.allRooms        = new ArrayList<>();
-        this.allGeneratedBounds = new ArrayList<>();
+        resetLayout(seed);
         this.wallTextureID   = wallTextureID;
         this.orbTextureID    = orbTextureID;
         this.woodTextureID   = woodTextureID;
@@ -121,7 +165,19 @@ public class WorldLoader {
         this.tileTextureID   = tileTextureID;
         this.forceCourtyards = BuildManager.getBoolean("feature.allcourtyards.enabled");
         this.forceBedrooms   = BuildManager.getBoolean("feature.allbedrooms.enabled");
-        return buildWorld();
+    }
+
+    /**
+     * Clears the layout state (rooms, tunnels, overlap index) and reseeds the
+     * shared Random.
+     */
+    private void resetLayout(long seed) {
+        this.random          = new Random(seed);
+        this.allRooms        = new ArrayList<>();
+        this.generatedBounds = new SpatialGrid<>(BOUNDS_CELL_SIZE);
+        this.tunnels         = new ArrayList<>();
+        this.escapeTunnel    = null;
+        this.entranceTunnels = new HashMap<>();
     }
 
     /**
@@ -129,34 +185,58 @@ public class WorldLoader {
      * Assumes random, staticObjects, allRooms, textures, and flags are already set.
      */
     private World buildWorld() {
-        this.escapeDoor = null;
-        this.winTrigger = null;
+        WorldLayout layout = planLayout();
+        return buildGeometry(layout);
+    }
 
-        int totalRoomsToGenerate = random.nextInt(2) + 50; // 50 or 51
-        List<Room> roomsToProcess = new ArrayList<>();
+    /**
+     * Layout phase: grows a maze, then checks it can be won (see
+     * {@link LayoutValidator}) before any geometry is built. A broken layout is
+     * repaired if possible; otherwise the maze is grown again from a seed
+     * derived from the original one, so a seed still always gives the same
+     * world. Only if every attempt fails is a broken layout returned.
+     */
+    private WorldLayout planLayout() {
+        long layoutSeed = lastSeed;
+        for (int attempt = 1; ; attempt++) {
+            WorldLayout layout = options.layoutAlgorithm == GenerationOptions.LayoutAlgorithm.SLOT_GRID
+                    ? planSlotGrid(layoutSeed)
+                    : growLayout(layoutSeed);
+            LayoutValidator.Result check = LayoutValidator.check(layout);
+            if (!check.isWinnable()) {
+                log("generateWorld", "Layout is not winnable (" + check + "). Repairing.");
+                layout = repairLayout(layout, check);
+                check = LayoutValidator.check(layout);
+            }
 
-        // 3. Create the first (start) room
-        float startSizeX = randRange(MIN_ROOM_SIZE, MAX_ROOM_SIZE);
-        float startSizeZ = randRange(MIN_ROOM_SIZE, MAX_ROOM_SIZE);
+            if (check.isWinnable()) {
+                log("generateWorld", "Layout validated: " + layout.rooms.size() + " rooms, escape reachable.");
+                return layout;
+            }
+            if (attempt == MAX_LAYOUT_ATTEMPTS) {
+                System.err.println("[WorldLoader - generateWorld] Generation FAILED. WARNING: No winnable layout after "
+                        + attempt + " attempts (" + check + ").");
+                return layout;
+            }
 
-        RoomType startRoomType;
-        if (this.forceBedrooms) {
-            startRoomType = RoomType.BEDROOM;
-        } else if (this.forceCourtyards) {
-            startRoomType = RoomType.COURTYARD;
-        } else {
-            startRoomType = RoomType.STANDARD;
+            layoutSeed = new SplittableRandom(layoutSeed).nextLong();
+            log("generateWorld", "Layout could not be repaired (" + check
+                    + "). Regrowing from derived seed " + layoutSeed + ".");
+            resetLayout(layoutSeed);
         }
+    }
 
-        Room startRoom = new Room(
-                -startSizeX / 2.0f, -startSizeZ / 2.0f,
-                startSizeX / 2.0f,  startSizeZ / 2.0f,
-                startRoomType
-        );
-        allRooms.add(startRoom);
-        allGeneratedBounds.add(startRoom);
+    /**
+     * Grows the maze room by room and records every tunnel. All decisions come
+     * from the shared seeded Random; no geometry is built.
+     */
+    private WorldLayout growLayout(long layoutSeed) {
+        int totalRoomsToGenerate = random.nextInt(2) + options.roomCount; // e.g. 50 or 51
+        List<Room> roomsToProcess = new ArrayList<>();
+
+        // 3. Create the first (start) room
+        Room startRoom = createStartRoom();
         roomsToProcess.add(startRoom);
-        log("generateWorld", "Created Start Room (" + startRoomType + ") at (0, 0) with size (" + startSizeX + ", " + startSizeZ + ")");
 
         log("generateWorld", "Starting generation. Goal: " + totalRoomsToGenerate + " rooms + 1 Escape Tunnel.");
         boolean escapeTunnelBuilt = false;
@@ -177,32 +257,15 @@ public class WorldLoader {
                 Direction buildDirection = availableWalls.get(random.nextInt(availableWalls.size()));
 
                 boolean isEscapeTunnel = allRooms.size() == totalRoomsToGenerate - 1;
-                boolean isCourtyard   = false;
-                boolean isBedroom     = false;
-                boolean isPaddedCell  = false;
-
-                if (!isEscapeTunnel) {
-                    if (this.forceBedrooms) {
-                        isBedroom = true;
-                    } else if (this.forceCourtyards) {
-                        isCourtyard = true;
-                    } else {
-                        boolean defaultCourtyard = random.nextInt(5) == 0; // 1 in 5
-                        if (defaultCourtyard) {
-                            isCourtyard = true;
-                        } else {
-                            isBedroom = random.nextInt(10) == 0; // 1 in 10
-                            if (!isBedroom) {
-                                isPaddedCell = random.nextInt(8) == 0; // 1 in 8 of remaining
-                            }
-                        }
-                    }
-                }
+                RoomType newType = isEscapeTunnel ? null : rollRoomType();
 
-                Room newRoom = buildTunnelAndNextRoom(currentRoom, buildDirection, isCourtyard, isBedroom, isPaddedCell, isEscapeTunnel);
+                Room newRoom = buildTunnelAndNextRoom(currentRoom, buildDirection, newType == RoomType.COURTYARD,
+                        newType == RoomType.BEDROOM, newType == RoomType.PADDED_CELL, isEscapeTunnel);
 
-                if (newRoom != null || (newRoom == null && isEscapeTunnel)) {
+                // A collision returns null too, so check the escape tunnel really got placed
+                if (newRoom != null || (isEscapeTunnel && escapeTunnel != null)) {
                     if (newRoom != null) {
+                        newRoom.index = allRooms.size();
                         allRooms.add(newRoom);
                         roomsToProcess.add(newRoom);
                         log("generateWorld", "Successfully added new " + newRoom.getType() + " room. Total rooms: " + allRooms.size());
@@ -225,30 +288,451 @@ public class WorldLoader {
         if (escapeTunnelBuilt) {
             log("generateWorld", "Generation complete. Escape tunnel was built.");
         } else {
-            log("generateWorld", "Generation FAILED. WARNING: Escape tunnel was NOT built.");
+            log("generateWorld", "Escape tunnel was NOT built (" + allRooms.size() + " of "
+                    + totalRoomsToGenerate + " rooms placed).");
+        }
+
+        return new WorldLayout(layoutSeed, allRooms, tunnels, escapeTunnel);
+    }
+
+    // --- Slot Grid Layout ---
+
+    /**
+     * Graph-first layout ({@link GenerationOptions.LayoutAlgorithm#SLOT_GRID}).
+     *
+     * Room centers sit on a square grid of slots {@link #SLOT_PITCH} apart,
+     * with the start room in slot (0, 0). Rooms are at most MAX_ROOM_SIZE
+     * across, so two rooms can never overlap and neighbouring slots can always
+     * be joined by a straight tunnel between their wall centers.
+     *
+     * The room graph is planned first: a random spanning tree grown out from
+     * the start slot (each step joins a random free slot next to the maze),
+     * then extra tunnels between neighbouring rooms with
+     * {@link GenerationOptions#loopChance} to make loops. The escape tunnel
+     * leaves the deepest room that has an empty slot next to it. Every step
+     * is a fixed amount of work per room and nothing is ever retried, so the
+     * room target is always reached.
+     */
+    private WorldLayout planSlotGrid(long layoutSeed) {
+        int totalRoomsToGenerate = random.nextInt(2) + options.roomCount;
+        int roomTarget = Math.max(1, totalRoomsToGenerate - 1); // Same count as growLayout; the escape is the last "room"
+        Map<Long, Room> slots = new HashMap<>(roomTarget * 2);
+        int[] slotXOf = new int[roomTarget];
+        int[] slotZOf = new int[roomTarget];
+
+        Room startRoom = createStartRoom();
+        slots.put(slotKey(0, 0), startRoom);
+
+        // Frontier entries are (room index << 2 | direction); stale ones are skipped when drawn
+        Direction[] directions = Direction.values();
+        int[] frontier = new int[roomTarget * 3 + 4];
+        int frontierSize = 0;
+        for (Direction direction : directions) {
+            frontier[frontierSize++] = direction.ordinal();
+        }
+
+        log("generateWorld", "Planning slot grid. Goal: " + roomTarget + " rooms + 1 Escape Tunnel.");
+        while (allRooms.size() < roomTarget) {
+            int pick = random.nextInt(frontierSize);
+            int entry = frontier[pick];
+            frontier[pick] = frontier[--frontierSize];
+
+            Room fromRoom = allRooms.get(entry >>> 2);
+            Direction direction = directions[entry & 3];
+            int slotX = slotXOf[fromRoom.index] + stepX(direction);
+            int slotZ = slotZOf[fromRoom.index] + stepZ(direction);
+            if (slots.containsKey(slotKey(slotX, slotZ))) {
+                continue;
+            }
+
+            float width = randRange(MIN_ROOM_SIZE, MAX_ROOM_SIZE);
+            float depth = randRange(MIN_ROOM_SIZE, MAX_ROOM_SIZE);
+            float centerX = slotX * SLOT_PITCH;
+            float centerZ = slotZ * SLOT_PITCH;
+            Room newRoom = new Room(centerX - width / 2.0f, centerZ - depth / 2.0f,
+                    centerX + width / 2.0f, centerZ + depth / 2.0f, rollRoomType());
+            newRoom.index = allRooms.size();
+            allRooms.add(newRoom);
+            addGeneratedBounds(newRoom);
+            slots.put(slotKey(slotX, slotZ), newRoom);
+            slotXOf[newRoom.index] = slotX;
+            slotZOf[newRoom.index] = slotZ;
+
+            Tunnel tunnel = connectSlots(fromRoom, newRoom, direction);
+            entranceTunnels.put(newRoom, tunnel);
+            for (Direction next : directions) {
+                if (next != direction.getOpposite()) {
+                    frontier[frontierSize++] = (newRoom.index << 2) | next.ordinal();
+                }
+            }
+            log("generateWorld", "Placed " + newRoom.getType() + " room in slot (" + slotX + ", " + slotZ + "). Total rooms: " + allRooms.size());
+        }
+
+        // Loops: look east and north from every room so each pair is only considered once
+        if (options.loopChance > 0.0f) {
+            int loops = 0;
+            Direction[] forward = {Direction.EAST, Direction.NORTH};
+            for (Room room : allRooms) {
+                for (Direction direction : forward) {
+                    Room neighbour = slots.get(slotKey(slotXOf[room.index] + stepX(direction),
+                            slotZOf[room.index] + stepZ(direction)));
+                    // Walls facing each other are only used by a tunnel between these two rooms
+                    if (neighbour != null && !isWallUsed(room, direction)
+                            && random.nextFloat() < options.loopChance) {
+                        connectSlots(room, neighbour, direction);
+                        loops++;
+                    }
+                }
+            }
+            log("generateWorld", "Added " + loops + " loop tunnels.");
         }
 
-        // 5. Build all room geometry
+        // Escape tunnel: deepest room (most tunnels from the start) with an empty slot beside it
+        int[] depth = new int[allRooms.size()];
+        Room exitRoom = null;
+        List<Direction> exitWalls = new ArrayList<>();
+        List<Direction> openWalls = new ArrayList<>();
         for (Room room : allRooms) {
-            buildRoomFloorAndRoof(room);
-            buildRoomWalls(room);
+            Tunnel entrance = entranceTunnels.get(room);
+            depth[room.index] = entrance == null ? 0 : depth[entrance.fromRoom.index] + 1;
+            if (exitRoom != null && depth[room.index] <= depth[exitRoom.index]) {
+                continue;
+            }
+            openWalls.clear();
+            for (Direction direction : directions) {
+                if (!slots.containsKey(slotKey(slotXOf[room.index] + stepX(direction),
+                        slotZOf[room.index] + stepZ(direction)))) {
+                    openWalls.add(direction);
+                }
+            }
+            if (!openWalls.isEmpty()) {
+                exitRoom = room;
+                exitWalls.clear();
+                exitWalls.addAll(openWalls);
+            }
+        }
+        // The slot past the wall is empty, so this can't collide with anything
+        buildTunnelAndNextRoom(exitRoom, exitWalls.get(random.nextInt(exitWalls.size())), false, false, false, true);
+        log("generateWorld", "Slot grid complete. Escape tunnel leaves room " + exitRoom.index
+                + " (depth " + depth[exitRoom.index] + ").");
+
+        return new WorldLayout(layoutSeed, allRooms, tunnels, escapeTunnel);
+    }
+
+    /**
+     * Digs the tunnel between two rooms in neighbouring slots (b lies in the
+     * given direction from a) and marks both walls.
+     */
+    private Tunnel connectSlots(Room a, Room b, Direction direction) {
+        float halfWidth = TUNNEL_WIDTH / 2.0f;
+        Tunnel tunnel;
+        switch (direction) {
+            case NORTH:
+                tunnel = new Tunnel(a.getCenterX() - halfWidth, a.maxZ, a.getCenterX() + halfWidth, b.minZ, a, b, direction);
+                break;
+            case SOUTH:
+                tunnel = new Tunnel(a.getCenterX() - halfWidth, b.maxZ, a.getCenterX() + halfWidth, a.minZ, a, b, direction);
+                break;
+            case EAST:
+                tunnel = new Tunnel(a.maxX, a.getCenterZ() - halfWidth, b.minX, a.getCenterZ() + halfWidth, a, b, direction);
+                break;
+            default:
+                tunnel = new Tunnel(b.maxX, a.getCenterZ() - halfWidth, a.minX, a.getCenterZ() + halfWidth, a, b, direction);
+                break;
+        }
+        a.markWallUsed(direction);
+        b.markWallUsed(direction.getOpposite());
+        tunnels.add(tunnel);
+        addGeneratedBounds(new Room(tunnel.minX, tunnel.minZ, tunnel.maxX, tunnel.maxZ));
+        return tunnel;
+    }
+
+    private static boolean isWallUsed(Room room, Direction wall) {
+        switch (wall) {
+            case NORTH: return room.northWallUsed;
+            case SOUTH: return room.southWallUsed;
+            case EAST:  return room.eastWallUsed;
+            default:    return room.westWallUsed;
+        }
+    }
+
+    private static int stepX(Direction direction) {
+        return direction == Direction.EAST ? 1 : direction == Direction.WEST ? -1 : 0;
+    }
+
+    private static int stepZ(Direction direction) {
+        return direction == Direction.NORTH ? 1 : direction == Direction.SOUTH ? -1 : 0;
+    }
+
+    private static long slotKey(int slotX, int slotZ) {
+        return ((long) slotX << 32) | (slotZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fixes what {@link LayoutValidator} complained about, without touching
+     * the reachable part of the maze: rooms cut off from the start are dropped
+     * (doorways leading to them are walled up again), and a missing or
+     * unreachable escape tunnel is dug again off the deepest room that still
+     * has a free wall.
+     */
+    private WorldLayout repairLayout(WorldLayout layout, LayoutValidator.Result check) {
+        if (!check.unreachableRooms.isEmpty()) {
+            Set<Room> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+            dropped.addAll(check.unreachableRooms);
+            tunnels.removeIf(tunnel -> {
+                boolean fromDropped = dropped.contains(tunnel.fromRoom);
+                boolean toDropped = dropped.contains(tunnel.toRoom);
+                if (!fromDropped && toDropped) {
+                    tunnel.fromRoom.unmarkWallUsed(tunnel.direction);
+                }
+                return fromDropped || toDropped;
+            });
+            for (Room room : dropped) {
+                entranceTunnels.remove(room);
+            }
+            allRooms.removeIf(dropped::contains);
+            for (int i = 0; i < allRooms.size(); i++) {
+                allRooms.get(i).index = i;
+            }
+            if (escapeTunnel != null && dropped.contains(escapeTunnel.fromRoom)) {
+                escapeTunnel = null;
+            }
+            log("generateWorld", "Dropped " + dropped.size() + " unreachable rooms.");
+        }
+
+        if (escapeTunnel != null && !LayoutValidator.check(layoutOf(layout.seed)).escapeReachable) {
+            escapeTunnel = null; // Its doorway is walled off
+        }
+        if (escapeTunnel == null) {
+            placeEscapeTunnel();
+        }
+        return layoutOf(layout.seed);
+    }
 
-            if (room.getType() == RoomType.COURTYARD) {
-                generateTreesForRoom(room);
-            } else if (room.getType() == RoomType.BEDROOM) {
-                generateBedForRoom(room);
+    /**
+     * Tries every free wall of every room, deepest rooms (most tunnels away
+     * from the start) first, until the escape tunnel fits somewhere.
+     */
+    private void placeEscapeTunnel() {
+        int[] depth = new int[allRooms.size()];
+        for (Room room : allRooms) {
+            Tunnel entrance = entranceTunnels.get(room);
+            depth[room.index] = entrance == null ? 0 : depth[entrance.fromRoom.index] + 1;
+        }
+        List<Room> candidates = new ArrayList<>(allRooms);
+        candidates.sort(Comparator.comparingInt((Room room) -> -depth[room.index]).thenComparingInt(room -> room.index));
+
+        for (Room room : candidates) {
+            for (Direction wall : room.getAvailableWalls()) {
+                buildTunnelAndNextRoom(room, wall, false, false, false, true);
+                if (escapeTunnel != null) {
+                    log("generateWorld", "Escape tunnel re-dug off room " + room.index + " (depth " + depth[room.index] + ").");
+                    return;
+                }
             }
-            // PADDED_CELL rooms are intentionally empty — the bare tiled walls are the feature.
         }
+        log("generateWorld", "No free wall could take the escape tunnel.");
+    }
+
+    private WorldLayout layoutOf(long layoutSeed) {
+        return new WorldLayout(layoutSeed, allRooms, tunnels, escapeTunnel);
+    }
+
+    /**
+     * Creates the start room centered on the origin and records it.
+     */
+    private Room createStartRoom() {
+        float startSizeX = randRange(MIN_ROOM_SIZE, MAX_ROOM_SIZE);
+        float startSizeZ = randRange(MIN_ROOM_SIZE, MAX_ROOM_SIZE);
+
+        RoomType startRoomType;
+        if (this.forceBedrooms) {
+            startRoomType = RoomType.BEDROOM;
+        } else if (this.forceCourtyards) {
+            startRoomType = RoomType.COURTYARD;
+        } else {
+            startRoomType = RoomType.STANDARD;
+        }
+
+        Room startRoom = new Room(
+                -startSizeX / 2.0f, -startSizeZ / 2.0f,
+                startSizeX / 2.0f,  startSizeZ / 2.0f,
+                startRoomType
+        );
+        startRoom.index = 0;
+        allRooms.add(startRoom);
+        addGeneratedBounds(startRoom);
+        log("generateWorld", "Created Start Room (" + startRoomType + ") at (0, 0) with size (" + startSizeX + ", " + startSizeZ + ")");
+        return startRoom;
+    }
+
+    /**
+     * Rolls the type of the next room. Called once per placement attempt, and
+     * consumes the shared Random in the same order as it always has.
+     */
+    private RoomType rollRoomType() {
+        if (this.forceBedrooms) {
+            return RoomType.BEDROOM;
+        } else if (this.forceCourtyards) {
+            return RoomType.COURTYARD;
+        }
+        boolean defaultCourtyard = random.nextInt(5) == 0; // 1 in 5
+        if (defaultCourtyard) {
+            return RoomType.COURTYARD;
+        }
+        if (random.nextInt(10) == 0) { // 1 in 10
+            return RoomType.BEDROOM;
+        }
+        if (random.nextInt(8) == 0) { // 1 in 8 of remaining
+            return RoomType.PADDED_CELL;
+        }
+        return RoomType.STANDARD;
+    }
+
+    // --- Endless Mode ---
+
+    /**
+     * Starts an endless layout from the given seed. Only the start room is
+     * created; more rooms come from {@link #growRoom}. After this call the
+     * loader should only be used by one thread at a time.
+     *
+     * The World holds a copy of the start room, not the layout's own, so
+     * the layout can keep changing on another thread while the game reads
+     * the World (see {@link WorldStreamer}).
+     *
+     * @return A World holding just the (not yet built) start room.
+     */
+    public World beginEndlessLayout(int wallTextureID, int orbTextureID, int woodTextureID,
+                                    int sheetsTextureID, int tileTextureID, long seed) {
+        reset(wallTextureID, orbTextureID, woodTextureID, sheetsTextureID, tileTextureID, seed);
+        Room startRoom = createStartRoom();
+        List<Room> worldRooms = new ArrayList<>();
+        worldRooms.add(startRoom.copy());
+        RoomGraph graph = RoomGraph.of(worldRooms, Collections.emptyList(), null);
+        return new World(new ArrayList<>(), worldRooms, graph, null, null, wallTextureID, orbTextureID, woodTextureID, sheetsTextureID);
+    }
+
+    /**
+     * Tries to add a new room (and the tunnel to it) off one wall of an existing room.
+     *
+     * @return The new room, or null if it would collide with something.
+     */
+    public Room growRoom(Room fromRoom, Direction direction) {
+        RoomType type = rollRoomType();
+        Room newRoom = buildTunnelAndNextRoom(fromRoom, direction, type == RoomType.COURTYARD,
+                type == RoomType.BEDROOM, type == RoomType.PADDED_CELL, false);
+        if (newRoom != null) {
+            newRoom.index = allRooms.size();
+            allRooms.add(newRoom);
+        }
+        return newRoom;
+    }
+
+    /**
+     * Builds the geometry for one room of the current layout. Building the same
+     * room again gives identical objects, except that walls which gained a
+     * tunnel in the meantime now have a doorway.
+     */
+    public List<GameObject> buildRoomChunk(Room room) {
+        Tunnel entrance = entranceTunnels.get(room);
+        return buildRoomChunk(room,
+                entrance == null ? Collections.emptyList() : Collections.singletonList(entrance),
+                roomRandom(lastSeed, room.index));
+    }
+
+    /** Returns the tunnel leading into the given room, or null for the start room. */
+    public Tunnel getEntranceTunnel(Room room) {
+        return entranceTunnels.get(room);
+    }
+
+    /** Returns the rooms of the current layout (start room first). */
+    public List<Room> getLayoutRooms() {
+        return allRooms;
+    }
+
+    /**
+     * Geometry phase: builds every room (plus the tunnel leading into it) as an
+     * independent chunk on the common fork/join pool, then merges the chunks in
+     * room order. The escape tunnel is built last on the calling thread because
+     * it hands back the door and win trigger.
+     */
+    private World buildGeometry(WorldLayout layout) {
+        this.escapeDoor = null;
+        this.winTrigger = null;
+
+        List<Room> rooms = layout.rooms;
+        List<List<Tunnel>> incomingTunnels = new ArrayList<>(rooms.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            incomingTunnels.add(new ArrayList<>(1));
+        }
+        for (Tunnel tunnel : layout.tunnels) {
+            incomingTunnels.get(tunnel.toRoom.index).add(tunnel);
+        }
+
+        List<List<GameObject>> chunks = IntStream.range(0, rooms.size())
+                .parallel()
+                .mapToObj(i -> buildRoomChunk(rooms.get(i), incomingTunnels.get(i), roomRandom(layout.seed, i)))
+                .collect(Collectors.toList());
+
+        for (List<GameObject> chunk : chunks) {
+            staticObjects.addAll(chunk);
+        }
+
+        if (layout.escapeTunnel != null) {
+            buildDeadEndEscapeTunnel(layout.escapeTunnel, staticObjects);
+        }
+
+        System.out.println("[WorldLoader - generateWorld] Returning new World with " + rooms.size() + " rooms and "
+                + staticObjects.size() + " static objects.");
+        RoomGraph graph = RoomGraph.of(rooms, layout.tunnels, layout.escapeTunnel);
+        World world = new World(staticObjects, rooms, graph, escapeDoor, winTrigger, wallTextureID, orbTextureID, woodTextureID, sheetsTextureID);
+        if (options.computeVisibleSets) {
+            world.setVisibleSets(PotentiallyVisibleSets.compute(graph));
+        }
+        return world;
+    }
+
+    /**
+     * Builds all geometry owned by one room: the tunnels that lead into it,
+     * its floor, roof, walls and furniture. Safe to call from any thread, as it
+     * only reads generator settings and writes to its own list and room.
+     *
+     * @param room            The room to build.
+     * @param incomingTunnels Tunnels whose {@link Tunnel#toRoom} is this room (none for the start
+     *                        room; more than one only with slot grid loops).
+     * @param rng            The room's private random stream.
+     */
+    private List<GameObject> buildRoomChunk(Room room, List<Tunnel> incomingTunnels, SplittableRandom rng) {
+        List<GameObject> out = new ArrayList<>();
+        for (Tunnel tunnel : incomingTunnels) {
+            buildTunnelObjects(tunnel.minX, tunnel.minZ, tunnel.maxX, tunnel.maxZ, out);
+        }
+
+        buildRoomFloorAndRoof(room, out);
+        buildRoomWalls(room, out);
+
+        if (room.getType() == RoomType.COURTYARD) {
+            generateTreesForRoom(room, rng, out);
+        } else if (room.getType() == RoomType.BEDROOM) {
+            generateBedForRoom(room, out);
+        }
+        // PADDED_CELL rooms are intentionally empty — the bare tiled walls are the feature.
+        return out;
+    }
 
-        log("generateWorld", "Returning new World with " + staticObjects.size() + " static objects.");
-        return new World(staticObjects, allRooms, escapeDoor, winTrigger, wallTextureID, orbTextureID, woodTextureID, sheetsTextureID);
+    /**
+     * Derives the private random stream for one room. Depends only on the world
+     * seed and the room's index, never on which thread builds the room.
+     */
+    static SplittableRandom roomRandom(long worldSeed, int roomIndex) {
+        long roomSeed = new SplittableRandom(worldSeed ^ (roomIndex * 0x9E3779B97F4A7C15L)).nextLong();
+        return new SplittableRandom(roomSeed);
     }
 
     /**
      * --- Helper to build just the floor and roof for a room ---
      */
-    private void buildRoomFloorAndRoof(Room room) {
+    private void buildRoomFloorAndRoof(Room room, List<GameObject> out) {
         int floorTexture;
         if (room.getType() == RoomType.COURTYARD) {
             floorTexture = orbTextureID;
@@ -262,69 +746,30 @@ public class WorldLoader {
         String roomType = room.getType().toString();
 
         GameObject floor = new GameObject(ShapeType.PLANE, room.getCenterX(), 0.0f, room.getCenterZ(), room.getWidth(), 0.0f, room.getDepth(), floorTexture);
-        staticObjects.add(floor);
+        out.add(floor);
         log("buildRoomFloorAndRoof", "Added " + roomType + " Floor at " + pos(floor));
 
         if (room.getType() == RoomType.STANDARD || room.getType() == RoomType.BEDROOM
                 || room.getType() == RoomType.PADDED_CELL) {
             int roofTex = room.getType() == RoomType.PADDED_CELL ? tileTextureID : wallTextureID;
             GameObject roof = new GameObject(ShapeType.CUBE, room.getCenterX(), WALL_HEIGHT, room.getCenterZ(), room.getWidth(), WALL_THICKNESS, room.getDepth(), roofTex);
-            staticObjects.add(roof);
+            out.add(roof);
             log("buildRoomFloorAndRoof", "Added " + roomType + " Roof at " + pos(roof));
         }
     }
 
-    // --- 💥 NEW: Helper method to build a standard table 💥 ---
-    private void buildTable(float tableX, float tableZ) {
-        // 💥 MODIFIED: Now uses WOOD TEXTURE instead of brown color 💥
-        // Table Top
-        staticObjects.add(new GameObject(ShapeType.CUBE, tableX, TABLE_TOP_Y - (TABLE_TOP_H / 2.0f), tableZ,
-                TABLE_TOP_W, TABLE_TOP_H, TABLE_TOP_D, woodTextureID));
-        // Leg 1 (Front-Left)
-        staticObjects.add(new GameObject(ShapeType.CUBE, tableX - TABLE_LEG_OFFSET_X, 0.0f, tableZ - TABLE_LEG_OFFSET_Z,
-                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
-        // Leg 2 (Front-Right)
-        staticObjects.add(new GameObject(ShapeType.CUBE, tableX + TABLE_LEG_OFFSET_X, 0.0f, tableZ - TABLE_LEG_OFFSET_Z,
-                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
-        // Leg 3 (Back-Left)
-        staticObjects.add(new GameObject(ShapeType.CUBE, tableX - TABLE_LEG_OFFSET_X, 0.0f, tableZ + TABLE_LEG_OFFSET_Z,
-                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
-        // Leg 4 (Back-Right)
-        staticObjects.add(new GameObject(ShapeType.CUBE, tableX + TABLE_LEG_OFFSET_X, 0.0f, tableZ + TABLE_LEG_OFFSET_Z,
-                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
-    }
-    // --- 💥 END NEW 💥 ---
-
-    private void buildBed(float bedX, float bedZ) {
-        // --- 1. Create Legs (Cubes, Collidable, Wood Texture) ---
-        // Rotated 90 degrees: Bed body is BED_LENGTH (X) x BED_WIDTH (Z). Use BED_LENGTH for X-offset and BED_WIDTH for Z-offset.
-        staticObjects.add(new GameObject(ShapeType.CUBE, bedX - (BED_LENGTH/2 - BED_LEG_SIZE/2), 0.0f, bedZ - (BED_WIDTH/2 - BED_LEG_SIZE/2),
-                BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE, woodTextureID));
-        staticObjects.add(new GameObject(ShapeType.CUBE, bedX + (BED_LENGTH/2 - BED_LEG_SIZE/2), 0.0f, bedZ - (BED_WIDTH/2 - BED_LEG_SIZE/2),
-                BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE, woodTextureID));
-        staticObjects.add(new GameObject(ShapeType.CUBE, bedX - (BED_LENGTH/2 - BED_LEG_SIZE/2), 0.0f, bedZ + (BED_WIDTH/2 - BED_LEG_SIZE/2),
-                BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE, woodTextureID));
-        staticObjects.add(new GameObject(ShapeType.CUBE, bedX + (BED_LENGTH/2 - BED_LEG_SIZE/2), 0.0f, bedZ + (BED_WIDTH/2 - BED_LEG_SIZE/2),
-                BED_LEG_SIZE, BED_LEG_HEIGHT, BED_LEG_SIZE, woodTextureID));
-
-        // --- 2. Create Mattress (Cube, Collidable, Sheets Texture) ---
-        // Scale is now [BED_LENGTH] wide (X) and [BED_WIDTH] deep (Z)
-        staticObjects.add(new GameObject(ShapeType.CUBE, bedX, BED_LEG_HEIGHT, bedZ,
-                BED_LENGTH, BED_HEIGHT, BED_WIDTH, sheetsTextureID));
-
-        // --- 3. Create Headboard (Cube, Collidable, Wood Texture) ---
-        // Place at the +Z end of the bed (towards the room wall)
-        float headboardZ = bedZ + (BED_WIDTH / 2.0f) + (HEADBOARD_THICKNESS / 2.0f);
-        // Headboard scale is now BED_LENGTH wide (X)
-        staticObjects.add(new GameObject(ShapeType.CUBE, bedX, BED_LEG_HEIGHT, headboardZ,
-                BED_LENGTH, HEADBOARD_HEIGHT, HEADBOARD_THICKNESS, woodTextureID));
-    }
-    // --- 💥 END NEW 💥 ---
+    private void buildTable(float tableX, float tableZ, List<GameObject> out) {
+        PrefabRegistry.TABLE.place(tableX, 0.0f, tableZ, woodTextureID, sheetsTextureID, out);
+    }
+
+    private void buildBed(float bedX, float bedZ, List<GameObject> out) {
+        PrefabRegistry.BED.place(bedX, 0.0f, bedZ, woodTextureID, sheetsTextureID, out);
+    }
 
     /**
      * --- 💥 REWRITTEN: Generates two beds in corners with tables ---
      */
-    private void generateBedForRoom(Room room) {
+    private void generateBedForRoom(Room room, List<GameObject> out) {
         log("generateBedForRoom", "Generating 2 beds and 2 tables for Bedroom at " + room.getCenterX() + ", " + room.getCenterZ());
 
         // --- Placement Strategy: Place against the "back" (North, +Z) wall, but rotated 90 degrees ---
@@ -334,34 +779,37 @@ public class WorldLoader {
         // Z: (wall - padding - half_new_depth [BED_WIDTH/2])
         float bed1X = room.minX + FURNITURE_WALL_PADDING + (BED_LENGTH / 2.0f);
         float bed1Z = room.maxZ - FURNITURE_WALL_PADDING - (BED_WIDTH / 2.0f);
-        buildBed(bed1X, bed1Z);
+        buildBed(bed1X, bed1Z, out);
 
         // --- Table 1 (Right of Bed 1) ---
         // X: (bed_edge + padding + half_table_width). Bed edge is now BED_LENGTH/2
         // Z: (wall - padding - half_table_depth)
         float table1X = (bed1X + BED_LENGTH / 2.0f) + FURNITURE_WALL_PADDING + (TABLE_TOP_W / 2.0f);
         float table1Z = room.maxZ - FURNITURE_WALL_PADDING - (TABLE_TOP_D / 2.0f);
-        buildTable(table1X, table1Z);
+        buildTable(table1X, table1Z, out);
 
         // --- Bed 2 (North-East Corner) ---
         // X: (wall - padding - half_new_width [BED_LENGTH/2])
         // Z: (wall - padding - half_new_depth [BED_WIDTH/2])
         float bed2X = room.maxX - FURNITURE_WALL_PADDING - (BED_LENGTH / 2.0f);
         float bed2Z = room.maxZ - FURNITURE_WALL_PADDING - (BED_WIDTH / 2.0f);
-        buildBed(bed2X, bed2Z);
+        buildBed(bed2X, bed2Z, out);
 
         // --- Table 2 (Left of Bed 2) ---
         // X: (bed_edge - padding - half_table_width). Bed edge is now BED_LENGTH/2
         // Z: (wall - padding - half_table_depth)
         float table2X = (bed2X - BED_LENGTH / 2.0f) - FURNITURE_WALL_PADDING - (TABLE_TOP_W / 2.0f);
         float table2Z = room.maxZ - FURNITURE_WALL_PADDING - (TABLE_TOP_D / 2.0f);
-        buildTable(table2X, table2Z);
+        buildTable(table2X, table2Z, out);
 
         // --- 💥 IMPORTANT: Save table locations for KeyManager 💥 ---
         // We add the Y-coordinate for the *top* of the table
         float keySpawnY = TABLE_TOP_Y + 0.05f; // Same as KeyManager logic
-        room.keySpawnLocations.add(new float[]{table1X, keySpawnY, table1Z});
-        room.keySpawnLocations.add(new float[]{table2X, keySpawnY, table2Z});
+        // (Streamed rooms get rebuilt, so only record them the first time.)
+        if (room.keySpawnLocations.isEmpty()) {
+            room.keySpawnLocations.add(new float[]{table1X, keySpawnY, table1Z});
+            room.keySpawnLocations.add(new float[]{table2X, keySpawnY, table2Z});
+        }
 
         log("generateBedForRoom", "Added furniture and 2 key spawn points.");
     }
@@ -369,8 +817,10 @@ public class WorldLoader {
 
     /**
      * NEW: Generates trees randomly within a Courtyard room.
+     * Spacing is only checked against trees in the same room; rooms are far
+     * enough apart that trees in neighbouring rooms can never be too close.
      */
-    private void generateTreesForRoom(Room room) {
+    private void generateTreesForRoom(Room room, SplittableRandom rng, List<GameObject> out) {
         log("generateTreesForRoom", "Generating " + TREES_PER_COURTYARD + " trees for Courtyard at " + room.getCenterX() + ", " + room.getCenterZ());
         for (int i = 0; i < TREES_PER_COURTYARD; i++) {
 
@@ -384,17 +834,18 @@ public class WorldLoader {
                 break;
             }
 
-            float treeX = randRange(treeMinX, treeMaxX);
+            float treeX = randRange(rng, treeMinX, treeMaxX);
             // --- 💥💥💥 THE FIX 💥💥💥 ---
             // Was using treeMaxX by mistake, now uses treeMaxZ
-            float treeZ = randRange(treeMinZ, treeMaxZ);
+            float treeZ = randRange(rng, treeMinZ, treeMaxZ);
             // --- 💥💥💥 END FIX 💥💥💥 ---
 
             boolean safeToPlace = true;
-            for (GameObject existingObj : staticObjects) {
-                if (existingObj.getShape() == ShapeType.CUBE && existingObj.getScaleY() == TRUNK_HEIGHT) {
-                    float dx = existingObj.getPosX() - treeX;
-                    float dz = existingObj.getPosZ() - treeZ;
+            for (GameObject existingObj : out) {
+                PropInstance prop = existingObj.getProp();
+                if (prop != null && prop.prefab == PrefabRegistry.TREE) {
+                    float dx = prop.x - treeX;
+                    float dz = prop.z - treeZ;
                     if (dx * dx + dz * dz < (LEAF_RADIUS * 2) * (LEAF_RADIUS * 2)) {
                         safeToPlace = false;
                         break;
@@ -403,26 +854,8 @@ public class WorldLoader {
             }
 
             if (safeToPlace) {
-                GameObject trunk = new GameObject(
-                        ShapeType.CUBE,
-                        treeX, 0.0f, treeZ,
-                        TRUNK_WIDTH, TRUNK_HEIGHT, TRUNK_WIDTH,
-                        0.5f, 0.3f, 0.0f,
-                        true, true
-                );
-
-                float leafY = TRUNK_HEIGHT;
-                GameObject leaves = new GameObject(
-                        ShapeType.SPHERE,
-                        treeX, leafY, treeZ,
-                        LEAF_RADIUS, LEAF_RADIUS, LEAF_RADIUS,
-                        0.0f, 0.7f, 0.0f,
-                        false, true
-                );
-
-                staticObjects.add(trunk);
-                staticObjects.add(leaves);
-                log("generateTreesForRoom", "Added Tree (Trunk at " + pos(trunk) + ", Leaves at " + pos(leaves) + ")");
+                PrefabRegistry.TREE.place(treeX, 0.0f, treeZ, woodTextureID, sheetsTextureID, out);
+                log("generateTreesForRoom", "Added Tree at (" + treeX + ", " + treeZ + ")");
             } else {
                 log("generateTreesForRoom", "Skipped tree placement at (" + treeX + ", " + treeZ + ") due to collision.");
             }
@@ -432,7 +865,7 @@ public class WorldLoader {
     /**
      * --- Helper to build all 4 walls for a room, checking for holes ---
      */
-    private void buildRoomWalls(Room room) {
+    private void buildRoomWalls(Room room, List<GameObject> out) {
         String roomType = room.getType().toString();
         log("buildRoomWalls", "Building " + roomType + " walls for room at " + room.getCenterX() + ", " + room.getCenterZ());
 
@@ -445,27 +878,27 @@ public class WorldLoader {
 
         // North Wall (+Z)
         if (room.northWallUsed) {
-            buildWallWithHole(room.minX, room.maxX, room.maxZ, room.maxZ, room.getCenterX(), wallTex, collidable, renderable);
+            buildWallWithHole(room.minX, room.maxX, room.maxZ, room.maxZ, room.getCenterX(), wallTex, collidable, renderable, out);
         } else {
-            buildWall(room.minX, room.maxX, room.maxZ, room.maxZ, false, wallTex, collidable, renderable, wallHeight);
+            buildWall(room.minX, room.maxX, room.maxZ, room.maxZ, false, wallTex, collidable, renderable, wallHeight, out);
         }
         // South Wall (-Z)
         if (room.southWallUsed) {
-            buildWallWithHole(room.minX, room.maxX, room.minZ, room.minZ, room.getCenterX(), wallTex, collidable, renderable);
+            buildWallWithHole(room.minX, room.maxX, room.minZ, room.minZ, room.getCenterX(), wallTex, collidable, renderable, out);
         } else {
-            buildWall(room.minX, room.maxX, room.minZ, room.minZ, false, wallTex, collidable, renderable, wallHeight);
+            buildWall(room.minX, room.maxX, room.minZ, room.minZ, false, wallTex, collidable, renderable, wallHeight, out);
         }
         // East Wall (+X)
         if (room.eastWallUsed) {
-            buildWallWithHole(room.maxX, room.maxX, room.minZ, room.maxZ, room.getCenterZ(), wallTex, collidable, renderable);
+            buildWallWithHole(room.maxX, room.maxX, room.minZ, room.maxZ, room.getCenterZ(), wallTex, collidable, renderable, out);
         } else {
-            buildWall(room.maxX, room.maxX, room.minZ, room.maxZ, true, wallTex, collidable, renderable, wallHeight);
+            buildWall(room.maxX, room.maxX, room.minZ, room.maxZ, true, wallTex, collidable, renderable, wallHeight, out);
         }
         // West Wall (-X)
         if (room.westWallUsed) {
-            buildWallWithHole(room.minX, room.minX, room.minZ, room.maxZ, room.getCenterZ(), wallTex, collidable, renderable);
+            buildWallWithHole(room.minX, room.minX, room.minZ, room.maxZ, room.getCenterZ(), wallTex, collidable, renderable, out);
         } else {
-            buildWall(room.minX, room.minX, room.minZ, room.maxZ, true, wallTex, collidable, renderable, wallHeight);
+            buildWall(room.minX, room.minX, room.minZ, room.maxZ, true, wallTex, collidable, renderable, wallHeight, out);
         }
     }
 
@@ -541,7 +974,13 @@ public class WorldLoader {
             newRoomBounds = new Room(newRoomMinX, newRoomMinZ, newRoomMaxX, newRoomMaxZ, type);
         }
 
-        for (Room existingBounds : allGeneratedBounds) {
+        // Only look at bounds near the new tunnel and room (same order as a full scan)
+        float queryMinX = Math.min(tunnelMinX, newRoomMinX) - 1.0f;
+        float queryMinZ = Math.min(tunnelMinZ, newRoomMinZ) - 1.0f;
+        float queryMaxX = Math.max(tunnelMaxX, newRoomMaxX) + 1.0f;
+        float queryMaxZ = Math.max(tunnelMaxZ, newRoomMaxZ) + 1.0f;
+        generatedBounds.query(queryMinX, queryMinZ, queryMaxX, queryMaxZ, nearbyBounds);
+        for (Room existingBounds : nearbyBounds) {
             if (existingBounds != fromRoom) {
                 if (tunnelBounds.overlaps(existingBounds, 1.0f)) {
                     log("buildTunnelAndNextRoom", "TUNNEL COLLISION DETECTED. Failed to build " + direction);
@@ -557,22 +996,31 @@ public class WorldLoader {
         }
 
         if (isEscapeTunnel) {
-            buildDeadEndEscapeTunnel(fromRoom, direction, tunnelMinX, tunnelMinZ, tunnelMaxX, tunnelMaxZ);
-            allGeneratedBounds.add(tunnelBounds);
+            escapeTunnel = new Tunnel(tunnelMinX, tunnelMinZ, tunnelMaxX, tunnelMaxZ, fromRoom, null, direction);
+            log("buildTunnelAndNextRoom", "Escape tunnel placed from Room at (" + fromRoom.getCenterX() + ", " + fromRoom.getCenterZ() + ") facing " + direction);
+            addGeneratedBounds(tunnelBounds);
             return null;
         }
 
         newRoomBounds.markWallUsed(direction.getOpposite());
-        buildTunnelObjects(tunnelMinX, tunnelMinZ, tunnelMaxX, tunnelMaxZ);
-        allGeneratedBounds.add(tunnelBounds);
-        allGeneratedBounds.add(newRoomBounds);
+        Tunnel tunnel = new Tunnel(tunnelMinX, tunnelMinZ, tunnelMaxX, tunnelMaxZ, fromRoom, newRoomBounds, direction);
+        tunnels.add(tunnel);
+        entranceTunnels.put(newRoomBounds, tunnel);
+        addGeneratedBounds(tunnelBounds);
+        addGeneratedBounds(newRoomBounds);
         return newRoomBounds;
     }
 
     /**
      * --- Builds the Dead-End Escape Hallway with Door and Win Trigger ---
      */
-    private void buildDeadEndEscapeTunnel(Room fromRoom, Direction direction, float tunnelMinX, float tunnelMinZ, float tunnelMaxX, float tunnelMaxZ) {
+    private void buildDeadEndEscapeTunnel(Tunnel tunnel, List<GameObject> out) {
+        Room fromRoom = tunnel.fromRoom;
+        Direction direction = tunnel.direction;
+        float tunnelMinX = tunnel.minX;
+        float tunnelMinZ = tunnel.minZ;
+        float tunnelMaxX = tunnel.maxX;
+        float tunnelMaxZ = tunnel.maxZ;
         log("buildDeadEndEscapeTunnel", "--- GENERATING ESCAPE TUNNEL ---");
         log("buildDeadEndEscapeTunnel", "Building exit from Room at: (" + fromRoom.getCenterX() + ", " + fromRoom.getCenterZ() + ") facing " + direction);
 
@@ -581,7 +1029,7 @@ public class WorldLoader {
         float width = tunnelMaxX - tunnelMinX;
         float depth = tunnelMaxZ - tunnelMinZ;
 
-        buildTunnelObjects(tunnelMinX, tunnelMinZ, tunnelMaxX, tunnelMaxZ);
+        buildTunnelObjects(tunnelMinX, tunnelMinZ, tunnelMaxX, tunnelMaxZ, out);
 
         float doorX = 0, doorZ = 0, doorW = 0, doorH = TUNNEL_HEIGHT, doorD = 0;
         float endWallX = 0, endWallZ = 0, endWallW = 0, endWallD = 0;
@@ -626,7 +1074,7 @@ public class WorldLoader {
         }
 
         escapeDoor = new GameObject(ShapeType.CUBE, doorX, 0.0f, doorZ, doorW, doorH, doorD, 0.5f, 0.3f, 0.0f, true, true);
-        staticObjects.add(escapeDoor);
+        out.add(escapeDoor);
         log("buildDeadEndEscapeTunnel", "Added ESCAPE DOOR at " + pos(escapeDoor));
 
         GameObject endWall = new GameObject(
@@ -635,14 +1083,14 @@ public class WorldLoader {
                 endWallW, TUNNEL_HEIGHT, endWallD,
                 wallTextureID
         );
-        staticObjects.add(endWall);
+        out.add(endWall);
         log("buildDeadEndEscapeTunnel", "Added End Wall at " + pos(endWall));
 
         winTrigger = new GameObject(ShapeType.CUBE, triggerX, 0.0f, triggerZ,
                 triggerW, TUNNEL_HEIGHT, triggerD,
                 1.0f, 1.0f, 1.0f,
                 false, true);
-        staticObjects.add(winTrigger);
+        out.add(winTrigger);
         log("buildDeadEndEscapeTunnel", "Added WIN TRIGGER at " + pos(winTrigger));
     }
 
@@ -650,7 +1098,7 @@ public class WorldLoader {
     /**
      * Generates the 4 GameObjects for a tunnel (floor, roof, 2 side walls).
      */
-    private void buildTunnelObjects(float minX, float minZ, float maxX, float maxZ) {
+    private void buildTunnelObjects(float minX, float minZ, float maxX, float maxZ, List<GameObject> out) {
         log("buildTunnelObjects", "Building tunnel between (" + minX + ", " + minZ + ") and (" + maxX + ", " + maxZ + ")");
         float centerX = (minX + maxX) / 2.0f;
         float centerZ = (minZ + maxZ) / 2.0f;
@@ -658,41 +1106,41 @@ public class WorldLoader {
         float depth = maxZ - minZ;
 
         GameObject floor = new GameObject(ShapeType.CUBE, centerX, 0.0f, centerZ, width, 0.1f, depth, wallTextureID);
-        staticObjects.add(floor);
+        out.add(floor);
         log("buildTunnelObjects", "Added Tunnel Floor at " + pos(floor));
         GameObject roof = new GameObject(ShapeType.CUBE, centerX, TUNNEL_HEIGHT, centerZ, width, 0.1f, depth, wallTextureID);
-        staticObjects.add(roof);
+        out.add(roof);
         log("buildTunnelObjects", "Added Tunnel Roof at " + pos(roof));
 
         if (width > depth) {
             GameObject wallN = new GameObject(ShapeType.CUBE, centerX, 0.0f, maxZ - (WALL_THICKNESS / 2.0f), width, TUNNEL_HEIGHT, WALL_THICKNESS, wallTextureID);
-            staticObjects.add(wallN);
+            out.add(wallN);
             log("buildTunnelObjects", "Added Tunnel N Wall at " + pos(wallN));
             GameObject wallS = new GameObject(ShapeType.CUBE, centerX, 0.0f, minZ + (WALL_THICKNESS / 2.0f), width, TUNNEL_HEIGHT, WALL_THICKNESS, wallTextureID);
-            staticObjects.add(wallS);
+            out.add(wallS);
             log("buildTunnelObjects", "Added Tunnel S Wall at " + pos(wallS));
         } else {
             GameObject wallE = new GameObject(ShapeType.CUBE, maxX - (WALL_THICKNESS / 2.0f), 0.0f, centerZ, WALL_THICKNESS, TUNNEL_HEIGHT, depth, wallTextureID);
-            staticObjects.add(wallE);
+            out.add(wallE);
             log("buildTunnelObjects", "Added Tunnel E Wall at " + pos(wallE));
             GameObject wallW = new GameObject(ShapeType.CUBE, minX + (WALL_THICKNESS / 2.0f), 0.0f, centerZ, WALL_THICKNESS, TUNNEL_HEIGHT, depth, wallTextureID);
-            staticObjects.add(wallW);
+            out.add(wallW);
             log("buildTunnelObjects", "Added Tunnel W Wall at " + pos(wallW));
         }
     }
 
-    private void buildWall(float minX, float maxX, float minZ, float maxZ, boolean isVertical, int textureId, boolean collidable, boolean renderable, float height) {
+    private void buildWall(float minX, float maxX, float minZ, float maxZ, boolean isVertical, int textureId, boolean collidable, boolean renderable, float height, List<GameObject> out) {
         float centerX = (minX + maxX) / 2.0f;
         float centerZ = (minZ + maxZ) / 2.0f;
         float width = isVertical ? WALL_THICKNESS : (maxX - minX);
         float depth = isVertical ? (maxZ - minZ) : WALL_THICKNESS;
 
         GameObject wall = new GameObject(ShapeType.CUBE, centerX, 0.0f, centerZ, width, height, depth, textureId, collidable, renderable);
-        staticObjects.add(wall);
+        out.add(wall);
         log("buildWall", "Added Solid Wall at " + pos(wall));
     }
 
-    private void buildWallWithHole(float minX, float maxX, float minZ, float maxZ, float holeCenter, int textureId, boolean collidable, boolean renderable) {
+    private void buildWallWithHole(float minX, float maxX, float minZ, float maxZ, float holeCenter, int textureId, boolean collidable, boolean renderable, List<GameObject> out) {
         float halfGap = TUNNEL_WIDTH / 2.0f;
         float lintelY = TUNNEL_HEIGHT;
         float lintelHeight = WALL_HEIGHT - TUNNEL_HEIGHT;
@@ -706,11 +1154,11 @@ public class WorldLoader {
             float wallX = minX;
 
             GameObject seg1 = new GameObject(ShapeType.CUBE, wallX, 0.0f, minZ + segmentLength1 / 2.0f, WALL_THICKNESS, finalWallHeight, segmentLength1, textureId, collidable, renderable);
-            staticObjects.add(seg1);
+            out.add(seg1);
             GameObject seg2 = new GameObject(ShapeType.CUBE, wallX, 0.0f, maxZ - segmentLength2 / 2.0f, WALL_THICKNESS, finalWallHeight, segmentLength2, textureId, collidable, renderable);
-            staticObjects.add(seg2);
+            out.add(seg2);
             GameObject lintel = new GameObject(ShapeType.CUBE, wallX, lintelY, holeCenter, WALL_THICKNESS, lintelHeight, TUNNEL_WIDTH, textureId, collidable, renderable);
-            staticObjects.add(lintel);
+            out.add(lintel);
             log("buildWallWithHole", "Added Vertical Holed Wall (3 parts) at X=" + wallX);
 
         } else {
@@ -719,11 +1167,11 @@ public class WorldLoader {
             float wallZ = minZ;
 
             GameObject seg1 = new GameObject(ShapeType.CUBE, minX + segmentLength1 / 2.0f, 0.0f, wallZ, segmentLength1, finalWallHeight, WALL_THICKNESS, textureId, collidable, renderable);
-            staticObjects.add(seg1);
+            out.add(seg1);
             GameObject seg2 = new GameObject(ShapeType.CUBE, maxX - segmentLength2 / 2.0f, 0.0f, wallZ, segmentLength2, finalWallHeight, WALL_THICKNESS, textureId, collidable, renderable);
-            staticObjects.add(seg2);
+            out.add(seg2);
             GameObject lintel = new GameObject(ShapeType.CUBE, holeCenter, lintelY, wallZ, TUNNEL_WIDTH, lintelHeight, WALL_THICKNESS, textureId, collidable, renderable);
-            staticObjects.add(lintel);
+            out.add(lintel);
             log("buildWallWithHole", "Added Horizontal Holed Wall (3 parts) at Z=" + wallZ);
         }
     }
@@ -732,11 +1180,23 @@ public class WorldLoader {
         return min + random.nextFloat() * (max - min);
     }
 
+    private float randRange(SplittableRandom rng, float min, float max) {
+        return min + rng.nextFloat() * (max - min);
+    }
+
     private String pos(GameObject obj) {
         return String.format("(%.2f, %.2f, %.2f)", obj.getPosX(), obj.getPosY(), obj.getPosZ());
     }
 
+    /**
+     * Records a placed room or tunnel so later placements can't overlap it.
+     */
+    private void addGeneratedBounds(Room bounds) {
+        generatedBounds.add(bounds, bounds.minX, bounds.minZ, bounds.maxX, bounds.maxZ);
+    }
+
     private void log(String method, String message) {
+        if (!options.verboseLogging) return;
         System.out.println("[WorldLoader - " + method + "] " + message);
     }
 }
\ No newline at end of file
@@ -0,0 +1,749 @@
+package ohio.pugnetgames.chad.game;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
+import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
+import static org.lwjgl.opengl.GL30.glGenVertexArrays;
+
+/**
+ * The world's static geometry baked into vertex buffers, one chunk per room
+ * (the room and the tunnels leading into it, see {@link RoomGraph#getRoomAt}),
+ * with each chunk's triangles grouped by material. Drawing the world is then
+ * one glDrawElements per material per room instead of a glBegin/glEnd block
+ * per object, so the CPU cost no longer grows with the object count.
+ *
+ * Like the minimap cache, {@link #render} compares the world's geometry
+ * version and object count each frame. When they change, every slot is
+ * sorted into its room again and only the chunks whose contents actually
+ * changed are re-baked: a streamed room or a key table rebuilds its own room
+ * and nothing else.
+ *
+ * Not baked (drawn one by one as before): spheres, which would cost about
+ * 1500 vertices each, and the escape door and win trigger, which change at
+ * runtime.
+ *
+ * Given a {@link RenderPipeline}, chunks and singly drawn objects go
+ * through its shaders (each chunk gets a vertex array) instead of the
+ * fixed-function pipeline. Vertices carry their material's color and
+ * texture array layer, so when the pipeline has a {@link TextureArray}
+ * holding every texture a chunk uses, the whole chunk is one draw call.
+ *
+ * Given a {@link PropInstancer}, placed props aren't baked either: each
+ * prop type is drawn with one instanced draw call per texture it uses.
+ *
+ * Given a {@link Frustum}, chunks whose bounds are off screen are skipped
+ * whole, and the singly drawn objects are tested one by one. Given a list of
+ * visible rooms (see {@link PortalCuller}), only those rooms' chunks are
+ * looked at at all, so the cost of a frame doesn't depend on how many rooms
+ * the world has.
+ *
+ * GL thread only, with the staticObjects lock held.
+ */
+public class WorldMeshCache {
+
+    private static final int FLOATS_PER_VERTEX = 12; // Position, normal, texture coords, color, array layer
+    private static final int STRIDE = FLOATS_PER_VERTEX * 4;
+    private static final float ROOM_MARGIN = 0.5f; // Walls sit on the room's edge
+    private static final float SORT_DEPTH = 100.0f; // The camera's far plane
+
+    // drawCube's six faces: normal, then four corners of (x, y, z signs, u axis, v axis).
+    // Axis 0 = texture coordinate 0, 1/2/3 = the X/Y/Z size (so textures tile the same way).
+    static final float[][] CUBE_FACES = {
+            {0, 0, 1,   -1, -1, 1, 0, 0,   1, -1, 1, 1, 0,   1, 1, 1, 1, 2,   -1, 1, 1, 0, 2},
+            {0, 0, -1,  -1, -1, -1, 1, 0,  -1, 1, -1, 1, 2,  1, 1, -1, 0, 2,  1, -1, -1, 0, 0},
+            {0, 1, 0,   -1, 1, -1, 0, 3,   -1, 1, 1, 0, 0,   1, 1, 1, 1, 0,   1, 1, -1, 1, 3},
+            {0, -1, 0,  -1, -1, -1, 1, 3,  1, -1, -1, 0, 3,  1, -1, 1, 0, 0,  -1, -1, 1, 1, 0},
+            {1, 0, 0,   1, -1, -1, 3, 0,   1, 1, -1, 3, 2,   1, 1, 1, 0, 2,   1, -1, 1, 0, 0},
+            {-1, 0, 0,  -1, -1, -1, 0, 0,  -1, -1, 1, 3, 0,  -1, 1, 1, 3, 2,  -1, 1, -1, 0, 2},
+    };
+    // drawPlane's one face (y is always 0)
+    static final float[] PLANE_FACE =
+            {0, 1, 0,   -1, 0, -1, 0, 0,   1, 0, -1, 1, 0,   1, 0, 1, 1, 3,   -1, 0, 1, 0, 3};
+
+    /** Baked geometry of one room. */
+    public static final class Chunk {
+        /** Null for the chunk holding objects that aren't in any room. */
+        public final Room room;
+        // World-space bounds of everything baked into the chunk
+        public float minX, minY, minZ, maxX, maxY, maxZ;
+
+        int[] slots = new int[32];
+        int slotCount;
+        // Objects in the room that are drawn one by one
+        int[] looseSlots = new int[4];
+        int looseCount;
+        long contentHash;
+        int vbo, ibo;
+
+        // One index range per material
+        int rangeCount;
+        int[] rangeMaterial = new int[4];
+        int[] rangeFirst = new int[4];
+        int[] rangeLength = new int[4];
+        int indexCount;
+        int vao; // Only with the shader pipeline
+        boolean vertexMaterials; // Every range drawable in one call (see RenderPipeline.useVertexMaterials)
+
+        Chunk(Room room) {
+            this.room = room;
+        }
+
+        void addSlot(int slot) {
+            if (slotCount == slots.length) {
+                slots = Arrays.copyOf(slots, slotCount * 2);
+            }
+            slots[slotCount++] = slot;
+        }
+
+        void addLooseSlot(int slot) {
+            if (looseCount == looseSlots.length) {
+                looseSlots = Arrays.copyOf(looseSlots, looseCount * 2);
+            }
+            looseSlots[looseCount++] = slot;
+        }
+    }
+
+    private final PropInstancer props; // Null when props are baked like everything else
+    private final RenderPipeline pipeline; // Null for fixed-function drawing
+
+    private World cacheWorld;
+    private int cacheVersion = -1;
+    private int cacheObjectCount = -1;
+    private int cacheRoomCount = -1;
+
+    private final Map<Room, Chunk> chunksByRoom = new IdentityHashMap<>();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private Chunk outsideChunk;
+    private int looseCount;
+
+    // This frame's draws: chunk ranges and loose slots, sorted by material then depth
+    private static final int ITEM_CHUNK_RANGE = 0; // a = index in frameChunks, b = range
+    private static final int ITEM_SLOT = 1;        // a = slot
+    private static final int ITEM_CHUNK = 2;       // a = index in frameChunks, the whole chunk
+    private static final int VERTEX_MATERIALS = 0xFFFF; // Queue material for ITEM_CHUNK
+    private final RenderQueue queue = new RenderQueue(SORT_DEPTH);
+    private final List<Chunk> frameChunks = new ArrayList<>();
+    private boolean[] roomVisible = new boolean[64];
+
+    // Scratch space for baking
+    private float[] vertexData = new float[4096 * FLOATS_PER_VERTEX];
+    private int[] indexData = new int[4096];
+    private long[] sortKeys = new long[64];
+    private FloatBuffer vertexBuffer;
+    private IntBuffer indexBuffer;
+
+    // --- Stats (last frame / last rebuild) ---
+    private int drawCalls;
+    private int materialChanges;
+    private int chunksDrawn;
+    private int bakedObjects;
+
+    public WorldMeshCache() {
+        this(null, null);
+    }
+
+    /**
+     * @param props    Draws placed props instead of baking them, or null.
+     * @param pipeline Draws chunks and single objects with shaders, or null
+     *                 for the fixed-function pipeline.
+     */
+    public WorldMeshCache(PropInstancer props, RenderPipeline pipeline) {
+        this.props = props;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Brings the baked chunks up to date if the world changed, then draws
+     * everything.
+     */
+    public void render(World world) {
+        render(world, null, null);
+    }
+
+    /**
+     * Brings the baked chunks up to date if the world changed, then draws
+     * what's inside the frustum.
+     *
+     * @param frustum The camera's frustum, or null to skip culling.
+     * @param rooms   The rooms to draw, or null for all of them. Objects
+     *                outside every room are always drawn.
+     */
+    public void render(World world, Frustum frustum, List<Room> rooms) {
+        StaticGeometry geo = world.getGeometry();
+        sync(world, geo);
+
+        drawCalls = 0;
+        chunksDrawn = 0;
+        materialChanges = 0;
+        queue.clear();
+        frameChunks.clear();
+        forEachChunk(geo, frustum, rooms);
+        queue.sort();
+        if (pipeline != null) {
+            renderWithPipeline(geo);
+        } else {
+            renderFixedFunction(geo);
+        }
+
+        if (props != null) {
+            renderProps(frustum, rooms);
+        }
+    }
+
+    /**
+     * Runs the sorted queue through the fixed-function pipeline. Chunk ranges
+     * and singly drawn objects come from different vertex buffers, so the
+     * array pointers are only re-pointed when the source changes.
+     */
+    private void renderFixedFunction(StaticGeometry geo) {
+        boolean shared = PrimitiveMeshes.isReady();
+        glEnableClientState(GL_VERTEX_ARRAY);
+        glEnableClientState(GL_NORMAL_ARRAY);
+        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+        int boundMaterial = -1;
+        Chunk boundChunk = null;
+        boolean primitivesBound = false;
+        for (int q = 0; q < queue.size(); q++) {
+            int mat = queue.getMaterial(q);
+            if (mat != boundMaterial) {
+                geo.bindMaterial(mat);
+                boundMaterial = mat;
+                materialChanges++;
+            }
+            if (queue.getKind(q) == ITEM_CHUNK_RANGE) {
+                Chunk chunk = frameChunks.get(queue.getA(q));
+                if (chunk != boundChunk) {
+                    glBindBuffer(GL_ARRAY_BUFFER, chunk.vbo);
+                    glVertexPointer(3, GL_FLOAT, STRIDE, 0L);
+                    glNormalPointer(GL_FLOAT, STRIDE, 3 * 4L);
+                    glTexCoordPointer(2, GL_FLOAT, STRIDE, 6 * 4L);
+                    glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, chunk.ibo);
+                    boundChunk = chunk;
+                    primitivesBound = false;
+                }
+                int r = queue.getB(q);
+                glDrawElements(GL_TRIANGLES, chunk.rangeLength[r], GL_UNSIGNED_INT, chunk.rangeFirst[r] * 4L);
+            } else {
+                if (shared && !primitivesBound) {
+                    PrimitiveMeshes.begin();
+                    primitivesBound = true;
+                    boundChunk = null;
+                }
+                geo.drawSlot(queue.getA(q));
+            }
+            drawCalls++;
+        }
+        if (shared) {
+            PrimitiveMeshes.end(); // Also turns the client arrays off
+        } else {
+            glDisableClientState(GL_VERTEX_ARRAY);
+            glDisableClientState(GL_NORMAL_ARRAY);
+            glDisableClientState(GL_TEXTURE_COORD_ARRAY);
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    /** Runs the sorted queue through the shader pipeline. */
+    private void renderWithPipeline(StaticGeometry geo) {
+        pipeline.begin();
+        boolean modelIsIdentity = false;
+        int boundMaterial = -1;
+        for (int q = 0; q < queue.size(); q++) {
+            int mat = queue.getMaterial(q);
+            if (mat != boundMaterial) {
+                if (mat == VERTEX_MATERIALS) {
+                    pipeline.useVertexMaterials();
+                } else {
+                    geo.bindMaterial(mat, pipeline);
+                }
+                boundMaterial = mat;
+                materialChanges++;
+            }
+            int kind = queue.getKind(q);
+            if (kind == ITEM_CHUNK_RANGE || kind == ITEM_CHUNK) {
+                Chunk chunk = frameChunks.get(queue.getA(q));
+                if (!modelIsIdentity) {
+                    pipeline.setModelIdentity();
+                    modelIsIdentity = true;
+                }
+                GLStateCache.bindVertexArray(chunk.vao);
+                if (kind == ITEM_CHUNK) {
+                    pipeline.drawElements(0, chunk.indexCount);
+                } else {
+                    int r = queue.getB(q);
+                    pipeline.drawElements(chunk.rangeFirst[r], chunk.rangeLength[r]);
+                }
+            } else {
+                int i = queue.getA(q);
+                pipeline.drawPrimitive(geo.getShape(i), geo.posX[i], geo.posY[i], geo.posZ[i], geo.rotationY[i],
+                        geo.scaleX[i], geo.scaleY[i], geo.scaleZ[i]);
+                modelIsIdentity = false;
+            }
+        }
+        pipeline.end();
+        drawCalls = pipeline.getDrawCallCount();
+    }
+
+    private void renderProps(Frustum frustum, List<Room> rooms) {
+        if (rooms == null) {
+            props.render(frustum, null);
+        } else {
+            for (Room room : rooms) {
+                if (roomVisible.length <= room.index) {
+                    roomVisible = Arrays.copyOf(roomVisible, Math.max(room.index + 1, roomVisible.length * 2));
+                }
+                roomVisible[room.index] = true;
+            }
+            props.render(frustum, roomVisible);
+            for (Room room : rooms) {
+                roomVisible[room.index] = false;
+            }
+        }
+        drawCalls += props.getDrawCallCount();
+    }
+
+    private void forEachChunk(StaticGeometry geo, Frustum frustum, List<Room> rooms) {
+        if (rooms == null) {
+            for (Chunk chunk : chunks) {
+                renderChunk(chunk, geo, frustum);
+            }
+        } else {
+            for (Room room : rooms) {
+                Chunk chunk = chunksByRoom.get(room);
+                if (chunk != null) {
+                    renderChunk(chunk, geo, frustum);
+                }
+            }
+            if (outsideChunk != null) {
+                renderChunk(outsideChunk, geo, frustum);
+            }
+        }
+    }
+
+    /** Queues the chunk's material ranges and its loose slots, if they're on screen. */
+    private void renderChunk(Chunk chunk, StaticGeometry geo, Frustum frustum) {
+        if (chunk.slotCount > 0 && (frustum == null || frustum.submitBox(chunk.minX, chunk.minY, chunk.minZ,
+                chunk.maxX, chunk.maxY, chunk.maxZ, chunk.slotCount))) {
+            float depth = frustum == null ? 0.0f : frustum.distanceFromEye((chunk.minX + chunk.maxX) * 0.5f,
+                    (chunk.minY + chunk.maxY) * 0.5f, (chunk.minZ + chunk.maxZ) * 0.5f);
+            int index = frameChunks.size();
+            frameChunks.add(chunk);
+            if (chunk.vertexMaterials) {
+                queue.submit(RenderQueue.PASS_OPAQUE, VERTEX_MATERIALS, depth, ITEM_CHUNK, index, 0);
+            } else {
+                for (int r = 0; r < chunk.rangeCount; r++) {
+                    queue.submit(RenderQueue.PASS_OPAQUE, chunk.rangeMaterial[r], depth, ITEM_CHUNK_RANGE, index, r);
+                }
+            }
+            chunksDrawn++;
+        }
+        for (int l = 0; l < chunk.looseCount; l++) {
+            int i = chunk.looseSlots[l];
+            if (frustum == null || frustum.submitSphere(geo.posX[i], geo.posY[i], geo.posZ[i], boundingRadius(geo, i))) {
+                float depth = frustum == null ? 0.0f : frustum.distanceFromEye(geo.posX[i], geo.posY[i], geo.posZ[i]);
+                queue.submit(RenderQueue.PASS_OPAQUE, geo.material[i], depth, ITEM_SLOT, i, 0);
+            }
+        }
+    }
+
+    /** Radius around the slot's position that holds all of it, whatever its rotation. */
+    private static float boundingRadius(StaticGeometry geo, int i) {
+        float sx = geo.scaleX[i], sy = geo.scaleY[i], sz = geo.scaleZ[i];
+        if (geo.getShape(i) == GameObject.ShapeType.SPHERE) {
+            return Math.max(sx, Math.max(sy, sz)); // Drawn with the scale as the radius
+        }
+        return 0.5f * (float) Math.sqrt(sx * sx + sy * sy + sz * sz);
+    }
+
+    // --- Keeping the chunks in sync ---
+
+    private void sync(World world, StaticGeometry geo) {
+        int roomCount = world.getRoomGraph().getRoomCount();
+        if (world == cacheWorld && world.getGeometryVersion() == cacheVersion
+                && geo.count == cacheObjectCount && roomCount == cacheRoomCount) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        if (world != cacheWorld) {
+            cleanup();
+        }
+
+        // 1. Sort every rendered slot into its room's chunk
+        for (Chunk chunk : chunks) {
+            chunk.slotCount = 0;
+            chunk.looseCount = 0;
+        }
+        looseCount = 0;
+        if (props != null) {
+            props.clearInstances();
+        }
+        RoomGraph graph = world.getRoomGraph();
+        GameObject escapeDoor = world.getEscapeDoor();
+        GameObject winTrigger = world.getWinTrigger();
+        for (int i = 0; i < geo.count; i++) {
+            if (props != null) {
+                int parts = instancedPropParts(geo, i);
+                if (parts > 0) {
+                    addPropInstance(geo, i, graph);
+                    i += parts - 1;
+                    continue;
+                }
+            }
+            if (!geo.isRendered(i)) continue;
+            GameObject obj = geo.getObject(i);
+            Room room = graph.getRoomAt(geo.posX[i], geo.posZ[i], ROOM_MARGIN);
+            if (geo.getShape(i) == GameObject.ShapeType.SPHERE || obj == escapeDoor || obj == winTrigger) {
+                chunkFor(room).addLooseSlot(i);
+                looseCount++;
+                continue;
+            }
+            chunkFor(room).addSlot(i);
+        }
+
+        // 2. Re-bake chunks whose contents changed, drop empty ones
+        int rebaked = 0;
+        bakedObjects = 0;
+        for (Iterator<Chunk> it = chunks.iterator(); it.hasNext(); ) {
+            Chunk chunk = it.next();
+            if (chunk.slotCount == 0) {
+                deleteBuffers(chunk);
+                chunk.rangeCount = 0;
+                if (chunk.looseCount > 0) continue;
+                if (chunk.room != null) chunksByRoom.remove(chunk.room);
+                else outsideChunk = null;
+                it.remove();
+                continue;
+            }
+            bakedObjects += chunk.slotCount;
+            long hash = contentHash(chunk, geo);
+            if (chunk.vbo == 0 || hash != chunk.contentHash) {
+                bake(chunk, geo);
+                chunk.contentHash = hash;
+                rebaked++;
+            }
+        }
+
+        cacheWorld = world;
+        cacheVersion = world.getGeometryVersion();
+        cacheObjectCount = geo.count;
+        cacheRoomCount = roomCount;
+        if (rebaked > 0) {
+            System.out.println("[WorldMeshCache - sync] Baked " + rebaked + " of " + chunks.size() + " room chunks ("
+                    + bakedObjects + " objects, " + looseCount + " drawn singly"
+                    + (props != null ? ", " + props.getPropCount() + " props instanced" : "") + ") in "
+                    + (System.nanoTime() - startTime) / 1_000_000 + " ms.");
+        }
+    }
+
+    /**
+     * @return How many slots the prop starting at this slot takes, if all of
+     *         its parts are there in order and drawn as the prefab says, or 0
+     *         if the slot isn't the start of such a prop.
+     */
+    private static int instancedPropParts(StaticGeometry geo, int i) {
+        PropInstance prop = geo.getObject(i).getProp();
+        if (prop == null) return 0;
+        int parts = prop.prefab.getPartCount();
+        if (i + parts > geo.count) return 0;
+        for (int p = 0; p < parts; p++) {
+            if (geo.getObject(i + p).getProp() != prop || geo.isRendered(i + p) != prop.prefab.getPart(p).rendered) {
+                return 0;
+            }
+        }
+        return parts;
+    }
+
+    private void addPropInstance(StaticGeometry geo, int first, RoomGraph graph) {
+        PropInstance prop = geo.getObject(first).getProp();
+        int woodTextureID = 0;
+        int sheetsTextureID = 0;
+        for (int p = 0; p < prop.prefab.getPartCount(); p++) {
+            Prefab.TextureSlot texture = prop.prefab.getPart(p).texture;
+            if (texture == Prefab.TextureSlot.WOOD) woodTextureID = geo.getTextureID(first + p);
+            else if (texture == Prefab.TextureSlot.SHEETS) sheetsTextureID = geo.getTextureID(first + p);
+        }
+        props.addInstance(prop, woodTextureID, sheetsTextureID, graph.getRoomAt(prop.x, prop.z, ROOM_MARGIN));
+    }
+
+    private Chunk chunkFor(Room room) {
+        Chunk chunk = room != null ? chunksByRoom.get(room) : outsideChunk;
+        if (chunk == null) {
+            chunk = new Chunk(room);
+            if (room != null) chunksByRoom.put(room, chunk);
+            else outsideChunk = chunk;
+            chunks.add(chunk);
+        }
+        return chunk;
+    }
+
+    /** Mixes everything that ends up in a chunk's vertices into one number. */
+    private static long contentHash(Chunk chunk, StaticGeometry geo) {
+        long h = chunk.slotCount;
+        for (int s = 0; s < chunk.slotCount; s++) {
+            int i = chunk.slots[s];
+            h = 31 * h + Float.floatToIntBits(geo.posX[i]);
+            h = 31 * h + Float.floatToIntBits(geo.posY[i]);
+            h = 31 * h + Float.floatToIntBits(geo.posZ[i]);
+            h = 31 * h + Float.floatToIntBits(geo.scaleX[i]);
+            h = 31 * h + Float.floatToIntBits(geo.scaleY[i]);
+            h = 31 * h + Float.floatToIntBits(geo.scaleZ[i]);
+            h = 31 * h + Float.floatToIntBits(geo.rotationY[i]);
+            h = 31 * h + geo.flags[i];
+            h = 31 * h + geo.material[i];
+        }
+        return h;
+    }
+
+    // --- Baking ---
+
+    private void bake(Chunk chunk, StaticGeometry geo) {
+        // Order the chunk's slots by material (then slot) so each material is one index range
+        if (sortKeys.length < chunk.slotCount) {
+            sortKeys = new long[Math.max(chunk.slotCount, sortKeys.length * 2)];
+        }
+        for (int s = 0; s < chunk.slotCount; s++) {
+            int i = chunk.slots[s];
+            sortKeys[s] = ((long) geo.material[i] << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, chunk.slotCount);
+
+        int vertexCount = 0;
+        int indexCount = 0;
+        chunk.rangeCount = 0;
+        chunk.minX = chunk.minY = chunk.minZ = Float.MAX_VALUE;
+        chunk.maxX = chunk.maxY = chunk.maxZ = -Float.MAX_VALUE;
+        for (int s = 0; s < chunk.slotCount; s++) {
+            int i = (int) sortKeys[s];
+            int mat = geo.material[i];
+            if (chunk.rangeCount == 0 || chunk.rangeMaterial[chunk.rangeCount - 1] != mat) {
+                addRange(chunk, mat, indexCount);
+            }
+
+            int faces = geo.isPlane(i) ? 1 : CUBE_FACES.length;
+            ensureCapacity(vertexCount + faces * 4, indexCount + faces * 6);
+            for (int f = 0; f < faces; f++) {
+                float[] face = geo.isPlane(i) ? PLANE_FACE : CUBE_FACES[f];
+                putFace(chunk, geo, i, face, vertexCount);
+                indexData[indexCount++] = vertexCount;
+                indexData[indexCount++] = vertexCount + 1;
+                indexData[indexCount++] = vertexCount + 2;
+                indexData[indexCount++] = vertexCount;
+                indexData[indexCount++] = vertexCount + 2;
+                indexData[indexCount++] = vertexCount + 3;
+                vertexCount += 4;
+            }
+            chunk.rangeLength[chunk.rangeCount - 1] = indexCount - chunk.rangeFirst[chunk.rangeCount - 1];
+        }
+        chunk.indexCount = indexCount;
+        chunk.vertexMaterials = pipeline != null;
+        for (int r = 0; r < chunk.rangeCount && chunk.vertexMaterials; r++) {
+            int textureID = geo.getMaterialTexture(chunk.rangeMaterial[r]);
+            chunk.vertexMaterials = textureID == 0 || pipeline.getTextureLayer(textureID) >= 0;
+        }
+
+        if (vertexBuffer == null || vertexBuffer.capacity() < vertexCount * FLOATS_PER_VERTEX) {
+            vertexBuffer = BufferUtils.createFloatBuffer(vertexData.length);
+        }
+        if (indexBuffer == null || indexBuffer.capacity() < indexCount) {
+            indexBuffer = BufferUtils.createIntBuffer(indexData.length);
+        }
+        vertexBuffer.clear();
+        vertexBuffer.put(vertexData, 0, vertexCount * FLOATS_PER_VERTEX).flip();
+        indexBuffer.clear();
+        indexBuffer.put(indexData, 0, indexCount).flip();
+
+        if (chunk.vbo == 0) {
+            chunk.vbo = glGenBuffers();
+            chunk.ibo = glGenBuffers();
+        }
+        glBindBuffer(GL_ARRAY_BUFFER, chunk.vbo);
+        glBufferData(GL_ARRAY_BUFFER, vertexBuffer, GL_STATIC_DRAW);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, chunk.ibo);
+        glBufferData(GL_ELEMENT_ARRAY_BUFFER, indexBuffer, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        if (pipeline != null && chunk.vao == 0) {
+            chunk.vao = createVertexArray(chunk);
+        }
+    }
+
+    /**
+     * A vertex array over the chunk's buffers, laid out for the shader
+     * pipeline. It refers to the buffers by name, so re-baking into them
+     * doesn't invalidate it.
+     */
+    private static int createVertexArray(Chunk chunk) {
+        int vao = glGenVertexArrays();
+        GLStateCache.bindVertexArray(vao);
+        glBindBuffer(GL_ARRAY_BUFFER, chunk.vbo);
+        glEnableVertexAttribArray(RenderPipeline.ATTRIB_POSITION);
+        glVertexAttribPointer(RenderPipeline.ATTRIB_POSITION, 3, GL_FLOAT, false, STRIDE, 0L);
+        glEnableVertexAttribArray(RenderPipeline.ATTRIB_TEX_COORD);
+        glVertexAttribPointer(RenderPipeline.ATTRIB_TEX_COORD, 2, GL_FLOAT, false, STRIDE, 6 * 4L);
+        glEnableVertexAttribArray(RenderPipeline.ATTRIB_MATERIAL);
+        glVertexAttribPointer(RenderPipeline.ATTRIB_MATERIAL, 4, GL_FLOAT, false, STRIDE, 8 * 4L);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, chunk.ibo);
+        // Unbind the array first: it remembers the element buffer
+        GLStateCache.bindVertexArray(0);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        return vao;
+    }
+
+    private static void addRange(Chunk chunk, int material, int first) {
+        if (chunk.rangeCount == chunk.rangeMaterial.length) {
+            int size = chunk.rangeCount * 2;
+            chunk.rangeMaterial = Arrays.copyOf(chunk.rangeMaterial, size);
+            chunk.rangeFirst = Arrays.copyOf(chunk.rangeFirst, size);
+            chunk.rangeLength = Arrays.copyOf(chunk.rangeLength, size);
+        }
+        chunk.rangeMaterial[chunk.rangeCount] = material;
+        chunk.rangeFirst[chunk.rangeCount] = first;
+        chunk.rangeLength[chunk.rangeCount] = 0;
+        chunk.rangeCount++;
+    }
+
+    /**
+     * Writes one face of a slot's box (or plane) in world space: scaled,
+     * rotated about Y and moved to the slot's position, the same transform
+     * GameObject.render() sets up.
+     */
+    private void putFace(Chunk chunk, StaticGeometry geo, int i, float[] face, int firstVertex) {
+        int mat = geo.material[i];
+        int textureID = geo.getMaterialTexture(mat);
+        float layer = pipeline != null ? pipeline.getTextureLayer(textureID) : -1.0f;
+        float r = textureID != 0 ? 1.0f : geo.getMaterialColor(mat, 0);
+        float g = textureID != 0 ? 1.0f : geo.getMaterialColor(mat, 1);
+        float b = textureID != 0 ? 1.0f : geo.getMaterialColor(mat, 2);
+        float hx = geo.scaleX[i] / 2.0f;
+        float hy = geo.scaleY[i] / 2.0f;
+        float hz = geo.scaleZ[i] / 2.0f;
+        double angle = Math.toRadians(geo.rotationY[i]);
+        float cos = (float) Math.cos(angle);
+        float sin = (float) Math.sin(angle);
+        float nx = face[0] * cos + face[2] * sin;
+        float nz = -face[0] * sin + face[2] * cos;
+
+        int out = firstVertex * FLOATS_PER_VERTEX;
+        for (int c = 0; c < 4; c++) {
+            int k = 3 + c * 5;
+            float lx = face[k] * hx;
+            float ly = face[k + 1] * hy;
+            float lz = face[k + 2] * hz;
+            float x = geo.posX[i] + lx * cos + lz * sin;
+            float y = geo.posY[i] + ly;
+            float z = geo.posZ[i] - lx * sin + lz * cos;
+            vertexData[out++] = x;
+            vertexData[out++] = y;
+            vertexData[out++] = z;
+            vertexData[out++] = nx;
+            vertexData[out++] = face[1];
+            vertexData[out++] = nz;
+            vertexData[out++] = texSize(geo, i, (int) face[k + 3]);
+            vertexData[out++] = texSize(geo, i, (int) face[k + 4]);
+            vertexData[out++] = r;
+            vertexData[out++] = g;
+            vertexData[out++] = b;
+            vertexData[out++] = layer;
+
+            chunk.minX = Math.min(chunk.minX, x);
+            chunk.maxX = Math.max(chunk.maxX, x);
+            chunk.minY = Math.min(chunk.minY, y);
+            chunk.maxY = Math.max(chunk.maxY, y);
+            chunk.minZ = Math.min(chunk.minZ, z);
+            chunk.maxZ = Math.max(chunk.maxZ, z);
+        }
+    }
+
+    private static float texSize(StaticGeometry geo, int i, int axis) {
+        switch (axis) {
+            case 1:  return geo.scaleX[i];
+            case 2:  return geo.scaleY[i];
+            case 3:  return geo.scaleZ[i];
+            default: return 0.0f;
+        }
+    }
+
+    private void ensureCapacity(int vertices, int indices) {
+        if (vertexData.length < vertices * FLOATS_PER_VERTEX) {
+            vertexData = Arrays.copyOf(vertexData, Math.max(vertices * FLOATS_PER_VERTEX, vertexData.length * 2));
+        }
+        if (indexData.length < indices) {
+            indexData = Arrays.copyOf(indexData, Math.max(indices, indexData.length * 2));
+        }
+    }
+
+    // --- Stats ---
+
+    /** @return Draw calls made by the last {@link #render}. */
+    public int getDrawCallCount() {
+        return drawCalls;
+    }
+
+    /** @return Material (texture or color) changes in the last {@link #render}. */
+    public int getMaterialChangeCount() {
+        return materialChanges;
+    }
+
+    /** @return Chunks drawn by the last {@link #render}. */
+    public int getChunksDrawn() {
+        return chunksDrawn;
+    }
+
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /** @return Objects baked into chunks (the rest are drawn one by one). */
+    public int getBakedObjectCount() {
+        return bakedObjects;
+    }
+
+    // --- Cleanup ---
+
+    private static void deleteBuffers(Chunk chunk) {
+        if (chunk.vao != 0) {
+            GLStateCache.deleteVertexArray(chunk.vao);
+            chunk.vao = 0;
+        }
+        if (chunk.vbo != 0) {
+            glDeleteBuffers(chunk.vbo);
+            glDeleteBuffers(chunk.ibo);
+            chunk.vbo = 0;
+            chunk.ibo = 0;
+        }
+    }
+
+    /**
+     * Frees every buffer. The cache rebuilds itself on the next render.
+     */
+    public void cleanup() {
+        for (Chunk chunk : chunks) {
+            deleteBuffers(chunk);
+        }
+        chunks.clear();
+        chunksByRoom.clear();
+        outsideChunk = null;
+        looseCount = 0;
+        if (props != null) {
+            props.clearInstances();
+        }
+        cacheWorld = null;
+        cacheVersion = -1;
+        cacheObjectCount = -1;
+        cacheRoomCount = -1;
+    }
+}
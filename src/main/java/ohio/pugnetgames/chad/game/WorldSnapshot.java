@@ -0,0 +1,334 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.core.BuildManager;
+import ohio.pugnetgames.chad.game.GameObject.ShapeType;
+import ohio.pugnetgames.chad.game.Room.RoomType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A saved copy of a finished world: rooms, the tunnels between them, static
+ * objects and the props they belong to, key positions, the escape door and win trigger, the
+ * pathfinding grid, and each room's potentially visible set if it has them.
+ *
+ * It's written once when a run's world is first generated and memory-mapped
+ * back in when the run is continued, so resuming doesn't have to regenerate
+ * anything. Key placement is seeded too, but the key positions are stored
+ * anyway so restoring doesn't have to run KeyManager's placement again.
+ *
+ * Each file starts with a fingerprint of everything that shapes the world
+ * (file format, {@link WorldLoader#GENERATOR_VERSION}, seed, room and key
+ * counts, layout algorithm, visible sets, and the all-courtyards /
+ * all-bedrooms build flags). If it doesn't match, the
+ * snapshot is ignored and the world is generated again, then re-saved.
+ *
+ * Textures are stored as slots into the texture list passed in (wall, orb,
+ * wood, sheets, tile), since GL texture IDs change between sessions.
+ */
+public class WorldSnapshot {
+
+    private static final int MAGIC = 0x4F524257; // "ORBW"
+    private static final int FORMAT_VERSION = 4;
+
+    private static final int FLAG_COLLIDABLE = 1;
+    private static final int FLAG_RENDERED = 2;
+    private static final ShapeType[] SHAPES = ShapeType.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    public final World world;
+    public final List<float[]> keyPositions;
+    public final PathfindingManager pathfinder;
+
+    private WorldSnapshot(World world, List<float[]> keyPositions, PathfindingManager pathfinder) {
+        this.world = world;
+        this.keyPositions = keyPositions;
+        this.pathfinder = pathfinder;
+    }
+
+    /**
+     * Everything that decides what a run's world looks like, mixed into one number.
+     * The room-type build flags are read the same way WorldLoader reads them.
+     */
+    public static long fingerprint(long seed, GenerationOptions options, int keyCount) {
+        return fingerprint(seed, options, keyCount,
+                BuildManager.getBoolean("feature.allcourtyards.enabled"),
+                BuildManager.getBoolean("feature.allbedrooms.enabled"));
+    }
+
+    static long fingerprint(long seed, GenerationOptions options, int keyCount,
+                            boolean forceCourtyards, boolean forceBedrooms) {
+        long h = 1125899906842597L;
+        h = 31 * h + FORMAT_VERSION;
+        h = 31 * h + WorldLoader.GENERATOR_VERSION;
+        h = 31 * h + seed;
+        h = 31 * h + options.roomCount;
+        h = 31 * h + options.layoutAlgorithm.ordinal();
+        h = 31 * h + Float.floatToIntBits(options.loopChance);
+        h = 31 * h + (options.computeVisibleSets ? 1 : 0);
+        h = 31 * h + keyCount;
+        h = 31 * h + (forceCourtyards ? 1 : 0);
+        h = 31 * h + (forceBedrooms ? 1 : 0);
+        return h;
+    }
+
+    // --- Saving ---
+
+    /**
+     * Writes a snapshot. Failures are logged and otherwise ignored; the run
+     * just regenerates next time.
+     *
+     * @param textureIDs wall, orb, wood, sheets and tile texture IDs, in that order.
+     */
+    public static void save(Path file, long fingerprint, World world, List<Key> keys,
+                            PathfindingManager pathfinder, int[] textureIDs) {
+        long startTime = System.currentTimeMillis();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            List<GameObject> objects = world.getStaticObjects();
+            synchronized (objects) {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                    out.writeInt(MAGIC);
+                    out.writeLong(fingerprint);
+
+                    // Rooms
+                    out.writeInt(world.getAllRooms().size());
+                    for (Room room : world.getAllRooms()) {
+                        out.writeFloat(room.minX);
+                        out.writeFloat(room.minZ);
+                        out.writeFloat(room.maxX);
+                        out.writeFloat(room.maxZ);
+                        out.writeByte(room.getType().ordinal());
+                        out.writeByte((room.northWallUsed ? 1 : 0) | (room.southWallUsed ? 2 : 0)
+                                | (room.eastWallUsed ? 4 : 0) | (room.westWallUsed ? 8 : 0));
+                        out.writeInt(room.keySpawnLocations.size());
+                        for (float[] spawn : room.keySpawnLocations) {
+                            out.writeFloat(spawn[0]);
+                            out.writeFloat(spawn[1]);
+                            out.writeFloat(spawn[2]);
+                        }
+                    }
+
+                    // Tunnels (escape tunnel has no toRoom)
+                    List<RoomGraph.Connection> connections = world.getRoomGraph().getConnections();
+                    out.writeInt(connections.size());
+                    for (RoomGraph.Connection connection : connections) {
+                        Tunnel tunnel = connection.tunnel;
+                        out.writeFloat(tunnel.minX);
+                        out.writeFloat(tunnel.minZ);
+                        out.writeFloat(tunnel.maxX);
+                        out.writeFloat(tunnel.maxZ);
+                        out.writeInt(tunnel.fromRoom.index);
+                        out.writeInt(tunnel.isEscape() ? -1 : tunnel.toRoom.index);
+                        out.writeByte(tunnel.direction.ordinal());
+                    }
+
+                    // Static objects
+                    int escapeDoorIndex = -1;
+                    int winTriggerIndex = -1;
+                    out.writeInt(objects.size());
+                    for (int i = 0; i < objects.size(); i++) {
+                        GameObject obj = objects.get(i);
+                        if (obj == world.getEscapeDoor()) escapeDoorIndex = i;
+                        if (obj == world.getWinTrigger()) winTriggerIndex = i;
+                        out.writeByte(obj.getShape().ordinal());
+                        out.writeByte((obj.isCollidable() ? FLAG_COLLIDABLE : 0) | (obj.isRendered() ? FLAG_RENDERED : 0));
+                        out.writeByte(textureSlot(obj.getTextureID(), textureIDs));
+                        out.writeFloat(obj.getPosX());
+                        out.writeFloat(obj.getPosY());
+                        out.writeFloat(obj.getPosZ());
+                        out.writeFloat(obj.getScaleX());
+                        out.writeFloat(obj.getScaleY());
+                        out.writeFloat(obj.getScaleZ());
+                        out.writeFloat(obj.getRotationY());
+                        out.writeFloat(obj.getColorR());
+                        out.writeFloat(obj.getColorG());
+                        out.writeFloat(obj.getColorB());
+                    }
+                    out.writeInt(escapeDoorIndex);
+                    out.writeInt(winTriggerIndex);
+
+                    // Props: prefab id, position, and the index of the first part (parts are contiguous)
+                    List<Integer> propStarts = new ArrayList<>();
+                    for (int i = 0; i < objects.size(); i++) {
+                        PropInstance prop = objects.get(i).getProp();
+                        if (prop != null && (i == 0 || objects.get(i - 1).getProp() != prop)) {
+                            propStarts.add(i);
+                        }
+                    }
+                    out.writeInt(propStarts.size());
+                    for (int start : propStarts) {
+                        PropInstance prop = objects.get(start).getProp();
+                        out.writeByte(PrefabRegistry.idOf(prop.prefab));
+                        out.writeFloat(prop.x);
+                        out.writeFloat(prop.y);
+                        out.writeFloat(prop.z);
+                        out.writeInt(start);
+                    }
+
+                    // Keys
+                    out.writeInt(keys.size());
+                    for (Key key : keys) {
+                        out.writeFloat(key.x);
+                        out.writeFloat(key.y);
+                        out.writeFloat(key.z);
+                    }
+
+                    pathfinder.writeTo(out);
+
+                    // Potentially visible sets, if the world has them
+                    PotentiallyVisibleSets visibleSets = world.getVisibleSets();
+                    out.writeBoolean(visibleSets != null);
+                    if (visibleSets != null) {
+                        visibleSets.writeTo(out);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("[WorldSnapshot - save] Wrote " + Files.size(file) / 1024 + " KB in "
+                    + (System.currentTimeMillis() - startTime) + " ms.");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[WorldSnapshot - save] Could not save world snapshot: " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static int textureSlot(int textureID, int[] textureIDs) {
+        if (textureID == 0) return 0;
+        for (int i = 0; i < textureIDs.length; i++) {
+            if (textureIDs[i] == textureID) return i + 1;
+        }
+        throw new IllegalArgumentException("object uses unknown texture " + textureID);
+    }
+
+    // --- Loading ---
+
+    /**
+     * Maps a snapshot file and rebuilds the world from it.
+     *
+     * @param textureIDs wall, orb, wood, sheets and tile texture IDs, in that order.
+     * @return The snapshot, or null if there's no file, it's from a different
+     *         generator/seed, or it can't be read.
+     */
+    public static WorldSnapshot load(Path file, long fingerprint, int[] textureIDs) {
+        if (!Files.exists(file)) return null;
+        long startTime = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC) {
+                System.err.println("[WorldSnapshot - load] Not a world snapshot, ignoring it.");
+                return null;
+            }
+            if (in.getLong() != fingerprint) {
+                System.out.println("[WorldSnapshot - load] Snapshot is from a different seed or generator version, regenerating.");
+                return null;
+            }
+
+            // Rooms
+            int roomCount = in.getInt();
+            List<Room> rooms = new ArrayList<>(roomCount);
+            for (int i = 0; i < roomCount; i++) {
+                Room room = new Room(in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat(), ROOM_TYPES[in.get()]);
+                int walls = in.get();
+                room.northWallUsed = (walls & 1) != 0;
+                room.southWallUsed = (walls & 2) != 0;
+                room.eastWallUsed = (walls & 4) != 0;
+                room.westWallUsed = (walls & 8) != 0;
+                room.index = i;
+                int spawns = in.getInt();
+                for (int s = 0; s < spawns; s++) {
+                    room.keySpawnLocations.add(new float[]{in.getFloat(), in.getFloat(), in.getFloat()});
+                }
+                rooms.add(room);
+            }
+
+            // Tunnels
+            int tunnelCount = in.getInt();
+            List<Tunnel> tunnels = new ArrayList<>(tunnelCount);
+            Tunnel escapeTunnel = null;
+            for (int i = 0; i < tunnelCount; i++) {
+                float minX = in.getFloat(), minZ = in.getFloat(), maxX = in.getFloat(), maxZ = in.getFloat();
+                Room from = rooms.get(in.getInt());
+                int toIndex = in.getInt();
+                Tunnel tunnel = new Tunnel(minX, minZ, maxX, maxZ, from, toIndex >= 0 ? rooms.get(toIndex) : null,
+                        DIRECTIONS[in.get()]);
+                if (tunnel.isEscape()) {
+                    escapeTunnel = tunnel;
+                } else {
+                    tunnels.add(tunnel);
+                }
+            }
+
+            // Static objects
+            int objectCount = in.getInt();
+            List<GameObject> objects = new ArrayList<>(objectCount);
+            for (int i = 0; i < objectCount; i++) {
+                ShapeType shape = SHAPES[in.get()];
+                int flags = in.get();
+                int slot = in.get();
+                int textureID = slot == 0 ? 0 : textureIDs[slot - 1];
+                objects.add(GameObject.restore(shape,
+                        in.getFloat(), in.getFloat(), in.getFloat(),
+                        in.getFloat(), in.getFloat(), in.getFloat(), in.getFloat(),
+                        in.getFloat(), in.getFloat(), in.getFloat(), textureID,
+                        (flags & FLAG_COLLIDABLE) != 0, (flags & FLAG_RENDERED) != 0));
+            }
+            int escapeDoorIndex = in.getInt();
+            int winTriggerIndex = in.getInt();
+            GameObject escapeDoor = escapeDoorIndex >= 0 ? objects.get(escapeDoorIndex) : null;
+            GameObject winTrigger = winTriggerIndex >= 0 ? objects.get(winTriggerIndex) : null;
+
+            // Props
+            int propCount = in.getInt();
+            for (int i = 0; i < propCount; i++) {
+                Prefab prefab = PrefabRegistry.byId(in.get());
+                if (prefab == null) {
+                    throw new IOException("unknown prefab in snapshot");
+                }
+                PropInstance prop = new PropInstance(prefab, in.getFloat(), in.getFloat(), in.getFloat());
+                int start = in.getInt();
+                for (int p = start; p < start + prefab.getPartCount(); p++) {
+                    objects.get(p).setProp(prop);
+                }
+            }
+
+            // Keys
+            int keyCount = in.getInt();
+            List<float[]> keyPositions = new ArrayList<>(keyCount);
+            for (int i = 0; i < keyCount; i++) {
+                keyPositions.add(new float[]{in.getFloat(), in.getFloat(), in.getFloat()});
+            }
+
+            PathfindingManager pathfinder = new PathfindingManager();
+            pathfinder.readFrom(in);
+
+            World world = new World(objects, rooms, RoomGraph.of(rooms, tunnels, escapeTunnel), escapeDoor, winTrigger,
+                    textureIDs[0], textureIDs[1], textureIDs[2], textureIDs[3]);
+            if (in.get() != 0) {
+                world.setVisibleSets(PotentiallyVisibleSets.readFrom(in, rooms));
+            }
+            System.out.println("[WorldSnapshot - load] Loaded " + roomCount + " rooms, " + tunnelCount + " tunnels, " + objectCount
+                    + " objects and " + pathfinder.getTileCount() + " nav tiles in "
+                    + (System.currentTimeMillis() - startTime) + " ms.");
+            return new WorldSnapshot(world, keyPositions, pathfinder);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            System.err.println("[WorldSnapshot - load] Could not read world snapshot, regenerating: " + e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.core.BuildManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the endless maze. The maze keeps growing as the player walks toward
+ * unexplored walls, and rooms far away from the player are unloaded (geometry
+ * and nav tiles both) so memory stays under the configured budget.
+ *
+ * All generation happens on one background "world-streamer" thread, which owns
+ * the WorldLoader and works out a {@link StreamUpdate}. The game thread only
+ * picks up finished updates in {@link #update} and swaps them in, which is
+ * cheap. Unloaded rooms keep their layout, and because each room's geometry
+ * comes from its own seeded stream, reloading one rebuilds it exactly.
+ *
+ * The worker never touches anything the game thread reads. The World holds
+ * copies of the layout's rooms (see {@link Room#copy()}); when the worker
+ * changes a layout room (a wall gets a tunnel, a bedroom gets its key spawn
+ * points) it sends a fresh copy in the update, and the game thread copies
+ * that into the World's room.
+ *
+ * The maze stops growing at endless.maxRooms rooms, since every known room
+ * stays in the layout, the room graph and the map even when unloaded.
+ *
+ * Settings (build.properties):
+ *   endless.generateRadius        - grow the maze from rooms this close to the player
+ *   endless.keepRadius            - unload rooms farther away than this
+ *   endless.residentObjectBudget  - max static objects loaded at once
+ *   endless.maxRooms              - max rooms known at once (loaded or not)
+ */
+public class WorldStreamer {
+
+    // Don't grow too much in one pass, so updates stay small and frequent
+    private static final int MAX_ROOMS_GROWN_PER_PASS = 4;
+    // Player has to move this far before we bother re-checking
+    private static final float REPASS_DISTANCE = 2.0f;
+    // Nav tiles near a changed room are rebuilt; walls stick out a little
+    private static final float NAV_MARGIN = 1.0f;
+
+    private final WorldLoader loader;
+    private final World world;
+    private final PathfindingManager pathfinder;
+
+    private final float generateRadius;
+    private final float keepRadius;
+    private final int residentObjectBudget;
+    private final int maxRooms;
+
+    private final ExecutorService worker;
+    private Future<StreamUpdate> pending;
+    private float lastPassX = Float.NaN;
+    private float lastPassZ = Float.NaN;
+    private boolean lastPassChanged = true;
+
+    // --- Worker-owned state (only touched by the world-streamer thread) ---
+    // Keyed by layout room; the game thread only ever sees the World's copies
+    private final Map<Room, Room> worldRooms = new HashMap<>();
+    private final Map<Room, List<GameObject>> residentChunks = new LinkedHashMap<>();
+    // Rooms with a wall that hasn't been tried yet, and the walls that failed
+    private final Set<Room> openRooms = new LinkedHashSet<>();
+    private final Map<Room, EnumSet<Direction>> blockedWalls = new HashMap<>();
+    private int residentObjectCount = 0;
+    private boolean roomCapLogged = false;
+
+    /**
+     * Everything one pass changed, handed from the worker to the game thread.
+     * Rooms in here are the World's copies, never layout rooms.
+     */
+    private static class StreamUpdate {
+        final List<Room> newRooms = new ArrayList<>();
+        final List<Tunnel> newTunnels = new ArrayList<>(); // Entrance of each new room, same order
+        final Map<Room, Room> changedRooms = new LinkedHashMap<>(); // World room -> its new state
+        final Map<Room, List<GameObject>> loadedChunks = new LinkedHashMap<>();
+        final List<Room> evictedRooms = new ArrayList<>();
+        Map<Long, PathfindingManager.NavTile> navTiles = new HashMap<>();
+
+        boolean isEmpty() {
+            return newRooms.isEmpty() && changedRooms.isEmpty() && loadedChunks.isEmpty() && evictedRooms.isEmpty();
+        }
+    }
+
+    /**
+     * Creates the endless world and synchronously generates the area around
+     * the spawn point, so the game can start right away.
+     *
+     * @param minInitialRooms Keep growing until at least this many rooms exist
+     *                        (so there's somewhere to put the keys).
+     */
+    public WorldStreamer(WorldLoader loader, PathfindingManager pathfinder,
+                         int wallTextureID, int orbTextureID, int woodTextureID,
+                         int sheetsTextureID, int tileTextureID, long seed, int minInitialRooms) {
+        this.loader = loader;
+        this.pathfinder = pathfinder;
+        this.generateRadius = BuildManager.getFloat("endless.generateRadius", 60.0f);
+        this.keepRadius = Math.max(generateRadius, BuildManager.getFloat("endless.keepRadius", 90.0f));
+        this.residentObjectBudget = Math.max(1, BuildManager.getInt("endless.residentObjectBudget", 3000));
+        this.maxRooms = Math.max(minInitialRooms, BuildManager.getInt("endless.maxRooms", 5000));
+
+        this.world = loader.beginEndlessLayout(wallTextureID, orbTextureID, woodTextureID,
+                sheetsTextureID, tileTextureID, seed);
+
+        Room startRoom = loader.getLayoutRooms().get(0);
+        worldRooms.put(startRoom, world.getAllRooms().get(0));
+        openRooms.add(startRoom);
+        pathfinder.includeRoomBounds(startRoom);
+
+        long startTime = System.currentTimeMillis();
+        StreamUpdate initial = runPass(0.0f, 0.0f, minInitialRooms);
+        apply(initial);
+        System.out.println("[WorldStreamer] Initial area ready in " + (System.currentTimeMillis() - startTime)
+                + " ms: " + world.getAllRooms().size() + " rooms, " + residentObjectCount + " objects loaded.");
+
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "world-streamer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Called once per frame on the game thread. Applies the last finished pass
+     * (if any) and starts a new one when the player has moved.
+     */
+    public void update(float playerX, float playerZ) {
+        if (pending != null && pending.isDone()) {
+            try {
+                StreamUpdate result = pending.get();
+                lastPassChanged = !result.isEmpty();
+                apply(result);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                System.err.println("[WorldStreamer - update] Streaming pass failed: " + e.getCause());
+                e.getCause().printStackTrace();
+            }
+            pending = null;
+        }
+
+        if (pending == null) {
+            boolean moved = Float.isNaN(lastPassX)
+                    || Math.abs(playerX - lastPassX) + Math.abs(playerZ - lastPassZ) > REPASS_DISTANCE;
+            if (moved || lastPassChanged) {
+                lastPassX = playerX;
+                lastPassZ = playerZ;
+                pending = worker.submit(() -> runPass(playerX, playerZ, 0));
+            }
+        }
+    }
+
+    /**
+     * Stops the worker thread. Any pass still running is thrown away.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pending = null;
+    }
+
+    // --- Game thread ---
+
+    private void apply(StreamUpdate update) {
+        for (Map.Entry<Room, Room> entry : update.changedRooms.entrySet()) {
+            entry.getKey().copyStateFrom(entry.getValue());
+        }
+        for (int i = 0; i < update.newRooms.size(); i++) {
+            Room room = update.newRooms.get(i);
+            world.addRoom(room, update.newTunnels.get(i));
+            pathfinder.includeRoomBounds(room);
+        }
+        for (Room room : update.evictedRooms) {
+            world.removeRoomChunk(room);
+        }
+        for (Map.Entry<Room, List<GameObject>> entry : update.loadedChunks.entrySet()) {
+            world.setRoomChunk(entry.getKey(), entry.getValue());
+        }
+        pathfinder.applyTiles(update.navTiles);
+    }
+
+    // --- Worker thread ---
+
+    /**
+     * One streaming pass: grow the maze near the player, decide which rooms
+     * stay loaded, build what's missing and rebuild the affected nav tiles.
+     * Works on layout rooms and translates to the World's copies at the end.
+     */
+    private StreamUpdate runPass(float playerX, float playerZ, int minRooms) {
+        StreamUpdate update = new StreamUpdate();
+        List<Room> rooms = loader.getLayoutRooms();
+        List<Room> grownRooms = new ArrayList<>();
+        Set<Room> dirtyRooms = new HashSet<>();
+        boolean initialPass = minRooms > 0;
+
+        // 1. Grow the maze off rooms near the player, nearest first. Only rooms
+        //    with untried walls are queued, and each one is measured once.
+        Map<Room, Float> distances = new HashMap<>();
+        for (Room room : openRooms) {
+            distances.put(room, distanceTo(room, playerX, playerZ));
+        }
+        PriorityQueue<Room> frontier = new PriorityQueue<>(Comparator.comparingDouble(distances::get));
+        frontier.addAll(openRooms);
+        int grown = 0;
+        growing:
+        while (!frontier.isEmpty()) {
+            Room room = frontier.poll();
+            boolean needMore = rooms.size() < minRooms;
+            if (!needMore && distances.get(room) > generateRadius) break;
+
+            EnumSet<Direction> blocked = blockedWalls.computeIfAbsent(room, r -> EnumSet.noneOf(Direction.class));
+            for (Direction dir : room.getAvailableWalls()) {
+                if (blocked.contains(dir)) continue;
+                if (rooms.size() >= maxRooms) {
+                    if (!roomCapLogged) {
+                        System.out.println("[WorldStreamer - runPass] Reached " + maxRooms + " rooms; the maze stops growing.");
+                        roomCapLogged = true;
+                    }
+                    break growing;
+                }
+                if (!initialPass && grown >= MAX_ROOMS_GROWN_PER_PASS) break growing; // Room stays open
+                Room newRoom = loader.growRoom(room, dir);
+                if (newRoom == null) {
+                    blocked.add(dir);
+                    continue;
+                }
+                grownRooms.add(newRoom);
+                dirtyRooms.add(room); // Its wall needs a doorway now
+                dirtyRooms.add(newRoom);
+                openRooms.add(newRoom);
+                distances.put(newRoom, distanceTo(newRoom, playerX, playerZ));
+                frontier.add(newRoom);
+                grown++;
+            }
+            // Every wall has a tunnel or failed, so the room is done growing
+            openRooms.remove(room);
+            blockedWalls.remove(room);
+        }
+
+        // 2. Keep the nearest rooms loaded, up to the object budget
+        List<Room> candidates = new ArrayList<>();
+        for (Room room : rooms) {
+            if (distanceTo(room, playerX, playerZ) <= keepRadius) {
+                candidates.add(room);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(r -> distanceTo(r, playerX, playerZ)));
+
+        Map<Room, List<GameObject>> keep = new LinkedHashMap<>();
+        Map<Room, List<GameObject>> built = new LinkedHashMap<>();
+        int total = 0;
+        for (Room room : candidates) {
+            if (total >= residentObjectBudget && !keep.isEmpty()) break;
+            List<GameObject> chunk = residentChunks.get(room);
+            if (chunk == null || dirtyRooms.contains(room)) {
+                chunk = loader.buildRoomChunk(room); // May fill in the room's key spawn points
+                built.put(room, chunk);
+            }
+            keep.put(room, chunk);
+            total += chunk.size();
+        }
+
+        List<Room> evicted = new ArrayList<>();
+        for (Room room : residentChunks.keySet()) {
+            if (!keep.containsKey(room)) {
+                evicted.add(room);
+            }
+        }
+
+        // 3. Rebuild nav tiles under every room that changed
+        Set<Long> changedTiles = new HashSet<>();
+        for (Room room : built.keySet()) {
+            collectRoomTiles(room, changedTiles);
+        }
+        for (Room room : evicted) {
+            collectRoomTiles(room, changedTiles);
+        }
+
+        residentChunks.clear();
+        residentChunks.putAll(keep);
+        residentObjectCount = total;
+
+        if (!changedTiles.isEmpty()) {
+            List<GameObject> residentObjects = new ArrayList<>(total);
+            for (List<GameObject> chunk : residentChunks.values()) {
+                residentObjects.addAll(chunk);
+            }
+            update.navTiles = PathfindingManager.rasterizeTiles(changedTiles, StaticGeometry.of(residentObjects));
+        }
+
+        // 4. Hand over copies: new rooms as they are now, and the new state of
+        //    rooms the game already has
+        Set<Room> changed = new LinkedHashSet<>(dirtyRooms);
+        changed.addAll(built.keySet());
+        for (Room room : changed) {
+            Room worldRoom = worldRooms.get(room);
+            if (worldRoom != null) {
+                update.changedRooms.put(worldRoom, room.copy());
+            }
+        }
+        for (Room room : grownRooms) {
+            Room worldRoom = room.copy();
+            worldRooms.put(room, worldRoom);
+            Tunnel entrance = loader.getEntranceTunnel(room);
+            update.newRooms.add(worldRoom);
+            update.newTunnels.add(new Tunnel(entrance.minX, entrance.minZ, entrance.maxX, entrance.maxZ,
+                    worldRooms.get(entrance.fromRoom), worldRoom, entrance.direction));
+        }
+        for (Map.Entry<Room, List<GameObject>> entry : built.entrySet()) {
+            update.loadedChunks.put(worldRooms.get(entry.getKey()), entry.getValue());
+        }
+        for (Room room : evicted) {
+            update.evictedRooms.add(worldRooms.get(room));
+        }
+
+        if (!update.isEmpty()) {
+            System.out.println("[WorldStreamer - runPass] +" + update.newRooms.size() + " rooms, "
+                    + update.loadedChunks.size() + " loaded, " + update.evictedRooms.size() + " unloaded. Resident: "
+                    + residentChunks.size() + " rooms / " + total + " objects (" + rooms.size() + " known).");
+        }
+        return update;
+    }
+
+    /** Collects the nav tiles covering a room and the tunnel leading into it. */
+    private void collectRoomTiles(Room room, Set<Long> out) {
+        PathfindingManager.collectTileKeys(room.minX - NAV_MARGIN, room.minZ - NAV_MARGIN,
+                room.maxX + NAV_MARGIN, room.maxZ + NAV_MARGIN, out);
+        Tunnel entrance = loader.getEntranceTunnel(room);
+        if (entrance != null) {
+            PathfindingManager.collectTileKeys(entrance.minX - NAV_MARGIN, entrance.minZ - NAV_MARGIN,
+                    entrance.maxX + NAV_MARGIN, entrance.maxZ + NAV_MARGIN, out);
+        }
+    }
+
+    /** Distance from a point to the nearest edge of a room (0 when inside). */
+    private static float distanceTo(Room room, float x, float z) {
+        float dx = Math.max(0.0f, Math.max(room.minX - x, x - room.maxX));
+        float dz = Math.max(0.0f, Math.max(room.minZ - z, z - room.maxZ));
+        return (float) Math.sqrt(dx * dx + dz * dz);
+    }
+}
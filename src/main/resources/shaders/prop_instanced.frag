@@ -0,0 +1,29 @@
+#version 330 core
+
+// Same look as world.frag, with the part's color per vertex.
+
+layout(std140) uniform Frame {
+    mat4 projection;
+    mat4 view;
+    vec4 fogColor;
+    float fogDensity;
+    float ambient;
+    float horrorLevel;
+};
+
+uniform sampler2D diffuse;
+uniform bool textured;
+
+in vec2 fragTexCoord;
+in vec3 fragColor;
+in float fragEyeDistance;
+
+out vec4 outColor;
+
+void main() {
+    vec4 base = textured ? texture(diffuse, fragTexCoord) : vec4(fragColor, 1.0);
+    vec3 lit = min(base.rgb * ambient, vec3(1.0));
+    float fogAmount = fogDensity * fragEyeDistance;
+    float visibility = clamp(exp(-fogAmount * fogAmount), 0.0, 1.0);
+    outColor = vec4(mix(fogColor.rgb, lit, visibility), base.a);
+}
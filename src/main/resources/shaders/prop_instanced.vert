@@ -0,0 +1,29 @@
+#version 330 core
+
+layout(std140) uniform Frame {
+    mat4 projection;
+    mat4 view;
+    vec4 fogColor;
+    float fogDensity;
+    float ambient;
+    float horrorLevel;
+};
+
+// One prop part's vertex, in the prop's own space
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec2 texCoord;
+layout(location = 2) in vec3 color;
+// Per instance: where the prop stands (props are never rotated or scaled)
+layout(location = 3) in vec3 instanceOffset;
+
+out vec2 fragTexCoord;
+out vec3 fragColor;
+out float fragEyeDistance;
+
+void main() {
+    vec4 eye = view * vec4(position + instanceOffset, 1.0);
+    gl_Position = projection * eye;
+    fragTexCoord = texCoord;
+    fragColor = color;
+    fragEyeDistance = abs(eye.z);
+}
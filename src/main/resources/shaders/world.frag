@@ -0,0 +1,42 @@
+#version 330 core
+
+// The fixed-function look the game was built with: lighting on with no
+// lights (only the global ambient counts), the color as the material
+// (white under a texture), GL_MODULATE and GL_EXP2 fog.
+
+layout(std140) uniform Frame {
+    mat4 projection;
+    mat4 view;
+    vec4 fogColor;
+    float fogDensity;
+    float ambient;
+    float horrorLevel;
+};
+
+uniform sampler2D diffuse;
+uniform sampler2DArray diffuseArray;
+// Sample diffuse when there's no array layer
+uniform bool textured;
+
+in vec2 fragTexCoord;
+in float fragEyeDistance;
+in vec3 fragColor;
+flat in float fragLayer;
+
+out vec4 outColor;
+
+void main() {
+    vec4 base;
+    if (fragLayer >= 0.0) {
+        base = texture(diffuseArray, vec3(fragTexCoord, fragLayer));
+    } else if (textured) {
+        base = texture(diffuse, fragTexCoord);
+    } else {
+        base = vec4(1.0);
+    }
+    base.rgb *= fragColor;
+    vec3 lit = min(base.rgb * ambient, vec3(1.0));
+    float fogAmount = fogDensity * fragEyeDistance;
+    float visibility = clamp(exp(-fogAmount * fogAmount), 0.0, 1.0);
+    outColor = vec4(mix(fogColor.rgb, lit, visibility), base.a);
+}
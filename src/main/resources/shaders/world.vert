@@ -0,0 +1,44 @@
+#version 330 core
+
+layout(std140) uniform Frame {
+    mat4 projection;
+    mat4 view;
+    vec4 fogColor;
+    float fogDensity;
+    float ambient;
+    float horrorLevel;
+};
+
+uniform mat4 model;
+// Size of the object, for textures that tile with it
+uniform vec3 tileSize;
+
+layout(location = 0) in vec3 position;
+layout(location = 2) in vec2 texCoord;
+// Which size each texture coordinate is scaled by: 0 = none, 1/2/3 = X/Y/Z.
+// Unset (baked meshes already carry world-sized coordinates) reads as 0.
+layout(location = 6) in vec2 tileAxis;
+// The material: color, then the texture array layer (-1 = none). Baked
+// meshes carry it per vertex; single objects set it for the whole draw.
+layout(location = 7) in vec4 material;
+
+out vec2 fragTexCoord;
+out float fragEyeDistance;
+out vec3 fragColor;
+flat out float fragLayer;
+
+float tileScale(float axis) {
+    if (axis > 2.5) return tileSize.z;
+    if (axis > 1.5) return tileSize.y;
+    if (axis > 0.5) return tileSize.x;
+    return 1.0;
+}
+
+void main() {
+    vec4 eye = view * (model * vec4(position, 1.0));
+    gl_Position = projection * eye;
+    fragTexCoord = texCoord * vec2(tileScale(tileAxis.x), tileScale(tileAxis.y));
+    fragEyeDistance = abs(eye.z);
+    fragColor = material.rgb;
+    fragLayer = material.a;
+}
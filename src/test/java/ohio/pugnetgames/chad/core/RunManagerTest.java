@@ -2,7 +2,10 @@ package ohio.pugnetgames.chad.core;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -188,4 +191,43 @@ class RunManagerTest {
             assertFalse(k);
         }
     }
+
+    // -------------------------------------------------------------------------
+    // explored= — the fog of war mask, Base64 in state.dat
+    // -------------------------------------------------------------------------
+
+    @Test
+    void saveAndLoadPreservesExploredArea(@TempDir Path tmpDir) {
+        RunData run     = makeRunData(tmpDir);
+        byte[] explored = {0, 1, 2, (byte) 0x80, (byte) 0xFF, 42};
+        manager.saveRunState(run, new RunState(1L, 0, 0, 0, 0, 0, new boolean[]{false}, explored));
+
+        RunState loaded = manager.loadRunState(run);
+        assertNotNull(loaded);
+        assertArrayEquals(explored, loaded.explored);
+    }
+
+    @Test
+    void noExploredAreaIsNotWritten(@TempDir Path tmpDir) throws Exception {
+        RunData run = makeRunData(tmpDir);
+        manager.saveRunState(run, new RunState(1L, 0, 0, 0, 0, 0, new boolean[]{false}));
+
+        String file = new String(Files.readAllBytes(tmpDir.resolve("state.dat")), StandardCharsets.UTF_8);
+        assertFalse(file.contains("explored="));
+        assertNull(manager.loadRunState(run).explored);
+    }
+
+    @Test
+    void badExploredAreaOnlyLosesTheExploredArea(@TempDir Path tmpDir) throws Exception {
+        RunData run = makeRunData(tmpDir);
+        manager.saveRunState(run, new RunState(5L, 0, 0, 0, 0, 0, new boolean[]{true}));
+        Files.write(tmpDir.resolve("state.dat"), "explored=not*base64!\n".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+        RunState loaded = manager.loadRunState(run);
+        assertNotNull(loaded);
+        assertEquals(5L, loaded.worldSeed);
+        assertTrue(loaded.keysCollected[0]);
+        assertNull(loaded.explored);
+    }
 }
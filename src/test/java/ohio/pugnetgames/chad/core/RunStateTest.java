@@ -66,4 +66,17 @@ class RunStateTest {
         RunState state = new RunState(-999L, 0, 0, 0, 0, 0, new boolean[0]);
         assertEquals(-999L, state.worldSeed);
     }
+
+    @Test
+    void sevenArgumentConstructorHasNoExploredArea() {
+        RunState state = new RunState(0L, 0, 0, 0, 0, 0, new boolean[0]);
+        assertNull(state.explored);
+    }
+
+    @Test
+    void constructorStoresExploredArea() {
+        byte[] explored = {1, 2, 3};
+        RunState state = new RunState(0L, 0, 0, 0, 0, 0, new boolean[0], explored);
+        assertArrayEquals(explored, state.explored);
+    }
 }
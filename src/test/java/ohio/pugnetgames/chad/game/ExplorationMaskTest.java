@@ -0,0 +1,170 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ExplorationMask: revealing cells, the dirty rectangle,
+ * and the run-length encoding saved with a run.
+ */
+class ExplorationMaskTest {
+
+    // -------------------------------------------------------------------------
+    // Revealing
+    // -------------------------------------------------------------------------
+
+    @Test
+    void newMaskHasNothingExplored() {
+        ExplorationMask mask = new ExplorationMask();
+        assertFalse(mask.isExplored(0, 0));
+        assertEquals(0, mask.getTileCount());
+    }
+
+    @Test
+    void revealMarksCellsInsideTheRadiusOnly() {
+        ExplorationMask mask = new ExplorationMask();
+        assertTrue(mask.reveal(0.1f, 0.1f, 1.0f));
+        assertTrue(mask.isExplored(0, 0));
+        assertTrue(mask.isExplored(5, 0));   // 1 unit = 5 cells
+        assertFalse(mask.isExplored(6, 0));
+        assertFalse(mask.isExplored(5, 5));  // Corner of the square, outside the circle
+    }
+
+    @Test
+    void revealingTheSameAreaTwiceChangesNothing() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(3.0f, 3.0f, 2.0f);
+        assertFalse(mask.reveal(3.0f, 3.0f, 2.0f));
+    }
+
+    @Test
+    void updateOnlyRevealsWhenEnteringANewCell() {
+        ExplorationMask mask = new ExplorationMask();
+        assertTrue(mask.update(0.05f, 0.05f));
+        mask.clearDirty();
+        assertFalse(mask.update(0.15f, 0.15f)); // Same cell
+        assertFalse(mask.isDirty());
+        assertTrue(mask.update(0.05f + ExplorationMask.REVEAL_RADIUS, 0.05f));
+    }
+
+    @Test
+    void negativeCoordinatesWork() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(-50.0f, -70.0f, 1.0f);
+        assertTrue(mask.isExplored(PathfindingManager.worldToCell(-50.0f), PathfindingManager.worldToCell(-70.0f)));
+        assertFalse(mask.isExplored(0, 0));
+    }
+
+    @Test
+    void isAnyExploredLooksAtTheWholeBlock() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(0.5f, 0.5f, 0.1f); // Cell (2, 2) and its neighbours
+        assertTrue(mask.isAnyExplored(0, 0, 4));
+        assertFalse(mask.isAnyExplored(8, 8, 4));
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(0, 0, 2.0f);
+        mask.clear();
+        assertFalse(mask.isExplored(0, 0));
+        assertEquals(0, mask.getTileCount());
+        assertTrue(mask.isDirty()); // The texture has to be redrawn
+    }
+
+    // -------------------------------------------------------------------------
+    // Dirty rectangle
+    // -------------------------------------------------------------------------
+
+    @Test
+    void revealGrowsTheDirtyRectangleToCoverTheCircle() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.clearDirty();
+        assertFalse(mask.isDirty());
+        mask.reveal(0.1f, 0.1f, 1.0f);
+        mask.reveal(10.1f, 0.1f, 1.0f);
+        assertTrue(mask.isDirty());
+        assertEquals(-5, mask.getDirtyMinX());
+        assertEquals(55, mask.getDirtyMaxX());
+        assertEquals(-5, mask.getDirtyMinZ());
+        assertEquals(5, mask.getDirtyMaxZ());
+    }
+
+    @Test
+    void clearDirtyEmptiesTheRectangle() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(0, 0, 1.0f);
+        mask.clearDirty();
+        assertFalse(mask.isDirty());
+    }
+
+    // -------------------------------------------------------------------------
+    // encode / decode
+    // -------------------------------------------------------------------------
+
+    @Test
+    void roundTripKeepsEveryCell() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(0, 0, 3.0f);
+        mask.reveal(-20.0f, 35.0f, 4.0f);
+        mask.reveal(12.7f, 12.7f, 1.5f); // Across a tile corner
+
+        ExplorationMask loaded = new ExplorationMask();
+        loaded.decode(mask.encode());
+        assertEquals(mask.getTileCount(), loaded.getTileCount());
+        for (int z = -150; z < 250; z++) {
+            for (int x = -150; x < 150; x++) {
+                assertEquals(mask.isExplored(x, z), loaded.isExplored(x, z), "cell " + x + "," + z);
+            }
+        }
+    }
+
+    @Test
+    void roundTripOfAnEmptyMask() {
+        ExplorationMask loaded = new ExplorationMask();
+        loaded.reveal(0, 0, 1.0f);
+        loaded.decode(new ExplorationMask().encode());
+        assertEquals(0, loaded.getTileCount());
+    }
+
+    @Test
+    void encodingIsSmallerThanTheBits() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(6.0f, 6.0f, 4.0f);
+        assertEquals(1, mask.getTileCount());
+        assertTrue(mask.encode().length < 4096 / 8);
+    }
+
+    @Test
+    void decodeMarksEverythingDirty() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(0, 0, 1.0f);
+        ExplorationMask loaded = new ExplorationMask();
+        loaded.clearDirty();
+        loaded.decode(mask.encode());
+        assertTrue(loaded.isDirty());
+    }
+
+    @Test
+    void truncatedDataIsRejected() {
+        ExplorationMask mask = new ExplorationMask();
+        mask.reveal(0, 0, 2.0f);
+        byte[] data = mask.encode();
+        byte[] truncated = Arrays.copyOf(data, data.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> new ExplorationMask().decode(truncated));
+    }
+
+    @Test
+    void emptyDataIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ExplorationMask().decode(new byte[0]));
+    }
+
+    @Test
+    void runPastTheEndOfATileIsRejected() {
+        // One tile at (0, 0) whose first run is 5000 cells (a tile has 4096)
+        byte[] data = {1, 0, 0, (byte) 0x88, 0x27};
+        assertThrows(IllegalArgumentException.class, () -> new ExplorationMask().decode(data));
+    }
+}
@@ -0,0 +1,123 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for FontRenderer — measuring and wrapping text, and the wrap cache.
+ *
+ * No font is baked: every character is ADVANCE pixels wide, so a string's
+ * width is ten times its length.
+ */
+class FontRendererTest {
+
+    private static final float ADVANCE = 10.0f;
+
+    private FontRenderer font;
+
+    @BeforeEach
+    void setUp() {
+        font = new FontRenderer();
+        font.useFixedAdvance(ADVANCE);
+    }
+
+    // -------------------------------------------------------------------------
+    // Measuring
+    // -------------------------------------------------------------------------
+
+    @Test
+    void widthIsTheSumOfTheAdvances() {
+        assertEquals(50.0f, font.getTextWidth("hello"), 1e-6f);
+        assertEquals(10.0f, font.getTextWidth(" "), 1e-6f);
+        assertEquals(0.0f, font.getTextWidth(""), 1e-6f);
+    }
+
+    @Test
+    void charactersOutsideTheFontAreNotMeasured() {
+        assertEquals(20.0f, font.getTextWidth("aéb"), 1e-6f);
+        assertEquals(20.0f, font.getTextWidth("a\tb"), 1e-6f);
+    }
+
+    @Test
+    void withoutAFontEverythingFitsOnOneLine() {
+        FontRenderer unloaded = new FontRenderer();
+        assertEquals(0.0f, unloaded.getTextWidth("hello"), 1e-6f);
+        assertEquals(List.of("one two three"), unloaded.wrapText("one two three", 1.0f));
+    }
+
+    // -------------------------------------------------------------------------
+    // Wrapping
+    // -------------------------------------------------------------------------
+
+    @Test
+    void shortTextStaysOnOneLine() {
+        assertEquals(List.of("hi there"), font.wrapText("hi there", 100.0f));
+    }
+
+    @Test
+    void textWrapsAtSpaces() {
+        // "one two" is 70 wide; adding " three" would make it 130
+        assertEquals(List.of("one two", "three", "four"), font.wrapText("one two three four", 80.0f));
+    }
+
+    @Test
+    void lineThatExactlyFitsIsNotWrapped() {
+        assertEquals(List.of("ab cd"), font.wrapText("ab cd", 50.0f));
+        assertEquals(List.of("ab", "cd"), font.wrapText("ab cd", 49.0f));
+    }
+
+    @Test
+    void wordWiderThanTheLineGetsItsOwnLine() {
+        assertEquals(List.of("a", "enormousword", "b"), font.wrapText("a enormousword b", 50.0f));
+    }
+
+    @Test
+    void everyWordOnItsOwnLineWhenNothingFits() {
+        assertEquals(List.of("ab", "cd", "ef"), font.wrapText("ab cd ef", 1.0f));
+    }
+
+    @Test
+    void emptyOrNullTextIsOneEmptyLine() {
+        assertEquals(List.of(""), font.wrapText("", 100.0f));
+        assertEquals(List.of(""), font.wrapText(null, 100.0f));
+    }
+
+    // -------------------------------------------------------------------------
+    // Cache
+    // -------------------------------------------------------------------------
+
+    @Test
+    void sameTextAndWidthReturnTheCachedLines() {
+        List<String> first = font.wrapText("one two three four", 80.0f);
+        assertSame(first, font.wrapText("one two three four", 80.0f));
+    }
+
+    @Test
+    void differentWidthIsWrappedAgain() {
+        List<String> narrow = font.wrapText("one two three four", 80.0f);
+        List<String> wide = font.wrapText("one two three four", 1000.0f);
+        assertNotSame(narrow, wide);
+        assertEquals(List.of("one two three four"), wide);
+        assertEquals(3, narrow.size());
+    }
+
+    @Test
+    void wrappedLinesAreReadOnly() {
+        List<String> lines = font.wrapText("one two three four", 80.0f);
+        assertThrows(UnsupportedOperationException.class, () -> lines.add("five"));
+        assertThrows(UnsupportedOperationException.class, lines::clear);
+    }
+
+    @Test
+    void changingTheAdvanceDropsCachedWraps() {
+        List<String> before = font.wrapText("one two", 70.0f);
+        assertEquals(1, before.size());
+
+        font.useFixedAdvance(20.0f);
+        assertEquals(List.of("one", "two"), font.wrapText("one two", 70.0f));
+    }
+}
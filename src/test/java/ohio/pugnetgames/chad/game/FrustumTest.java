@@ -0,0 +1,279 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Frustum — plane extraction from the camera values, box and
+ * sphere tests, narrowing through a portal and the per-frame counters.
+ *
+ * Most tests use a 90 degree field of view with a square aspect, looking
+ * down -Z from the origin (yaw and pitch 0). That view volume is exactly
+ * |x| <= -z and |y| <= -z, between the near and far planes.
+ */
+class FrustumTest {
+
+    private static final float NEAR = 0.1f;
+    private static final float FAR = 100.0f;
+
+    private Frustum frustum;
+
+    @BeforeEach
+    void setUp() {
+        frustum = new Frustum();
+        frustum.update(90.0f, 1.0f, NEAR, FAR, 0, 0, 0, 0, 0);
+    }
+
+    /** Tests a cube of the given half size around a point. */
+    private static boolean sees(Frustum frustum, float x, float y, float z, float half) {
+        return frustum.intersectsBox(x - half, y - half, z - half, x + half, y + half, z + half);
+    }
+
+    // -------------------------------------------------------------------------
+    // Boxes
+    // -------------------------------------------------------------------------
+
+    @Test
+    void boxStraightAheadIsInside() {
+        assertTrue(sees(frustum, 0, 0, -10, 1));
+        assertEquals(6, frustum.getPlaneCount());
+    }
+
+    @Test
+    void boxBehindTheCameraIsOutside() {
+        assertFalse(sees(frustum, 0, 0, 10, 1));
+    }
+
+    @Test
+    void boxPastTheFarPlaneIsOutside() {
+        assertFalse(sees(frustum, 0, 0, -(FAR + 5), 1));
+        assertTrue(sees(frustum, 0, 0, -(FAR - 5), 1));
+    }
+
+    @Test
+    void sidePlanesSitAtFortyFiveDegrees() {
+        // At z = -10 the view is 10 wide either side and 10 up and down
+        assertTrue(frustum.intersectsBox(9.0f, -0.5f, -10.5f, 9.8f, 0.5f, -9.5f));
+        assertFalse(frustum.intersectsBox(11.0f, -0.5f, -10.1f, 12.0f, 0.5f, -10.0f));
+        assertFalse(frustum.intersectsBox(-12.0f, -0.5f, -10.1f, -11.0f, 0.5f, -10.0f));
+        assertFalse(frustum.intersectsBox(-0.5f, 11.0f, -10.1f, 0.5f, 12.0f, -10.0f));
+        assertFalse(frustum.intersectsBox(-0.5f, -12.0f, -10.1f, 0.5f, -11.0f, -10.0f));
+    }
+
+    @Test
+    void boxStraddlingASidePlaneIsInside() {
+        assertTrue(frustum.intersectsBox(5.0f, -1.0f, -11.0f, 15.0f, 1.0f, -9.0f));
+    }
+
+    @Test
+    void boxStraddlingTheNearPlaneIsInside() {
+        assertTrue(frustum.intersectsBox(-0.5f, -0.5f, -1.0f, 0.5f, 0.5f, 1.0f));
+    }
+
+    @Test
+    void boxAroundTheWholeViewIsInside() {
+        assertTrue(frustum.intersectsBox(-500, -500, -500, 500, 500, 500));
+    }
+
+    @Test
+    void aspectWidensTheView() {
+        Frustum wide = new Frustum();
+        wide.update(90.0f, 2.0f, NEAR, FAR, 0, 0, 0, 0, 0);
+        assertFalse(sees(frustum, 15, 0, -10, 0.5f));
+        assertTrue(sees(wide, 15, 0, -10, 0.5f));
+        assertFalse(sees(wide, 0, 15, -10, 0.5f), "the vertical field of view is unchanged");
+    }
+
+    @Test
+    void neverUpdatedFrustumSeesEverything() {
+        Frustum blank = new Frustum();
+        assertTrue(sees(blank, 0, 0, 1000, 1));
+        assertTrue(blank.intersectsSphere(0, 0, 1000, 1));
+    }
+
+    // -------------------------------------------------------------------------
+    // Against projection * view
+    // -------------------------------------------------------------------------
+
+    private static float[][] multiply(float[][] a, float[][] b) {
+        float[][] out = new float[4][4];
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                for (int k = 0; k < 4; k++) {
+                    out[r][c] += a[r][k] * b[k][c];
+                }
+            }
+        }
+        return out;
+    }
+
+    @Test
+    void agreesWithClipSpaceOfProjectionTimesView() {
+        float fov = 70.0f, aspect = 1.5f, near = 0.5f, far = 60.0f;
+        float eyeX = 3.0f, eyeY = 1.0f, eyeZ = -2.0f, yaw = 30.0f, pitch = -15.0f;
+        Frustum camera = new Frustum();
+        camera.update(fov, aspect, near, far, eyeX, eyeY, eyeZ, yaw, pitch);
+
+        // The same matrices glFrustum, glRotatef and glTranslatef build
+        float top = near * (float) Math.tan(Math.toRadians(fov / 2.0));
+        float right = top * aspect;
+        float[][] projection = {
+                {near / right, 0, 0, 0},
+                {0, near / top, 0, 0},
+                {0, 0, -(far + near) / (far - near), -2.0f * far * near / (far - near)},
+                {0, 0, -1, 0},
+        };
+        float cp = (float) Math.cos(Math.toRadians(pitch)), sp = (float) Math.sin(Math.toRadians(pitch));
+        float cy = (float) Math.cos(Math.toRadians(yaw)), sy = (float) Math.sin(Math.toRadians(yaw));
+        float[][] rotateX = {{1, 0, 0, 0}, {0, cp, -sp, 0}, {0, sp, cp, 0}, {0, 0, 0, 1}};
+        float[][] rotateY = {{cy, 0, sy, 0}, {0, 1, 0, 0}, {-sy, 0, cy, 0}, {0, 0, 0, 1}};
+        float[][] translate = {{1, 0, 0, -eyeX}, {0, 1, 0, -eyeY}, {0, 0, 1, -eyeZ}, {0, 0, 0, 1}};
+        float[][] m = multiply(projection, multiply(rotateX, multiply(rotateY, translate)));
+
+        int inside = 0, outside = 0;
+        for (float x = -40; x <= 40; x += 2.5f) {
+            for (float y = -20; y <= 20; y += 2.5f) {
+                for (float z = -40; z <= 40; z += 2.5f) {
+                    float[] clip = new float[4];
+                    for (int r = 0; r < 4; r++) {
+                        clip[r] = m[r][0] * x + m[r][1] * y + m[r][2] * z + m[r][3];
+                    }
+                    float w = clip[3];
+                    // Skip points too close to a plane to call either way
+                    float slack = Math.min(Math.min(w - Math.abs(clip[0]), w - Math.abs(clip[1])), w - Math.abs(clip[2]));
+                    if (Math.abs(slack) < 0.05f * Math.max(1.0f, Math.abs(w))) continue;
+
+                    boolean expected = slack > 0;
+                    assertEquals(expected, sees(camera, x, y, z, 1e-3f), "point " + x + ", " + y + ", " + z);
+                    if (expected) inside++;
+                    else outside++;
+                }
+            }
+        }
+        assertTrue(inside > 100 && outside > 100, "the grid covers both sides: " + inside + " in, " + outside + " out");
+    }
+
+    // -------------------------------------------------------------------------
+    // Camera position and direction
+    // -------------------------------------------------------------------------
+
+    @Test
+    void yawTurnsTheView() {
+        Frustum turned = new Frustum();
+        turned.update(90.0f, 1.0f, NEAR, FAR, 0, 0, 0, 90.0f, 0);
+        assertTrue(sees(turned, 10, 0, 0, 1));
+        assertFalse(sees(turned, 0, 0, -10, 1));
+        assertFalse(sees(turned, -10, 0, 0, 1));
+    }
+
+    @Test
+    void pitchTiltsTheView() {
+        Frustum down = new Frustum();
+        down.update(90.0f, 1.0f, NEAR, FAR, 0, 0, 0, 0, 60.0f);
+        assertTrue(sees(down, 0, -10, 0, 1), "looking 60 degrees down sees the floor below");
+        assertFalse(sees(down, 0, 10, 0, 1));
+        assertFalse(sees(down, 0, 10, -10, 1));
+    }
+
+    @Test
+    void planesFollowTheEye() {
+        Frustum moved = new Frustum();
+        moved.update(90.0f, 1.0f, NEAR, FAR, 100, 2, 100, 0, 0);
+        assertTrue(sees(moved, 100, 2, 90, 1));
+        assertFalse(sees(moved, 0, 0, -10, 1));
+        assertEquals(10.0f, moved.distanceFromEye(100, 2, 90), 1e-4f);
+    }
+
+    // -------------------------------------------------------------------------
+    // Spheres
+    // -------------------------------------------------------------------------
+
+    @Test
+    void spheresAreTestedByRadius() {
+        assertTrue(frustum.intersectsSphere(0, 0, -10, 1));
+        assertFalse(frustum.intersectsSphere(0, 0, 10, 1));
+        // Centre 2 units past the right plane (x = -z), measured along the plane's normal
+        float outside = 10.0f + 2.0f * (float) Math.sqrt(2.0);
+        assertFalse(frustum.intersectsSphere(outside, 0, -10, 1.5f));
+        assertTrue(frustum.intersectsSphere(outside, 0, -10, 2.5f));
+    }
+
+    // -------------------------------------------------------------------------
+    // Portals
+    // -------------------------------------------------------------------------
+
+    /** A square opening in the plane z = -10, centered on the view axis. */
+    private static float[] square(float half) {
+        return new float[]{
+                -half, -half, -10,
+                half, -half, -10,
+                half, half, -10,
+                -half, half, -10,
+        };
+    }
+
+    @Test
+    void portalNarrowsTheView() {
+        Frustum through = new Frustum();
+        through.setThroughPortal(frustum, 0, 0, 0, square(1), 4);
+        assertEquals(2 + 4, through.getPlaneCount());
+
+        // Through a 2x2 opening at distance 10, the view at z = -20 is 4x4
+        assertTrue(sees(through, 0, 0, -20, 0.5f));
+        assertFalse(sees(through, 5, 0, -20, 0.5f));
+        assertFalse(sees(through, 0, -5, -20, 0.5f));
+        // Still visible to the parent
+        assertTrue(sees(frustum, 5, 0, -20, 0.5f));
+        // The parent's far plane is kept
+        assertFalse(sees(through, 0, 0, -(FAR + 5), 1));
+    }
+
+    @Test
+    void clippingKeepsThePolygonInsideTheView() {
+        float[] poly = new float[3 * 10];
+        System.arraycopy(square(20), 0, poly, 0, 12);
+        float[] scratch = new float[poly.length];
+
+        int n = frustum.clipPolygon(poly, 4, scratch);
+        assertEquals(4, n);
+        for (int i = 0; i < n; i++) {
+            assertEquals(10.0f, Math.abs(poly[i * 3]), 1e-3f);
+            assertEquals(10.0f, Math.abs(poly[i * 3 + 1]), 1e-3f);
+            assertEquals(-10.0f, poly[i * 3 + 2], 1e-5f);
+        }
+    }
+
+    @Test
+    void polygonOutsideTheViewClipsToNothing() {
+        float[] poly = new float[3 * 10];
+        float[] quad = {
+                30, -1, -10,
+                32, -1, -10,
+                32, 1, -10,
+                30, 1, -10,
+        };
+        System.arraycopy(quad, 0, poly, 0, quad.length);
+        assertTrue(frustum.clipPolygon(poly, 4, new float[poly.length]) < 3);
+    }
+
+    // -------------------------------------------------------------------------
+    // Counters
+    // -------------------------------------------------------------------------
+
+    @Test
+    void submitCountsDrawnAndCulledObjects() {
+        frustum.beginFrame();
+        assertTrue(frustum.submitBox(-1, -1, -11, 1, 1, -9, 5));
+        assertFalse(frustum.submitBox(-1, -1, 9, 1, 1, 11, 3));
+        assertTrue(frustum.submitSphere(0, 0, -10, 1));
+        assertFalse(frustum.submitSphere(0, 0, 10, 1));
+        assertEquals(6, frustum.getObjectsSubmitted());
+        assertEquals(4, frustum.getObjectsCulled());
+
+        frustum.beginFrame();
+        assertEquals(0, frustum.getObjectsSubmitted());
+        assertEquals(0, frustum.getObjectsCulled());
+    }
+}
@@ -0,0 +1,79 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.core.Difficulty;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GenerationOptions — difficulty sizing and the time/memory target check.
+ */
+class GenerationOptionsTest {
+
+    // -------------------------------------------------------------------------
+    // forDifficulty
+    // -------------------------------------------------------------------------
+
+    @Test
+    void forDifficultyUsesTheDifficultyRoomCount() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            assertEquals(difficulty.getRoomCount(), GenerationOptions.forDifficulty(difficulty).roomCount);
+        }
+    }
+
+    @Test
+    void megaGetsLargerTargets() {
+        GenerationOptions easy = GenerationOptions.forDifficulty(Difficulty.EASY);
+        GenerationOptions mega = GenerationOptions.forDifficulty(Difficulty.MEGA);
+        assertTrue(mega.generationTimeTargetMs > easy.generationTimeTargetMs);
+        assertTrue(mega.memoryTargetMb > easy.memoryTargetMb);
+        assertFalse(mega.verboseLogging);
+    }
+
+    // -------------------------------------------------------------------------
+    // missedTargets
+    // -------------------------------------------------------------------------
+
+    @Test
+    void withinBothTargetsMissesNothing() {
+        GenerationOptions options = GenerationOptions.defaults();
+        assertTrue(options.missedTargets(options.generationTimeTargetMs, options.memoryTargetMb).isEmpty());
+    }
+
+    @Test
+    void overTimeTargetIsReported() {
+        GenerationOptions options = GenerationOptions.defaults();
+        List<String> missed = options.missedTargets(options.generationTimeTargetMs + 1, 0);
+        assertEquals(1, missed.size());
+        assertTrue(missed.get(0).startsWith("time"), missed.get(0));
+    }
+
+    @Test
+    void overMemoryTargetIsReported() {
+        GenerationOptions options = GenerationOptions.defaults();
+        List<String> missed = options.missedTargets(0, options.memoryTargetMb + 1);
+        assertEquals(1, missed.size());
+        assertTrue(missed.get(0).startsWith("heap"), missed.get(0));
+    }
+
+    @Test
+    void overBothTargetsReportsBoth() {
+        GenerationOptions options = GenerationOptions.defaults();
+        options.generationTimeTargetMs = 10;
+        options.memoryTargetMb = 10;
+        assertEquals(2, options.missedTargets(11, 11).size());
+    }
+
+    // -------------------------------------------------------------------------
+    // usedHeapBytesAfterGc
+    // -------------------------------------------------------------------------
+
+    @Test
+    void usedHeapIsPositiveAndWithinTheMaximum() {
+        long used = GenerationOptions.usedHeapBytesAfterGc();
+        assertTrue(used > 0);
+        assertTrue(used <= Runtime.getRuntime().maxMemory());
+    }
+}
@@ -0,0 +1,178 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LayoutValidator — reachability through tunnels whose walls have
+ * doorways, and whether the escape tunnel can be reached.
+ */
+class LayoutValidatorTest {
+
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Tunnel> tunnels = new ArrayList<>();
+
+    /** Adds a 10x10 room at column x of a row running east. */
+    private Room room(int x) {
+        Room room = new Room(x * 20, 0, x * 20 + 10, 10);
+        room.index = rooms.size();
+        rooms.add(room);
+        return room;
+    }
+
+    private static void openWall(Room room, Direction wall) {
+        switch (wall) {
+            case NORTH: room.northWallUsed = true; break;
+            case SOUTH: room.southWallUsed = true; break;
+            case EAST:  room.eastWallUsed = true; break;
+            case WEST:  room.westWallUsed = true; break;
+            default: break;
+        }
+    }
+
+    /** Digs a tunnel east from a to b, opening both walls. */
+    private Tunnel connect(Room a, Room b) {
+        openWall(a, Direction.EAST);
+        openWall(b, Direction.WEST);
+        return connectWithoutDoorways(a, b);
+    }
+
+    /** Records a tunnel east from a to b without touching either wall. */
+    private Tunnel connectWithoutDoorways(Room a, Room b) {
+        Tunnel tunnel = new Tunnel(a.maxX, 4, b.minX, 6, a, b, Direction.EAST);
+        tunnels.add(tunnel);
+        return tunnel;
+    }
+
+    /** An escape tunnel leaving the room northwards. */
+    private static Tunnel escapeFrom(Room room, boolean doorway) {
+        if (doorway) {
+            openWall(room, Direction.NORTH);
+        }
+        return new Tunnel(room.minX + 4, room.maxZ, room.minX + 6, room.maxZ + 10, room, null, Direction.NORTH);
+    }
+
+    private LayoutValidator.Result check(Tunnel escape) {
+        return LayoutValidator.check(new WorldLayout(1L, rooms, tunnels, escape));
+    }
+
+    // -------------------------------------------------------------------------
+    // Winnable layouts
+    // -------------------------------------------------------------------------
+
+    @Test
+    void singleRoomWithEscapeIsWinnable() {
+        Room start = room(0);
+        LayoutValidator.Result result = check(escapeFrom(start, true));
+        assertTrue(result.isWinnable());
+        assertTrue(result.unreachableRooms.isEmpty());
+    }
+
+    @Test
+    void chainOfRoomsWithEscapeAtTheEndIsWinnable() {
+        Room a = room(0), b = room(1), c = room(2);
+        connect(a, b);
+        connect(b, c);
+        assertTrue(check(escapeFrom(c, true)).isWinnable());
+    }
+
+    @Test
+    void tunnelsListedOutOfOrderStillConnect() {
+        Room a = room(0), b = room(1), c = room(2);
+        Tunnel ab = connect(a, b);
+        tunnels.remove(ab);
+        connect(b, c);
+        tunnels.add(ab);
+        assertTrue(check(escapeFrom(c, true)).isWinnable());
+    }
+
+    @Test
+    void generatedLayoutsAreWinnable() {
+        WorldLoader loader = new WorldLoader();
+        GenerationOptions options = GenerationOptions.defaults();
+        options.verboseLogging = false;
+        for (long seed = 1; seed <= 20; seed++) {
+            WorldLayout layout = loader.generateLayout(seed, options);
+            LayoutValidator.Result result = LayoutValidator.check(layout);
+            assertTrue(result.isWinnable(), "seed " + seed + ": " + result);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Broken layouts
+    // -------------------------------------------------------------------------
+
+    @Test
+    void missingEscapeIsNotWinnable() {
+        Room a = room(0), b = room(1);
+        connect(a, b);
+        LayoutValidator.Result result = check(null);
+        assertFalse(result.isWinnable());
+        assertFalse(result.escapeReachable);
+        assertTrue(result.unreachableRooms.isEmpty());
+    }
+
+    @Test
+    void escapeThroughASolidWallIsNotReachable() {
+        Room start = room(0);
+        LayoutValidator.Result result = check(escapeFrom(start, false));
+        assertFalse(result.escapeReachable);
+        assertFalse(result.isWinnable());
+    }
+
+    @Test
+    void roomWithNoTunnelIsUnreachable() {
+        Room a = room(0), b = room(1);
+        Room island = room(2);
+        connect(a, b);
+        LayoutValidator.Result result = check(escapeFrom(b, true));
+        assertFalse(result.isWinnable());
+        assertTrue(result.escapeReachable);
+        assertEquals(List.of(island), result.unreachableRooms);
+    }
+
+    @Test
+    void tunnelWithoutDoorwaysDoesNotConnect() {
+        Room a = room(0), b = room(1);
+        connectWithoutDoorways(a, b);
+        LayoutValidator.Result result = check(escapeFrom(a, true));
+        assertEquals(List.of(b), result.unreachableRooms);
+    }
+
+    @Test
+    void tunnelWithOnlyOneDoorwayDoesNotConnect() {
+        Room a = room(0), b = room(1);
+        openWall(a, Direction.EAST);
+        connectWithoutDoorways(a, b);
+        LayoutValidator.Result result = check(escapeFrom(a, true));
+        assertEquals(List.of(b), result.unreachableRooms);
+    }
+
+    @Test
+    void escapeFromAnUnreachableRoomIsNotReachable() {
+        Room a = room(0);
+        Room b = room(1);
+        connectWithoutDoorways(a, b);
+        LayoutValidator.Result result = check(escapeFrom(b, true));
+        assertFalse(result.escapeReachable);
+        assertEquals(List.of(b), result.unreachableRooms);
+    }
+
+    @Test
+    void unreachableRoomsAreListedInLayoutOrder() {
+        Room a = room(0);
+        Room b = room(1), c = room(2), d = room(3);
+        connect(c, d);
+        LayoutValidator.Result result = check(escapeFrom(a, true));
+        assertEquals(List.of(b, c, d), result.unreachableRooms);
+    }
+
+    @Test
+    void emptyLayoutIsNotWinnable() {
+        assertFalse(check(null).isWinnable());
+    }
+}
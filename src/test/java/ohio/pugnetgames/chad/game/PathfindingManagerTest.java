@@ -0,0 +1,280 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.GameObject.ShapeType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PathfindingManager — painting floors and erasing obstacles into
+ * nav tiles, finding paths across tiles, swapping tiles, opening the door and
+ * saving the grid.
+ *
+ * Most tests use one corridor floor from x = 0 to 30 and z = 0 to 4. Cells
+ * are 0.2 units and tiles 64 cells, so it spans nav tiles 0, 1 and 2 along X.
+ */
+class PathfindingManagerTest {
+
+    private static final float CORRIDOR_LENGTH = 30.0f;
+    private static final float CORRIDOR_WIDTH = 4.0f;
+
+    private static GameObject corridorFloor() {
+        return new GameObject(ShapeType.PLANE, CORRIDOR_LENGTH / 2, 0, CORRIDOR_WIDTH / 2,
+                CORRIDOR_LENGTH, 0, CORRIDOR_WIDTH, 0.5f, 0.5f, 0.5f);
+    }
+
+    /** A wall across the corridor at x, standing on the floor. */
+    private static GameObject wallAcross(float x) {
+        return new GameObject(ShapeType.CUBE, x, 0, CORRIDOR_WIDTH / 2, 0.4f, 3.0f, CORRIDOR_WIDTH + 1, 0.5f, 0.5f, 0.5f);
+    }
+
+    private static Map<Long, PathfindingManager.NavTile> rasterize(GameObject... objects) {
+        return PathfindingManager.rasterizeTiles(null, StaticGeometry.of(List.of(objects)));
+    }
+
+    private static PathfindingManager manager(GameObject... objects) {
+        PathfindingManager manager = new PathfindingManager();
+        manager.applyTiles(rasterize(objects));
+        return manager;
+    }
+
+    private static int cell(float world) {
+        return PathfindingManager.worldToCell(world);
+    }
+
+    /** Checks that a path is a chain of 4-connected walkable cells. */
+    private static void assertConnected(PathfindingManager manager, List<PathNode> path) {
+        for (int i = 0; i < path.size(); i++) {
+            PathNode node = path.get(i);
+            assertTrue(manager.isWalkable(node.x, node.z), "path cell " + i + " must be walkable");
+            if (i > 0) {
+                PathNode previous = path.get(i - 1);
+                assertEquals(1, Math.abs(node.x - previous.x) + Math.abs(node.z - previous.z), "step " + i);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // rasterizeTiles
+    // -------------------------------------------------------------------------
+
+    @Test
+    void floorIsPaintedWalkableInsideItsInset() {
+        PathfindingManager manager = manager(corridorFloor());
+        assertTrue(manager.isWalkable(cell(1.0f), cell(2.0f)));
+        assertTrue(manager.isWalkable(cell(29.0f), cell(2.0f)));
+        // Planes shrink by a bit more than a cell, so the very edge isn't walkable
+        assertFalse(manager.isWalkable(cell(0.1f), cell(2.0f)));
+        assertFalse(manager.isWalkable(cell(15.0f), cell(3.9f)));
+        assertFalse(manager.isWalkable(cell(15.0f), cell(10.0f)));
+    }
+
+    @Test
+    void tilesOnlyExistWhereThereIsFloor() {
+        Map<Long, PathfindingManager.NavTile> tiles = rasterize(corridorFloor());
+        assertEquals(Set.of(PathfindingManager.tileKey(0, 0), PathfindingManager.tileKey(1, 0),
+                PathfindingManager.tileKey(2, 0)), tiles.keySet());
+    }
+
+    @Test
+    void groundObstacleIsErased() {
+        PathfindingManager manager = manager(corridorFloor(), wallAcross(20.0f));
+        assertFalse(manager.isWalkable(cell(20.0f), cell(2.0f)));
+        assertTrue(manager.isWalkable(cell(19.0f), cell(2.0f)));
+        assertTrue(manager.isWalkable(cell(21.0f), cell(2.0f)));
+    }
+
+    @Test
+    void eraseDoesNotDependOnObjectOrder() {
+        PathfindingManager manager = manager(wallAcross(20.0f), corridorFloor());
+        assertFalse(manager.isWalkable(cell(20.0f), cell(2.0f)));
+    }
+
+    @Test
+    void lintelsAndNonCollidableObjectsDoNotBlock() {
+        GameObject lintel = new GameObject(ShapeType.CUBE, 10.0f, 3.0f, 2.0f, 0.4f, 1.0f, 5.0f, 0.5f, 0.5f, 0.5f);
+        GameObject ghost = new GameObject(ShapeType.CUBE, 20.0f, 0.0f, 2.0f, 0.4f, 3.0f, 5.0f, 0.5f, 0.5f, 0.5f, false, true);
+        PathfindingManager manager = manager(corridorFloor(), lintel, ghost);
+        assertTrue(manager.isWalkable(cell(10.0f), cell(2.0f)));
+        assertTrue(manager.isWalkable(cell(20.0f), cell(2.0f)));
+    }
+
+    @Test
+    void requestedTilesWithNoFloorComeBackAsRemovals() {
+        long inside = PathfindingManager.tileKey(1, 0);
+        long empty = PathfindingManager.tileKey(5, 5);
+        Map<Long, PathfindingManager.NavTile> tiles = PathfindingManager.rasterizeTiles(Set.of(inside, empty),
+                StaticGeometry.of(List.of(corridorFloor())));
+
+        assertEquals(Set.of(inside, empty), tiles.keySet());
+        assertNotNull(tiles.get(inside));
+        assertNull(tiles.get(empty));
+    }
+
+    // -------------------------------------------------------------------------
+    // findPath
+    // -------------------------------------------------------------------------
+
+    @Test
+    void pathCrossesTileBoundaries() {
+        PathfindingManager manager = manager(corridorFloor());
+        List<PathNode> path = manager.findPath(1.0f, 2.0f, 28.0f, 2.0f);
+
+        assertNotNull(path);
+        assertEquals(cell(1.0f), path.get(0).x);
+        assertEquals(cell(28.0f), path.get(path.size() - 1).x);
+        // Straight down an open corridor, so one node per cell
+        assertEquals(cell(28.0f) - cell(1.0f) + 1, path.size());
+        assertConnected(manager, path);
+        assertSame(path, manager.getPath());
+    }
+
+    @Test
+    void pathGoesAroundAnObstacle() {
+        // A wall across most of the corridor, leaving a gap along the top side
+        GameObject wall = new GameObject(ShapeType.CUBE, 20.0f, 0.0f, 1.5f, 0.4f, 3.0f, 4.0f, 0.5f, 0.5f, 0.5f);
+        PathfindingManager manager = manager(corridorFloor(), wall);
+        List<PathNode> path = manager.findPath(15.0f, 1.0f, 25.0f, 1.0f);
+
+        assertNotNull(path);
+        assertConnected(manager, path);
+        assertTrue(path.size() > cell(25.0f) - cell(15.0f) + 1, "the detour is longer than a straight line");
+    }
+
+    @Test
+    void unreachableTargetHasNoPath() {
+        PathfindingManager manager = manager(corridorFloor(), wallAcross(20.0f));
+        assertNull(manager.findPath(1.0f, 2.0f, 28.0f, 2.0f));
+        assertNull(manager.getPath());
+    }
+
+    @Test
+    void noPathBeforeTheGridIsBuilt() {
+        assertNull(new PathfindingManager().findPath(1.0f, 2.0f, 28.0f, 2.0f));
+    }
+
+    @Test
+    void targetInsideAWallSnapsToTheNearestFloor() {
+        PathfindingManager manager = manager(corridorFloor());
+        List<PathNode> path = manager.findPath(1.0f, 2.0f, 10.0f, 3.95f);
+        assertNotNull(path);
+        assertTrue(manager.isWalkable(path.get(path.size() - 1).x, path.get(path.size() - 1).z));
+    }
+
+    // -------------------------------------------------------------------------
+    // applyTiles and openDoorInGrid
+    // -------------------------------------------------------------------------
+
+    @Test
+    void nullTileInAnUpdateRemovesIt() {
+        PathfindingManager manager = manager(corridorFloor());
+        assertEquals(3, manager.getTileCount());
+
+        Map<Long, PathfindingManager.NavTile> update = new HashMap<>();
+        update.put(PathfindingManager.tileKey(2, 0), null);
+        manager.applyTiles(update);
+
+        assertEquals(2, manager.getTileCount());
+        assertFalse(manager.isWalkable(cell(28.0f), cell(2.0f)));
+        assertFalse(manager.isGridCoordValid(cell(28.0f), cell(2.0f)));
+        assertTrue(manager.isWalkable(cell(1.0f), cell(2.0f)));
+    }
+
+    @Test
+    void updateReplacesTiles() {
+        PathfindingManager manager = manager(corridorFloor(), wallAcross(20.0f));
+        assertNull(manager.findPath(1.0f, 2.0f, 28.0f, 2.0f));
+
+        // Rebuild the middle tile without the wall, the way the world streamer does
+        long middle = PathfindingManager.tileKey(1, 0);
+        manager.applyTiles(PathfindingManager.rasterizeTiles(Set.of(middle), StaticGeometry.of(List.of(corridorFloor()))));
+        assertEquals(3, manager.getTileCount());
+        assertNotNull(manager.findPath(1.0f, 2.0f, 28.0f, 2.0f));
+    }
+
+    @Test
+    void openingTheDoorConnectsBothSides() {
+        GameObject door = wallAcross(20.0f);
+        Map<Long, PathfindingManager.NavTile> tiles = rasterize(corridorFloor(), door);
+        PathfindingManager.NavTile middle = tiles.get(PathfindingManager.tileKey(1, 0));
+        PathfindingManager manager = new PathfindingManager();
+        manager.applyTiles(tiles);
+
+        // The failed search caches which side of the door each edge of the middle tile is on
+        assertNull(manager.findPath(1.0f, 2.0f, 28.0f, 2.0f));
+        assertNotNull(middle.edgeRegions);
+
+        manager.openDoorInGrid(door);
+        assertNull(middle.edgeRegions, "opening the door must drop the cached edge regions");
+        assertTrue(manager.isWalkable(cell(20.0f), cell(2.0f)));
+
+        List<PathNode> path = manager.findPath(1.0f, 2.0f, 28.0f, 2.0f);
+        assertNotNull(path);
+        assertConnected(manager, path);
+    }
+
+    @Test
+    void openingADoorWithoutAGridDoesNothing() {
+        PathfindingManager manager = new PathfindingManager();
+        manager.openDoorInGrid(wallAcross(20.0f));
+        manager.openDoorInGrid(null);
+        assertEquals(0, manager.getTileCount());
+    }
+
+    // -------------------------------------------------------------------------
+    // Snapshots
+    // -------------------------------------------------------------------------
+
+    @Test
+    void gridSurvivesAWriteAndReadRoundTrip() throws IOException {
+        PathfindingManager original = manager(corridorFloor(), wallAcross(10.0f), wallAcross(20.0f));
+        original.includeRoomBounds(new Room(0, 0, CORRIDOR_LENGTH, CORRIDOR_WIDTH));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            original.writeTo(out);
+        }
+        PathfindingManager copy = new PathfindingManager();
+        copy.readFrom(ByteBuffer.wrap(bytes.toByteArray()));
+
+        assertEquals(original.getTileCount(), copy.getTileCount());
+        assertEquals(original.getWorldMinX(), copy.getWorldMinX());
+        assertEquals(original.getWorldMinZ(), copy.getWorldMinZ());
+        assertEquals(original.getWorldMaxX(), copy.getWorldMaxX());
+        assertEquals(original.getWorldMaxZ(), copy.getWorldMaxZ());
+        List<String> differences = new ArrayList<>();
+        for (int z = -10; z < 40; z++) {
+            for (int x = -10; x < 200; x++) {
+                if (original.isWalkable(x, z) != copy.isWalkable(x, z)) differences.add(x + "," + z);
+            }
+        }
+        assertTrue(differences.isEmpty(), "cells differ: " + differences);
+
+        List<PathNode> path = copy.findPath(12.0f, 2.0f, 18.0f, 2.0f);
+        assertNotNull(path);
+        assertEquals(original.findPath(12.0f, 2.0f, 18.0f, 2.0f).size(), path.size());
+        assertNull(copy.findPath(1.0f, 2.0f, 28.0f, 2.0f));
+    }
+
+    @Test
+    void readingReplacesTheExistingGrid() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            new PathfindingManager().writeTo(out);
+        }
+        PathfindingManager manager = manager(corridorFloor());
+        manager.readFrom(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(0, manager.getTileCount());
+        assertFalse(manager.isWalkable(cell(1.0f), cell(2.0f)));
+    }
+}
@@ -0,0 +1,207 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PortalCuller — which rooms are seen through chains of doorways,
+ * from inside a room or a tunnel, past courtyards, and when the eye is in
+ * no room at all.
+ *
+ * Rooms are 10x10 on a 20 unit grid with 2-wide doorways in the middle of
+ * their walls. Yaw 90 looks east (+X), -90 west, 0 south (-Z), 180 north.
+ */
+class PortalCullerTest {
+
+    private static final float EYE_HEIGHT = 1.5f;
+    private static final float EAST = 90.0f, WEST = -90.0f, SOUTH = 0.0f, NORTH = 180.0f;
+
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Tunnel> tunnels = new ArrayList<>();
+    private final PortalCuller culler = new PortalCuller();
+
+    /** Adds a 10x10 room with its corner at grid cell (col, row). */
+    private Room room(int col, int row, Room.RoomType type) {
+        Room room = new Room(col * 20, row * 20, col * 20 + 10, row * 20 + 10, type);
+        room.index = rooms.size();
+        rooms.add(room);
+        return room;
+    }
+
+    private Room room(int col, int row) {
+        return room(col, row, Room.RoomType.STANDARD);
+    }
+
+    private void east(Room a, Room b) {
+        tunnels.add(new Tunnel(a.maxX, a.minZ + 4, b.minX, a.minZ + 6, a, b, Direction.EAST));
+    }
+
+    private void north(Room a, Room b) {
+        tunnels.add(new Tunnel(a.minX + 4, a.maxZ, a.minX + 6, b.minZ, a, b, Direction.NORTH));
+    }
+
+    /** Runs the culler from (x, z) at eye height, looking level in the given direction. */
+    private Set<Room> visibleFrom(float x, float z, float yaw) {
+        World world = new World(new ArrayList<>(), rooms, RoomGraph.of(rooms, tunnels, null), null, null, 0, 0, 0, 0);
+        Frustum view = new Frustum();
+        view.update(70.0f, 16.0f / 9.0f, 0.1f, 100.0f, x, EYE_HEIGHT, z, yaw, 0.0f);
+        List<Room> seen = culler.update(world, view, x, EYE_HEIGHT, z);
+        return seen == null ? null : new HashSet<>(seen);
+    }
+
+    // -------------------------------------------------------------------------
+    // Through doorways
+    // -------------------------------------------------------------------------
+
+    @Test
+    void straightLineOfDoorwaysSeesEveryRoom() {
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b);
+        east(b, c);
+
+        assertEquals(Set.of(a, b, c), visibleFrom(5, 5, EAST));
+        assertEquals(3, culler.getVisibleRoomCount());
+        assertTrue(culler.getPortalsTested() >= 4, "two tunnels, two doorways each");
+    }
+
+    @Test
+    void lookingAwayFromTheDoorSeesOnlyTheRoomItself() {
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b);
+        east(b, c);
+
+        assertEquals(Set.of(a), visibleFrom(5, 5, WEST));
+        assertEquals(Set.of(a), visibleFrom(5, 5, SOUTH));
+    }
+
+    @Test
+    void doorFacingAwayHidesTheRoomBehindIt() {
+        //       C
+        //       |
+        // A --- B
+        Room a = room(0, 0), b = room(1, 0), c = room(1, 1);
+        east(a, b);
+        north(b, c);
+
+        assertEquals(Set.of(a, b), visibleFrom(5, 5, EAST));
+        // From inside B, turning to face the north doorway shows C
+        assertEquals(Set.of(b, c), visibleFrom(25, 5, NORTH));
+    }
+
+    @Test
+    void doorwayOffToTheSideOfTheViewIsNotLookedThrough() {
+        Room a = room(0, 0), b = room(1, 0), c = room(0, 1);
+        east(a, b);
+        north(a, c);
+
+        // Standing in A's south-west corner looking east: the north doorway is behind the left edge of the view
+        Set<Room> seen = visibleFrom(1, 1, EAST);
+        assertTrue(seen.contains(b));
+        assertFalse(seen.contains(c));
+        assertEquals(Set.of(a, c), visibleFrom(5, 5, NORTH));
+    }
+
+    @Test
+    void unconnectedRoomIsNeverSeen() {
+        Room a = room(0, 0), b = room(1, 0);
+        Room island = room(2, 0);
+        east(a, b);
+
+        // Island is straight ahead, but B has no doorway towards it
+        Set<Room> seen = visibleFrom(5, 5, EAST);
+        assertEquals(Set.of(a, b), seen);
+        assertFalse(seen.contains(island));
+    }
+
+    // -------------------------------------------------------------------------
+    // Tunnels and no room
+    // -------------------------------------------------------------------------
+
+    @Test
+    void fromInsideATunnelBothEndsAreVisible() {
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b);
+        east(b, c);
+
+        // In the A-B tunnel, looking east: A is behind the eye but still drawn with its tunnel
+        assertEquals(Set.of(a, b, c), visibleFrom(15, 5, EAST));
+        // Looking west, C's doorway is behind the eye
+        assertEquals(Set.of(a, b), visibleFrom(15, 5, WEST));
+    }
+
+    @Test
+    void eyeOutsideEveryRoomMeansDrawEverything() {
+        Room a = room(0, 0), b = room(1, 0);
+        east(a, b);
+
+        assertNull(visibleFrom(-50, -50, EAST));
+        assertNull(visibleFrom(15, 15, EAST), "between rooms but not in a tunnel");
+    }
+
+    // -------------------------------------------------------------------------
+    // Courtyards
+    // -------------------------------------------------------------------------
+
+    @Test
+    void roomsInViewPastACourtyardAreVisible() {
+        Room a = room(0, 0);
+        Room yard = room(1, 0, Room.RoomType.COURTYARD);
+        Room beyond = room(2, 0);     // Not connected, but in line with the doorway
+        Room offToTheSide = room(1, 1); // Not connected and out of the doorway's view
+        east(a, yard);
+
+        Set<Room> seen = visibleFrom(5, 5, EAST);
+        assertTrue(seen.contains(yard));
+        assertTrue(seen.contains(beyond), "a courtyard has no walls to hide what's past it");
+        assertFalse(seen.contains(offToTheSide));
+    }
+
+    @Test
+    void fromInsideACourtyardEverythingInTheViewIsVisible() {
+        Room yard = room(0, 0, Room.RoomType.COURTYARD);
+        Room ahead = room(2, 0);
+        Room behind = room(-2, 0);
+
+        Set<Room> seen = visibleFrom(5, 5, EAST);
+        assertTrue(seen.contains(yard));
+        assertTrue(seen.contains(ahead));
+        assertFalse(seen.contains(behind));
+    }
+
+    // -------------------------------------------------------------------------
+    // Reuse
+    // -------------------------------------------------------------------------
+
+    @Test
+    void eachUpdateStartsAfresh() {
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b);
+        east(b, c);
+
+        assertEquals(Set.of(a, b, c), visibleFrom(5, 5, EAST));
+        assertEquals(Set.of(a), visibleFrom(5, 5, WEST));
+        assertEquals(Set.of(a, b, c), visibleFrom(45, 5, WEST));
+    }
+
+    @Test
+    void growsPastItsInitialRoomCapacity() {
+        // A 100-room corridor, looked down from one end; the far plane stops the walk
+        Room previous = null;
+        for (int i = 0; i < 100; i++) {
+            Room room = room(i, 0);
+            if (previous != null) east(previous, room);
+            previous = room;
+        }
+
+        Set<Room> seen = visibleFrom(5, 5, EAST);
+        assertTrue(seen.contains(rooms.get(4)));
+        assertFalse(seen.contains(rooms.get(99)));
+        assertTrue(visibleFrom(1985, 5, WEST).contains(rooms.get(97)));
+    }
+}
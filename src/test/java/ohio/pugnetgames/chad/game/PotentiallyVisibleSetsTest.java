@@ -0,0 +1,219 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PotentiallyVisibleSets — which rooms a line through a chain of
+ * doorways can reach, courtyards, and the view distance.
+ *
+ * Rooms are 10x10 and laid out on a 20 unit grid, so every tunnel is 10 long.
+ */
+class PotentiallyVisibleSetsTest {
+
+    private final List<Room> rooms = new ArrayList<>();
+    private final List<Tunnel> tunnels = new ArrayList<>();
+
+    /** Adds a 10x10 room with its corner at grid cell (col, row). */
+    private Room room(int col, int row, Room.RoomType type) {
+        Room room = new Room(col * 20, row * 20, col * 20 + 10, row * 20 + 10, type);
+        room.index = rooms.size();
+        rooms.add(room);
+        return room;
+    }
+
+    private Room room(int col, int row) {
+        return room(col, row, Room.RoomType.STANDARD);
+    }
+
+    /** Tunnel east from a to b, spanning z = a.minZ + fromZ .. a.minZ + toZ. */
+    private void east(Room a, Room b, float fromZ, float toZ) {
+        tunnels.add(new Tunnel(a.maxX, a.minZ + fromZ, b.minX, a.minZ + toZ, a, b, Direction.EAST));
+    }
+
+    /** Tunnel north from a to b, spanning x = a.minX + fromX .. a.minX + toX. */
+    private void north(Room a, Room b, float fromX, float toX) {
+        tunnels.add(new Tunnel(a.minX + fromX, a.maxZ, a.minX + toX, b.minZ, a, b, Direction.NORTH));
+    }
+
+    private PotentiallyVisibleSets compute() {
+        return PotentiallyVisibleSets.compute(RoomGraph.of(rooms, tunnels, null));
+    }
+
+    // -------------------------------------------------------------------------
+    // Stabbing lines through doorways
+    // -------------------------------------------------------------------------
+
+    @Test
+    void straightCorridorSeesAllTheWay() {
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0), d = room(3, 0);
+        east(a, b, 4, 6);
+        east(b, c, 4, 6);
+        east(c, d, 4, 6);
+
+        PotentiallyVisibleSets pvs = compute();
+        assertEquals(List.of(a, b, c, d), pvs.get(a));
+        assertEquals(List.of(a, b, c, d), pvs.get(d));
+    }
+
+    @Test
+    void diagonalLineThroughOffsetDoorwaysStillSees() {
+        // A line from (10, 4) through (20, 6) reaches (30, 8) and (40, 10)
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b, 4, 6);
+        east(b, c, 8, 10);
+
+        assertTrue(compute().get(a).contains(c));
+    }
+
+    @Test
+    void doorwaysTooFarApartBlockTheView() {
+        // Bottom edge, then top edge: no straight line gets through both tunnels
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b, 0, 1);
+        east(b, c, 9, 10);
+
+        PotentiallyVisibleSets pvs = compute();
+        assertEquals(List.of(a, b), pvs.get(a));
+        assertEquals(List.of(a, b, c), pvs.get(b));
+    }
+
+    @Test
+    void seeingIntoATunnelCountsAsSeeingTheRoomBehindIt() {
+        // Same rooms as above. From inside C's tunnel the first doorway is B's,
+        // and B's far doorway leads into the A-B tunnel, so A is in C's set
+        // even though no line reaches A itself. The sets err on the side of drawing.
+        Room a = room(0, 0), b = room(1, 0), c = room(2, 0);
+        east(a, b, 0, 1);
+        east(b, c, 9, 10);
+
+        assertEquals(List.of(a, b, c), compute().get(c));
+    }
+
+    @Test
+    void cornerBlocksTheView() {
+        //   C
+        //   |
+        // A-B
+        Room a = room(0, 0), b = room(1, 0), c = room(1, 1);
+        east(a, b, 4, 6);
+        north(b, c, 4, 6);
+
+        PotentiallyVisibleSets pvs = compute();
+        assertFalse(pvs.get(a).contains(c));
+        assertTrue(pvs.get(b).contains(a));
+        assertTrue(pvs.get(b).contains(c));
+    }
+
+    @Test
+    void unconnectedRoomIsNeverSeen() {
+        Room a = room(0, 0), b = room(1, 0);
+        Room island = room(0, 1);
+        east(a, b, 4, 6);
+
+        PotentiallyVisibleSets pvs = compute();
+        assertFalse(pvs.get(a).contains(island));
+        assertEquals(List.of(island), pvs.get(island));
+    }
+
+    // -------------------------------------------------------------------------
+    // Courtyards and view distance
+    // -------------------------------------------------------------------------
+
+    @Test
+    void fromACourtyardEverythingInRangeIsVisible() {
+        Room a = room(0, 0);
+        Room yard = room(1, 0, Room.RoomType.COURTYARD);
+        Room c = room(1, 1), d = room(0, 1);
+        Room far = room(15, 0); // 280 units away, past the view distance
+        east(a, yard, 4, 6);
+        north(yard, c, 4, 6);
+
+        List<Room> seen = compute().get(yard);
+        assertTrue(seen.contains(a));
+        assertTrue(seen.contains(c));
+        assertTrue(seen.contains(d), "no walls block the view from a courtyard");
+        assertFalse(seen.contains(far));
+    }
+
+    @Test
+    void lookingIntoACourtyardSeesWhatIsBeyondIt() {
+        // A-Y-C in a row, with Y open: C is past Y's far side, in line with the doorways
+        Room a = room(0, 0);
+        Room yard = room(1, 0, Room.RoomType.COURTYARD);
+        Room c = room(2, 0);
+        Room behind = room(-2, 0); // Behind A, on the wrong side of every doorway
+        east(a, yard, 4, 6);
+
+        List<Room> seen = compute().get(a);
+        assertTrue(seen.contains(yard));
+        assertTrue(seen.contains(c));
+        assertFalse(seen.contains(behind));
+    }
+
+    @Test
+    void roomsPastTheViewDistanceAreLeftOut() {
+        // A straight corridor longer than the view distance
+        List<Room> corridor = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            corridor.add(room(i, 0));
+            if (i > 0) east(corridor.get(i - 1), corridor.get(i), 4, 6);
+        }
+
+        List<Room> seen = compute().get(corridor.get(0));
+        assertTrue(seen.contains(corridor.get(4)));  // 70 away
+        assertFalse(seen.contains(corridor.get(9))); // 170 away
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    @Test
+    void setsIncludeTheRoomItselfAndAreReadOnly() {
+        Room a = room(0, 0), b = room(1, 0);
+        east(a, b, 4, 6);
+        PotentiallyVisibleSets pvs = compute();
+
+        assertTrue(pvs.get(a).contains(a));
+        assertThrows(UnsupportedOperationException.class, () -> pvs.get(a).add(b));
+        assertEquals(2.0, pvs.getAverageSetSize(), 1e-9);
+    }
+
+    @Test
+    void coversOnlyTheRoomsItWasComputedFor() {
+        Room a = room(0, 0);
+        PotentiallyVisibleSets pvs = compute();
+        assertTrue(pvs.covers(a));
+
+        Room later = new Room(100, 100, 110, 110);
+        later.index = 1;
+        assertFalse(pvs.covers(later));
+
+        Room lookalike = new Room(0, 0, 10, 10);
+        lookalike.index = 0;
+        assertFalse(pvs.covers(lookalike));
+    }
+
+    @Test
+    void generatedWorldSeesEveryNeighbour() {
+        GenerationOptions options = GenerationOptions.defaults();
+        options.verboseLogging = false;
+        options.computeVisibleSets = true;
+        World world = new WorldLoader().generateWorld(1, 2, 3, 4, 5, 99L, options);
+        PotentiallyVisibleSets pvs = world.getVisibleSets();
+        RoomGraph graph = world.getRoomGraph();
+
+        for (Room room : world.getAllRooms()) {
+            List<Room> seen = pvs.get(room);
+            assertTrue(seen.contains(room));
+            for (Room neighbor : graph.getNeighbors(room)) {
+                assertTrue(seen.contains(neighbor), "room " + room.index + " must see neighbour " + neighbor.index);
+            }
+        }
+    }
+}
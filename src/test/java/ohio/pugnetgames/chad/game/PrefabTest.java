@@ -0,0 +1,266 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.GameObject.ShapeType;
+import ohio.pugnetgames.chad.game.Prefab.Part;
+import ohio.pugnetgames.chad.game.Prefab.TextureSlot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Prefab — the parts place() stamps out (positions, textures and
+ * colors, the shared PropInstance) and the bounding box, checked against
+ * the table and tree WorldLoader used to build by hand.
+ */
+class PrefabTest {
+
+    private static final int WOOD_TEXTURE = 9;
+    private static final int SHEETS_TEXTURE = 11;
+    private static final float EPSILON = 1e-5f;
+
+    // The old hand-built props, exactly as WorldLoader made them before PrefabRegistry
+    private static final float TABLE_TOP_W = 1.2f, TABLE_TOP_D = 0.8f, TABLE_TOP_H = 0.1f, TABLE_TOP_Y = 0.8f;
+    private static final float TABLE_LEG_HEIGHT = 0.8f, TABLE_LEG_SIZE = 0.15f;
+    private static final float TABLE_LEG_OFFSET_X = (TABLE_TOP_W / 2.0f) - (TABLE_LEG_SIZE / 2.0f);
+    private static final float TABLE_LEG_OFFSET_Z = (TABLE_TOP_D / 2.0f) - (TABLE_LEG_SIZE / 2.0f);
+    private static final float TRUNK_HEIGHT = 4.0f, TRUNK_WIDTH = 0.4f, LEAF_RADIUS = 2.0f;
+
+    private static List<GameObject> oldTable(float tableX, float tableZ, int woodTextureID) {
+        List<GameObject> out = new ArrayList<>();
+        out.add(new GameObject(ShapeType.CUBE, tableX, TABLE_TOP_Y - (TABLE_TOP_H / 2.0f), tableZ,
+                TABLE_TOP_W, TABLE_TOP_H, TABLE_TOP_D, woodTextureID));
+        out.add(new GameObject(ShapeType.CUBE, tableX - TABLE_LEG_OFFSET_X, 0.0f, tableZ - TABLE_LEG_OFFSET_Z,
+                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
+        out.add(new GameObject(ShapeType.CUBE, tableX + TABLE_LEG_OFFSET_X, 0.0f, tableZ - TABLE_LEG_OFFSET_Z,
+                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
+        out.add(new GameObject(ShapeType.CUBE, tableX - TABLE_LEG_OFFSET_X, 0.0f, tableZ + TABLE_LEG_OFFSET_Z,
+                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
+        out.add(new GameObject(ShapeType.CUBE, tableX + TABLE_LEG_OFFSET_X, 0.0f, tableZ + TABLE_LEG_OFFSET_Z,
+                TABLE_LEG_SIZE, TABLE_LEG_HEIGHT, TABLE_LEG_SIZE, woodTextureID));
+        return out;
+    }
+
+    private static List<GameObject> oldTree(float treeX, float treeZ) {
+        List<GameObject> out = new ArrayList<>();
+        out.add(new GameObject(ShapeType.CUBE, treeX, 0.0f, treeZ, TRUNK_WIDTH, TRUNK_HEIGHT, TRUNK_WIDTH,
+                0.5f, 0.3f, 0.0f, true, true));
+        out.add(new GameObject(ShapeType.SPHERE, treeX, TRUNK_HEIGHT, treeZ, LEAF_RADIUS, LEAF_RADIUS, LEAF_RADIUS,
+                0.0f, 0.7f, 0.0f, false, true));
+        return out;
+    }
+
+    private static void assertSameObject(GameObject expected, GameObject actual, String what) {
+        assertEquals(expected.getShape(), actual.getShape(), what);
+        assertEquals(expected.getPosX(), actual.getPosX(), EPSILON, what);
+        assertEquals(expected.getPosY(), actual.getPosY(), EPSILON, what);
+        assertEquals(expected.getPosZ(), actual.getPosZ(), EPSILON, what);
+        assertEquals(expected.getScaleX(), actual.getScaleX(), what);
+        assertEquals(expected.getScaleY(), actual.getScaleY(), what);
+        assertEquals(expected.getScaleZ(), actual.getScaleZ(), what);
+        assertEquals(expected.getTextureID(), actual.getTextureID(), what);
+        assertEquals(expected.getColorR(), actual.getColorR(), what);
+        assertEquals(expected.getColorG(), actual.getColorG(), what);
+        assertEquals(expected.getColorB(), actual.getColorB(), what);
+        assertEquals(expected.isCollidable(), actual.isCollidable(), what);
+        assertEquals(expected.isRendered(), actual.isRendered(), what);
+    }
+
+    /** Bounds of placed objects, with a sphere's scale as its radius like GameObject draws it. */
+    private static float[] boundsOf(List<GameObject> objects) {
+        float[] b = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (GameObject obj : objects) {
+            float half = obj.getShape() == ShapeType.SPHERE ? 1.0f : 0.5f;
+            b[0] = Math.min(b[0], obj.getPosX() - obj.getScaleX() * half);
+            b[1] = Math.min(b[1], obj.getPosY() - obj.getScaleY() * half);
+            b[2] = Math.min(b[2], obj.getPosZ() - obj.getScaleZ() * half);
+            b[3] = Math.max(b[3], obj.getPosX() + obj.getScaleX() * half);
+            b[4] = Math.max(b[4], obj.getPosY() + obj.getScaleY() * half);
+            b[5] = Math.max(b[5], obj.getPosZ() + obj.getScaleZ() * half);
+        }
+        return b;
+    }
+
+    private static void assertBounds(float[] expected, PropInstance prop) {
+        assertEquals(expected[0], prop.minX, EPSILON, "minX");
+        assertEquals(expected[1], prop.minY, EPSILON, "minY");
+        assertEquals(expected[2], prop.minZ, EPSILON, "minZ");
+        assertEquals(expected[3], prop.maxX, EPSILON, "maxX");
+        assertEquals(expected[4], prop.maxY, EPSILON, "maxY");
+        assertEquals(expected[5], prop.maxZ, EPSILON, "maxZ");
+    }
+
+    // -------------------------------------------------------------------------
+    // place()
+    // -------------------------------------------------------------------------
+
+    @Test
+    void tableMatchesTheOldHandBuiltTable() {
+        List<GameObject> placed = new ArrayList<>();
+        PrefabRegistry.TABLE.place(12.0f, 0.0f, -3.0f, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+
+        List<GameObject> expected = oldTable(12.0f, -3.0f, WOOD_TEXTURE);
+        assertEquals(expected.size(), placed.size());
+        assertEquals(PrefabRegistry.TABLE.getPartCount(), placed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameObject(expected.get(i), placed.get(i), "table part " + i);
+        }
+    }
+
+    @Test
+    void treeMatchesTheOldHandBuiltTree() {
+        List<GameObject> placed = new ArrayList<>();
+        PrefabRegistry.TREE.place(-7.0f, 0.0f, 20.0f, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+
+        List<GameObject> expected = oldTree(-7.0f, 20.0f);
+        assertEquals(2, placed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameObject(expected.get(i), placed.get(i), "tree part " + i);
+        }
+    }
+
+    @Test
+    void partsAreOffsetFromThePropPosition() {
+        Prefab prefab = new Prefab("OFFSETS",
+                new Part(ShapeType.CUBE, 1.0f, 2.0f, 3.0f, 2.0f, 4.0f, 6.0f, 0.1f, 0.2f, 0.3f, TextureSlot.NONE, true, true));
+        List<GameObject> placed = new ArrayList<>();
+        prefab.place(10.0f, 20.0f, 30.0f, 0, 0, placed);
+
+        GameObject part = placed.get(0);
+        assertEquals(11.0f, part.getPosX());
+        assertEquals(22.0f + 2.0f, part.getPosY(), "parts stand on their offset, so the center is half the height up");
+        assertEquals(33.0f, part.getPosZ());
+    }
+
+    @Test
+    void placeAppendsToTheList() {
+        List<GameObject> placed = new ArrayList<>();
+        GameObject existing = new GameObject(ShapeType.CUBE, 0, 0, 0, 1, 1, 1, 1, 1, 1);
+        placed.add(existing);
+        PrefabRegistry.BED.place(0, 0, 0, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+        PrefabRegistry.TREE.place(5, 0, 0, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+
+        assertEquals(1 + PrefabRegistry.BED.getPartCount() + PrefabRegistry.TREE.getPartCount(), placed.size());
+        assertSame(existing, placed.get(0));
+        assertNull(existing.getProp());
+    }
+
+    // -------------------------------------------------------------------------
+    // Textures and colors
+    // -------------------------------------------------------------------------
+
+    @Test
+    void textureSlotsPickTheMatchingTexture() {
+        List<GameObject> placed = new ArrayList<>();
+        PrefabRegistry.BED.place(0, 0, 0, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+
+        for (int i = 0; i < placed.size(); i++) {
+            TextureSlot slot = PrefabRegistry.BED.getPart(i).texture;
+            int expected = slot == TextureSlot.SHEETS ? SHEETS_TEXTURE : WOOD_TEXTURE;
+            assertEquals(expected, placed.get(i).getTextureID(), "bed part " + i + " (" + slot + ")");
+        }
+        assertEquals(1, placed.stream().filter(obj -> obj.getTextureID() == SHEETS_TEXTURE).count(), "one mattress");
+    }
+
+    @Test
+    void missingTextureFallsBackToThePartColor() {
+        List<GameObject> placed = new ArrayList<>();
+        PrefabRegistry.BED.place(0, 0, 0, 0, 0, placed);
+
+        for (int i = 0; i < placed.size(); i++) {
+            Part part = PrefabRegistry.BED.getPart(i);
+            GameObject obj = placed.get(i);
+            assertEquals(0, obj.getTextureID(), "bed part " + i);
+            assertEquals(part.colorR, obj.getColorR(), "bed part " + i);
+            assertEquals(part.colorG, obj.getColorG(), "bed part " + i);
+            assertEquals(part.colorB, obj.getColorB(), "bed part " + i);
+        }
+    }
+
+    @Test
+    void untexturedPartsIgnoreTheTextures() {
+        List<GameObject> placed = new ArrayList<>();
+        PrefabRegistry.TREE.place(0, 0, 0, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+        for (GameObject obj : placed) {
+            assertEquals(0, obj.getTextureID());
+        }
+        assertEquals(0.7f, placed.get(1).getColorG(), "the leaves stay green");
+    }
+
+    // -------------------------------------------------------------------------
+    // PropInstance
+    // -------------------------------------------------------------------------
+
+    @Test
+    void everyPartPointsToTheSameProp() {
+        List<GameObject> placed = new ArrayList<>();
+        PropInstance prop = PrefabRegistry.BED.place(4.0f, 0.0f, 8.0f, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+
+        assertSame(PrefabRegistry.BED, prop.prefab);
+        assertEquals(4.0f, prop.x);
+        assertEquals(0.0f, prop.y);
+        assertEquals(8.0f, prop.z);
+        for (GameObject obj : placed) {
+            assertSame(prop, obj.getProp());
+        }
+    }
+
+    @Test
+    void eachPlacementIsItsOwnProp() {
+        List<GameObject> placed = new ArrayList<>();
+        PropInstance first = PrefabRegistry.TABLE.place(0, 0, 0, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+        PropInstance second = PrefabRegistry.TABLE.place(5, 0, 0, WOOD_TEXTURE, SHEETS_TEXTURE, placed);
+
+        assertNotSame(first, second);
+        int parts = PrefabRegistry.TABLE.getPartCount();
+        assertSame(first, placed.get(parts - 1).getProp());
+        assertSame(second, placed.get(parts).getProp());
+    }
+
+    // -------------------------------------------------------------------------
+    // Bounds
+    // -------------------------------------------------------------------------
+
+    @Test
+    void tableBoundsCoverTheOldParts() {
+        PropInstance prop = PrefabRegistry.TABLE.place(12.0f, 0.0f, -3.0f, WOOD_TEXTURE, SHEETS_TEXTURE, new ArrayList<>());
+        assertBounds(boundsOf(oldTable(12.0f, -3.0f, WOOD_TEXTURE)), prop);
+
+        // The top is as wide as the table and sits on the legs
+        assertEquals(TABLE_TOP_W, prop.maxX - prop.minX, EPSILON);
+        assertEquals(TABLE_TOP_D, prop.maxZ - prop.minZ, EPSILON);
+        assertEquals(0.0f, prop.minY, EPSILON);
+        assertEquals(TABLE_TOP_Y + TABLE_TOP_H / 2.0f, prop.maxY, EPSILON);
+    }
+
+    @Test
+    void treeBoundsUseTheLeafRadius() {
+        PropInstance prop = PrefabRegistry.TREE.place(-7.0f, 0.0f, 20.0f, WOOD_TEXTURE, SHEETS_TEXTURE, new ArrayList<>());
+        assertBounds(boundsOf(oldTree(-7.0f, 20.0f)), prop);
+
+        // The leaves stand on the trunk like any part, so their center is half their scale up (y = 5),
+        // and they reach a full radius out from it
+        assertEquals(-7.0f - LEAF_RADIUS, prop.minX, EPSILON);
+        assertEquals(20.0f + LEAF_RADIUS, prop.maxZ, EPSILON);
+        assertEquals(0.0f, prop.minY, EPSILON);
+        assertEquals(TRUNK_HEIGHT + LEAF_RADIUS / 2.0f + LEAF_RADIUS, prop.maxY, EPSILON);
+    }
+
+    @Test
+    void boundsFollowThePlacementHeight() {
+        PropInstance onFloor = PrefabRegistry.TABLE.place(0, 0, 0, 0, 0, new ArrayList<>());
+        PropInstance raised = PrefabRegistry.TABLE.place(0, 2.5f, 0, 0, 0, new ArrayList<>());
+        assertEquals(onFloor.minY + 2.5f, raised.minY, EPSILON);
+        assertEquals(onFloor.maxY + 2.5f, raised.maxY, EPSILON);
+    }
+
+    @Test
+    void footprintOverlap() {
+        PropInstance table = PrefabRegistry.TABLE.place(0, 0, 0, 0, 0, new ArrayList<>());
+        assertTrue(table.overlaps(0.5f, 0.3f, 2.0f, 2.0f));
+        assertFalse(table.overlaps(0.7f, -1.0f, 2.0f, 1.0f), "past the table top's edge");
+        assertFalse(table.overlaps(0.6f, -1.0f, 2.0f, 1.0f), "touching edges don't overlap");
+    }
+}
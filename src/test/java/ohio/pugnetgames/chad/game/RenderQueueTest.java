@@ -0,0 +1,157 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RenderQueue — the order the sort key puts submissions in, and
+ * that each one's payload comes back with it.
+ */
+class RenderQueueTest {
+
+    private static final float FAR = 100.0f;
+
+    private final RenderQueue queue = new RenderQueue(FAR);
+
+    /** Submits with the submission number as payload a, so the sorted order can be read back. */
+    private void submit(int pass, int material, float depth, int id) {
+        queue.submit(pass, material, depth, 0, id, 0);
+    }
+
+    private int[] sortedIds() {
+        queue.sort();
+        int[] ids = new int[queue.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = queue.getA(i);
+        }
+        return ids;
+    }
+
+    // -------------------------------------------------------------------------
+    // Sort order
+    // -------------------------------------------------------------------------
+
+    @Test
+    void opaquePassComesBeforeTransparent() {
+        submit(RenderQueue.PASS_TRANSPARENT, 0, 1.0f, 0);
+        submit(RenderQueue.PASS_OPAQUE, 500, 90.0f, 1);
+        assertArrayEquals(new int[]{1, 0}, sortedIds());
+    }
+
+    @Test
+    void passWinsOverMaterial() {
+        submit(RenderQueue.PASS_TRANSPARENT, 1, 1.0f, 0);
+        submit(RenderQueue.PASS_OPAQUE, 65535, 1.0f, 1);
+        assertArrayEquals(new int[]{1, 0}, sortedIds());
+    }
+
+    @Test
+    void materialsAreGroupedWithinAPass() {
+        submit(RenderQueue.PASS_OPAQUE, 7, 10.0f, 0);
+        submit(RenderQueue.PASS_OPAQUE, 3, 50.0f, 1);
+        submit(RenderQueue.PASS_OPAQUE, 7, 20.0f, 2);
+        submit(RenderQueue.PASS_OPAQUE, 3, 5.0f, 3);
+
+        assertArrayEquals(new int[]{3, 1, 0, 2}, sortedIds());
+        assertEquals(3, queue.getMaterial(0));
+        assertEquals(3, queue.getMaterial(1));
+        assertEquals(7, queue.getMaterial(2));
+        assertEquals(7, queue.getMaterial(3));
+    }
+
+    @Test
+    void materialWinsOverDepth() {
+        submit(RenderQueue.PASS_OPAQUE, 2, 1.0f, 0);
+        submit(RenderQueue.PASS_OPAQUE, 1, 99.0f, 1);
+        assertArrayEquals(new int[]{1, 0}, sortedIds());
+    }
+
+    @Test
+    void opaqueIsFrontToBack() {
+        submit(RenderQueue.PASS_OPAQUE, 4, 80.0f, 0);
+        submit(RenderQueue.PASS_OPAQUE, 4, 2.0f, 1);
+        submit(RenderQueue.PASS_OPAQUE, 4, 40.0f, 2);
+        assertArrayEquals(new int[]{1, 2, 0}, sortedIds());
+    }
+
+    @Test
+    void transparentIsBackToFront() {
+        submit(RenderQueue.PASS_TRANSPARENT, 4, 2.0f, 0);
+        submit(RenderQueue.PASS_TRANSPARENT, 4, 80.0f, 1);
+        submit(RenderQueue.PASS_TRANSPARENT, 4, 40.0f, 2);
+        assertArrayEquals(new int[]{1, 2, 0}, sortedIds());
+    }
+
+    @Test
+    void equalKeysKeepSubmissionOrder() {
+        for (int i = 0; i < 10; i++) {
+            submit(RenderQueue.PASS_OPAQUE, 1, 10.0f, i);
+        }
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, sortedIds());
+    }
+
+    @Test
+    void depthIsClampedToTheFarPlane() {
+        // Past the far plane all sort as the farthest, so submission order decides
+        submit(RenderQueue.PASS_OPAQUE, 1, FAR * 5, 0);
+        submit(RenderQueue.PASS_OPAQUE, 1, FAR * 2, 1);
+        submit(RenderQueue.PASS_OPAQUE, 1, FAR * 0.5f, 2);
+        assertArrayEquals(new int[]{2, 0, 1}, sortedIds());
+    }
+
+    @Test
+    void negativeDepthSortsAsNearest() {
+        submit(RenderQueue.PASS_OPAQUE, 1, 0.5f, 0);
+        submit(RenderQueue.PASS_OPAQUE, 1, -10.0f, 1);
+        assertArrayEquals(new int[]{1, 0}, sortedIds());
+    }
+
+    // -------------------------------------------------------------------------
+    // Payload and growth
+    // -------------------------------------------------------------------------
+
+    @Test
+    void payloadFollowsItsSubmission() {
+        queue.submit(RenderQueue.PASS_OPAQUE, 9, 1.0f, 3, 30, 300);
+        queue.submit(RenderQueue.PASS_OPAQUE, 2, 1.0f, 1, 10, 100);
+        queue.sort();
+
+        assertEquals(2, queue.getMaterial(0));
+        assertEquals(1, queue.getKind(0));
+        assertEquals(10, queue.getA(0));
+        assertEquals(100, queue.getB(0));
+
+        assertEquals(9, queue.getMaterial(1));
+        assertEquals(3, queue.getKind(1));
+        assertEquals(30, queue.getA(1));
+        assertEquals(300, queue.getB(1));
+    }
+
+    @Test
+    void queueGrowsPastItsInitialSize() {
+        int count = 1000;
+        for (int i = 0; i < count; i++) {
+            // Materials in reverse so the sort has to move everything
+            queue.submit(RenderQueue.PASS_OPAQUE, count - i, 1.0f, 0, i, -i);
+        }
+        assertEquals(count, queue.size());
+        queue.sort();
+        for (int i = 0; i < count; i++) {
+            int id = count - 1 - i;
+            assertEquals(i + 1, queue.getMaterial(i));
+            assertEquals(id, queue.getA(i));
+            assertEquals(-id, queue.getB(i));
+        }
+    }
+
+    @Test
+    void clearEmptiesTheQueue() {
+        submit(RenderQueue.PASS_OPAQUE, 1, 1.0f, 0);
+        queue.clear();
+        assertEquals(0, queue.size());
+
+        submit(RenderQueue.PASS_OPAQUE, 5, 1.0f, 42);
+        assertArrayEquals(new int[]{42}, sortedIds());
+    }
+}
@@ -0,0 +1,239 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RoomGraph — neighbours through walls, doorways, point lookups and
+ * growing the graph one room at a time.
+ *
+ * The layout used by most tests (north is +Z):
+ *
+ *   C
+ *   |
+ *   A - B - (escape)
+ */
+class RoomGraphTest {
+
+    private static final float DELTA = 1e-5f;
+
+    private Room a, b, c;
+    private Tunnel ab, ac, escape;
+    private RoomGraph graph;
+
+    private static Room room(int index, float minX, float minZ, float maxX, float maxZ) {
+        Room room = new Room(minX, minZ, maxX, maxZ);
+        room.index = index;
+        return room;
+    }
+
+    @BeforeEach
+    void setUp() {
+        a = room(0, 0, 0, 10, 10);
+        b = room(1, 20, 0, 30, 10);
+        c = room(2, 0, 20, 10, 30);
+        ab = new Tunnel(10, 4, 20, 6, a, b, Direction.EAST);
+        ac = new Tunnel(4, 10, 6, 20, a, c, Direction.NORTH);
+        escape = new Tunnel(30, 4, 40, 6, b, null, Direction.EAST);
+        graph = RoomGraph.of(List.of(a, b, c), List.of(ab, ac), escape);
+    }
+
+    // -------------------------------------------------------------------------
+    // Neighbours and connections
+    // -------------------------------------------------------------------------
+
+    @Test
+    void neighboursAreFoundThroughBothWalls() {
+        assertSame(b, graph.getNeighbor(a, Direction.EAST));
+        assertSame(a, graph.getNeighbor(b, Direction.WEST));
+        assertSame(c, graph.getNeighbor(a, Direction.NORTH));
+        assertSame(a, graph.getNeighbor(c, Direction.SOUTH));
+    }
+
+    @Test
+    void solidWallsHaveNoNeighbour() {
+        assertNull(graph.getNeighbor(a, Direction.WEST));
+        assertNull(graph.getNeighbor(a, Direction.SOUTH));
+        assertNull(graph.getConnection(c, Direction.NORTH));
+    }
+
+    @Test
+    void neighboursComeInWallOrder() {
+        assertEquals(List.of(c, b), graph.getNeighbors(a));
+        assertEquals(List.of(a), graph.getNeighbors(c));
+    }
+
+    @Test
+    void escapeIsAConnectionWithNoRoomBehindIt() {
+        RoomGraph.Connection connection = graph.getEscape();
+        assertNotNull(connection);
+        assertTrue(connection.isEscape());
+        assertSame(b, connection.from);
+        assertNull(connection.to);
+        assertNull(connection.toDoorway);
+        assertSame(connection, graph.getConnection(b, Direction.EAST));
+        assertNull(graph.getNeighbor(b, Direction.EAST));
+        // The escape tunnel isn't a neighbour
+        assertEquals(List.of(a), graph.getNeighbors(b));
+    }
+
+    @Test
+    void connectionsAreListedInTheOrderAdded() {
+        List<RoomGraph.Connection> all = graph.getConnections();
+        assertEquals(3, all.size());
+        assertSame(ab, all.get(0).tunnel);
+        assertSame(ac, all.get(1).tunnel);
+        assertSame(escape, all.get(2).tunnel);
+
+        List<RoomGraph.Connection> ofA = graph.getConnections(a);
+        assertEquals(2, ofA.size());
+        assertSame(ab, ofA.get(0).tunnel);
+        assertSame(ac, ofA.get(1).tunnel);
+        assertEquals(2, graph.getConnections(b).size());
+    }
+
+    @Test
+    void otherGivesTheRoomOnTheFarEnd() {
+        RoomGraph.Connection connection = graph.getConnection(a, Direction.EAST);
+        assertSame(b, connection.other(a));
+        assertSame(a, connection.other(b));
+    }
+
+    @Test
+    void readOnlyListsCannotBeChanged() {
+        assertThrows(UnsupportedOperationException.class, () -> graph.getRooms().add(a));
+        assertThrows(UnsupportedOperationException.class, () -> graph.getConnections().clear());
+        assertThrows(UnsupportedOperationException.class, () -> graph.getConnections(a).clear());
+    }
+
+    // -------------------------------------------------------------------------
+    // Doorways
+    // -------------------------------------------------------------------------
+
+    @Test
+    void doorwaysSitOnEachRoomsWallLine() {
+        RoomGraph.Connection east = graph.getConnection(a, Direction.EAST);
+        RoomGraph.Doorway inA = east.doorwayIn(a);
+        RoomGraph.Doorway inB = east.doorwayIn(b);
+
+        assertSame(a, inA.room);
+        assertEquals(Direction.EAST, inA.wall);
+        assertEquals(10.0f, inA.getCenterX(), DELTA);
+        assertEquals(5.0f, inA.getCenterZ(), DELTA);
+        assertEquals(4.0f, inA.minZ, DELTA);
+        assertEquals(6.0f, inA.maxZ, DELTA);
+
+        assertSame(b, inB.room);
+        assertEquals(Direction.WEST, inB.wall);
+        assertEquals(20.0f, inB.getCenterX(), DELTA);
+    }
+
+    @Test
+    void northTunnelDoorwaysSpanItsWidth() {
+        RoomGraph.Connection north = graph.getConnection(a, Direction.NORTH);
+        assertEquals(10.0f, north.fromDoorway.getCenterZ(), DELTA);
+        assertEquals(20.0f, north.toDoorway.getCenterZ(), DELTA);
+        assertEquals(4.0f, north.fromDoorway.minX, DELTA);
+        assertEquals(6.0f, north.fromDoorway.maxX, DELTA);
+    }
+
+    // -------------------------------------------------------------------------
+    // getRoomAt
+    // -------------------------------------------------------------------------
+
+    @Test
+    void pointInARoomIsInThatRoom() {
+        assertSame(a, graph.getRoomAt(5, 5, 0));
+        assertSame(b, graph.getRoomAt(25, 5, 0));
+        assertSame(c, graph.getRoomAt(5, 25, 0));
+    }
+
+    @Test
+    void pointInATunnelBelongsToTheRoomItLeadsInto() {
+        assertSame(b, graph.getRoomAt(15, 5, 0));
+        assertSame(c, graph.getRoomAt(5, 15, 0));
+    }
+
+    @Test
+    void pointInTheEscapeTunnelBelongsToItsRoom() {
+        assertSame(b, graph.getRoomAt(35, 5, 0));
+    }
+
+    @Test
+    void roomWinsOverTunnelOnTheDoorway() {
+        assertSame(a, graph.getRoomAt(10, 5, 0));
+    }
+
+    @Test
+    void marginReachesJustOutsideARoom() {
+        assertNull(graph.getRoomAt(5, -0.5f, 0));
+        assertSame(a, graph.getRoomAt(5, -0.5f, 1.0f));
+    }
+
+    @Test
+    void pointOutsideEverythingIsInNoRoom() {
+        assertNull(graph.getRoomAt(100, 100, 0));
+        assertNull(graph.getRoomAt(15, 15, 0));
+    }
+
+    // -------------------------------------------------------------------------
+    // Growing
+    // -------------------------------------------------------------------------
+
+    @Test
+    void roomsCanBeAddedAfterBuilding() {
+        Room d = room(3, 20, 20, 30, 30);
+        graph.addRoom(d);
+        RoomGraph.Connection connection = graph.addTunnel(new Tunnel(24, 10, 26, 20, b, d, Direction.NORTH));
+
+        assertNotNull(connection);
+        assertEquals(4, graph.getRoomCount());
+        assertTrue(graph.contains(d));
+        assertSame(d, graph.getNeighbor(b, Direction.NORTH));
+        assertSame(b, graph.getNeighbor(d, Direction.SOUTH));
+        assertSame(d, graph.getRoomAt(25, 25, 0));
+    }
+
+    @Test
+    void roomWithTheWrongIndexIsRejected() {
+        Room skipped = room(5, 50, 50, 60, 60);
+        assertThrows(IllegalArgumentException.class, () -> graph.addRoom(skipped));
+    }
+
+    @Test
+    void tunnelToAnUnknownRoomIsSkipped() {
+        Room stranger = room(3, 20, 20, 30, 30); // Right index, but never added
+        assertNull(graph.addTunnel(new Tunnel(24, 10, 26, 20, b, stranger, Direction.NORTH)));
+        assertNull(graph.getConnection(b, Direction.NORTH));
+        assertFalse(graph.contains(stranger));
+    }
+
+    @Test
+    void sameIndexFromAnotherRoomIsNotContained() {
+        Room lookalike = room(0, 0, 0, 10, 10);
+        assertFalse(graph.contains(lookalike));
+        assertNull(graph.getConnection(lookalike, Direction.EAST));
+        assertTrue(graph.getNeighbors(lookalike).isEmpty());
+    }
+
+    @Test
+    void graphGrowsPastItsInitialCapacity() {
+        RoomGraph big = new RoomGraph();
+        Room previous = null;
+        for (int i = 0; i < 100; i++) {
+            Room room = room(i, i * 20, 0, i * 20 + 10, 10);
+            big.addRoom(room);
+            if (previous != null) {
+                big.addTunnel(new Tunnel(previous.maxX, 4, room.minX, 6, previous, room, Direction.EAST));
+            }
+            previous = room;
+        }
+        assertEquals(100, big.getRoomCount());
+        assertSame(big.getRooms().get(98), big.getNeighbor(previous, Direction.WEST));
+        assertNull(big.getEscape());
+    }
+}
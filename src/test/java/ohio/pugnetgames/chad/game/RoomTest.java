@@ -239,4 +239,45 @@ class RoomTest {
         room.keySpawnLocations.add(new float[]{5.0f, 1.0f, 5.0f});
         assertEquals(1, room.keySpawnLocations.size());
     }
+
+    // -------------------------------------------------------------------------
+    // Copies (the endless maze hands these to the game thread)
+    // -------------------------------------------------------------------------
+
+    @Test
+    void copyKeepsBoundsTypeAndIndex() {
+        Room room = new Room(1, 2, 11, 12, Room.RoomType.BEDROOM);
+        room.index = 7;
+        Room copy = room.copy();
+        assertNotSame(room, copy);
+        assertEquals(1, copy.minX, 0.0001f);
+        assertEquals(2, copy.minZ, 0.0001f);
+        assertEquals(11, copy.maxX, 0.0001f);
+        assertEquals(12, copy.maxZ, 0.0001f);
+        assertEquals(Room.RoomType.BEDROOM, copy.getType());
+        assertEquals(7, copy.index);
+    }
+
+    @Test
+    void copyIsNotChangedByLaterChangesToTheOriginal() {
+        Room room = new Room(0, 0, 10, 10);
+        Room copy = room.copy();
+        room.markWallUsed(Direction.EAST);
+        room.keySpawnLocations.add(new float[]{5.0f, 1.0f, 5.0f});
+        assertFalse(copy.eastWallUsed);
+        assertTrue(copy.keySpawnLocations.isEmpty());
+    }
+
+    @Test
+    void copyStateFromTakesWallsAndKeySpawns() {
+        Room room = new Room(0, 0, 10, 10);
+        Room copy = room.copy();
+        room.markWallUsed(Direction.SOUTH);
+        room.keySpawnLocations.add(new float[]{5.0f, 1.0f, 5.0f});
+        copy.copyStateFrom(room);
+        assertTrue(copy.southWallUsed);
+        assertFalse(copy.northWallUsed);
+        assertEquals(1, copy.keySpawnLocations.size());
+        assertNotSame(room.keySpawnLocations, copy.keySpawnLocations);
+    }
 }
@@ -0,0 +1,171 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SpatialGrid — broadphase queries, ordering and de-duplication.
+ */
+class SpatialGridTest {
+
+    // -------------------------------------------------------------------------
+    // query
+    // -------------------------------------------------------------------------
+
+    @Test
+    void emptyGridFindsNothing() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10.0f);
+        List<String> out = new ArrayList<>();
+        grid.query(-100, -100, 100, 100, out);
+        assertTrue(out.isEmpty());
+        assertEquals(0, grid.size());
+    }
+
+    @Test
+    void queryFindsItemsInTouchedCellsOnly() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10.0f);
+        grid.add("near", 1, 1, 2, 2);
+        grid.add("far", 55, 55, 56, 56);
+
+        List<String> out = new ArrayList<>();
+        grid.query(0, 0, 5, 5, out);
+        assertEquals(List.of("near"), out);
+
+        grid.query(50, 50, 59, 59, out);
+        assertEquals(List.of("far"), out);
+    }
+
+    @Test
+    void itemSpanningManyCellsIsReturnedOnce() {
+        SpatialGrid<String> grid = new SpatialGrid<>(1.0f);
+        grid.add("wide", 0, 0, 20, 20);
+
+        List<String> out = new ArrayList<>();
+        grid.query(-5, -5, 25, 25, out);
+        assertEquals(List.of("wide"), out);
+    }
+
+    @Test
+    void resultsComeBackInInsertionOrder() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(4.0f);
+        // Added in an order that doesn't match their cell order
+        grid.add(0, 30, 30, 31, 31);
+        grid.add(1, 0, 0, 1, 1);
+        grid.add(2, 15, 15, 16, 16);
+        grid.add(3, 0, 0, 40, 40);
+
+        List<Integer> out = new ArrayList<>();
+        grid.query(0, 0, 40, 40, out);
+        assertEquals(List.of(0, 1, 2, 3), out);
+    }
+
+    @Test
+    void negativeCoordinatesUseTheirOwnCells() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10.0f);
+        grid.add("negative", -5, -5, -1, -1);
+
+        List<String> out = new ArrayList<>();
+        grid.query(1, 1, 9, 9, out);
+        assertTrue(out.isEmpty(), "(-5..-1) must not share a cell with (1..9)");
+
+        grid.query(-9, -9, -6, -6, out);
+        assertEquals(List.of("negative"), out);
+    }
+
+    @Test
+    void queryClearsTheOutputList() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10.0f);
+        grid.add("a", 0, 0, 1, 1);
+        List<String> out = new ArrayList<>(List.of("stale"));
+        grid.query(100, 100, 101, 101, out);
+        assertTrue(out.isEmpty());
+    }
+
+    @Test
+    void queryNeverMissesAnOverlappingItem() {
+        // Brute force check: every item whose box overlaps the query must be found
+        Random random = new Random(42);
+        SpatialGrid<Integer> grid = new SpatialGrid<>(7.0f);
+        List<float[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            float x = random.nextFloat() * 400 - 200, z = random.nextFloat() * 400 - 200;
+            float[] box = {x, z, x + random.nextFloat() * 30, z + random.nextFloat() * 30};
+            boxes.add(box);
+            grid.add(i, box[0], box[1], box[2], box[3]);
+        }
+
+        List<Integer> out = new ArrayList<>();
+        for (int q = 0; q < 200; q++) {
+            float x = random.nextFloat() * 400 - 200, z = random.nextFloat() * 400 - 200;
+            float maxX = x + random.nextFloat() * 20, maxZ = z + random.nextFloat() * 20;
+            grid.query(x, z, maxX, maxZ, out);
+            for (int i = 0; i < boxes.size(); i++) {
+                float[] b = boxes.get(i);
+                boolean overlaps = b[0] <= maxX && b[2] >= x && b[1] <= maxZ && b[3] >= z;
+                if (overlaps) {
+                    assertTrue(out.contains(i), "query " + q + " missed item " + i);
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // queryIds
+    // -------------------------------------------------------------------------
+
+    @Test
+    void queryIdsMatchesQuery() {
+        SpatialGrid<String> grid = new SpatialGrid<>(5.0f);
+        grid.add("a", 0, 0, 12, 12);
+        grid.add("b", 20, 20, 21, 21);
+        grid.add("c", 3, 3, 4, 4);
+
+        SpatialGrid.Ids ids = new SpatialGrid.Ids();
+        grid.queryIds(0, 0, 10, 10, ids);
+        assertEquals(2, ids.size);
+        assertEquals(0, ids.ids[0]);
+        assertEquals(2, ids.ids[1]);
+    }
+
+    @Test
+    void queryIdsGrowsTheOutputArray() {
+        SpatialGrid<Integer> grid = new SpatialGrid<>(1.0f);
+        for (int i = 0; i < 200; i++) {
+            grid.add(i, 0, 0, 1, 1);
+        }
+        SpatialGrid.Ids ids = new SpatialGrid.Ids();
+        grid.queryIds(0, 0, 1, 1, ids);
+        assertEquals(200, ids.size);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, ids.ids[i]);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // clear
+    // -------------------------------------------------------------------------
+
+    @Test
+    void clearRemovesEverything() {
+        SpatialGrid<String> grid = new SpatialGrid<>(10.0f);
+        grid.add("a", 0, 0, 1, 1);
+        grid.clear();
+        assertEquals(0, grid.size());
+
+        List<String> out = new ArrayList<>();
+        grid.query(0, 0, 1, 1, out);
+        assertTrue(out.isEmpty());
+
+        // Ids start from 0 again
+        grid.add("b", 0, 0, 1, 1);
+        SpatialGrid.Ids ids = new SpatialGrid.Ids();
+        grid.queryIds(0, 0, 1, 1, ids);
+        assertEquals(1, ids.size);
+        assertEquals(0, ids.ids[0]);
+    }
+}
@@ -0,0 +1,254 @@
+package ohio.pugnetgames.chad.game;
+
+import ohio.pugnetgames.chad.game.GameObject.ShapeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StaticGeometry — packing objects into slots, the material table,
+ * GameObject setters writing through to their slot, and World keeping its
+ * copy in sync with the object list.
+ */
+class StaticGeometryTest {
+
+    private static final int WALL_TEXTURE = 7;
+    private static final int WOOD_TEXTURE = 9;
+
+    private static GameObject colored(float r, float g, float b) {
+        return new GameObject(ShapeType.CUBE, 0, 0, 0, 1, 1, 1, r, g, b);
+    }
+
+    private static GameObject textured(int textureID) {
+        return new GameObject(ShapeType.CUBE, 0, 0, 0, 1, 1, 1, textureID);
+    }
+
+    private static World worldOf(List<GameObject> objects, GameObject door) {
+        return new World(objects, new ArrayList<>(), null, door, null, WALL_TEXTURE, 0, WOOD_TEXTURE, 0);
+    }
+
+    // -------------------------------------------------------------------------
+    // Slots
+    // -------------------------------------------------------------------------
+
+    @Test
+    void addCopiesEverySlotField() {
+        GameObject obj = new GameObject(ShapeType.PLANE, 1, 2, 3, 4, 5, 6, 0.1f, 0.2f, 0.3f, false, true);
+        obj.setRotationY(45.0f);
+        StaticGeometry geo = StaticGeometry.of(List.of(obj));
+
+        assertEquals(1, geo.count);
+        assertEquals(obj.getPosX(), geo.posX[0]);
+        assertEquals(obj.getPosY(), geo.posY[0]);
+        assertEquals(obj.getPosZ(), geo.posZ[0]);
+        assertEquals(4.0f, geo.scaleX[0]);
+        assertEquals(5.0f, geo.scaleY[0]);
+        assertEquals(6.0f, geo.scaleZ[0]);
+        assertEquals(45.0f, geo.rotationY[0]);
+        assertEquals(ShapeType.PLANE, geo.getShape(0));
+        assertTrue(geo.isPlane(0));
+        assertFalse(geo.isCube(0));
+        assertFalse(geo.isCollidable(0));
+        assertTrue(geo.isRendered(0));
+        assertSame(obj, geo.getObject(0));
+    }
+
+    @Test
+    void slotsKeepListOrderPastTheInitialCapacity() {
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            objects.add(new GameObject(ShapeType.CUBE, i, 0, 0, 1, 1, 1, 0.5f, 0.5f, 0.5f));
+        }
+        StaticGeometry geo = StaticGeometry.of(objects);
+        assertEquals(200, geo.count);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, geo.posX[i]);
+            assertSame(objects.get(i), geo.getObject(i));
+        }
+    }
+
+    @Test
+    void clearForgetsSlotsButKeepsMaterials() {
+        StaticGeometry geo = StaticGeometry.of(List.of(colored(1, 0, 0), textured(WALL_TEXTURE)));
+        geo.clear();
+        assertEquals(0, geo.count);
+        assertEquals(2, geo.getMaterialCount());
+
+        geo.add(textured(WALL_TEXTURE));
+        assertEquals(1, geo.count);
+        assertEquals(1, geo.material[0]);
+    }
+
+    @Test
+    void ofDoesNotLinkTheObjects() {
+        GameObject obj = colored(1, 0, 0);
+        StaticGeometry geo = StaticGeometry.of(List.of(obj));
+        obj.setCollidable(false);
+        obj.setRotationY(90.0f);
+        assertTrue(geo.isCollidable(0));
+        assertEquals(0.0f, geo.rotationY[0]);
+    }
+
+    // -------------------------------------------------------------------------
+    // Materials
+    // -------------------------------------------------------------------------
+
+    @Test
+    void sameColorSharesAMaterial() {
+        StaticGeometry geo = StaticGeometry.of(List.of(colored(1, 0, 0), colored(0, 1, 0), colored(1, 0, 0)));
+        assertEquals(2, geo.getMaterialCount());
+        assertEquals(geo.material[0], geo.material[2]);
+        assertNotEquals(geo.material[0], geo.material[1]);
+        assertEquals(0, geo.getTextureID(0));
+        assertEquals(1.0f, geo.getMaterialColor(geo.material[0], 0));
+        assertEquals(0.0f, geo.getMaterialColor(geo.material[0], 1));
+    }
+
+    @Test
+    void texturedSlotsAreForcedToWhite() {
+        GameObject tinted = GameObject.restore(ShapeType.CUBE, 0, 0, 0, 1, 1, 1, 0.0f, 0.2f, 0.4f, 0.6f, WALL_TEXTURE, true, true);
+        StaticGeometry geo = StaticGeometry.of(List.of(textured(WALL_TEXTURE), tinted, textured(WOOD_TEXTURE)));
+
+        assertEquals(2, geo.getMaterialCount(), "the tint is ignored, so both wall slots share one material");
+        assertEquals(geo.material[0], geo.material[1]);
+        int wall = geo.material[0];
+        assertEquals(WALL_TEXTURE, geo.getMaterialTexture(wall));
+        assertEquals(WALL_TEXTURE, geo.getTextureID(1));
+        for (int channel = 0; channel < 3; channel++) {
+            assertEquals(1.0f, geo.getMaterialColor(wall, channel));
+        }
+        assertEquals(WOOD_TEXTURE, geo.getTextureID(2));
+    }
+
+    @Test
+    void whiteColorAndTextureAreDifferentMaterials() {
+        StaticGeometry geo = StaticGeometry.of(List.of(colored(1, 1, 1), textured(WALL_TEXTURE)));
+        assertEquals(2, geo.getMaterialCount());
+    }
+
+    @Test
+    void materialTableGrows() {
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            objects.add(colored(i / 40.0f, 0, 0));
+        }
+        StaticGeometry geo = StaticGeometry.of(objects);
+        assertEquals(40, geo.getMaterialCount());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i / 40.0f, geo.getMaterialColor(geo.material[i], 0));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Write-through
+    // -------------------------------------------------------------------------
+
+    @Test
+    void openingTheDoorWritesThroughToItsSlot() {
+        GameObject wall = textured(WALL_TEXTURE);
+        GameObject door = textured(WOOD_TEXTURE);
+        World world = worldOf(new ArrayList<>(List.of(wall, door)), door);
+        StaticGeometry geo = world.getGeometry();
+        assertTrue(geo.isCollidable(1));
+        assertTrue(geo.isRendered(1));
+
+        // What GamePanel does when the last key is collected
+        door.setCollidable(false);
+        door.setRendered(false);
+
+        assertFalse(geo.isCollidable(1));
+        assertFalse(geo.isRendered(1));
+        assertTrue(geo.isCube(1), "the shape bits are left alone");
+        assertTrue(geo.isCollidable(0));
+    }
+
+    @Test
+    void setColorWritesMaterialAndShowsTheSlot() {
+        GameObject obj = textured(WALL_TEXTURE);
+        obj.setRendered(false);
+        World world = worldOf(new ArrayList<>(List.of(obj)), null);
+        StaticGeometry geo = world.getGeometry();
+        assertFalse(geo.isRendered(0));
+
+        obj.setColor(0.0f, 0.5f, 1.0f);
+        assertTrue(geo.isRendered(0));
+        assertEquals(0, geo.getTextureID(0));
+        assertEquals(0.5f, geo.getMaterialColor(geo.material[0], 1));
+        assertEquals(1.0f, geo.getMaterialColor(geo.material[0], 2));
+    }
+
+    @Test
+    void setRotationWritesThrough() {
+        GameObject obj = colored(1, 0, 0);
+        World world = worldOf(new ArrayList<>(List.of(obj)), null);
+        StaticGeometry geo = world.getGeometry();
+
+        obj.setRotationY(90.0f);
+        assertEquals(90.0f, geo.rotationY[0]);
+    }
+
+    // -------------------------------------------------------------------------
+    // World.getGeometry
+    // -------------------------------------------------------------------------
+
+    @Test
+    void plainAddIsAppended() {
+        List<GameObject> objects = new ArrayList<>(List.of(colored(1, 0, 0)));
+        World world = worldOf(objects, null);
+        StaticGeometry geo = world.getGeometry();
+        float[] packedX = geo.posX;
+
+        GameObject added = new GameObject(ShapeType.CUBE, 5, 0, 0, 1, 1, 1, 0, 1, 0);
+        objects.add(added);
+        assertSame(geo, world.getGeometry());
+        assertEquals(2, geo.count);
+        assertSame(added, geo.getObject(1));
+        assertEquals(5.0f, geo.posX[1]);
+        assertSame(packedX, geo.posX, "appending within capacity doesn't repack");
+
+        added.setCollidable(false);
+        assertFalse(geo.isCollidable(1), "appended objects are linked too");
+    }
+
+    @Test
+    void markGeometryChangedRepacks() {
+        GameObject first = colored(1, 0, 0);
+        GameObject second = colored(0, 1, 0);
+        List<GameObject> objects = new ArrayList<>(List.of(first, second));
+        World world = worldOf(objects, null);
+        StaticGeometry geo = world.getGeometry();
+
+        // A streamed room unloading: objects leave from the middle of the list
+        objects.remove(first);
+        int version = world.getGeometryVersion();
+        world.markGeometryChanged();
+        assertEquals(version + 1, world.getGeometryVersion());
+
+        world.getGeometry();
+        assertEquals(1, geo.count);
+        assertSame(second, geo.getObject(0));
+
+        // The removed object is unlinked, the kept one is linked to its new slot
+        first.setCollidable(false);
+        assertTrue(geo.isCollidable(0));
+        second.setRotationY(30.0f);
+        assertEquals(30.0f, geo.rotationY[0]);
+    }
+
+    @Test
+    void shrinkingTheListWithoutMarkingStillRepacks() {
+        GameObject first = colored(1, 0, 0);
+        GameObject second = colored(0, 1, 0);
+        List<GameObject> objects = new ArrayList<>(List.of(first, second));
+        World world = worldOf(objects, null);
+        world.getGeometry();
+
+        objects.remove(0);
+        StaticGeometry geo = world.getGeometry();
+        assertEquals(1, geo.count);
+        assertSame(second, geo.getObject(0));
+    }
+}
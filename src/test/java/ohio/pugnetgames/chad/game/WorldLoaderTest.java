@@ -0,0 +1,249 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WorldLoader — a seed gives the same world however many threads
+ * build the room chunks, rebuilding one room gives the chunk the full
+ * generation built for it, and the SLOT_GRID layout keeps its promises
+ * (no overlaps, the room count, an escape, loops only when asked for).
+ */
+class WorldLoaderTest {
+
+    private static final long[] SEEDS = {1L, 42L, 12345L};
+    private static final int SLOT_GRID_SEEDS = 30;
+
+    private static GenerationOptions quietOptions() {
+        GenerationOptions options = GenerationOptions.defaults();
+        options.verboseLogging = false;
+        return options;
+    }
+
+    private static World generate(WorldLoader loader, long seed) {
+        return loader.generateWorld(1, 2, 3, 4, 5, seed, quietOptions());
+    }
+
+    /** Everything about an object that ends up in the world, as one comparable string. */
+    private static String describe(GameObject obj) {
+        return obj.getShape()
+                + " pos=" + obj.getPosX() + "," + obj.getPosY() + "," + obj.getPosZ()
+                + " scale=" + obj.getScaleX() + "," + obj.getScaleY() + "," + obj.getScaleZ()
+                + " rot=" + obj.getRotationY()
+                + " color=" + obj.getColorR() + "," + obj.getColorG() + "," + obj.getColorB()
+                + " tex=" + obj.getTextureID()
+                + " collidable=" + obj.isCollidable() + " rendered=" + obj.isRendered()
+                + " prop=" + (obj.getProp() != null);
+    }
+
+    private static List<String> describe(List<GameObject> objects) {
+        List<String> out = new ArrayList<>(objects.size());
+        for (GameObject obj : objects) {
+            out.add(describe(obj));
+        }
+        return out;
+    }
+
+    private static List<String> describeRooms(World world) {
+        List<String> out = new ArrayList<>();
+        for (Room room : world.getAllRooms()) {
+            out.add(room.index + " " + room.getType() + " " + room.minX + "," + room.minZ + "," + room.maxX + "," + room.maxZ);
+        }
+        return out;
+    }
+
+    private static GenerationOptions slotGrid(int roomCount, float loopChance) {
+        GenerationOptions options = GenerationOptions.defaults();
+        options.verboseLogging = false;
+        options.layoutAlgorithm = GenerationOptions.LayoutAlgorithm.SLOT_GRID;
+        options.roomCount = roomCount;
+        options.loopChance = loopChance;
+        return options;
+    }
+
+    private static WorldLayout slotGridLayout(long seed, int roomCount, float loopChance) {
+        return new WorldLoader().generateLayout(seed, slotGrid(roomCount, loopChance));
+    }
+
+    private static boolean overlaps(Room a, Room b) {
+        return a.minX < b.maxX && b.minX < a.maxX && a.minZ < b.maxZ && b.minZ < a.maxZ;
+    }
+
+    // -------------------------------------------------------------------------
+    // Determinism
+    // -------------------------------------------------------------------------
+
+    @Test
+    void sameSeedGivesTheSameWorld() {
+        for (long seed : SEEDS) {
+            World first = generate(new WorldLoader(), seed);
+            World second = generate(new WorldLoader(), seed);
+            assertEquals(describeRooms(first), describeRooms(second), "rooms for seed " + seed);
+            assertEquals(describe(first.getStaticObjects()), describe(second.getStaticObjects()), "objects for seed " + seed);
+        }
+    }
+
+    @Test
+    void threadCountDoesNotChangeTheWorld() throws Exception {
+        ForkJoinPool singleThread = new ForkJoinPool(1);
+        try {
+            for (long seed : SEEDS) {
+                World parallel = generate(new WorldLoader(), seed);
+                // Parallel streams started inside a pool's task run in that pool
+                World serial = singleThread.submit(() -> generate(new WorldLoader(), seed)).get();
+                assertEquals(describeRooms(parallel), describeRooms(serial), "rooms for seed " + seed);
+                assertEquals(describe(parallel.getStaticObjects()), describe(serial.getStaticObjects()),
+                        "objects for seed " + seed);
+            }
+        } finally {
+            singleThread.shutdown();
+        }
+    }
+
+    @Test
+    void differentSeedsGiveDifferentWorlds() {
+        World a = generate(new WorldLoader(), SEEDS[0]);
+        World b = generate(new WorldLoader(), SEEDS[1]);
+        assertNotEquals(describe(a.getStaticObjects()), describe(b.getStaticObjects()));
+    }
+
+    // -------------------------------------------------------------------------
+    // buildRoomChunk
+    // -------------------------------------------------------------------------
+
+    @Test
+    void rebuiltRoomChunksMatchTheGeneratedWorld() {
+        for (long seed : SEEDS) {
+            WorldLoader loader = new WorldLoader();
+            World world = generate(loader, seed);
+            List<String> generated = describe(world.getStaticObjects());
+
+            // Chunks are merged in room order, with the escape tunnel after them
+            int offset = 0;
+            for (Room room : world.getAllRooms()) {
+                List<String> chunk = describe(loader.buildRoomChunk(room));
+                assertFalse(chunk.isEmpty(), "room " + room.index + " of seed " + seed);
+                assertTrue(offset + chunk.size() <= generated.size(), "room " + room.index + " of seed " + seed);
+                assertEquals(generated.subList(offset, offset + chunk.size()), chunk,
+                        "room " + room.index + " of seed " + seed);
+                offset += chunk.size();
+            }
+            assertTrue(offset < generated.size(), "the escape tunnel comes after the rooms");
+        }
+    }
+
+    @Test
+    void rebuildingARoomTwiceGivesTheSameChunk() {
+        WorldLoader loader = new WorldLoader();
+        World world = generate(loader, SEEDS[2]);
+        for (Room room : world.getAllRooms()) {
+            assertEquals(describe(loader.buildRoomChunk(room)), describe(loader.buildRoomChunk(room)),
+                    "room " + room.index);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // SLOT_GRID: rooms
+    // -------------------------------------------------------------------------
+
+    @Test
+    void roomsNeverOverlap() {
+        for (long seed = 1; seed <= SLOT_GRID_SEEDS; seed++) {
+            List<Room> rooms = slotGridLayout(seed, 50, 0.3f).rooms;
+            for (int i = 0; i < rooms.size(); i++) {
+                for (int j = i + 1; j < rooms.size(); j++) {
+                    assertFalse(overlaps(rooms.get(i), rooms.get(j)),
+                            "seed " + seed + ": rooms " + i + " and " + j + " overlap");
+                }
+            }
+        }
+    }
+
+    @Test
+    void roomCountIsMet() {
+        // Like the random growth layout, the escape tunnel counts as the last room
+        for (int roomCount : new int[]{1, 2, 3, 10, 50, 200}) {
+            for (long seed = 1; seed <= SLOT_GRID_SEEDS; seed++) {
+                int rooms = slotGridLayout(seed, roomCount, 0.1f).rooms.size();
+                assertTrue(rooms >= Math.max(1, roomCount - 1) && rooms <= roomCount,
+                        "seed " + seed + ", roomCount " + roomCount + ": " + rooms + " rooms");
+            }
+        }
+    }
+
+    @Test
+    void roomsAreIndexedInOrder() {
+        List<Room> rooms = slotGridLayout(7L, 50, 0.1f).rooms;
+        for (int i = 0; i < rooms.size(); i++) {
+            assertEquals(i, rooms.get(i).index);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // SLOT_GRID: escape
+    // -------------------------------------------------------------------------
+
+    @Test
+    void thereIsAlwaysAnEscape() {
+        for (int roomCount : new int[]{1, 2, 3, 50}) {
+            for (long seed = 1; seed <= SLOT_GRID_SEEDS; seed++) {
+                WorldLayout layout = slotGridLayout(seed, roomCount, 0.5f);
+                assertTrue(layout.hasEscapeTunnel(), "seed " + seed + ", roomCount " + roomCount);
+                assertNull(layout.escapeTunnel.toRoom);
+                assertTrue(LayoutValidator.check(layout).isWinnable(), "seed " + seed + ", roomCount " + roomCount);
+            }
+        }
+    }
+
+    @Test
+    void escapeTunnelDoesNotRunThroughARoom() {
+        for (long seed = 1; seed <= SLOT_GRID_SEEDS; seed++) {
+            WorldLayout layout = slotGridLayout(seed, 50, 0.1f);
+            Tunnel escape = layout.escapeTunnel;
+            for (Room room : layout.rooms) {
+                if (room == escape.fromRoom) continue;
+                assertFalse(escape.minX < room.maxX && room.minX < escape.maxX
+                                && escape.minZ < room.maxZ && room.minZ < escape.maxZ,
+                        "seed " + seed + ": escape tunnel runs into room " + room.index);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // SLOT_GRID: loops
+    // -------------------------------------------------------------------------
+
+    @Test
+    void noLoopsWithoutLoopChance() {
+        for (long seed = 1; seed <= SLOT_GRID_SEEDS; seed++) {
+            WorldLayout layout = slotGridLayout(seed, 50, 0.0f);
+            // A tree: every room but the start has exactly one tunnel leading in
+            assertEquals(layout.rooms.size() - 1, layout.tunnels.size(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void loopChanceAddsExtraTunnels() {
+        for (long seed = 1; seed <= SLOT_GRID_SEEDS; seed++) {
+            WorldLayout layout = slotGridLayout(seed, 50, 1.0f);
+            assertTrue(layout.tunnels.size() > layout.rooms.size() - 1, "seed " + seed);
+        }
+    }
+
+    @Test
+    void sameSeedGivesTheSameSlotGrid() {
+        WorldLayout a = slotGridLayout(99L, 50, 0.2f);
+        WorldLayout b = slotGridLayout(99L, 50, 0.2f);
+        assertEquals(a.rooms.size(), b.rooms.size());
+        assertEquals(a.tunnels.size(), b.tunnels.size());
+        for (int i = 0; i < a.rooms.size(); i++) {
+            assertEquals(a.rooms.get(i).minX, b.rooms.get(i).minX);
+            assertEquals(a.rooms.get(i).minZ, b.rooms.get(i).minZ);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package ohio.pugnetgames.chad.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for WorldSnapshot — the fingerprint that decides whether a saved world
+ * still matches what would be generated, and the save/load round trip.
+ */
+class WorldSnapshotTest {
+
+    private static final long SEED = 12345L;
+    private static final int KEYS = 3;
+    private static final int[] TEXTURES = {1, 2, 3, 4, 5};
+
+    @TempDir
+    Path tempDir;
+
+    private static long fingerprint(GenerationOptions options) {
+        return WorldSnapshot.fingerprint(SEED, options, KEYS, false, false);
+    }
+
+    // -------------------------------------------------------------------------
+    // fingerprint
+    // -------------------------------------------------------------------------
+
+    @Test
+    void sameInputsGiveTheSameFingerprint() {
+        assertEquals(fingerprint(GenerationOptions.defaults()), fingerprint(GenerationOptions.defaults()));
+    }
+
+    @Test
+    void seedAndKeyCountChangeTheFingerprint() {
+        GenerationOptions options = GenerationOptions.defaults();
+        long base = fingerprint(options);
+        assertNotEquals(base, WorldSnapshot.fingerprint(SEED + 1, options, KEYS, false, false));
+        assertNotEquals(base, WorldSnapshot.fingerprint(SEED, options, KEYS + 1, false, false));
+    }
+
+    @Test
+    void generationOptionsChangeTheFingerprint() {
+        long base = fingerprint(GenerationOptions.defaults());
+
+        GenerationOptions rooms = GenerationOptions.defaults();
+        rooms.roomCount++;
+        assertNotEquals(base, fingerprint(rooms));
+
+        GenerationOptions layout = GenerationOptions.defaults();
+        layout.layoutAlgorithm = GenerationOptions.LayoutAlgorithm.SLOT_GRID;
+        assertNotEquals(base, fingerprint(layout));
+
+        GenerationOptions loops = GenerationOptions.defaults();
+        loops.loopChance = 0.5f;
+        assertNotEquals(base, fingerprint(loops));
+
+        GenerationOptions visibleSets = GenerationOptions.defaults();
+        visibleSets.computeVisibleSets = !visibleSets.computeVisibleSets;
+        assertNotEquals(base, fingerprint(visibleSets));
+    }
+
+    @Test
+    void roomTypeBuildFlagsChangeTheFingerprint() {
+        GenerationOptions options = GenerationOptions.defaults();
+        long base = fingerprint(options);
+        long courtyards = WorldSnapshot.fingerprint(SEED, options, KEYS, true, false);
+        long bedrooms = WorldSnapshot.fingerprint(SEED, options, KEYS, false, true);
+        assertNotEquals(base, courtyards);
+        assertNotEquals(base, bedrooms);
+        assertNotEquals(courtyards, bedrooms);
+    }
+
+    @Test
+    void loggingDoesNotChangeTheFingerprint() {
+        GenerationOptions quiet = GenerationOptions.defaults();
+        quiet.verboseLogging = false;
+        assertEquals(fingerprint(GenerationOptions.defaults()), fingerprint(quiet));
+    }
+
+    // -------------------------------------------------------------------------
+    // save / load round trip
+    // -------------------------------------------------------------------------
+
+    private static GenerationOptions roundTripOptions() {
+        GenerationOptions options = GenerationOptions.defaults();
+        options.verboseLogging = false;
+        options.computeVisibleSets = true;
+        return options;
+    }
+
+    private static World generate(GenerationOptions options) {
+        return new WorldLoader().generateWorld(TEXTURES[0], TEXTURES[1], TEXTURES[2], TEXTURES[3], TEXTURES[4],
+                SEED, options);
+    }
+
+    private static List<Key> keysIn(World world) {
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < KEYS; i++) {
+            Room room = world.getAllRooms().get(i + 1);
+            keys.add(new Key(room.getCenterX(), 0.5f, room.getCenterZ()));
+        }
+        return keys;
+    }
+
+    /** Saves a freshly generated world and returns the file. */
+    private Path saveWorld(World world, List<Key> keys, PathfindingManager pathfinder, long fingerprint) {
+        Path file = tempDir.resolve("world.snapshot");
+        WorldSnapshot.save(file, fingerprint, world, keys, pathfinder, TEXTURES);
+        assertTrue(Files.exists(file));
+        return file;
+    }
+
+    @Test
+    void roundTripRestoresTheWholeWorld() {
+        GenerationOptions options = roundTripOptions();
+        long fingerprint = fingerprint(options);
+        World world = generate(options);
+        List<Key> keys = keysIn(world);
+        PathfindingManager pathfinder = new PathfindingManager();
+        pathfinder.buildGrid(world);
+        Path file = saveWorld(world, keys, pathfinder, fingerprint);
+
+        WorldSnapshot snapshot = WorldSnapshot.load(file, fingerprint, TEXTURES);
+        assertNotNull(snapshot);
+        World loaded = snapshot.world;
+
+        // Rooms
+        assertEquals(world.getAllRooms().size(), loaded.getAllRooms().size());
+        for (int i = 0; i < world.getAllRooms().size(); i++) {
+            Room a = world.getAllRooms().get(i), b = loaded.getAllRooms().get(i);
+            assertEquals(a.minX, b.minX);
+            assertEquals(a.minZ, b.minZ);
+            assertEquals(a.maxX, b.maxX);
+            assertEquals(a.maxZ, b.maxZ);
+            assertEquals(a.getType(), b.getType());
+            assertEquals(i, b.index);
+            assertEquals(a.northWallUsed, b.northWallUsed);
+            assertEquals(a.southWallUsed, b.southWallUsed);
+            assertEquals(a.eastWallUsed, b.eastWallUsed);
+            assertEquals(a.westWallUsed, b.westWallUsed);
+            assertEquals(a.keySpawnLocations.size(), b.keySpawnLocations.size());
+            for (int s = 0; s < a.keySpawnLocations.size(); s++) {
+                assertArrayEquals(a.keySpawnLocations.get(s), b.keySpawnLocations.get(s));
+            }
+        }
+
+        // Tunnels
+        List<RoomGraph.Connection> before = world.getRoomGraph().getConnections();
+        List<RoomGraph.Connection> after = loaded.getRoomGraph().getConnections();
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            Tunnel a = before.get(i).tunnel, b = after.get(i).tunnel;
+            assertEquals(a.minX, b.minX);
+            assertEquals(a.maxZ, b.maxZ);
+            assertEquals(a.direction, b.direction);
+            assertEquals(a.fromRoom.index, b.fromRoom.index);
+            assertEquals(a.isEscape(), b.isEscape());
+            if (!a.isEscape()) {
+                assertEquals(a.toRoom.index, b.toRoom.index);
+            }
+        }
+        assertNotNull(loaded.getRoomGraph().getEscape());
+
+        // Static objects, props, door and trigger
+        List<GameObject> objects = world.getStaticObjects();
+        List<GameObject> restored = loaded.getStaticObjects();
+        assertEquals(objects.size(), restored.size());
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject a = objects.get(i), b = restored.get(i);
+            assertEquals(a.getShape(), b.getShape());
+            assertEquals(a.getPosX(), b.getPosX());
+            assertEquals(a.getPosY(), b.getPosY());
+            assertEquals(a.getPosZ(), b.getPosZ());
+            assertEquals(a.getScaleX(), b.getScaleX());
+            assertEquals(a.getScaleY(), b.getScaleY());
+            assertEquals(a.getScaleZ(), b.getScaleZ());
+            assertEquals(a.getRotationY(), b.getRotationY());
+            assertEquals(a.getColorR(), b.getColorR());
+            assertEquals(a.getTextureID(), b.getTextureID());
+            assertEquals(a.isCollidable(), b.isCollidable());
+            assertEquals(a.isRendered(), b.isRendered());
+            assertEquals(a.getProp() == null, b.getProp() == null, "prop of object " + i);
+            if (a.getProp() != null) {
+                assertSame(a.getProp().prefab, b.getProp().prefab);
+                assertEquals(a.getProp().x, b.getProp().x);
+                assertEquals(a.getProp().z, b.getProp().z);
+            }
+        }
+        assertEquals(objects.indexOf(world.getEscapeDoor()), restored.indexOf(loaded.getEscapeDoor()));
+        assertEquals(objects.indexOf(world.getWinTrigger()), restored.indexOf(loaded.getWinTrigger()));
+        assertNotNull(loaded.getWinTrigger());
+
+        // Keys
+        assertEquals(KEYS, snapshot.keyPositions.size());
+        for (int i = 0; i < KEYS; i++) {
+            Key key = keys.get(i);
+            assertArrayEquals(new float[]{key.x, key.y, key.z}, snapshot.keyPositions.get(i));
+        }
+
+        // Nav grid
+        PathfindingManager grid = snapshot.pathfinder;
+        assertEquals(pathfinder.getTileCount(), grid.getTileCount());
+        assertEquals(pathfinder.getWorldMinX(), grid.getWorldMinX());
+        assertEquals(pathfinder.getWorldMaxZ(), grid.getWorldMaxZ());
+        for (Room room : world.getAllRooms()) {
+            int x = pathfinder.worldToGridX(room.getCenterX());
+            int z = pathfinder.worldToGridZ(room.getCenterZ());
+            assertEquals(pathfinder.isWalkable(x, z), grid.isWalkable(x, z));
+        }
+
+        // Visible sets
+        assertNotNull(world.getVisibleSets());
+        assertNotNull(loaded.getVisibleSets());
+        for (int i = 0; i < world.getAllRooms().size(); i++) {
+            List<Room> a = world.getVisibleSets().get(world.getAllRooms().get(i));
+            List<Room> b = loaded.getVisibleSets().get(loaded.getAllRooms().get(i));
+            assertEquals(a.size(), b.size());
+            for (int r = 0; r < a.size(); r++) {
+                assertEquals(a.get(r).index, b.get(r).index);
+            }
+        }
+    }
+
+    @Test
+    void worldWithoutVisibleSetsRoundTripsWithout() {
+        GenerationOptions options = roundTripOptions();
+        options.computeVisibleSets = false;
+        World world = generate(options);
+        PathfindingManager pathfinder = new PathfindingManager();
+        pathfinder.buildGrid(world);
+        Path file = saveWorld(world, keysIn(world), pathfinder, fingerprint(options));
+
+        WorldSnapshot snapshot = WorldSnapshot.load(file, fingerprint(options), TEXTURES);
+        assertNotNull(snapshot);
+        assertNull(snapshot.world.getVisibleSets());
+    }
+
+    @Test
+    void loadedTexturesFollowTheNewTextureIds() {
+        GenerationOptions options = roundTripOptions();
+        World world = generate(options);
+        PathfindingManager pathfinder = new PathfindingManager();
+        pathfinder.buildGrid(world);
+        Path file = saveWorld(world, keysIn(world), pathfinder, fingerprint(options));
+
+        // Next session the same textures got different GL IDs
+        int[] newIds = {11, 12, 13, 14, 15};
+        WorldSnapshot snapshot = WorldSnapshot.load(file, fingerprint(options), newIds);
+        assertNotNull(snapshot);
+        List<GameObject> objects = world.getStaticObjects();
+        for (int i = 0; i < objects.size(); i++) {
+            int oldId = objects.get(i).getTextureID();
+            int expected = oldId == 0 ? 0 : newIds[Arrays.binarySearch(TEXTURES, oldId)];
+            assertEquals(expected, snapshot.world.getStaticObjects().get(i).getTextureID());
+        }
+    }
+
+    @Test
+    void wrongFingerprintIsIgnored() {
+        GenerationOptions options = roundTripOptions();
+        World world = generate(options);
+        PathfindingManager pathfinder = new PathfindingManager();
+        pathfinder.buildGrid(world);
+        Path file = saveWorld(world, keysIn(world), pathfinder, fingerprint(options));
+
+        assertNull(WorldSnapshot.load(file, fingerprint(options) + 1, TEXTURES));
+    }
+
+    @Test
+    void missingFileLoadsAsNull() {
+        assertNull(WorldSnapshot.load(tempDir.resolve("nothing.snapshot"), 1L, TEXTURES));
+    }
+
+    @Test
+    void fileThatIsNotASnapshotIsIgnored() throws IOException {
+        Path file = tempDir.resolve("garbage.snapshot");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        assertNull(WorldSnapshot.load(file, 1L, TEXTURES));
+    }
+
+    @Test
+    void truncatedSnapshotIsIgnored() throws IOException {
+        GenerationOptions options = roundTripOptions();
+        World world = generate(options);
+        PathfindingManager pathfinder = new PathfindingManager();
+        pathfinder.buildGrid(world);
+        Path file = saveWorld(world, keysIn(world), pathfinder, fingerprint(options));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(WorldSnapshot.load(file, fingerprint(options), TEXTURES));
+    }
+}